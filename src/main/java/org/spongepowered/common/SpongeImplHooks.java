@@ -231,6 +231,10 @@ public static Iterator<Chunk> getChunkIterator(final WorldServer world) {
         return world.getPlayerChunkMap().getChunkIterator();
     }
 
+    public static void onChunkWatched(final EntityPlayerMP player, final Chunk chunk) {
+        // Overwritten in SpongeForge
+    }
+
     public static void registerPortalAgentType(@Nullable final ForgeITeleporterBridge teleporter) {
         // Overwritten in SpongeForge
     }
@@ -0,0 +1,117 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.block;
+
+import net.minecraft.block.BlockChest;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.tileentity.TileEntityChest;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.bridge.optimization.EventDrivenHopperBridge;
+import org.spongepowered.common.bridge.world.chunk.ChunkProviderBridge;
+
+import javax.annotation.Nullable;
+
+/**
+ * Wakes up sleeping hoppers when something they interact with changes.
+ * Hoppers only go to sleep when the event driven hoppers optimization is
+ * enabled.
+ */
+public final class EventDrivenHoppers {
+
+    /**
+     * Gets the amount of ticks after which sleeping hoppers check their
+     * surroundings anyways.
+     *
+     * @return The interval in ticks
+     */
+    public static int getIdleCheckInterval() {
+        return Math.max(1, SpongeImpl.getGlobalConfigAdapter().getConfig().getOptimizations().getEventDrivenHoppersCategory().getIdleCheckInterval());
+    }
+
+    /**
+     * Wakes up the hoppers that may interact with the inventory of a tile
+     * entity whose contents changed. For chests, the hoppers around the
+     * other half of a double chest are included.
+     *
+     * @param tileEntity The tile entity
+     */
+    public static void onInventoryChanged(TileEntity tileEntity) {
+        final World world = tileEntity.getWorld();
+        final BlockPos pos = tileEntity.getPos();
+        wakeAround(world, pos);
+        if (tileEntity instanceof TileEntityChest) {
+            final BlockChest.Type type = ((TileEntityChest) tileEntity).getChestType();
+            for (EnumFacing facing : EnumFacing.Plane.HORIZONTAL) {
+                final BlockPos neighbor = pos.offset(facing);
+                final TileEntity other = getLoadedTileEntity(world, neighbor);
+                if (other instanceof TileEntityChest && ((TileEntityChest) other).getChestType() == type) {
+                    wakeAround(world, neighbor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Wakes up the hoppers directly next to a position.
+     *
+     * @param world The world
+     * @param pos The position
+     */
+    public static void wakeAround(World world, BlockPos pos) {
+        final BlockPos.MutableBlockPos neighbor = new BlockPos.MutableBlockPos();
+        for (EnumFacing facing : EnumFacing.values()) {
+            wake(world, neighbor.setPos(pos.getX() + facing.getXOffset(), pos.getY() + facing.getYOffset(), pos.getZ() + facing.getZOffset()));
+        }
+    }
+
+    /**
+     * Wakes up the hopper at a position, if there is one.
+     *
+     * @param world The world
+     * @param pos The position
+     */
+    public static void wake(World world, BlockPos pos) {
+        final TileEntity tileEntity = getLoadedTileEntity(world, pos);
+        if (tileEntity instanceof EventDrivenHopperBridge && ((EventDrivenHopperBridge) tileEntity).hopperBridge$isSleeping()) {
+            ((EventDrivenHopperBridge) tileEntity).hopperBridge$wakeUp();
+        }
+    }
+
+    @Nullable
+    private static TileEntity getLoadedTileEntity(World world, BlockPos pos) {
+        if (pos.getY() < 0 || pos.getY() >= 256) {
+            return null;
+        }
+        final Chunk chunk = ((ChunkProviderBridge) world.getChunkProvider()).bridge$getLoadedChunkWithoutMarkingActive(pos.getX() >> 4, pos.getZ() >> 4);
+        return chunk == null ? null : chunk.getTileEntity(pos, Chunk.EnumCreateEntityType.CHECK);
+    }
+
+    private EventDrivenHoppers() {
+    }
+}
@@ -40,6 +40,8 @@
 import java.util.List;
 import java.util.Optional;
 
+import javax.annotation.Nullable;
+
 public interface CustomDataHolderBridge {
 
     DataTransactionResult bridge$offerCustom(DataManipulator<?, ?> manipulator, MergeFunction function);
@@ -86,6 +88,21 @@ public interface CustomDataHolderBridge {
         }
     }
 
+    /**
+     * Gets the custom manipulator tag list that was last serialized for this
+     * holder, or {@code null} if the custom data has changed since then and
+     * needs to be serialized again.
+     *
+     * @return The cached tag list, if still valid
+     */
+    @Nullable
+    default NBTTagList bridge$getCachedCustomData() {
+        return null;
+    }
+
+    default void bridge$setCachedCustomData(@Nullable NBTTagList tagList) {
+    }
+
     void bridge$addFailedData(ImmutableList<DataView> failedData);
 
     List<DataView> bridge$getFailedData();
@@ -25,6 +25,7 @@
 package org.spongepowered.common.bridge.network;
 
 import org.spongepowered.api.MinecraftVersion;
+import org.spongepowered.common.network.PacketBroadcast;
 
 import java.net.InetSocketAddress;
 
@@ -39,4 +40,14 @@ public interface NetworkManagerBridge {
     MinecraftVersion bridge$getVersion();
 
     void bridge$setVersion(int version);
+
+    /**
+     * Writes the already encoded packet of a broadcast to the channel.
+     * Returns false if the packet has to be sent through the regular path,
+     * for example because other packets are still queued.
+     *
+     * @param broadcast The broadcast
+     * @return Whether the encoded packet was written
+     */
+    boolean bridge$sendEncodedPacket(PacketBroadcast broadcast);
 }
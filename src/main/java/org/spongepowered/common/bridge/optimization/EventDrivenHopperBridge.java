@@ -0,0 +1,55 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.bridge.optimization;
+
+public interface EventDrivenHopperBridge {
+
+    /**
+     * Wakes the hopper up if it is sleeping, so that it tries to move items
+     * on its next update.
+     */
+    void hopperBridge$wakeUp();
+
+    boolean hopperBridge$isSleeping();
+
+    /**
+     * Called when the contents of the hopper may have changed.
+     */
+    void hopperBridge$onContentsChanged();
+
+    /**
+     * Gets whether none of the slots of the hopper hold an item.
+     *
+     * @return Whether the hopper is empty
+     */
+    boolean hopperBridge$isEmpty();
+
+    /**
+     * Gets whether all the slots of the hopper hold a full stack.
+     *
+     * @return Whether the hopper is full
+     */
+    boolean hopperBridge$isFull();
+}
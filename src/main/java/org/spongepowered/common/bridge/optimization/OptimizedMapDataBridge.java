@@ -42,4 +42,12 @@ public interface OptimizedMapDataBridge {
     void mapOptimizationBridge$updateItemFrameDecoration(EntityItemFrame frame);
 
     void mapOptimizationBridge$removeItemFrame(EntityItemFrame frame);
+
+    /**
+     * Gets the dimension the map shows, which is a byte on SpongeVanilla
+     * and an int on SpongeForge.
+     *
+     * @return The dimension id
+     */
+    int mapOptimizationBridge$getDimension();
 }
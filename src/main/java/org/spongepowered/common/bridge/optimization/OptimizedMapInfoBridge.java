@@ -24,9 +24,29 @@
  */
 package org.spongepowered.common.bridge.optimization;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import net.minecraft.item.ItemStack;
+import net.minecraft.network.Packet;
+import net.minecraft.world.storage.MapData;
+
+import javax.annotation.Nullable;
+
 public interface OptimizedMapInfoBridge {
 
     void mapOptimizationBridge$setValid(boolean valid);
 
     boolean mapOptimizationBridge$isValid();
+
+    /**
+     * Same as {@link MapData.MapInfo#getPacket(ItemStack)}, except that
+     * the packet is taken from the given map if another player with the
+     * same pending changes already created it.
+     *
+     * @param mapData The map data this info belongs to
+     * @param stack The map item
+     * @param sharedPackets The packets created so far for the map, keyed by their changed area
+     * @return The packet, or null if there is nothing to send
+     */
+    @Nullable
+    Packet<?> mapOptimizationBridge$getSharedPacket(MapData mapData, ItemStack stack, Long2ObjectMap<Packet<?>> sharedPackets);
 }
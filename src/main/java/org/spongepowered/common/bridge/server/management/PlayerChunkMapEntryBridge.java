@@ -33,6 +33,12 @@ public interface PlayerChunkMapEntryBridge {
 
     void bridge$markBiomesForUpdate();
 
+    /**
+     * Marks the whole chunk to be sent again to the watching players on the
+     * next update, instead of the individually changed blocks.
+     */
+    void bridge$markChunkForResend();
+
     // TODO Mixin 0.8
     @Deprecated
     List<EntityPlayerMP> accessor$getPlayers();
@@ -107,6 +107,7 @@
 import org.spongepowered.common.entity.EntityUtil;
 import org.spongepowered.common.event.SpongeEventManager;
 import org.spongepowered.common.mixin.core.world.WorldAccessor;
+import org.spongepowered.common.util.OptimizationStats;
 import org.spongepowered.common.util.SpongeHooks;
 
 import java.io.File;
@@ -224,6 +225,7 @@ public static CommandSpec createSpongeCommand() {
         nonFlagChildren.register(createSpongeTimingsCommand(), "timings");
         nonFlagChildren.register(createSpongeWhichCommand(), "which");
         nonFlagChildren.register(createSpongeMetricsCommand(), "metrics");
+        nonFlagChildren.register(createSpongeOptimizationsCommand(), "optimizations");
         flagChildren.register(createSpongeChunksCommand(), "chunks");
         flagChildren.register(createSpongeTPSCommand(), "tps");
         trackerFlagChildren.register(createSpongeConfigCommand(), "config");
@@ -246,6 +248,7 @@ INDENT, title("plugins"), LONG_INDENT, "List currently installed plugins\n",
                 INDENT, title("which"), LONG_INDENT, "List plugins that own a specific command\n",
                 INDENT, title("tps"), LONG_INDENT, "Provides TPS (ticks per second) data for loaded worlds\n",
                 INDENT, title("metrics"), LONG_INDENT, "Gets or sets permission for metric plugins to operate\n",
+                INDENT, title("optimizations"), LONG_INDENT, "Prints the counters of the enabled optimizations\n",
                 SpongeImplHooks.getAdditionalCommandDescriptions()))
             .arguments(firstParsing(nonFlagChildren,
                 flags().flag("-global", "g")
@@ -497,6 +500,24 @@ private static CommandSpec createSpongeHeapCommand() {
 
     }
 
+    private static CommandSpec createSpongeOptimizationsCommand() {
+        return CommandSpec.builder()
+            .description(Text.of("Prints the counters of the enabled optimizations"))
+            .permission("sponge.command.optimizations")
+            .executor((src, args) -> {
+                final Map<String, Long> counts = OptimizationStats.getCounts();
+                if (counts.isEmpty()) {
+                    src.sendMessage(Text.of("No optimization has counted anything yet"));
+                    return CommandResult.success();
+                }
+                final Text.Builder builder = Text.builder("Optimization counters:");
+                counts.forEach((name, count) -> builder.append(NEWLINE_TEXT, Text.of(TextColors.GRAY, INDENT + name, ": "), Text.of(count)));
+                src.sendMessage(builder.build());
+                return CommandResult.success();
+            })
+            .build();
+    }
+
     private static final Text IMPLEMENTATION_NAME = Text.of(TextColors.YELLOW, TextStyles.BOLD,
         Sponge.getPlatform().getContainer(IMPLEMENTATION).getName());
 
@@ -0,0 +1,72 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.config.category;
+
+import ninja.leaping.configurate.objectmapping.Setting;
+import ninja.leaping.configurate.objectmapping.serialize.ConfigSerializable;
+
+@ConfigSerializable
+public class ChunkSendQueueCategory extends ConfigCategory {
+
+    @Setting(value = "enabled", comment = "If 'true', chunks are sent to each player from a queue, closest chunks first,\n"
+                                          + "at a rate that adapts to how fast the player's connection accepts data.")
+    private boolean enabled = false;
+
+    @Setting(value = "min-chunks-per-tick", comment = "The amount of chunks that are sent to a player per tick while their\n"
+                                                      + "connection is backed up. (Default: 1)")
+    private int minChunksPerTick = 1;
+
+    @Setting(value = "max-chunks-per-tick", comment = "The maximum amount of chunks that are sent to a player per tick. (Default: 16)")
+    private int maxChunksPerTick = 16;
+
+    @Setting(value = "overloaded-tick-time", comment = "The average tick time, in milliseconds, above which the distance chunks are\n"
+                                                       + "sent to is reduced every second until the server recovers. Chunks\n"
+                                                       + "that were already sent are kept. (Default: 45)")
+    private int overloadedTickTime = 45;
+
+    @Setting(value = "min-view-distance", comment = "The distance, in chunks, that chunks are always sent to, no matter the\n"
+                                                    + "load of the server. (Default: 4)")
+    private int minViewDistance = 4;
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public int getMinChunksPerTick() {
+        return this.minChunksPerTick;
+    }
+
+    public int getMaxChunksPerTick() {
+        return this.maxChunksPerTick;
+    }
+
+    public int getOverloadedTickTime() {
+        return this.overloadedTickTime;
+    }
+
+    public int getMinViewDistance() {
+        return this.minViewDistance;
+    }
+}
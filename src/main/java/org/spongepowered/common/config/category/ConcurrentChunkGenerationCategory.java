@@ -0,0 +1,76 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.config.category;
+
+import ninja.leaping.configurate.objectmapping.Setting;
+import ninja.leaping.configurate.objectmapping.serialize.ConfigSerializable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigSerializable
+public class ConcurrentChunkGenerationCategory extends ConfigCategory {
+
+    @Setting(value = "enabled", comment = "If 'true', the terrain of chunks next to newly generated chunks is generated\n"
+                                          + "ahead of time on worker threads, for worlds using a custom world generator\n"
+                                          + "whose biome generator and generation populators are all listed below.")
+    private boolean enabled = false;
+
+    @Setting(value = "num-threads", comment = "The amount of threads to dedicate for generating terrain ahead of time. (Default: 2)")
+    private int numThreads = 2;
+
+    @Setting(value = "max-pending-chunks", comment = "The maximum amount of chunks per world that are being generated or waiting\n"
+                                                     + "to be used. Each of them takes up about 130 KB of memory. (Default: 64)")
+    private int maxPendingChunks = 64;
+
+    @Setting(value = "prefetch-radius", comment = "The radius in chunks around a newly generated chunk in which missing chunks\n"
+                                                  + "are generated ahead of time. (Default: 2)")
+    private int prefetchRadius = 2;
+
+    @Setting(value = "thread-safe-generators", comment = "The fully qualified class names of the base generators, generation populators,\n"
+                                                         + "biome generators and ground cover functions that are safe to run on other\n"
+                                                         + "threads. They may only change the block and biome buffers they are given.")
+    private List<String> threadSafeGenerators = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public int getNumThreads() {
+        return this.numThreads;
+    }
+
+    public int getMaxPendingChunks() {
+        return this.maxPendingChunks;
+    }
+
+    public int getPrefetchRadius() {
+        return this.prefetchRadius;
+    }
+
+    public List<String> getThreadSafeGenerators() {
+        return this.threadSafeGenerators;
+    }
+}
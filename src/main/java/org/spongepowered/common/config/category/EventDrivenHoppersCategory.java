@@ -0,0 +1,50 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.config.category;
+
+import ninja.leaping.configurate.objectmapping.Setting;
+import ninja.leaping.configurate.objectmapping.serialize.ConfigSerializable;
+
+@ConfigSerializable
+public class EventDrivenHoppersCategory extends ConfigCategory {
+
+    @Setting(value = "enabled", comment = "If 'true', hoppers that could not move any items go to sleep until one of the\n"
+                                          + "inventories next to them changes, a block next to them changes or an item\n"
+                                          + "lands above them.")
+    private boolean enabled = false;
+
+    @Setting(value = "idle-check-interval", comment = "The amount of ticks after which a sleeping hopper checks its surroundings\n"
+                                                      + "anyways. This covers inventories that can't notify hoppers, such as\n"
+                                                      + "minecarts with chests. (Default: 20)")
+    private int idleCheckInterval = 20;
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public int getIdleCheckInterval() {
+        return this.idleCheckInterval;
+    }
+}
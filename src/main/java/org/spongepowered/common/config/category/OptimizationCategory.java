@@ -55,6 +55,10 @@ public class OptimizationCategory extends ConfigCategory {
     @Setting(value = "async-lighting", comment = "Runs lighting updates asynchronously.")
     private AsyncLightingCategory asyncLightingCategory = new AsyncLightingCategory();
 
+    @Setting(value = "concurrent-chunk-generation", comment = "Generates the terrain of chunks that are likely to be requested soon on\n"
+                                                              + "worker threads, for custom world generators that are marked as thread safe.")
+    private ConcurrentChunkGenerationCategory concurrentChunkGenerationCategory = new ConcurrentChunkGenerationCategory();
+
     @Setting(value = "eigen-redstone", comment = "Uses theosib's redstone algorithms to completely overhaul the way redstone works.")
     private EigenRedstoneCategory eigenRedstonCategory = new EigenRedstoneCategory();
 
@@ -88,6 +92,9 @@ public class OptimizationCategory extends ConfigCategory {
             + "It is strongly reccomended to keep this on, unless explicitly advised otherwise by a Sponge developer")
     private boolean mapOptimization = true;
 
+    @Setting(value = "async-map-rendering", comment = "Samples the colors of maps held by players on worker threads.")
+    private AsyncMapRenderingCategory asyncMapRenderingCategory = new AsyncMapRenderingCategory();
+
     @Setting(value = "optimize-hoppers", comment = "Based on Aikar's optimizationo of Hoppers, setting this to 'true'\n"
                                                    + "will allow for hoppers to save performing server -> client updates\n"
                                                    + "when transferring items. Because hoppers can transfer items multiple\n"
@@ -99,6 +106,10 @@ public class OptimizationCategory extends ConfigCategory {
                                                    + "for more details.")
     private boolean optimizeHoppers = false;
 
+    @Setting(value = "event-driven-hoppers", comment = "Lets idle hoppers sleep until something around them changes, instead of\n"
+                                                       + "checking their surroundings every tick.")
+    private EventDrivenHoppersCategory eventDrivenHoppersCategory = new EventDrivenHoppersCategory();
+
     @Setting(value = "use-active-chunks-for-collisions", comment = "Vanilla performs a lot of is area loaded checks during\n"
                                                                    + "entity collision calculations with blocks, and because\n"
                                                                    + "these calculations require fetching the chunks to see\n"
@@ -119,6 +130,61 @@ public class OptimizationCategory extends ConfigCategory {
             "suppress the exceptions printing out in the log.")
     private boolean disableFailingAdvancementDeserialization = true;
 
+    @Setting(value = "parallel-data-registration", comment = "If 'true', the registered data and value processors are sorted by\n"
+                                                             + "priority concurrently when data registration finishes during startup.\n"
+                                                             + "The processors themselves are always constructed and registered in\n"
+                                                             + "order on the main thread, so this only affects startup time.")
+    private boolean parallelDataRegistration = false;
+
+    @Setting(value = "bulk-block-workers", comment = "If 'true', block workers that write into a loaded world or chunk (for example\n"
+                                                     + "when pasting large schematics) write straight into the chunk sections instead\n"
+                                                     + "of setting every block individually. Lighting and height maps are recalculated\n"
+                                                     + "once per chunk and each chunk is resent to players once. Neighbor updates and\n"
+                                                     + "block physics are not performed for those blocks, and block change events are\n"
+                                                     + "fired once for the whole operation.")
+    private boolean bulkBlockWorkers = false;
+
+    @Setting(value = "off-heap-block-buffer-threshold", comment = "The number of blocks from which block buffers and block copies of worlds and\n"
+                                                                  + "chunks are stored outside of the java heap. This keeps very large copies\n"
+                                                                  + "(for example of a whole region) from filling up the heap and causing long\n"
+                                                                  + "garbage collection pauses. The memory is still only freed once the buffer\n"
+                                                                  + "is garbage collected. Set to 0 to always use the heap.")
+    private int offHeapBlockBufferThreshold = 0;
+
+    @Setting(value = "memory-mapped-block-buffers", comment = "If 'true', off heap block buffers are backed by a memory mapped temporary\n"
+                                                              + "file instead of direct memory, so the operating system can page them out.\n"
+                                                              + "Direct memory is limited by the '-XX:MaxDirectMemorySize' JVM argument.")
+    private boolean memoryMappedBlockBuffers = false;
+
+    @Setting(value = "shared-packet-broadcasts", comment = "If 'true', packets that are sent to many players at once (particles, sounds,\n"
+                                                           + "entity tracker and chunk updates) are encoded and compressed once and the\n"
+                                                           + "same bytes are written to every connection, instead of encoding the packet\n"
+                                                           + "again for each player. Mods or plugins that modify outgoing packets in the\n"
+                                                           + "network pipeline won't see those packets anymore.")
+    private boolean sharedPacketBroadcasts = false;
+
+    @Setting(value = "flush-consolidation", comment = "Flushes player connections once per tick instead of once per packet.")
+    private FlushConsolidationCategory flushConsolidationCategory = new FlushConsolidationCategory();
+
+    @Setting(value = "incremental-entity-tracking", comment = "If 'true', the entity tracker indexes players and tracked entities by chunk\n"
+                                                              + "every tick and only checks whether an entity is visible to the players\n"
+                                                              + "near it, instead of checking every entity against every player in the\n"
+                                                              + "world whenever a player moves.")
+    private boolean incrementalEntityTracking = false;
+
+    @Setting(value = "chunk-section-cache", comment = "If 'true', the serialized blocks of chunk sections are cached and reused by\n"
+                                                      + "chunk packets until the section changes, instead of serializing every\n"
+                                                      + "section again for each player that loads the chunk.")
+    private boolean chunkSectionCache = false;
+
+    @Setting(value = "chunk-send-queue", comment = "Sends chunks to players closest first, at a rate adapted to their connection\n"
+                                                   + "and the load of the server.")
+    private ChunkSendQueueCategory chunkSendQueueCategory = new ChunkSendQueueCategory();
+
+    @Setting(value = "particle-batching", comment = "Merges the particle effects spawned by plugins during a tick and limits how\n"
+                                                    + "many particles are sent to each player.")
+    private ParticleBatchingCategory particleBatchingCategory = new ParticleBatchingCategory();
+
     public OptimizationCategory() {
         try {
             // Enabled by default on SpongeVanilla, disabled by default on SpongeForge.
@@ -142,6 +208,14 @@ public boolean useMapOptimization() {
         return this.mapOptimization;
     }
 
+    public AsyncMapRenderingCategory getAsyncMapRenderingCategory() {
+        return this.asyncMapRenderingCategory;
+    }
+
+    public boolean useAsyncMapRendering() {
+        return this.mapOptimization && this.asyncMapRenderingCategory.isEnabled();
+    }
+
     /**
      * This defines whether items can be pre-merged as item stacks, prior to spawning an entity. This has the ramification
      * that some items are simply "dropped" and some other items during particular contexts, say when a mod is performing
@@ -167,6 +241,14 @@ public boolean useAsyncLighting() {
         return this.asyncLightingCategory.isEnabled();
     }
 
+    public ConcurrentChunkGenerationCategory getConcurrentChunkGenerationCategory() {
+        return this.concurrentChunkGenerationCategory;
+    }
+
+    public boolean useConcurrentChunkGeneration() {
+        return this.concurrentChunkGenerationCategory.isEnabled();
+    }
+
     public EigenRedstoneCategory getEigenRedstoneCategory() {
         return this.eigenRedstonCategory;
     }
@@ -195,6 +277,14 @@ public boolean isOptimizeHoppers() {
         return this.optimizeHoppers;
     }
 
+    public EventDrivenHoppersCategory getEventDrivenHoppersCategory() {
+        return this.eventDrivenHoppersCategory;
+    }
+
+    public boolean useEventDrivenHoppers() {
+        return this.eventDrivenHoppersCategory.isEnabled();
+    }
+
     public boolean isUseActiveChunkForCollisions() {
         return this.useActiveChunkForCollisions;
     }
@@ -203,4 +293,56 @@ public boolean disableFailingAdvancementDeserialization() {
         return this.disableFailingAdvancementDeserialization;
     }
 
+    public boolean useParallelDataRegistration() {
+        return this.parallelDataRegistration;
+    }
+
+    public boolean useBulkBlockWorkers() {
+        return this.bulkBlockWorkers;
+    }
+
+    public int getOffHeapBlockBufferThreshold() {
+        return this.offHeapBlockBufferThreshold;
+    }
+
+    public boolean useMemoryMappedBlockBuffers() {
+        return this.memoryMappedBlockBuffers;
+    }
+
+    public boolean useSharedPacketBroadcasts() {
+        return this.sharedPacketBroadcasts;
+    }
+
+    public FlushConsolidationCategory getFlushConsolidationCategory() {
+        return this.flushConsolidationCategory;
+    }
+
+    public boolean useFlushConsolidation() {
+        return this.flushConsolidationCategory.isEnabled();
+    }
+
+    public boolean useIncrementalEntityTracking() {
+        return this.incrementalEntityTracking;
+    }
+
+    public boolean useChunkSectionCache() {
+        return this.chunkSectionCache;
+    }
+
+    public ChunkSendQueueCategory getChunkSendQueueCategory() {
+        return this.chunkSendQueueCategory;
+    }
+
+    public boolean useChunkSendQueue() {
+        return this.chunkSendQueueCategory.isEnabled();
+    }
+
+    public ParticleBatchingCategory getParticleBatchingCategory() {
+        return this.particleBatchingCategory;
+    }
+
+    public boolean useParticleBatching() {
+        return this.particleBatchingCategory.isEnabled();
+    }
+
 }
@@ -0,0 +1,59 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.config.category;
+
+import ninja.leaping.configurate.objectmapping.Setting;
+import ninja.leaping.configurate.objectmapping.serialize.ConfigSerializable;
+
+@ConfigSerializable
+public class ParticleBatchingCategory extends ConfigCategory {
+
+    @Setting(value = "enabled", comment = "If 'true', particle effects spawned by plugins during a tick are collected and\n"
+                                          + "sent at the end of the tick. Equal effects at the same position are merged\n"
+                                          + "into a single packet where possible, and every player gets the closest\n"
+                                          + "effects first, up to the budget below.")
+    private boolean enabled = false;
+
+    @Setting(value = "particles-per-player", comment = "The maximum amount of particles sent to a player per tick, effects that\n"
+                                                       + "would go over it are dropped. 0 means no limit. (Default: 2000)")
+    private int particlesPerPlayer = 2000;
+
+    @Setting(value = "max-distance", comment = "The maximum distance, in blocks, a player can be away from a particle effect\n"
+                                               + "to receive it, even if the effect was spawned with a larger radius.\n"
+                                               + "0 means the radius of the effect is used. (Default: 0)")
+    private int maxDistance = 0;
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public int getParticlesPerPlayer() {
+        return this.particlesPerPlayer;
+    }
+
+    public int getMaxDistance() {
+        return this.maxDistance;
+    }
+}
@@ -68,6 +68,7 @@
 import org.spongepowered.api.world.LocatableBlock;
 import org.spongepowered.api.world.Location;
 import org.spongepowered.api.world.World;
+import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.block.SpongeBlockSnapshotBuilder;
 import org.spongepowered.common.block.SpongeBlockStateBuilder;
 import org.spongepowered.common.data.builder.authlib.SpongeGameProfileBuilder;
@@ -130,10 +131,34 @@
 import org.spongepowered.common.world.SpongeLocatableBlockBuilder;
 import org.spongepowered.common.world.storage.SpongePlayerData;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 public final class DataRegistrar {
 
-    @SuppressWarnings("unchecked")
     public static void setupSerialization() {
+        final Map<String, Long> profile = new LinkedHashMap<>();
+        final long start = System.nanoTime();
+        profile(profile, "builders", DataRegistrar::registerBuilders);
+        profile(profile, "entity_processors", DataRegistrar::registerEntityProcessors);
+        profile(profile, "item_processors", DataRegistrar::registerItemProcessors);
+        profile(profile, "block_processors", DataRegistrar::registerBlockProcessors);
+        profile(profile, "tile_entity_processors", DataRegistrar::registerTileEntityProcessors);
+        profile(profile, "value_processors", DataRegistrar::registerValueProcessors);
+        profile(profile, "properties", DataRegistrar::registerProperties);
+        profile.put("total", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        SpongeImpl.getLogger().debug("Data registration profile (ms): {}", profile);
+    }
+
+    private static void profile(Map<String, Long> profile, String group, Runnable registrations) {
+        final long start = System.nanoTime();
+        registrations.run();
+        profile.put(group, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void registerBuilders() {
         SpongeDataManager dataManager = SpongeDataManager.getInstance();
 
         // TileEntities
@@ -216,7 +241,9 @@ public static void setupSerialization() {
 
         // Content Updaters for Custom Data
         dataManager.registerContentUpdater(DataManipulator.class, new LegacyCustomDataClassContentUpdater());
+    }
 
+    private static void registerEntityProcessors() {
         // Data Manipulators
 
         DataUtil.registerDataProcessorAndImpl(DisplayNameData.class, SpongeDisplayNameData.class,
@@ -493,7 +520,9 @@ public static void setupSerialization() {
                 new ShulkerDirectionalDataProcessor());
         DataUtil.registerDualProcessor(DirectionalData.class, SpongeDirectionalData.class, ImmutableDirectionalData.class, ImmutableSpongeDirectionalData.class,
                 new ShulkerBulletDirectionalDataProcessor());
+    }
 
+    private static void registerItemProcessors() {
         // Item Processors
 
         DataUtil.registerDualProcessor(FireworkEffectData.class, SpongeFireworkEffectData.class,
@@ -585,7 +614,9 @@ public static void setupSerialization() {
 
         DataUtil.registerDualProcessor(DyeableData.class, SpongeDyeableData.class, ImmutableDyeableData.class, ImmutableSpongeDyeableData.class, new
                 ItemDyeColorDataProcessor());
+    }
 
+    private static void registerBlockProcessors() {
         // Block Processors
 
         DataUtil.registerDualProcessor(DirtData.class, SpongeDirtData.class, ImmutableDirtData.class,
@@ -710,7 +741,9 @@ public static void setupSerialization() {
 
         DataUtil.registerDataProcessorAndImpl(WireAttachmentData.class, SpongeWireAttachmentData.class, ImmutableWireAttachmentData.class,
                 ImmutableSpongeWireAttachmentData.class, new WireAttachmentDataProcessor());
+    }
 
+    private static void registerTileEntityProcessors() {
         // TileEntity Processors
 
         DataUtil.registerDualProcessor(SkullData.class, SpongeSkullData.class, ImmutableSkullData.class,
@@ -784,7 +817,9 @@ public static void setupSerialization() {
 
         DataUtil.registerDataProcessorAndImpl(DisabledSlotsData.class, SpongeDisabledSlotsData.class,
                 ImmutableDisabledSlotsData.class, ImmutableSpongeDisabledSlotsData.class, new DisabledSlotsDataProcessor());
+    }
 
+    private static void registerValueProcessors() {
         // Values
 
         DataUtil.registerValueProcessor(Keys.FUSE_DURATION, new FuseDurationValueProcessor());
@@ -901,7 +936,9 @@ public static void setupSerialization() {
         DataUtil.registerValueProcessor(Keys.EXACT_TELEPORT, new EndGatewayExactTeleportValueProcessor());
         DataUtil.registerValueProcessor(Keys.ARMOR_STAND_TAKING_DISABLED, new TakingDisabledValueProcessor());
         DataUtil.registerValueProcessor(Keys.ARMOR_STAND_PLACING_DISABLED, new PlacingDisabledValueProcessor());
-        
+    }
+
+    private static void registerProperties() {
         // Properties
         final PropertyRegistry propertyRegistry = Sponge.getPropertyRegistry();
 
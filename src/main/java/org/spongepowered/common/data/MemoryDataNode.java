@@ -0,0 +1,168 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data;
+
+import com.google.common.collect.Maps;
+import org.apache.commons.lang3.ArrayUtils;
+import org.spongepowered.api.data.DataQuery;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * The backing storage of a {@link MemoryDataView}. A node may be referenced
+ * by several views at once, either because a view was copied or because a
+ * view was inserted into another one. Once a node is {@link #shared} it is
+ * never modified again, any view wanting to write to it will first replace
+ * it with an {@link #owned()} copy, path-copying only the branch it writes
+ * to. This keeps {@link MemoryDataView#copy()} constant time.
+ *
+ * <p>Values that represent a nested {@link org.spongepowered.api.data.DataView}
+ * are stored as child nodes, views are created on demand around them.</p>
+ */
+final class MemoryDataNode {
+
+    final LinkedHashMap<String, Object> entries;
+    boolean shared;
+
+    // Caches, these are only valid as long as the entries are not modified
+    @Nullable Set<DataQuery> shallowKeys;
+    @Nullable Set<DataQuery> deepKeys;
+    @Nullable Map<DataQuery, Object> shallowValues;
+    @Nullable Map<DataQuery, Object> deepValues;
+    @Nullable Boolean containsArrays;
+
+    MemoryDataNode() {
+        this.entries = Maps.newLinkedHashMap();
+    }
+
+    private MemoryDataNode(LinkedHashMap<String, Object> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Gets a node that can be safely modified in place of this node. If this
+     * node is shared, a shallow copy is made and all the child nodes are
+     * marked as shared as they are now referenced by both copies. The caches
+     * of the returned node are cleared as the caller is about to modify it.
+     *
+     * @return The node that can be modified
+     */
+    MemoryDataNode owned() {
+        if (!this.shared) {
+            this.invalidate();
+            return this;
+        }
+        final LinkedHashMap<String, Object> entries = Maps.newLinkedHashMapWithExpectedSize(this.entries.size());
+        for (Map.Entry<String, Object> entry : this.entries.entrySet()) {
+            final Object value = entry.getValue();
+            if (value instanceof MemoryDataNode) {
+                ((MemoryDataNode) value).shared = true;
+                entries.put(entry.getKey(), value);
+            } else {
+                entries.put(entry.getKey(), cloneArray(value));
+            }
+        }
+        return new MemoryDataNode(entries);
+    }
+
+    void invalidate() {
+        this.shallowKeys = null;
+        this.deepKeys = null;
+        this.shallowValues = null;
+        this.deepValues = null;
+        this.containsArrays = null;
+    }
+
+    /**
+     * Gets whether this node or any of its children contain array values,
+     * array values are mutable and can therefore not be cached.
+     *
+     * @return Whether there are any arrays stored within this node
+     */
+    boolean containsArrays() {
+        if (this.containsArrays == null) {
+            boolean arrays = false;
+            for (Object value : this.entries.values()) {
+                if (value instanceof MemoryDataNode ? ((MemoryDataNode) value).containsArrays() : value.getClass().isArray()) {
+                    arrays = true;
+                    break;
+                }
+            }
+            this.containsArrays = arrays;
+        }
+        return this.containsArrays;
+    }
+
+    static Object cloneArray(Object object) {
+        if (!object.getClass().isArray()) {
+            return object;
+        }
+        if (object instanceof byte[]) {
+            return ArrayUtils.clone((byte[]) object);
+        } else if (object instanceof short[]) {
+            return ArrayUtils.clone((short[]) object);
+        } else if (object instanceof int[]) {
+            return ArrayUtils.clone((int[]) object);
+        } else if (object instanceof long[]) {
+            return ArrayUtils.clone((long[]) object);
+        } else if (object instanceof float[]) {
+            return ArrayUtils.clone((float[]) object);
+        } else if (object instanceof double[]) {
+            return ArrayUtils.clone((double[]) object);
+        } else if (object instanceof boolean[]) {
+            return ArrayUtils.clone((boolean[]) object);
+        } else if (object instanceof char[]) {
+            return ArrayUtils.clone((char[]) object);
+        } else {
+            return ArrayUtils.clone((Object[]) object);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return this.entries.hashCode();
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        return this.entries.equals(((MemoryDataNode) obj).entries);
+    }
+
+    @Override
+    public String toString() {
+        return this.entries.toString();
+    }
+
+}
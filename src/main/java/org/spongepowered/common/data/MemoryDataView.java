@@ -35,8 +35,6 @@
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
-import org.apache.commons.lang3.ArrayUtils;
 import org.spongepowered.api.CatalogType;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.data.DataContainer;
@@ -64,29 +62,155 @@
 
 /**
  * Default implementation of a {@link DataView} being used in memory.
+ *
+ * <p>The actual data is stored in a tree of {@link MemoryDataNode}s that is
+ * shared between copies, views are light-weight handles that resolve their
+ * node from the {@link #getContainer() container} each time. Copying a view
+ * is therefore constant time, and modifications only copy the nodes between
+ * the container and the modified value. A view that was removed from its
+ * container, or replaced by a value, keeps the data it was last backed by
+ * and copies it before it is modified, so it doesn't write to the container
+ * anymore.</p>
+ *
+ * <p>Views are not thread safe. A copy may be handed to another thread, as
+ * shared nodes are never modified and the caches kept on them are immutable
+ * and only ever replaced by equal values, but a view and the views obtained
+ * from it must not be used by several threads at once.</p>
  */
 public class MemoryDataView implements DataView {
 
-    protected final Map<String, Object> map = Maps.newLinkedHashMap();
+    // Set for the root view, and for child views once they are detached from their container
+    @Nullable MemoryDataNode node;
+    // The node a child view was backed by the last time it was resolved
+    @Nullable private MemoryDataNode lastNode;
     private final DataContainer container;
     private final DataView parent;
     private final DataQuery path;
     private final DataView.SafetyMode safety;
 
     MemoryDataView(DataView.SafetyMode safety) {
+        this(safety, new MemoryDataNode());
+    }
+
+    MemoryDataView(DataView.SafetyMode safety, MemoryDataNode node) {
         checkState(this instanceof DataContainer, "Cannot construct a root MemoryDataView without a container!");
         this.path = of();
         this.parent = this;
         this.container = (DataContainer) this;
         this.safety = checkNotNull(safety, "Safety mode");
+        this.node = node;
     }
 
-    private MemoryDataView(DataView parent, DataQuery path, DataView.SafetyMode safety) {
-        checkArgument(path.getParts().size() >= 1, "Path must have at least one part");
+    private MemoryDataView(MemoryDataView parent, String key, @Nullable MemoryDataNode node) {
         this.parent = parent;
         this.container = parent.getContainer();
-        this.path = parent.getCurrentPath().then(path);
-        this.safety = checkNotNull(safety, "Safety mode");
+        this.path = parent.getCurrentPath().then(key);
+        this.safety = parent.safety;
+        this.lastNode = node;
+    }
+
+    /**
+     * Gets the node currently backing this view, the returned node must not
+     * be modified.
+     *
+     * @return The node
+     */
+    private MemoryDataNode readNode() {
+        if (this.node != null) {
+            return this.node;
+        }
+        final Object child = ((MemoryDataView) this.parent).readNode().entries.get(getName());
+        if (!(child instanceof MemoryDataNode)) {
+            return detach();
+        }
+        this.lastNode = (MemoryDataNode) child;
+        return this.lastNode;
+    }
+
+    /**
+     * Gets the node backing this view with the intent to modify it. All the
+     * shared nodes on the path from the container to this view are replaced
+     * with copies.
+     *
+     * @return The node that can be modified
+     */
+    private MemoryDataNode writeNode() {
+        if (this.node == null) {
+            final MemoryDataView parent = (MemoryDataView) this.parent;
+            // Recreating the node would overwrite whatever the container holds now
+            if (parent.readNode().entries.get(getName()) instanceof MemoryDataNode) {
+                final MemoryDataNode parentNode = parent.writeNode();
+                final MemoryDataNode child = (MemoryDataNode) parentNode.entries.get(getName());
+                final MemoryDataNode next = child.owned();
+                if (next != child) {
+                    parentNode.entries.put(getName(), next);
+                }
+                this.lastNode = next;
+                return next;
+            }
+            detach();
+        }
+        this.node = this.node.owned();
+        return this.node;
+    }
+
+    /**
+     * Gets the node at the first parts of the given path relative to this
+     * view with the intent to modify it, creating the nodes that are missing
+     * below this view and replacing the values that are in the way.
+     *
+     * @param parts The parts of the relative path
+     * @param count The number of parts to follow
+     * @return The node that can be modified
+     */
+    private MemoryDataNode writeNode(List<String> parts, int count) {
+        MemoryDataNode node = writeNode();
+        for (int i = 0; i < count; i++) {
+            final Object child = node.entries.get(parts.get(i));
+            final MemoryDataNode next = child instanceof MemoryDataNode ? ((MemoryDataNode) child).owned() : new MemoryDataNode();
+            if (next != child) {
+                node.entries.put(parts.get(i), next);
+            }
+            node = next;
+        }
+        return node;
+    }
+
+    /**
+     * Detaches this child view from its container, from now on it is backed
+     * by the node it was last resolved to.
+     *
+     * @return The node, which is copied before it is modified
+     */
+    private MemoryDataNode detach() {
+        final MemoryDataNode node = this.lastNode == null ? new MemoryDataNode() : this.lastNode;
+        // Copies of the container, or other detached views, may still reference it
+        node.shared = true;
+        this.node = node;
+        this.lastNode = null;
+        return node;
+    }
+
+    /**
+     * Gets whether the node backing this view may be referenced by another
+     * view, which is the case if it or any node between it and the view that
+     * owns the tree is shared.
+     *
+     * @return Whether the node may be shared
+     */
+    private boolean isShared() {
+        return readNode().shared || this.node == null && ((MemoryDataView) this.parent).isShared();
+    }
+
+    private MemoryDataView childView(List<String> parts, int count) {
+        MemoryDataView view = this;
+        MemoryDataNode node = readNode();
+        for (int i = 0; i < count; i++) {
+            final Object child = node == null ? null : node.entries.get(parts.get(i));
+            node = child instanceof MemoryDataNode ? (MemoryDataNode) child : null;
+            view = new MemoryDataView(view, parts.get(i), node);
+        }
+        return view;
     }
 
     @Override
@@ -112,35 +236,74 @@ public Optional<DataView> getParent() {
 
     @Override
     public Set<DataQuery> getKeys(boolean deep) {
+        final MemoryDataNode node = readNode();
+        Set<DataQuery> keys = deep ? node.deepKeys : node.shallowKeys;
+        if (keys != null) {
+            return keys;
+        }
         ImmutableSet.Builder<DataQuery> builder = ImmutableSet.builder();
-
-        for (Map.Entry<String, Object> entry : this.map.entrySet()) {
-            builder.add(of(entry.getKey()));
+        final Set<DataQuery> shallowKeys = node.shallowKeys;
+        if (shallowKeys != null) {
+            builder.addAll(shallowKeys);
+        } else {
+            for (String key : node.entries.keySet()) {
+                builder.add(of(key));
+            }
         }
         if (deep) {
-            for (Map.Entry<String, Object> entry : this.map.entrySet()) {
-                if (entry.getValue() instanceof DataView) {
-                    for (DataQuery query : ((DataView) entry.getValue()).getKeys(true)) {
-                        builder.add(of(entry.getKey()).then(query));
-                    }
+            for (Map.Entry<String, Object> entry : node.entries.entrySet()) {
+                if (entry.getValue() instanceof MemoryDataNode) {
+                    addKeys(builder, of(entry.getKey()), (MemoryDataNode) entry.getValue());
                 }
             }
         }
-        return builder.build();
+        keys = builder.build();
+        // The keys only depend on the node, so every view of it can share them
+        if (deep) {
+            node.deepKeys = keys;
+        } else {
+            node.shallowKeys = keys;
+        }
+        return keys;
+    }
+
+    private static void addKeys(ImmutableSet.Builder<DataQuery> builder, DataQuery path, MemoryDataNode node) {
+        for (String key : node.entries.keySet()) {
+            builder.add(path.then(key));
+        }
+        for (Map.Entry<String, Object> entry : node.entries.entrySet()) {
+            if (entry.getValue() instanceof MemoryDataNode) {
+                addKeys(builder, path.then(entry.getKey()), (MemoryDataNode) entry.getValue());
+            }
+        }
     }
 
     @Override
     public Map<DataQuery, Object> getValues(boolean deep) {
+        final MemoryDataNode node = readNode();
+        Map<DataQuery, Object> values = deep ? node.deepValues : node.shallowValues;
+        if (values != null) {
+            return values;
+        }
         ImmutableMap.Builder<DataQuery, Object> builder = ImmutableMap.builder();
         for (DataQuery query : getKeys(deep)) {
             Object value = get(query).get();
             if (value instanceof DataView) {
                 builder.put(query, ((DataView) value).getValues(deep));
             } else {
-                builder.put(query, get(query).get());
+                builder.put(query, value);
             }
         }
-        return builder.build();
+        values = builder.build();
+        // Arrays are mutable, so they can only be handed out once
+        if (!node.containsArrays()) {
+            if (deep) {
+                node.deepValues = values;
+            } else {
+                node.shallowValues = values;
+            }
+        }
+        return values;
     }
 
     @Override
@@ -148,12 +311,16 @@ public final boolean contains(DataQuery path) {
         checkNotNull(path, "path");
         List<String> queryParts = path.getParts();
 
-        String key = queryParts.get(0);
-        if (queryParts.size() == 1) {
-            return this.map.containsKey(key);
+        MemoryDataNode node = readNode();
+        final int last = queryParts.size() - 1;
+        for (int i = 0; i < last; i++) {
+            final Object child = node.entries.get(queryParts.get(i));
+            if (!(child instanceof MemoryDataNode)) {
+                return false;
+            }
+            node = (MemoryDataNode) child;
         }
-        Optional<DataView> subViewOptional = this.getUnsafeView(key);
-        return subViewOptional.isPresent() && subViewOptional.get().contains(path.popFirst());
+        return node.entries.containsKey(queryParts.get(last));
     }
 
     @Override
@@ -187,42 +354,31 @@ public Optional<Object> get(DataQuery path) {
             return Optional.<Object>of(this);
         }
 
-        String key = queryParts.get(0);
-        if (sz == 1) {
-            final Object object = this.map.get(key);
-            if (object == null) {
+        // Walk down from this view, keeping track of whether any of the
+        // nodes on the way may be referenced by another view
+        MemoryDataNode node = readNode();
+        boolean shared = false;
+        for (int i = 0; i < sz - 1; i++) {
+            final Object child = node.entries.get(queryParts.get(i));
+            if (!(child instanceof MemoryDataNode)) {
                 return Optional.empty();
             }
-            if (this.safety == SafetyMode.ALL_DATA_CLONED) {
-                if (object.getClass().isArray()) {
-                    if (object instanceof byte[]) {
-                        return Optional.<Object>of(ArrayUtils.clone((byte[]) object));
-                    } else if (object instanceof short[]) {
-                        return Optional.<Object>of(ArrayUtils.clone((short[]) object));
-                    } else if (object instanceof int[]) {
-                        return Optional.<Object>of(ArrayUtils.clone((int[]) object));
-                    } else if (object instanceof long[]) {
-                        return Optional.<Object>of(ArrayUtils.clone((long[]) object));
-                    } else if (object instanceof float[]) {
-                        return Optional.<Object>of(ArrayUtils.clone((float[]) object));
-                    } else if (object instanceof double[]) {
-                        return Optional.<Object>of(ArrayUtils.clone((double[]) object));
-                    } else if (object instanceof boolean[]) {
-                        return Optional.<Object>of(ArrayUtils.clone((boolean[]) object));
-                    } else {
-                        return Optional.<Object>of(ArrayUtils.clone((Object[]) object));
-                    }
-                }
-            }
-            return Optional.of(object);
+            node = (MemoryDataNode) child;
+            shared |= node.shared;
         }
-        Optional<DataView> subViewOptional = this.getUnsafeView(key);
-        if (!subViewOptional.isPresent()) {
+
+        final Object object = node.entries.get(queryParts.get(sz - 1));
+        if (object == null) {
             return Optional.empty();
         }
-        DataView subView = subViewOptional.get();
-        return subView.get(path.popFirst());
-
+        if (object instanceof MemoryDataNode) {
+            return Optional.of(childView(queryParts, sz));
+        }
+        // Shared arrays are cloned as well, otherwise changes to them would leak into copies
+        if (this.safety == SafetyMode.ALL_DATA_CLONED || (this.safety == SafetyMode.CLONED_ON_SET && (shared || isShared()))) {
+            return Optional.of(MemoryDataNode.cloneArray(object));
+        }
+        return Optional.of(object);
     }
 
     @Override
@@ -243,20 +399,14 @@ public DataView set(DataQuery path, Object value) {
         }
 
         List<String> parts = path.getParts();
-        String key = parts.get(0);
         if (parts.size() > 1) {
-            DataQuery subQuery = of(key);
-            Optional<DataView> subViewOptional = this.getUnsafeView(subQuery);
-            DataView subView;
-            if (!subViewOptional.isPresent()) {
-                this.createView(subQuery);
-                subView = (DataView) this.map.get(key);
-            } else {
-                subView = subViewOptional.get();
-            }
-            subView.set(path.popFirst(), value);
+            // Resolve the view owning the value directly, instead of walking down one view at a time
+            final int last = parts.size() - 1;
+            writeNode(parts, last);
+            childView(parts, last).set(of(parts.get(last)), value);
             return this;
         }
+        String key = parts.get(0);
         if (value instanceof DataView) {
             checkArgument(value != this, "Cannot set a DataView to itself.");
             // always have to copy a data view to avoid overwriting existing
@@ -281,28 +431,12 @@ public DataView set(DataQuery path, Object value) {
             setMap(key, (Map) value);
         } else if (value.getClass().isArray()) {
             if (this.safety == SafetyMode.ALL_DATA_CLONED || this.safety == SafetyMode.CLONED_ON_SET) {
-                if (value instanceof byte[]) {
-                    this.map.put(key, ArrayUtils.clone((byte[]) value));
-                } else if (value instanceof short[]) {
-                    this.map.put(key, ArrayUtils.clone((short[]) value));
-                } else if (value instanceof int[]) {
-                    this.map.put(key, ArrayUtils.clone((int[]) value));
-                } else if (value instanceof long[]) {
-                    this.map.put(key, ArrayUtils.clone((long[]) value));
-                } else if (value instanceof float[]) {
-                    this.map.put(key, ArrayUtils.clone((float[]) value));
-                } else if (value instanceof double[]) {
-                    this.map.put(key, ArrayUtils.clone((double[]) value));
-                } else if (value instanceof boolean[]) {
-                    this.map.put(key, ArrayUtils.clone((boolean[]) value));
-                } else {
-                    this.map.put(key, ArrayUtils.clone((Object[]) value));
-                }
+                writeNode().entries.put(key, MemoryDataNode.cloneArray(value));
             } else {
-                this.map.put(key, value);
+                writeNode().entries.put(key, value);
             }
         } else {
-            this.map.put(key, value);
+            writeNode().entries.put(key, value);
         }
         return this;
     }
@@ -328,12 +462,7 @@ private void setCollection(String key, Collection<?> value) {
                 builder.add(((DataSerializable) object).toContainer());
             } else if (object instanceof DataView) {
                 if (this.safety == SafetyMode.ALL_DATA_CLONED || this.safety == SafetyMode.CLONED_ON_SET) {
-                    MemoryDataView view = new MemoryDataContainer(this.safety);
-                    DataView internalView = (DataView) object;
-                    for (Map.Entry<DataQuery, Object> entry : internalView.getValues(false).entrySet()) {
-                        view.set(entry.getKey(), entry.getValue());
-                    }
-                    builder.add(view);
+                    builder.add(((DataView) object).copy(this.safety));
                 } else {
                     builder.add(object);
                 }
@@ -360,7 +489,7 @@ private void setCollection(String key, Collection<?> value) {
 
             }
         }
-        this.map.put(key, builder.build());
+        writeNode().entries.put(key, builder.build());
     }
 
     @SuppressWarnings("rawtypes")
@@ -404,6 +533,22 @@ private void setMap(String key, Map<?, ?> value) {
     }
 
     private void copyDataView(DataQuery path, DataView value) {
+        if (value instanceof MemoryDataView) {
+            final MemoryDataView memoryView = (MemoryDataView) value;
+            final String key = path.getParts().get(0);
+            // Views that can be inserted as a whole just share their node, this
+            // can't be done when the values would have to be merged or when the
+            // arrays of the other view may still be modified by its owner
+            if (!readNode().entries.containsKey(key)
+                    && (memoryView.safety != SafetyMode.NO_DATA_CLONED || this.safety == SafetyMode.NO_DATA_CLONED)) {
+                final MemoryDataNode node = memoryView.readNode();
+                if (!node.entries.isEmpty()) {
+                    node.shared = true;
+                    writeNode().entries.put(key, node);
+                }
+                return;
+            }
+        }
         Collection<DataQuery> valueKeys = value.getKeys(true);
         for (DataQuery oldKey : valueKeys) {
             set(path.then(oldKey), value.get(oldKey).get());
@@ -415,16 +560,11 @@ public DataView remove(DataQuery path) {
         checkNotNull(path, "path");
         List<String> parts = path.getParts();
         if (parts.size() > 1) {
-            String subKey = parts.get(0);
-            DataQuery subQuery = of(subKey);
-            Optional<DataView> subViewOptional = this.getUnsafeView(subQuery);
-            if (!subViewOptional.isPresent()) {
-                return this;
+            if (readNode().entries.get(parts.get(0)) instanceof MemoryDataNode) {
+                childView(parts, 1).remove(path.popFirst());
             }
-            DataView subView = subViewOptional.get();
-            subView.remove(path.popFirst());
-        } else {
-            this.map.remove(parts.get(0));
+        } else if (readNode().entries.containsKey(parts.get(0))) {
+            writeNode().entries.remove(parts.get(0));
         }
         return this;
     }
@@ -439,20 +579,14 @@ public DataView createView(DataQuery path) {
         checkArgument(sz != 0, "The size of the query must be at least 1");
 
         String key = queryParts.get(0);
-        DataQuery keyQuery = of(key);
 
         if (sz == 1) {
-            DataView result = new MemoryDataView(this, keyQuery, this.safety);
-            this.map.put(key, result);
-            return result;
+            writeNode().entries.put(key, new MemoryDataNode());
+            return childView(queryParts, 1);
         }
         DataQuery subQuery = path.popFirst();
-        DataView subView = (DataView) this.map.get(key);
-        if (subView == null) {
-            subView = new MemoryDataView(this.parent, keyQuery, this.safety);
-            this.map.put(key, subView);
-        }
-        return subView.createView(subQuery);
+        writeNode(queryParts, 1);
+        return childView(queryParts, 1).createView(subQuery);
     }
 
     @Override
@@ -521,14 +655,6 @@ private Optional<DataView> getUnsafeView(DataQuery path) {
         return get(path).filter(obj -> obj instanceof DataView).map(obj -> (DataView) obj);
     }
 
-    private Optional<DataView> getUnsafeView(String path) {
-        final Object object = this.map.get(path);
-        if (!(object instanceof DataView)) {
-            return Optional.empty();
-        }
-        return Optional.of((DataView) object);
-    }
-
 
     @Override
     public Optional<Boolean> getBoolean(DataQuery path) {
@@ -801,31 +927,31 @@ public <T> Optional<List<T>> getObjectList(DataQuery path, Class<T> objectClass)
 
     @Override
     public DataContainer copy() {
-        final DataContainer container = new MemoryDataContainer(this.safety);
-        getKeys(false)
-            .forEach(query ->
-                get(query).ifPresent(obj ->
-                        container.set(query, obj)
-                )
-        );
-        return container;
+        return copy(this.safety);
     }
 
     @Override
     public DataContainer copy(SafetyMode safety) {
-        final DataContainer container = new MemoryDataContainer(safety);
-        getKeys(false)
-            .forEach(query ->
-                get(query).ifPresent(obj ->
-                        container.set(query, obj)
-                )
-        );
-        return container;
+        if (this.safety == SafetyMode.NO_DATA_CLONED && safety != SafetyMode.NO_DATA_CLONED) {
+            // The arrays may still be modified by whoever set them, so
+            // they need to be cloned right away
+            final DataContainer container = new MemoryDataContainer(safety);
+            getKeys(false)
+                .forEach(query ->
+                    get(query).ifPresent(obj ->
+                            container.set(query, obj)
+                    )
+            );
+            return container;
+        }
+        final MemoryDataNode node = readNode();
+        node.shared = true;
+        return new MemoryDataContainer(safety, node);
     }
 
     @Override
     public boolean isEmpty() {
-        return this.map.isEmpty();
+        return readNode().entries.isEmpty();
     }
 
     @Override
@@ -835,7 +961,7 @@ public SafetyMode getSafetyMode() {
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(this.map, this.path);
+        return Objects.hashCode(readNode(), this.path);
     }
 
     @Override
@@ -848,7 +974,7 @@ public boolean equals(@Nullable Object obj) {
         }
         final MemoryDataView other = (MemoryDataView) obj;
 
-        return Objects.equal(this.map.entrySet(), other.map.entrySet())
+        return Objects.equal(readNode(), other.readNode())
                && Objects.equal(this.path, other.path);
     }
 
@@ -859,6 +985,6 @@ public String toString() {
             helper.add("path", this.path);
         }
         helper.add("safety", this.safety.name());
-        return helper.add("map", this.map).toString();
+        return helper.add("map", readNode()).toString();
     }
 }
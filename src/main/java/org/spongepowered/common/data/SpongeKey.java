@@ -52,6 +52,7 @@
     private final TypeToken<?> elementToken;
     private final PluginContainer parent;
     @Nullable private List<KeyBasedDataListener<?>> listeners;
+    private int index = -1;
 
     SpongeKey(String id, Translation name, TypeToken<V> valueToken, DataQuery query, PluginContainer plugin) {
         this.id = id;
@@ -146,4 +147,18 @@ public String toString() {
     public PluginContainer getParent() {
         return this.parent;
     }
+
+    /**
+     * Gets the dense index assigned to this key when the value processors
+     * were baked, or {@code -1} if this key has no baked value processors.
+     *
+     * @return The index
+     */
+    public int getIndex() {
+        return this.index;
+    }
+
+    void setIndex(int index) {
+        this.index = index;
+    }
 }
@@ -63,6 +63,7 @@
 import org.spongepowered.common.util.Constants;
 
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -70,6 +71,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
@@ -106,6 +108,9 @@ public static SpongeManipulatorRegistry getInstance() {
 
     @Nullable private TemporaryRegistry tempRegistry = new TemporaryRegistry();
 
+    // Frozen on #bake(), indexed by the SpongeKey#getIndex() of the built in keys
+    private ValueProcessorDelegate<?, ?>[] indexedValueDelegates = new ValueProcessorDelegate<?, ?>[0];
+
     void registerLegacyId(String legacyId, DataRegistration<?, ?> registration) {
         if (this.legacyRegistrationIds.containsKey(legacyId)) {
             throw new IllegalStateException("Legacy registration id already registered: id" + legacyId + " for registration: " + registration);
@@ -334,6 +339,12 @@ public <E, V extends BaseValue<E>> void registerValueProcessor(Key<V> key, Value
 
             return new ValueProcessorDelegate(key, ImmutableList.copyOf(list));
         }
+        if (key instanceof SpongeKey) {
+            final int index = ((SpongeKey<?>) key).getIndex();
+            if (index >= 0 && index < this.indexedValueDelegates.length) {
+                return this.indexedValueDelegates[index];
+            }
+        }
         return this.valueDelegates.get(key);
     }
 
@@ -355,20 +366,45 @@ public <E, V extends BaseValue<E>> void registerValueProcessor(Key<V> key, Value
         return this.nbtValueTable.column(nbtDataType).values();
     }
 
+    private static <P> void sortProcessors(Collection<List<P>> lists, Comparator<? super P> comparator, boolean parallel) {
+        // The same list is mapped to both the manipulator interface and its implementation
+        final Set<List<P>> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinct.addAll(lists);
+        if (parallel) {
+            distinct.parallelStream().forEach(list -> list.sort(comparator));
+        } else {
+            distinct.forEach(list -> list.sort(comparator));
+        }
+    }
+
     void bake() {
         checkState(this.tempRegistry != null);
+        // Sorting only reads the priorities of the processors, which is the only part of baking that is safe to
+        // run concurrently. The processors themselves are always constructed and registered on the main thread.
+        final boolean parallel = SpongeImpl.getGlobalConfigAdapter().getConfig().getModules().useOptimizations()
+            && SpongeImpl.getGlobalConfigAdapter().getConfig().getOptimizations().useParallelDataRegistration();
+        sortProcessors(this.tempRegistry.valueProcessorMap.values(), Constants.Functional.VALUE_PROCESSOR_COMPARATOR, parallel);
+        sortProcessors(this.tempRegistry.processorMap.values(), Constants.Functional.DATA_PROCESSOR_COMPARATOR, parallel);
+        sortProcessors(this.tempRegistry.immutableProcessorMap.values(), Constants.Functional.DATA_PROCESSOR_COMPARATOR, parallel);
         // ValueProcessors
         this.tempRegistry.valueProcessorMap.forEach((key, value) -> {
             ImmutableList.Builder<ValueProcessor<?, ?>> valueListBuilder = ImmutableList.builder();
-            value.sort(Constants.Functional.VALUE_PROCESSOR_COMPARATOR);
             valueListBuilder.addAll(value);
             final ValueProcessorDelegate<?, ?> delegate = new ValueProcessorDelegate(key, valueListBuilder.build());
             this.valueDelegates.put(key, delegate);
         });
+        // Give every key with value processors a dense index, lookups can then skip hashing the key
+        final List<ValueProcessorDelegate<?, ?>> indexedDelegates = new ArrayList<>();
+        this.valueDelegates.forEach((key, delegate) -> {
+            if (key instanceof SpongeKey && ((SpongeKey<?>) key).getIndex() < 0) {
+                ((SpongeKey<?>) key).setIndex(indexedDelegates.size());
+                indexedDelegates.add(delegate);
+            }
+        });
+        this.indexedValueDelegates = indexedDelegates.toArray(new ValueProcessorDelegate<?, ?>[0]);
         // DataProcessors
         this.tempRegistry.processorMap.forEach((key, value) -> {
             ImmutableList.Builder<DataProcessor<?, ?>> dataListBuilder = ImmutableList.builder();
-            value.sort(Constants.Functional.DATA_PROCESSOR_COMPARATOR);
             dataListBuilder.addAll(value);
             final DataProcessorDelegate<?, ?> delegate = new DataProcessorDelegate(dataListBuilder.build());
             this.dataProcessorDelegates.put(key, delegate);
@@ -396,7 +432,6 @@ void bake() {
         // Immutable DataProcessors
         this.tempRegistry.immutableProcessorMap.forEach((key, value) -> {
             ImmutableList.Builder<DataProcessor<?, ?>> dataListBuilder = ImmutableList.builder();
-            value.sort(Constants.Functional.DATA_PROCESSOR_COMPARATOR);
             dataListBuilder.addAll(value);
             final DataProcessorDelegate<?, ?> delegate = new DataProcessorDelegate(dataListBuilder.build());
             this.immutableDataProcessorDelegates.put(key, delegate);
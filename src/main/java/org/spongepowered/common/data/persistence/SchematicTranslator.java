@@ -62,7 +62,7 @@
 import org.spongepowered.common.util.PairStream;
 import org.spongepowered.common.util.gen.ArrayMutableBlockBuffer;
 import org.spongepowered.common.util.gen.ByteArrayMutableBiomeBuffer;
-import org.spongepowered.common.world.schematic.BimapPalette;
+import org.spongepowered.common.world.schematic.ArrayPalette;
 import org.spongepowered.common.world.schematic.BlockPaletteWrapper;
 import org.spongepowered.common.world.schematic.GlobalPalette;
 import org.spongepowered.common.world.schematic.SpongeSchematicBuilder;
@@ -117,6 +117,21 @@ public TypeToken<Schematic> getToken() {
 
     @Override
     public Schematic translate(DataView unprocessed) throws InvalidDataException {
+        return translate(unprocessed, null);
+    }
+
+    /**
+     * Translates the given schematic data, using the given blocks instead of
+     * decoding the block data stored in the view. This is used by the
+     * {@link org.spongepowered.common.data.persistence.schematic.StreamingSchematicCodec}
+     * which decodes the block data while reading it.
+     *
+     * @param unprocessed The schematic data
+     * @param blocks The already decoded blocks, or null to decode the block data
+     * @return The schematic
+     * @throws InvalidDataException If the data is not a valid schematic
+     */
+    public Schematic translate(DataView unprocessed, @Nullable ArrayMutableBlockBuffer blocks) throws InvalidDataException {
         if (VANILLA_FIXER == null) {
             VANILLA_FIXER = ((MinecraftServerAccessor) SpongeImpl.getServer()).accessor$getDataFixer();
         }
@@ -179,36 +194,19 @@ public Schematic translate(DataView unprocessed) throws InvalidDataException {
         if (offset.length != 3) {
             throw new InvalidDataException("Schematic offset was not of length 3");
         }
-        final Palette<BlockState> palette;
-        final Optional<DataView> paletteData = updatedView.getView(Constants.Sponge.Schematic.PALETTE);
-        final int palette_max = updatedView.getInt(Constants.Sponge.Schematic.PALETTE_MAX).orElse(0xFFFF);
-        if (paletteData.isPresent()) {
-            // If we had a default palette_max we don't want to allocate all
-            // that space for nothing so we use a sensible default instead
-            final BimapPalette<BlockState> bimap = new BimapPalette<>(PaletteTypes.LOCAL_BLOCKS, palette_max != 0xFFFF ? palette_max : 64);
-            // TODO - 1.13 remove the wrapper.
-            palette = new BlockPaletteWrapper(bimap, org.spongepowered.api.world.schematic.BlockPaletteTypes.LOCAL);
-            final DataView paletteMap = paletteData.get();
-            final Set<DataQuery> paletteKeys = paletteMap.getKeys(false);
-            for (final DataQuery key : paletteKeys) {
-                final BlockState state = Sponge.getRegistry().getType(BlockState.class, key.getParts().get(0)).orElseGet(BlockTypes.BEDROCK::getDefaultState);
-                bimap.assign(state, paletteMap.getInt(key).get());
-            }
-        } else {
-            palette = GlobalPalette.getBlockPalette();
-        }
+        final Palette<BlockState> palette = blocks != null ? blocks.getPalette() : readBlockPalette(updatedView);
 
         final Palette<BiomeType> biomePalette;
         final Optional<DataView> biomePaletteData = updatedView.getView(Constants.Sponge.Schematic.BIOME_PALETTE);
         final int biome_max = updatedView.getInt(Constants.Sponge.Schematic.BIOME_PALETTE_MAX).orElse(0xFFFF);
         if (biomePaletteData.isPresent()) {
-            final BimapPalette<BiomeType> bimap = new BimapPalette<>(PaletteTypes.LOCAL_BIOMES, biome_max != 0xFFF ? palette_max : 64);
-            biomePalette = bimap;
+            final ArrayPalette<BiomeType> localPalette = new ArrayPalette<>(PaletteTypes.LOCAL_BIOMES, biome_max != 0xFFFF ? biome_max : 64);
+            biomePalette = localPalette;
             final DataView biomeMap = biomePaletteData.get();
             final Set<DataQuery> biomeKeys = biomeMap.getKeys(false);
             for (final DataQuery biomeKey : biomeKeys) {
                 final BiomeType biome = Sponge.getRegistry().getType(BiomeType.class, biomeKey.getParts().get(0)).get();
-                bimap.assign(biome, biomeMap.getInt(biomeKey).get());
+                localPalette.assign(biome, biomeMap.getInt(biomeKey).get());
             }
         } else {
             biomePalette = GlobalPalette.getBiomePalette();
@@ -217,37 +215,40 @@ public Schematic translate(DataView unprocessed) throws InvalidDataException {
         final SpongeSchematicBuilder builder = new SpongeSchematicBuilder();
         builder.blockPalette(palette);
 
-        final MutableBlockVolume buffer =
-                new ArrayMutableBlockBuffer(palette, new Vector3i(-offset[0], -offset[1], -offset[2]), new Vector3i(width, height, length));
-
-        final byte[] blockdata = (byte[]) updatedView.get(Constants.Sponge.Schematic.BLOCK_DATA).orElseThrow(() -> new InvalidDataException("Missing BlockData for Schematic"));
-        int index = 0;
-        int i = 0;
-        int value = 0;
-        int varint_length = 0;
-        while (i < blockdata.length) {
-            value = 0;
-            varint_length = 0;
-
-            while (true) {
-                value |= (blockdata[i] & 127) << (varint_length++ * 7);
-                if (varint_length > 5) {
-                    throw new RuntimeException("VarInt too big (probably corrupted data)");
-                }
-                if ((blockdata[i] & 128) != 128) {
+        final MutableBlockVolume buffer;
+        if (blocks != null) {
+            buffer = blocks;
+        } else {
+            buffer = new ArrayMutableBlockBuffer(palette, new Vector3i(-offset[0], -offset[1], -offset[2]), new Vector3i(width, height, length));
+            final byte[] blockdata = (byte[]) updatedView.get(Constants.Sponge.Schematic.BLOCK_DATA).orElseThrow(() -> new InvalidDataException("Missing BlockData for Schematic"));
+            int index = 0;
+            int i = 0;
+            int value = 0;
+            int varint_length = 0;
+            while (i < blockdata.length) {
+                value = 0;
+                varint_length = 0;
+
+                while (true) {
+                    value |= (blockdata[i] & 127) << (varint_length++ * 7);
+                    if (varint_length > 5) {
+                        throw new RuntimeException("VarInt too big (probably corrupted data)");
+                    }
+                    if ((blockdata[i] & 128) != 128) {
+                        i++;
+                        break;
+                    }
                     i++;
-                    break;
                 }
-                i++;
+                // index = (y * length + z) * width + x
+                final int y = index / (width * length);
+                final int z = (index % (width * length)) / width;
+                final int x = (index % (width * length)) % width;
+                final BlockState state = palette.get(value).get();
+                buffer.setBlock(x - offset[0], y - offset[1], z - offset[2], state);
+
+                index++;
             }
-            // index = (y * length + z) * width + x
-            final int y = index / (width * length);
-            final int z = (index % (width * length)) / width;
-            final int x = (index % (width * length)) % width;
-            final BlockState state = palette.get(value).get();
-            buffer.setBlock(x - offset[0], y - offset[1], z - offset[2], state);
-
-            index++;
         }
         builder.blocks(buffer);
 
@@ -357,6 +358,33 @@ public Schematic translate(DataView unprocessed) throws InvalidDataException {
         return builder.build();
     }
 
+    /**
+     * Reads the block palette of the given schematic data, or returns the
+     * global palette if the schematic has no palette of its own.
+     *
+     * @param view The schematic data
+     * @return The block palette
+     */
+    @SuppressWarnings("deprecation")
+    public Palette<BlockState> readBlockPalette(final DataView view) {
+        final Optional<DataView> paletteData = view.getView(Constants.Sponge.Schematic.PALETTE);
+        if (!paletteData.isPresent()) {
+            return GlobalPalette.getBlockPalette();
+        }
+        final int palette_max = view.getInt(Constants.Sponge.Schematic.PALETTE_MAX).orElse(0xFFFF);
+        // If we had a default palette_max we don't want to allocate all
+        // that space for nothing so we use a sensible default instead
+        final ArrayPalette<BlockState> localPalette = new ArrayPalette<>(PaletteTypes.LOCAL_BLOCKS, palette_max != 0xFFFF ? palette_max : 64);
+        final DataView paletteMap = paletteData.get();
+        final Set<DataQuery> paletteKeys = paletteMap.getKeys(false);
+        for (final DataQuery key : paletteKeys) {
+            final BlockState state = Sponge.getRegistry().getType(BlockState.class, key.getParts().get(0)).orElseGet(BlockTypes.BEDROCK::getDefaultState);
+            localPalette.assign(state, paletteMap.getInt(key).get());
+        }
+        // TODO - 1.13 remove the wrapper.
+        return new BlockPaletteWrapper(localPalette, org.spongepowered.api.world.schematic.BlockPaletteTypes.LOCAL);
+    }
+
     @Override
     public DataContainer translate(final Schematic schematic) throws InvalidDataException {
         final DataContainer data = DataContainer.createNew(DataView.SafetyMode.NO_DATA_CLONED);
@@ -366,6 +394,20 @@ public DataContainer translate(final Schematic schematic) throws InvalidDataExce
 
     @Override
     public DataView addTo(final Schematic schematic, final DataView data) {
+        return addTo(schematic, data, true);
+    }
+
+    /**
+     * Adds the given schematic to the data view, optionally leaving out the
+     * block data. The palette is still written in full, so the block data can
+     * be written separately with the ids the palette assigned.
+     *
+     * @param schematic The schematic
+     * @param data The view to add the schematic to
+     * @param includeBlockData Whether to encode the block data into the view
+     * @return The view
+     */
+    public DataView addTo(final Schematic schematic, final DataView data, final boolean includeBlockData) {
         final int xMin = schematic.getBlockMin().getX();
         final int yMin = schematic.getBlockMin().getY();
         final int zMin = schematic.getBlockMin().getZ();
@@ -391,22 +433,8 @@ public DataView addTo(final Schematic schematic, final DataView data) {
         data.set(Constants.Sponge.Schematic.OFFSET, offset);
 
         final Palette<BlockState> palette = schematic.getPalette();
-        try (final ByteArrayOutputStream buffer = new ByteArrayOutputStream(width * height * length)) {
-            for (int y = 0; y < height; y++) {
-                final int y0 = yMin + y;
-                for (int z = 0; z < length; z++) {
-                    final int z0 = zMin + z;
-                    for (int x = 0; x < width; x++) {
-                        final int x0 = xMin + x;
-                        final BlockState state = schematic.getBlock(x0, y0, z0);
-                        writeIdToBuffer(buffer, palette.getOrAssign(state));
-                    }
-                }
-            }
-
-            data.set(Constants.Sponge.Schematic.BLOCK_DATA, buffer.toByteArray());
-        } catch (IOException e) {
-            // should never reach here
+        if (includeBlockData) {
+            writeBlockData(schematic, data, palette);
         }
 
         final Palette<BiomeType> biomePalette = schematic.getBiomePalette();
@@ -422,7 +450,7 @@ public DataView addTo(final Schematic schematic, final DataView data) {
 
                 }
 
-                data.set(Constants.Sponge.Schematic.BLOCK_DATA, buffer.toByteArray());
+                data.set(Constants.Sponge.Schematic.BIOME_DATA, buffer.toByteArray());
             } catch (IOException e) {
                 // Should never reach here.
             }
@@ -498,6 +526,32 @@ public DataView addTo(final Schematic schematic, final DataView data) {
         return data;
     }
 
+    private void writeBlockData(final Schematic schematic, final DataView data, final Palette<BlockState> palette) {
+        final int xMin = schematic.getBlockMin().getX();
+        final int yMin = schematic.getBlockMin().getY();
+        final int zMin = schematic.getBlockMin().getZ();
+        final int width = schematic.getBlockSize().getX();
+        final int height = schematic.getBlockSize().getY();
+        final int length = schematic.getBlockSize().getZ();
+        try (final ByteArrayOutputStream buffer = new ByteArrayOutputStream(width * height * length)) {
+            for (int y = 0; y < height; y++) {
+                final int y0 = yMin + y;
+                for (int z = 0; z < length; z++) {
+                    final int z0 = zMin + z;
+                    for (int x = 0; x < width; x++) {
+                        final int x0 = xMin + x;
+                        final BlockState state = schematic.getBlock(x0, y0, z0);
+                        writeIdToBuffer(buffer, palette.getOrAssign(state));
+                    }
+                }
+            }
+
+            data.set(Constants.Sponge.Schematic.BLOCK_DATA, buffer.toByteArray());
+        } catch (IOException e) {
+            // should never reach here
+        }
+    }
+
      private void writeIdToBuffer(final ByteArrayOutputStream buffer, final int orAssign) {
         int id = orAssign;
 
@@ -0,0 +1,417 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data.persistence.schematic;
+
+import com.flowpowered.math.vector.Vector3i;
+import net.minecraft.nbt.NBTBase;
+import net.minecraft.nbt.NBTTagByte;
+import net.minecraft.nbt.NBTTagByteArray;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagDouble;
+import net.minecraft.nbt.NBTTagFloat;
+import net.minecraft.nbt.NBTTagInt;
+import net.minecraft.nbt.NBTTagIntArray;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.nbt.NBTTagLong;
+import net.minecraft.nbt.NBTTagLongArray;
+import net.minecraft.nbt.NBTTagShort;
+import net.minecraft.nbt.NBTTagString;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.data.DataContainer;
+import org.spongepowered.api.data.DataView;
+import org.spongepowered.api.data.persistence.InvalidDataException;
+import org.spongepowered.api.world.schematic.Palette;
+import org.spongepowered.api.world.schematic.Schematic;
+import org.spongepowered.common.data.persistence.NbtTranslator;
+import org.spongepowered.common.data.persistence.SchematicTranslator;
+import org.spongepowered.common.mixin.core.nbt.NBTTagLongArrayAccessor;
+import org.spongepowered.common.util.Constants;
+import org.spongepowered.common.util.gen.AbstractBlockBuffer;
+import org.spongepowered.common.util.gen.ArrayMutableBlockBuffer;
+import org.spongepowered.common.world.schematic.SpongeSchematic;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nullable;
+
+/**
+ * Reads and writes Sponge schematics in their NBT form without holding the
+ * block data in memory more than once.
+ *
+ * <p>While reading, the block data is decoded straight from the stream into
+ * the packed backing data of an {@link ArrayMutableBlockBuffer}, as long as
+ * the size, offset and palette were already read. The schematics written by
+ * this codec always store those first. Everything but the block data is read
+ * into regular NBT and handed to the {@link SchematicTranslator}.</p>
+ *
+ * <p>While writing, the palette ids of the backing block buffer are encoded
+ * straight into the output stream.</p>
+ */
+public final class StreamingSchematicCodec {
+
+    private static final int MAX_DEPTH = 512;
+    private static final String ROOT_NAME = "Schematic";
+    private static final String BLOCK_DATA = Constants.Sponge.Schematic.BLOCK_DATA.asString('.');
+    private static final List<String> PALETTE_TAGS = Arrays.asList(
+        Constants.Sponge.Schematic.PALETTE_MAX.asString('.'),
+        Constants.Sponge.Schematic.PALETTE.asString('.'));
+    private static final List<String> LEADING_TAGS = Arrays.asList(
+        Constants.Sponge.Schematic.VERSION.asString('.'),
+        Constants.Sponge.Schematic.DATA_VERSION.asString('.'),
+        Constants.Sponge.Schematic.WIDTH.asString('.'),
+        Constants.Sponge.Schematic.HEIGHT.asString('.'),
+        Constants.Sponge.Schematic.LENGTH.asString('.'),
+        Constants.Sponge.Schematic.OFFSET.asString('.'),
+        Constants.Sponge.Schematic.PALETTE_MAX.asString('.'),
+        Constants.Sponge.Schematic.PALETTE.asString('.'),
+        Constants.Sponge.Schematic.METADATA.asString('.'));
+
+    /**
+     * Reads a schematic from the given file, which may be gzip compressed.
+     *
+     * @param path The schematic file
+     * @return The schematic
+     * @throws IOException If the file could not be read
+     * @throws InvalidDataException If the file is not a valid schematic
+     */
+    public static Schematic read(final Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(Channels.newInputStream(channel));
+        }
+    }
+
+    /**
+     * Reads a schematic from the given stream, which may be gzip compressed.
+     * The stream is not closed.
+     *
+     * @param input The stream to read from
+     * @return The schematic
+     * @throws IOException If the stream could not be read
+     * @throws InvalidDataException If the stream is not a valid schematic
+     */
+    public static Schematic read(final InputStream input) throws IOException {
+        InputStream buffered = new BufferedInputStream(input, 65536);
+        buffered.mark(2);
+        final int magic = buffered.read() | buffered.read() << 8;
+        buffered.reset();
+        if (magic == GZIPInputStream.GZIP_MAGIC) {
+            buffered = new BufferedInputStream(new GZIPInputStream(buffered, 65536), 65536);
+        }
+        final DataInputStream in = new DataInputStream(buffered);
+        if (in.readByte() != Constants.NBT.TAG_COMPOUND) {
+            throw new InvalidDataException("Schematic data does not start with a compound tag");
+        }
+        in.readUTF();
+
+        final NBTTagCompound compound = new NBTTagCompound();
+        @Nullable ArrayMutableBlockBuffer blocks = null;
+        @Nullable byte[] rawBlockData = null;
+        byte type;
+        while ((type = in.readByte()) != Constants.NBT.TAG_END) {
+            final String name = in.readUTF();
+            if (type == Constants.NBT.TAG_BYTE_ARRAY && BLOCK_DATA.equals(name)) {
+                final int length = in.readInt();
+                if (canDecodeBlocks(compound)) {
+                    blocks = decodeBlocks(compound, in, length);
+                } else {
+                    // Not everything needed to decode the blocks is known yet, so
+                    // they're decoded once the rest of the schematic is read.
+                    rawBlockData = new byte[length];
+                    in.readFully(rawBlockData);
+                }
+            } else {
+                compound.setTag(name, readTag(in, type, 0));
+            }
+        }
+        if (blocks == null && rawBlockData != null) {
+            blocks = decodeBlocks(compound, new DataInputStream(new ByteArrayInputStream(rawBlockData)), rawBlockData.length);
+        }
+        final DataView view = NbtTranslator.getInstance().translateFrom(compound);
+        if (blocks == null) {
+            throw new InvalidDataException("Missing BlockData for Schematic");
+        }
+        return SchematicTranslator.get().translate(view, blocks);
+    }
+
+    /**
+     * Writes the given schematic gzip compressed to the given file.
+     *
+     * @param schematic The schematic
+     * @param path The file to write to
+     * @throws IOException If the file could not be written
+     */
+    public static void write(final Schematic schematic, final Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(schematic, Channels.newOutputStream(channel));
+        }
+    }
+
+    /**
+     * Writes the given schematic gzip compressed to the given stream. The
+     * stream is not closed.
+     *
+     * @param schematic The schematic
+     * @param output The stream to write to
+     * @throws IOException If the stream could not be written
+     */
+    public static void write(final Schematic schematic, final OutputStream output) throws IOException {
+        @Nullable final ArrayMutableBlockBuffer blocks = getBlockBuffer(schematic);
+        final DataContainer container = DataContainer.createNew(DataView.SafetyMode.NO_DATA_CLONED);
+        SchematicTranslator.get().addTo(schematic, container, blocks == null);
+        final NBTTagCompound compound = NbtTranslator.getInstance().translate(container);
+
+        final GZIPOutputStream gzip = new GZIPOutputStream(output, 65536);
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip, 65536));
+        out.writeByte(Constants.NBT.TAG_COMPOUND);
+        out.writeUTF(ROOT_NAME);
+        // Everything needed to decode the block data goes first, so it can be
+        // decoded while reading
+        for (final String name : LEADING_TAGS) {
+            final NBTBase tag = compound.getTag(name);
+            if (tag != null) {
+                writeNamedTag(out, name, tag);
+            }
+        }
+        if (blocks != null) {
+            out.writeByte(Constants.NBT.TAG_BYTE_ARRAY);
+            out.writeUTF(BLOCK_DATA);
+            out.writeInt(blocks.getVarIntIdsLength());
+            blocks.writeVarIntIds(out);
+        }
+        for (final String name : compound.getKeySet()) {
+            if (!LEADING_TAGS.contains(name)) {
+                writeNamedTag(out, name, compound.getTag(name));
+            }
+        }
+        out.writeByte(Constants.NBT.TAG_END);
+        out.flush();
+        gzip.finish();
+    }
+
+    @Nullable
+    private static ArrayMutableBlockBuffer getBlockBuffer(final Schematic schematic) {
+        if (!(schematic instanceof SpongeSchematic)) {
+            return null;
+        }
+        final Object backing = ((SpongeSchematic) schematic).getBacking();
+        // The ids can only be written as they are if they're ids of the palette that is written
+        if (backing instanceof ArrayMutableBlockBuffer && ((AbstractBlockBuffer) backing).getPalette() == schematic.getPalette()) {
+            return (ArrayMutableBlockBuffer) backing;
+        }
+        return null;
+    }
+
+    private static boolean canDecodeBlocks(final NBTTagCompound compound) {
+        return compound.hasKey(Constants.Sponge.Schematic.WIDTH.asString('.'), Constants.NBT.TAG_SHORT)
+            && compound.hasKey(Constants.Sponge.Schematic.HEIGHT.asString('.'), Constants.NBT.TAG_SHORT)
+            && compound.hasKey(Constants.Sponge.Schematic.LENGTH.asString('.'), Constants.NBT.TAG_SHORT)
+            && compound.hasKey(Constants.Sponge.Schematic.OFFSET.asString('.'), Constants.NBT.TAG_INT_ARRAY)
+            && compound.hasKey(Constants.Sponge.Schematic.PALETTE.asString('.'), Constants.NBT.TAG_COMPOUND);
+    }
+
+    private static ArrayMutableBlockBuffer decodeBlocks(final NBTTagCompound compound, final DataInput input, final int length) throws IOException {
+        final int width = compound.getShort(Constants.Sponge.Schematic.WIDTH.asString('.'));
+        final int height = compound.getShort(Constants.Sponge.Schematic.HEIGHT.asString('.'));
+        final int schematicLength = compound.getShort(Constants.Sponge.Schematic.LENGTH.asString('.'));
+        if (width > Constants.Sponge.Schematic.MAX_SIZE || height > Constants.Sponge.Schematic.MAX_SIZE
+            || schematicLength > Constants.Sponge.Schematic.MAX_SIZE) {
+            throw new InvalidDataException(String.format("Schematic is larger than maximum allowable size (found: (%d, %d, %d) max: (%d, %<d, %<d)",
+                width, height, schematicLength, Constants.Sponge.Schematic.MAX_SIZE));
+        }
+        final int[] offset = compound.hasKey(Constants.Sponge.Schematic.OFFSET.asString('.'), Constants.NBT.TAG_INT_ARRAY)
+                             ? compound.getIntArray(Constants.Sponge.Schematic.OFFSET.asString('.'))
+                             : new int[3];
+        if (offset.length != 3) {
+            throw new InvalidDataException("Schematic offset was not of length 3");
+        }
+        // Only the palette is translated here, the rest is translated once everything is read
+        final NBTTagCompound paletteCompound = new NBTTagCompound();
+        for (final String name : PALETTE_TAGS) {
+            final NBTBase tag = compound.getTag(name);
+            if (tag != null) {
+                paletteCompound.setTag(name, tag);
+            }
+        }
+        final Palette<BlockState> palette = SchematicTranslator.get().readBlockPalette(NbtTranslator.getInstance().translateFrom(paletteCompound));
+        return ArrayMutableBlockBuffer.readVarIntIds(palette, new Vector3i(-offset[0], -offset[1], -offset[2]),
+            new Vector3i(width, height, schematicLength), input, length);
+    }
+
+    private static NBTBase readTag(final DataInput in, final byte type, final int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new InvalidDataException("Tried to read NBT tag with too high complexity, depth > " + MAX_DEPTH);
+        }
+        switch (type) {
+            case Constants.NBT.TAG_BYTE:
+                return new NBTTagByte(in.readByte());
+            case Constants.NBT.TAG_SHORT:
+                return new NBTTagShort(in.readShort());
+            case Constants.NBT.TAG_INT:
+                return new NBTTagInt(in.readInt());
+            case Constants.NBT.TAG_LONG:
+                return new NBTTagLong(in.readLong());
+            case Constants.NBT.TAG_FLOAT:
+                return new NBTTagFloat(in.readFloat());
+            case Constants.NBT.TAG_DOUBLE:
+                return new NBTTagDouble(in.readDouble());
+            case Constants.NBT.TAG_BYTE_ARRAY: {
+                final byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return new NBTTagByteArray(bytes);
+            }
+            case Constants.NBT.TAG_STRING:
+                return new NBTTagString(in.readUTF());
+            case Constants.NBT.TAG_LIST: {
+                final byte elementType = in.readByte();
+                final int size = in.readInt();
+                final NBTTagList list = new NBTTagList();
+                for (int i = 0; i < size; i++) {
+                    list.appendTag(readTag(in, elementType, depth + 1));
+                }
+                return list;
+            }
+            case Constants.NBT.TAG_COMPOUND: {
+                final NBTTagCompound compound = new NBTTagCompound();
+                byte childType;
+                while ((childType = in.readByte()) != Constants.NBT.TAG_END) {
+                    final String name = in.readUTF();
+                    compound.setTag(name, readTag(in, childType, depth + 1));
+                }
+                return compound;
+            }
+            case Constants.NBT.TAG_INT_ARRAY: {
+                final int[] ints = new int[in.readInt()];
+                for (int i = 0; i < ints.length; i++) {
+                    ints[i] = in.readInt();
+                }
+                return new NBTTagIntArray(ints);
+            }
+            case Constants.NBT.TAG_LONG_ARRAY: {
+                final long[] longs = new long[in.readInt()];
+                for (int i = 0; i < longs.length; i++) {
+                    longs[i] = in.readLong();
+                }
+                return new NBTTagLongArray(longs);
+            }
+            default:
+                throw new InvalidDataException("Unknown NBT tag type " + type);
+        }
+    }
+
+    private static void writeNamedTag(final DataOutput out, final String name, final NBTBase tag) throws IOException {
+        out.writeByte(tag.getId());
+        out.writeUTF(name);
+        writeTag(out, tag);
+    }
+
+    private static void writeTag(final DataOutput out, final NBTBase tag) throws IOException {
+        switch (tag.getId()) {
+            case Constants.NBT.TAG_BYTE:
+                out.writeByte(((NBTTagByte) tag).getByte());
+                break;
+            case Constants.NBT.TAG_SHORT:
+                out.writeShort(((NBTTagShort) tag).getShort());
+                break;
+            case Constants.NBT.TAG_INT:
+                out.writeInt(((NBTTagInt) tag).getInt());
+                break;
+            case Constants.NBT.TAG_LONG:
+                out.writeLong(((NBTTagLong) tag).getLong());
+                break;
+            case Constants.NBT.TAG_FLOAT:
+                out.writeFloat(((NBTTagFloat) tag).getFloat());
+                break;
+            case Constants.NBT.TAG_DOUBLE:
+                out.writeDouble(((NBTTagDouble) tag).getDouble());
+                break;
+            case Constants.NBT.TAG_BYTE_ARRAY: {
+                final byte[] bytes = ((NBTTagByteArray) tag).getByteArray();
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                break;
+            }
+            case Constants.NBT.TAG_STRING:
+                out.writeUTF(((NBTTagString) tag).getString());
+                break;
+            case Constants.NBT.TAG_LIST: {
+                final NBTTagList list = (NBTTagList) tag;
+                out.writeByte(list.isEmpty() ? Constants.NBT.TAG_END : list.getTagType());
+                out.writeInt(list.tagCount());
+                for (int i = 0; i < list.tagCount(); i++) {
+                    writeTag(out, list.get(i));
+                }
+                break;
+            }
+            case Constants.NBT.TAG_COMPOUND: {
+                final NBTTagCompound compound = (NBTTagCompound) tag;
+                for (final String name : compound.getKeySet()) {
+                    writeNamedTag(out, name, compound.getTag(name));
+                }
+                out.writeByte(Constants.NBT.TAG_END);
+                break;
+            }
+            case Constants.NBT.TAG_INT_ARRAY: {
+                final int[] ints = ((NBTTagIntArray) tag).getIntArray();
+                out.writeInt(ints.length);
+                for (final int value : ints) {
+                    out.writeInt(value);
+                }
+                break;
+            }
+            case Constants.NBT.TAG_LONG_ARRAY: {
+                final long[] longs = ((NBTTagLongArrayAccessor) tag).accessor$getLongArray();
+                out.writeInt(longs.length);
+                for (final long value : longs) {
+                    out.writeLong(value);
+                }
+                break;
+            }
+            default:
+                throw new IOException("Unknown NBT tag type " + tag.getId());
+        }
+    }
+
+    private StreamingSchematicCodec() {
+    }
+
+}
@@ -49,6 +49,17 @@ public AbstractMultiDataSingleTargetProcessor(Class<Holder> holderClass) {
         this.holderClass = checkNotNull(holderClass);
     }
 
+    /**
+     * Gets whether instances of the class can be supported at all, without
+     * looking at any particular instance.
+     *
+     * @param holderClass The class of the holders
+     * @return Whether some instance of the class could be supported
+     */
+    public boolean supportsClass(Class<?> holderClass) {
+        return this.holderClass.isAssignableFrom(holderClass);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public boolean supports(DataHolder dataHolder) {
@@ -66,6 +66,17 @@ protected boolean supports(C container) {
         return true;
     }
 
+    /**
+     * Gets whether instances of the class can be supported at all, without
+     * looking at any particular instance.
+     *
+     * @param holderClass The class of the holders
+     * @return Whether some instance of the class could be supported
+     */
+    public boolean supportsClass(Class<?> holderClass) {
+        return this.containerClass.isAssignableFrom(holderClass);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public boolean supports(ValueContainer<?> container) {
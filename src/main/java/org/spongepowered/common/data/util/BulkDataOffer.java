@@ -0,0 +1,419 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data.util;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.data.DataHolder;
+import org.spongepowered.api.data.DataTransactionResult;
+import org.spongepowered.api.data.key.Key;
+import org.spongepowered.api.data.manipulator.DataManipulator;
+import org.spongepowered.api.data.merge.MergeFunction;
+import org.spongepowered.api.data.value.BaseValue;
+import org.spongepowered.api.data.value.immutable.ImmutableValue;
+import org.spongepowered.api.event.Cancellable;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.util.Tuple;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.SpongeImplHooks;
+import org.spongepowered.common.bridge.data.CustomDataHolderBridge;
+import org.spongepowered.common.data.DataProcessor;
+import org.spongepowered.common.data.ValueProcessor;
+import org.spongepowered.common.data.processor.common.AbstractMultiDataSingleTargetProcessor;
+import org.spongepowered.common.data.processor.common.AbstractSingleDataSingleTargetProcessor;
+import org.spongepowered.common.data.processor.common.AbstractSpongeValueProcessor;
+import org.spongepowered.common.data.value.immutable.ImmutableSpongeValue;
+import org.spongepowered.common.entity.player.SpongeUser;
+import org.spongepowered.common.relocate.co.aikar.timings.SpongeTimings;
+import org.spongepowered.common.relocate.co.aikar.timings.TimingsManager;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+/**
+ * Offers the same value or manipulator to many {@link DataHolder}s at once.
+ *
+ * <p>The processor delegate is resolved once per batch, and the processors
+ * that can support a holder class at all are resolved once per holder
+ * class. They are tried in order of priority like the delegate would. The
+ * individual {@link DataTransactionResult}s are only merged into a single
+ * result when requested, otherwise only the amount of successful and failed
+ * offers is kept and no failure results are built.</p>
+ *
+ * <p>A single {@link ChangeEvent} is fired for the whole batch before any
+ * holder is changed. While the batch is offered on the main thread, the
+ * {@link org.spongepowered.api.event.data.ChangeDataHolderEvent.ValueChange}
+ * events of the single entities are not fired.</p>
+ */
+public final class BulkDataOffer {
+
+    private static int offeringDepth;
+
+    /**
+     * Gets whether a batch is being offered on the main thread, in which
+     * case the changes of single holders are covered by its event.
+     *
+     * @return Whether a batch is being offered
+     */
+    public static boolean isOffering() {
+        return offeringDepth > 0;
+    }
+
+    /**
+     * Offers the value for the key to all the holders.
+     *
+     * @param holders The holders to offer the value to
+     * @param key The key
+     * @param value The value
+     * @param mergeResults Whether the results of every holder should be merged
+     * @param <E> The type of value
+     * @return The result of the batch
+     */
+    public static <E> Result offer(final Iterable<? extends DataHolder> holders, final Key<? extends BaseValue<E>> key, final E value,
+            final boolean mergeResults) {
+        checkNotNull(holders, "holders");
+        checkNotNull(key, "key");
+        checkNotNull(value, "value");
+        final ChangeEvent event = new ChangeEvent(Sponge.getCauseStackManager().getCurrentCause(), Lists.newArrayList(holders),
+            ImmutableList.of(new ImmutableSpongeValue<>(key, value)));
+        if (SpongeImpl.postEvent(event)) {
+            return Result.cancelled(event.getHolders().size(), mergeResults);
+        }
+        TimingsManager.DATA_GROUP_HANDLER.startTimingIfSync();
+        SpongeTimings.dataOfferKey.startTimingIfSync();
+        final boolean mainThread = SpongeImplHooks.isMainThread();
+        if (mainThread) {
+            offeringDepth++;
+        }
+        try {
+            return offerValue(event.getHolders(), key, value, mergeResults, DataUtil.getBaseValueProcessor(key).orElse(null));
+        } finally {
+            if (mainThread) {
+                offeringDepth--;
+            }
+            SpongeTimings.dataOfferKey.stopTimingIfSync();
+            TimingsManager.DATA_GROUP_HANDLER.stopTimingIfSync();
+        }
+    }
+
+    /**
+     * Offers the manipulator to all the holders.
+     *
+     * @param holders The holders to offer the manipulator to
+     * @param manipulator The manipulator
+     * @param function The merge function
+     * @param mergeResults Whether the results of every holder should be merged
+     * @return The result of the batch
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Result offer(final Iterable<? extends DataHolder> holders, final DataManipulator<?, ?> manipulator, final MergeFunction function,
+            final boolean mergeResults) {
+        checkNotNull(holders, "holders");
+        checkNotNull(manipulator, "manipulator");
+        checkNotNull(function, "function");
+        final ChangeEvent event = new ChangeEvent(Sponge.getCauseStackManager().getCurrentCause(), Lists.newArrayList(holders),
+            ImmutableList.copyOf(manipulator.getValues()));
+        if (SpongeImpl.postEvent(event)) {
+            return Result.cancelled(event.getHolders().size(), mergeResults);
+        }
+        TimingsManager.DATA_GROUP_HANDLER.startTimingIfSync();
+        SpongeTimings.dataOfferManipulator.startTimingIfSync();
+        final boolean mainThread = SpongeImplHooks.isMainThread();
+        if (mainThread) {
+            offeringDepth++;
+        }
+        try {
+            return offerManipulator(event.getHolders(), manipulator, function, mergeResults,
+                (DataProcessor) DataUtil.getWildDataProcessor(manipulator.getClass()).orElse(null));
+        } finally {
+            if (mainThread) {
+                offeringDepth--;
+            }
+            SpongeTimings.dataOfferManipulator.stopTimingIfSync();
+            TimingsManager.DATA_GROUP_HANDLER.stopTimingIfSync();
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <E> Result offerValue(final Iterable<? extends DataHolder> holders, final Key<? extends BaseValue<E>> key, final E value,
+            final boolean mergeResults, @Nullable final ValueProcessor<E, ?> processor) {
+        final Result batchResult = new Result(mergeResults);
+        final List<ValueProcessor<E, ?>> processors = processor instanceof ValueProcessorDelegate
+            ? (List) ((ValueProcessorDelegate<E, ?>) processor).getProcessors()
+            : processor == null ? ImmutableList.of() : ImmutableList.of(processor);
+        final Map<Class<?>, List<ValueProcessor<E, ?>>> candidatesByClass = new IdentityHashMap<>();
+        @Nullable DataTransactionResult failure = null;
+        for (final DataHolder holder : holders) {
+            final DataHolder target = holder instanceof SpongeUser ? ((SpongeUser) holder).getDataHolder(true) : holder;
+            @Nullable DataTransactionResult result = null;
+            if (processor == null) {
+                if (target instanceof CustomDataHolderBridge) {
+                    result = ((CustomDataHolderBridge) target).bridge$offerCustom(key, value);
+                }
+            } else {
+                List<ValueProcessor<E, ?>> candidates = candidatesByClass.get(target.getClass());
+                if (candidates == null) {
+                    candidates = getCandidates(processors, target.getClass());
+                    candidatesByClass.put(target.getClass(), candidates);
+                }
+                for (final ValueProcessor<E, ?> candidate : candidates) {
+                    if (candidate.supports(target)) {
+                        result = succeeded(candidate.offerToStore(target, value));
+                        if (result != null) {
+                            break;
+                        }
+                    }
+                }
+            }
+            if (result == null) {
+                if (!mergeResults) {
+                    batchResult.fail();
+                    continue;
+                }
+                // None of the processors accepted the value, so there is nothing left to try
+                if (failure == null) {
+                    failure = processor == null ? DataTransactionResult.failNoData()
+                        : DataTransactionResult.failResult(new ImmutableSpongeValue<>(key, value));
+                }
+                result = failure;
+            }
+            batchResult.absorb(result);
+        }
+        return batchResult;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Result offerManipulator(final Iterable<? extends DataHolder> holders, final DataManipulator<?, ?> manipulator,
+            final MergeFunction function, final boolean mergeResults, @Nullable final DataProcessor processor) {
+        final Result batchResult = new Result(mergeResults);
+        final List<DataProcessor> processors;
+        if (processor instanceof DataProcessorDelegate) {
+            processors = new ArrayList<>();
+            for (final Tuple<DataProcessor, ?> tuple : (List<Tuple<DataProcessor, ?>>) (List) ((DataProcessorDelegate) processor).getProcessors()) {
+                processors.add(tuple.getFirst());
+            }
+        } else {
+            processors = processor == null ? ImmutableList.of() : ImmutableList.of(processor);
+        }
+        final Map<Class<?>, List<DataProcessor>> candidatesByClass = new IdentityHashMap<>();
+        @Nullable DataTransactionResult failure = null;
+        for (final DataHolder holder : holders) {
+            final DataHolder target = holder instanceof SpongeUser ? ((SpongeUser) holder).getDataHolder(true) : holder;
+            @Nullable DataTransactionResult result = null;
+            if (processor == null) {
+                if (target instanceof CustomDataHolderBridge) {
+                    result = ((CustomDataHolderBridge) target).bridge$offerCustom(manipulator, function);
+                }
+            } else {
+                List<DataProcessor> candidates = candidatesByClass.get(target.getClass());
+                if (candidates == null) {
+                    candidates = getCandidates(processors, target.getClass());
+                    candidatesByClass.put(target.getClass(), candidates);
+                }
+                for (final DataProcessor candidate : candidates) {
+                    if (candidate.supports(target)) {
+                        result = succeeded(candidate.set(target, manipulator, function));
+                        if (result != null) {
+                            break;
+                        }
+                    }
+                }
+            }
+            if (result == null) {
+                if (!mergeResults) {
+                    batchResult.fail();
+                    continue;
+                }
+                if (failure == null) {
+                    failure = DataTransactionResult.failResult(manipulator.getValues());
+                }
+                result = failure;
+            }
+            batchResult.absorb(result);
+        }
+        return batchResult;
+    }
+
+    /**
+     * Gets the processors that can support some instance of the holder
+     * class, in their original order. Processors that only decide per
+     * instance are always kept.
+     */
+    static <P> List<P> getCandidates(final List<P> processors, final Class<?> holderClass) {
+        final List<P> candidates = new ArrayList<>(processors.size());
+        for (final P processor : processors) {
+            if (canSupport(processor, holderClass)) {
+                candidates.add(processor);
+            }
+        }
+        return candidates;
+    }
+
+    private static boolean canSupport(final Object processor, final Class<?> holderClass) {
+        if (processor instanceof AbstractSpongeValueProcessor) {
+            return ((AbstractSpongeValueProcessor<?, ?, ?>) processor).supportsClass(holderClass);
+        } else if (processor instanceof AbstractSingleDataSingleTargetProcessor) {
+            return ((AbstractSingleDataSingleTargetProcessor<?, ?, ?, ?, ?>) processor).supportsClass(holderClass);
+        } else if (processor instanceof AbstractMultiDataSingleTargetProcessor) {
+            return ((AbstractMultiDataSingleTargetProcessor<?, ?, ?>) processor).supportsClass(holderClass);
+        }
+        return true;
+    }
+
+    @Nullable
+    private static DataTransactionResult succeeded(final DataTransactionResult result) {
+        return result.getType() == DataTransactionResult.Type.FAILURE ? null : result;
+    }
+
+    /**
+     * Fired once for a batch before any of its holders is changed. Holders
+     * can be removed from the batch, or the whole batch can be cancelled.
+     */
+    public static final class ChangeEvent implements Event, Cancellable {
+
+        private final Cause cause;
+        private final List<DataHolder> holders;
+        private final List<ImmutableValue<?>> offeredData;
+        private boolean cancelled;
+
+        ChangeEvent(final Cause cause, final List<DataHolder> holders, final List<ImmutableValue<?>> offeredData) {
+            this.cause = cause;
+            this.holders = holders;
+            this.offeredData = offeredData;
+        }
+
+        /**
+         * Gets the holders the data will be offered to, which can be
+         * changed.
+         *
+         * @return The holders
+         */
+        public List<DataHolder> getHolders() {
+            return this.holders;
+        }
+
+        /**
+         * Gets the values that will be offered to every holder.
+         *
+         * @return The offered values
+         */
+        public List<ImmutableValue<?>> getOfferedData() {
+            return this.offeredData;
+        }
+
+        @Override
+        public Cause getCause() {
+            return this.cause;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        @Override
+        public void setCancelled(final boolean cancel) {
+            this.cancelled = cancel;
+        }
+    }
+
+    /**
+     * The outcome of a batched offer.
+     */
+    public static final class Result {
+
+        @Nullable private final DataTransactionResult.Builder builder;
+        private int successful;
+        private int failed;
+
+        Result(final boolean mergeResults) {
+            this.builder = mergeResults ? DataTransactionResult.builder() : null;
+        }
+
+        static Result cancelled(final int holders, final boolean mergeResults) {
+            final Result result = new Result(mergeResults);
+            result.failed = holders;
+            if (result.builder != null) {
+                result.builder.result(DataTransactionResult.Type.CANCELLED);
+            }
+            return result;
+        }
+
+        void fail() {
+            this.failed++;
+        }
+
+        void absorb(final DataTransactionResult result) {
+            if (result.isSuccessful()) {
+                this.successful++;
+            } else {
+                this.failed++;
+            }
+            if (this.builder != null) {
+                this.builder.absorbResult(result);
+            }
+        }
+
+        /**
+         * Gets the amount of holders the data was successfully offered to.
+         *
+         * @return The amount of successful offers
+         */
+        public int getSuccessful() {
+            return this.successful;
+        }
+
+        /**
+         * Gets the amount of holders that didn't accept the data.
+         *
+         * @return The amount of failed offers
+         */
+        public int getFailed() {
+            return this.failed;
+        }
+
+        /**
+         * Gets the results of all the holders merged into one, if the batch
+         * was requested to merge results.
+         *
+         * @return The merged result, if available
+         */
+        public Optional<DataTransactionResult> getMergedResult() {
+            return this.builder == null ? Optional.empty() : Optional.of(this.builder.build());
+        }
+    }
+
+    private BulkDataOffer() {
+    }
+}
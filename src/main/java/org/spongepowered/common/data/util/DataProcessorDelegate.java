@@ -55,6 +55,10 @@ public DataProcessorDelegate(final ImmutableList<DataProcessor<M, I>> processors
         this.processors = builder.build();
     }
 
+    ImmutableList<Tuple<DataProcessor<M, I>, Timing>> getProcessors() {
+        return this.processors;
+    }
+
     @Override
     public int getPriority() {
         return Integer.MAX_VALUE;
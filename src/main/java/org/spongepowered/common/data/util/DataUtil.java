@@ -32,6 +32,7 @@
 import com.flowpowered.math.vector.Vector3i;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.MapMaker;
 import com.google.common.reflect.TypeToken;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
@@ -77,6 +78,7 @@
 import org.spongepowered.common.data.persistence.SerializedDataTransaction;
 import org.spongepowered.common.data.processor.common.AbstractSingleDataSingleTargetProcessor;
 import org.spongepowered.common.util.Constants;
+import org.spongepowered.common.util.OptimizationStats;
 import org.spongepowered.common.util.TypeTokenHelper;
 
 import java.lang.reflect.Modifier;
@@ -89,6 +91,7 @@
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -99,6 +102,48 @@ public final class DataUtil {
 
     public static final DataFixer spongeDataFixer = new DataFixer(Constants.Sponge.SPONGE_DATA_VERSION);
     private static final Supplier<InvalidDataException> INVALID_DATA_EXCEPTION_SUPPLIER = InvalidDataException::new;
+    private static final LongAdder CUSTOM_DATA_WRITES = OptimizationStats.counter("custom-data.writes");
+    private static final LongAdder CUSTOM_DATA_REUSES = OptimizationStats.counter("custom-data.reuses");
+    // Weak keys compare by identity, which avoids the expensive Key#hashCode
+    private static final Map<Key<?>, ElementKind> ELEMENT_KINDS = new MapMaker().weakKeys().concurrencyLevel(4).makeMap();
+
+    /**
+     * How the element of a {@link Key} is read from a {@link DataView}, the
+     * order of the checks matters.
+     */
+    private enum ElementKind {
+        SERIALIZABLE,
+        CATALOG_TYPE,
+        TEXT,
+        SERIALIZABLE_LIST,
+        LIST,
+        SET,
+        MAP,
+        ENUM,
+        OTHER;
+
+        static ElementKind of(final TypeToken<?> elementToken) {
+            // We always check DataSerializeable first, since this should override
+            // any other handling (e.g. for CatalogTypes)
+            if (elementToken.isSubtypeOf(TypeToken.of(DataSerializable.class))) {
+                return SERIALIZABLE;
+            } else if (elementToken.isSubtypeOf(TypeToken.of(CatalogType.class))) {
+                return CATALOG_TYPE;
+            } else if (elementToken.isSubtypeOf(TypeToken.of(Text.class))) {
+                return TEXT;
+            } else if (elementToken.isSubtypeOf(TypeToken.of(List.class))) {
+                return elementToken.isSubtypeOf(TypeTokens.LIST_DATA_SERIALIZEABLE_TOKEN) ? SERIALIZABLE_LIST : LIST;
+            } else if (elementToken.isSubtypeOf(TypeToken.of(Set.class))) {
+                return SET;
+            } else if (elementToken.isSubtypeOf(TypeToken.of(Map.class))) {
+                return MAP;
+            } else if (elementToken.isSubtypeOf(TypeToken.of(Enum.class))) {
+                return ENUM;
+            }
+            return OTHER;
+        }
+    }
+
 
     static {
         spongeDataFixer.registerFix(FixTypes.LEVEL, new SpongeLevelFixer());
@@ -118,45 +163,50 @@ public static <T> T getData(final DataView dataView, final Key<? extends BaseVal
         checkDataExists(dataView, checkNotNull(key).getQuery());
         final Object object;
         final TypeToken<?> elementToken = key.getElementToken();
-        // Order matters here
-        // We always check DataSerializeable first, since this should override
-        // any other handling (e.g. for CatalogTypes)
-        if (elementToken.isSubtypeOf(TypeToken.of(DataSerializable.class))) {
-            object = dataView.getSerializable(key.getQuery(), (Class<DataSerializable>) elementToken.getRawType())
-                .orElseThrow(() -> new InvalidDataException("Missing value for key: " + key.getId()));
-        } else if (elementToken.isSubtypeOf(TypeToken.of(CatalogType.class))) {
-            object = dataView.getCatalogType(key.getQuery(), (Class<CatalogType>) elementToken.getRawType())
-                .orElseThrow(() -> new InvalidDataException("Missing value for key: " + key.getId()));
-        } else if (elementToken.isSubtypeOf(TypeToken.of(Text.class))) {
-            final String input = dataView.getString(key.getQuery())
+        // Subtype checks against type tokens are expensive, so the outcome is cached per key
+        switch (ELEMENT_KINDS.computeIfAbsent(key, k -> ElementKind.of(k.getElementToken()))) {
+            case SERIALIZABLE:
+                object = dataView.getSerializable(key.getQuery(), (Class<DataSerializable>) elementToken.getRawType())
+                    .orElseThrow(() -> new InvalidDataException("Missing value for key: " + key.getId()));
+                break;
+            case CATALOG_TYPE:
+                object = dataView.getCatalogType(key.getQuery(), (Class<CatalogType>) elementToken.getRawType())
                     .orElseThrow(() -> new InvalidDataException("Missing value for key: " + key.getId()));
-            object = TextSerializers.PLAIN.deserialize(input);
-        } else if (elementToken.isSubtypeOf(TypeToken.of(List.class))) {
-            final Optional<?> opt;
-            if (elementToken.isSubtypeOf(TypeTokens.LIST_DATA_SERIALIZEABLE_TOKEN)) {
+                break;
+            case TEXT:
+                final String input = dataView.getString(key.getQuery())
+                        .orElseThrow(() -> new InvalidDataException("Missing value for key: " + key.getId()));
+                object = TextSerializers.PLAIN.deserialize(input);
+                break;
+            case SERIALIZABLE_LIST:
                 final Class<?> listElement = TypeTokenHelper.getGenericParam(elementToken, 0);
-                opt = dataView.getSerializableList(key.getQuery(), (Class) listElement);
-            } else {
-                opt = dataView.getList(key.getQuery());
-            }
-            object = opt.orElseThrow(() -> new InvalidDataException("Missing value for key: " + key.getId()));
-        } else if (elementToken.isSubtypeOf(TypeToken.of(Set.class))) {
-            final List<?> objects = dataView.getList(key.getQuery()).orElse(Collections.emptyList());
-            object = new HashSet<Object>(objects);
-        } else if (elementToken.isSubtypeOf(TypeToken.of(Map.class))) {
-            object = dataView.getMap(key.getQuery()).orElseThrow(() -> new InvalidDataException("Missing value for key: " + key.getId()));
-        } else if (elementToken.isSubtypeOf(TypeToken.of(Enum.class))) {
-            object = Enum.valueOf((Class<Enum>) elementToken.getRawType(), dataView.getString(key.getQuery())
-                .orElseThrow(() -> new InvalidDataException("Missing value for key: " + key.getId())));
-        } else {
-            final Optional<? extends DataTranslator<?>> translator = SpongeDataManager.getInstance().getTranslator(elementToken.getRawType());
-            if (translator.isPresent()) {
-                object = translator.map(trans -> trans.translate(dataView.getView(key.getQuery()).orElseThrow(() -> new InvalidDataException("Missing value for key: " + key.getId()))))
-                    .orElseThrow(() -> new InvalidDataException("Could not translate translateable: " + key.getId()));
-            } else {
-                object = dataView.get(key.getQuery())
-                    .orElseThrow(() -> new InvalidDataException("Could not translate translateable: " + key.getId()));
-            }
+                object = dataView.getSerializableList(key.getQuery(), (Class) listElement)
+                    .orElseThrow(() -> new InvalidDataException("Missing value for key: " + key.getId()));
+                break;
+            case LIST:
+                object = dataView.getList(key.getQuery())
+                    .orElseThrow(() -> new InvalidDataException("Missing value for key: " + key.getId()));
+                break;
+            case SET:
+                final List<?> objects = dataView.getList(key.getQuery()).orElse(Collections.emptyList());
+                object = new HashSet<Object>(objects);
+                break;
+            case MAP:
+                object = dataView.getMap(key.getQuery()).orElseThrow(() -> new InvalidDataException("Missing value for key: " + key.getId()));
+                break;
+            case ENUM:
+                object = Enum.valueOf((Class<Enum>) elementToken.getRawType(), dataView.getString(key.getQuery())
+                    .orElseThrow(() -> new InvalidDataException("Missing value for key: " + key.getId())));
+                break;
+            default:
+                final Optional<? extends DataTranslator<?>> translator = SpongeDataManager.getInstance().getTranslator(elementToken.getRawType());
+                if (translator.isPresent()) {
+                    object = translator.map(trans -> trans.translate(dataView.getView(key.getQuery()).orElseThrow(() -> new InvalidDataException("Missing value for key: " + key.getId()))))
+                        .orElseThrow(() -> new InvalidDataException("Could not translate translateable: " + key.getId()));
+                } else {
+                    object = dataView.get(key.getQuery())
+                        .orElseThrow(() -> new InvalidDataException("Could not translate translateable: " + key.getId()));
+                }
         }
 
         return (T) object;
@@ -611,16 +661,29 @@ private static void translateTagListToView(final ImmutableList.Builder<? super D
 
     public static void writeCustomData(final NBTTagCompound compound, final DataHolder dataHolder) {
         if (dataHolder instanceof CustomDataHolderBridge) {
-            final Collection<DataManipulator<?, ?>> manipulators = ((CustomDataHolderBridge) dataHolder).bridge$getCustomManipulators();
-            if (!manipulators.isEmpty()) {
-                final List<DataView> manipulatorViews = getSerializedManipulatorList(manipulators);
+            final CustomDataHolderBridge customHolder = (CustomDataHolderBridge) dataHolder;
+            @Nullable final NBTTagList cachedTagList = customHolder.bridge$getCachedCustomData();
+            if (cachedTagList != null) {
+                // Nothing changed since the last save, the previous serialization can be reused.
+                // The cached list is copied as the written compound may be modified afterwards.
+                CUSTOM_DATA_REUSES.increment();
+                if (!cachedTagList.isEmpty()) {
+                    compound.setTag(Constants.Sponge.CUSTOM_MANIPULATOR_TAG_LIST, cachedTagList.copy());
+                }
+            } else {
+                CUSTOM_DATA_WRITES.increment();
+                final Collection<DataManipulator<?, ?>> manipulators = customHolder.bridge$getCustomManipulators();
                 final NBTTagList manipulatorTagList = new NBTTagList();
-                for (final DataView dataView : manipulatorViews) {
-                    manipulatorTagList.appendTag(NbtTranslator.getInstance().translateData(dataView));
+                if (!manipulators.isEmpty()) {
+                    final List<DataView> manipulatorViews = getSerializedManipulatorList(manipulators);
+                    for (final DataView dataView : manipulatorViews) {
+                        manipulatorTagList.appendTag(NbtTranslator.getInstance().translateData(dataView));
+                    }
+                    compound.setTag(Constants.Sponge.CUSTOM_MANIPULATOR_TAG_LIST, manipulatorTagList.copy());
                 }
-                compound.setTag(Constants.Sponge.CUSTOM_MANIPULATOR_TAG_LIST, manipulatorTagList);
+                customHolder.bridge$setCachedCustomData(manipulatorTagList);
             }
-            final List<DataView> failedData = ((CustomDataHolderBridge) dataHolder).bridge$getFailedData();
+            final List<DataView> failedData = customHolder.bridge$getFailedData();
             if (!failedData.isEmpty()) {
                 final NBTTagList failedList = new NBTTagList();
                 for (final DataView failedDatum : failedData) {
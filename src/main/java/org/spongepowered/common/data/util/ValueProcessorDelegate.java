@@ -51,6 +51,10 @@ public ValueProcessorDelegate(Key<V> key, ImmutableList<ValueProcessor<E, V>> pr
         this.processors = processors;
     }
 
+    ImmutableList<ValueProcessor<E, V>> getProcessors() {
+        return this.processors;
+    }
+
     @Override
     public Key<? extends BaseValue<E>> getKey() {
         return this.key;
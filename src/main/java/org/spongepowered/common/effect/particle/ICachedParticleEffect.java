@@ -32,4 +32,22 @@
 interface ICachedParticleEffect {
 
     void process(Vector3d position, List<Packet<?>> output);
+
+    /**
+     * Adds the packets for spawning the effect the given amount of times at
+     * the same position, merged into fewer packets where the client renders
+     * them the same way.
+     */
+    default void process(Vector3d position, int times, List<Packet<?>> output) {
+        for (int i = 0; i < times; i++) {
+            process(position, output);
+        }
+    }
+
+    /**
+     * Gets how many particles a single spawn of the effect shows.
+     */
+    default int getParticleCount() {
+        return 1;
+    }
 }
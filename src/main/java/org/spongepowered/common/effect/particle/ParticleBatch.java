@@ -0,0 +1,242 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.effect.particle;
+
+import com.flowpowered.math.vector.Vector3d;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.network.Packet;
+import net.minecraft.world.WorldServer;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.SpongeImplHooks;
+import org.spongepowered.common.config.category.ParticleBatchingCategory;
+import org.spongepowered.common.util.OptimizationStats;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+
+/**
+ * Collects the particle effects spawned in worlds during a tick and sends
+ * them to the players at the end of the tick.
+ *
+ * <p>Spawning the same effect multiple times at the same position results
+ * in a single spawn with a higher quantity where the client renders that
+ * the same way. Every player gets the effects closest to them first, and
+ * effects are dropped once the particle budget of the player for the tick
+ * is used up. Merged spawns are cut down to what is left of the budget.
+ * The amount of particles sent and dropped is counted in
+ * {@link OptimizationStats}.</p>
+ */
+public final class ParticleBatch {
+
+    private static final Map<WorldServer, Map<Key, Spawn>> pending = new IdentityHashMap<>();
+    private static final LongAdder SENT = OptimizationStats.counter("particle-batching.sent");
+    private static final LongAdder DROPPED = OptimizationStats.counter("particle-batching.dropped");
+    private static boolean ticking;
+
+    public static void onTickStart() {
+        ticking = true;
+    }
+
+    public static void onTickEnd() {
+        ticking = false;
+        flush();
+    }
+
+    /**
+     * Throws away the batches of a tick that failed, rather than sending
+     * effects of a half ticked world.
+     */
+    public static void onTickFailed() {
+        ticking = false;
+        pending.clear();
+    }
+
+    public static void onWorldUnload(WorldServer world) {
+        pending.remove(world);
+    }
+
+    /**
+     * Gets whether particle effects spawned right now are batched.
+     */
+    public static boolean isBatching() {
+        return ticking && SpongeImplHooks.isMainThread() && getCategory().isEnabled();
+    }
+
+    private static ParticleBatchingCategory getCategory() {
+        return SpongeImpl.getGlobalConfigAdapter().getConfig().getOptimizations().getParticleBatchingCategory();
+    }
+
+    /**
+     * Adds a particle effect to the batch of the world.
+     *
+     * @param world The world
+     * @param effect The particle effect
+     * @param position The position
+     * @param radius The radius around the position players receive the effect in
+     */
+    public static void add(WorldServer world, SpongeParticleEffect effect, Vector3d position, int radius) {
+        final ICachedParticleEffect cached = SpongeParticleHelper.getCachedEffect(effect);
+        if (SpongeParticleHelper.isEmpty(cached)) {
+            return;
+        }
+        final Map<Key, Spawn> spawns = pending.computeIfAbsent(world, w -> new LinkedHashMap<>());
+        final Key key = new Key(cached, position, radius);
+        final Spawn spawn = spawns.get(key);
+        if (spawn != null) {
+            spawn.times++;
+        } else {
+            spawns.put(key, new Spawn(cached, position, radius));
+        }
+    }
+
+    private static void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        final ParticleBatchingCategory category = getCategory();
+        final int budget = category.getParticlesPerPlayer();
+        final int maxDistance = category.getMaxDistance();
+        for (Map.Entry<WorldServer, Map<Key, Spawn>> entry : pending.entrySet()) {
+            final List<Spawn> spawns = new ArrayList<>(entry.getValue().values());
+            for (EntityPlayer player : entry.getKey().playerEntities) {
+                if (player instanceof EntityPlayerMP && ((EntityPlayerMP) player).connection != null) {
+                    sendTo((EntityPlayerMP) player, spawns, budget, maxDistance);
+                }
+            }
+        }
+        pending.clear();
+    }
+
+    private static void sendTo(EntityPlayerMP player, List<Spawn> spawns, int budget, int maxDistance) {
+        final List<Spawn> nearby = new ArrayList<>();
+        for (Spawn spawn : spawns) {
+            spawn.distanceSq = spawn.position.distanceSquared(player.posX, player.posY, player.posZ);
+            final double radius = maxDistance > 0 ? Math.min(maxDistance, spawn.radius) : spawn.radius;
+            // Same check as PlayerList#sendToAllNearExcept
+            if (spawn.distanceSq < radius * radius) {
+                nearby.add(spawn);
+            }
+        }
+        if (budget > 0) {
+            nearby.sort((a, b) -> Double.compare(a.distanceSq, b.distanceSq));
+        }
+        long sent = 0;
+        long dropped = 0;
+        for (Spawn spawn : nearby) {
+            final int particles = spawn.cached.getParticleCount();
+            int times = spawn.times;
+            if (budget > 0 && particles > 0) {
+                // Send as many of the merged spawns as still fit, and always at least
+                // one spawn to a player that didn't get any particles yet
+                times = (int) Math.min(times, (budget - sent) / particles);
+                if (times <= 0) {
+                    if (sent > 0) {
+                        dropped += (long) particles * spawn.times;
+                        continue;
+                    }
+                    times = 1;
+                }
+            }
+            for (Packet<?> packet : times == spawn.times ? spawn.getPackets() : spawn.createPackets(times)) {
+                player.connection.sendPacket(packet);
+            }
+            sent += (long) particles * times;
+            dropped += (long) particles * (spawn.times - times);
+        }
+        SENT.add(sent);
+        DROPPED.add(dropped);
+    }
+
+    private static final class Key {
+
+        private final ICachedParticleEffect cached;
+        private final Vector3d position;
+        private final int radius;
+
+        Key(ICachedParticleEffect cached, Vector3d position, int radius) {
+            this.cached = cached;
+            this.position = position;
+            this.radius = radius;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return this.cached == other.cached && this.radius == other.radius && this.position.equals(other.position);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(this.cached), this.position, this.radius);
+        }
+    }
+
+    private static final class Spawn {
+
+        private final ICachedParticleEffect cached;
+        private final Vector3d position;
+        private final int radius;
+        private int times = 1;
+        private double distanceSq;
+        // Shared by all the players that receive the spawn
+        @Nullable private List<Packet<?>> packets;
+
+        Spawn(ICachedParticleEffect cached, Vector3d position, int radius) {
+            this.cached = cached;
+            this.position = position;
+            this.radius = radius;
+        }
+
+        List<Packet<?>> getPackets() {
+            if (this.packets == null) {
+                this.packets = this.createPackets(this.times);
+            }
+            return this.packets;
+        }
+
+        List<Packet<?>> createPackets(int times) {
+            final List<Packet<?>> packets = new ArrayList<>();
+            this.cached.process(this.position, times, packets);
+            return packets;
+        }
+    }
+
+    private ParticleBatch() {
+    }
+}
@@ -81,10 +81,7 @@ public final class SpongeParticleHelper {
      * @return The packets
      */
     public static List<Packet<?>> toPackets(final SpongeParticleEffect effect, final Vector3d position) {
-        ICachedParticleEffect cachedPacket = effect.cachedParticle;
-        if (cachedPacket == null) {
-            cachedPacket = effect.cachedParticle = toCachedPacket(effect);
-        }
+        final ICachedParticleEffect cachedPacket = getCachedEffect(effect);
         if (cachedPacket == EmptyCachedPacket.INSTANCE) {
             return Collections.emptyList();
         }
@@ -93,6 +90,18 @@ public static List<Packet<?>> toPackets(final SpongeParticleEffect effect, final
         return packets;
     }
 
+    static ICachedParticleEffect getCachedEffect(final SpongeParticleEffect effect) {
+        ICachedParticleEffect cachedPacket = effect.cachedParticle;
+        if (cachedPacket == null) {
+            cachedPacket = effect.cachedParticle = toCachedPacket(effect);
+        }
+        return cachedPacket;
+    }
+
+    static boolean isEmpty(final ICachedParticleEffect cachedPacket) {
+        return cachedPacket == EmptyCachedPacket.INSTANCE;
+    }
+
     @SuppressWarnings("deprecation")
     private static int getBlockState(final SpongeParticleEffect effect, final Optional<BlockState> defaultBlockState) {
         final Optional<BlockState> blockState = effect.getOption(ParticleOptions.BLOCK_STATE);
@@ -336,6 +345,11 @@ private static final class EmptyCachedPacket implements ICachedParticleEffect {
         @Override
         public void process(final Vector3d position, final List<Packet<?>> output) {
         }
+
+        @Override
+        public int getParticleCount() {
+            return 0;
+        }
     }
 
     @SuppressWarnings("ConstantConditions")
@@ -417,6 +431,24 @@ public void process(final Vector3d position, final List<Packet<?>> output) {
                     this.particleType, true, px, py, pz, odx, ody, odz, 0f, this.quantity, this.extra);
             output.add(message);
         }
+
+        @Override
+        public void process(final Vector3d position, final int times, final List<Packet<?>> output) {
+            // The client spreads the particles of a packet randomly within the offset,
+            // so spawning the effect multiple times is the same as a higher quantity
+            final long quantity = (long) this.quantity * times;
+            if (this.quantity <= 0 || quantity > Integer.MAX_VALUE) {
+                ICachedParticleEffect.super.process(position, times, output);
+                return;
+            }
+            output.add(new SPacketParticles(this.particleType, true, (float) position.getX(), (float) position.getY(), (float) position.getZ(),
+                    this.offset.getX(), this.offset.getY(), this.offset.getZ(), 0f, (int) quantity, this.extra));
+        }
+
+        @Override
+        public int getParticleCount() {
+            return Math.max(1, this.quantity);
+        }
     }
 
     private static final class CachedOffsetParticlePacket implements ICachedParticleEffect {
@@ -469,6 +501,11 @@ public void process(final Vector3d position, final List<Packet<?>> output) {
                 }
             }
         }
+
+        @Override
+        public int getParticleCount() {
+            return Math.max(0, this.quantity);
+        }
     }
 
     private static final class CachedEffectPacket implements ICachedParticleEffect {
@@ -0,0 +1,238 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.entity;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityTrackerEntry;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import org.spongepowered.common.mixin.core.entity.EntityTrackerEntryAccessor;
+import org.spongepowered.common.util.OptimizationStats;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Indexes the players and tracker entries of a world by chunk, so the
+ * entity tracker only has to check the visibility of entities for players
+ * that are actually close enough to see them.
+ *
+ * <p>The index is kept between tracker ticks. Players and entries are only
+ * moved to another chunk when they crossed into it since the last tick, and
+ * entries are removed when their entity is no longer tracked.</p>
+ *
+ * <p>Entries are indexed by the position that was last sent to the players,
+ * which is also the position the visibility checks use, so the chunks to
+ * look at follow directly from the tracking range.</p>
+ */
+public final class EntityTrackerVisibilityIndex {
+
+    // Chunk keys can't get there, chunk coordinates are limited by the world border
+    private static final long NOT_INDEXED = Long.MIN_VALUE;
+    private static final LongAdder TICKS = OptimizationStats.counter("incremental-tracking.ticks");
+    private static final LongAdder TICK_NANOS = OptimizationStats.counter("incremental-tracking.tick-nanos");
+
+    private final Long2ObjectOpenHashMap<List<EntityPlayerMP>> playersByChunk = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectOpenHashMap<List<EntityTrackerEntry>> entriesByChunk = new Long2ObjectOpenHashMap<>();
+    private final Reference2LongOpenHashMap<EntityPlayerMP> playerChunks = new Reference2LongOpenHashMap<>();
+    private final Reference2LongOpenHashMap<EntityTrackerEntry> entryChunks = new Reference2LongOpenHashMap<>();
+    private final Set<EntityPlayerMP> candidatePlayers = new ReferenceOpenHashSet<>();
+    private int maxRange;
+    private boolean valid;
+    private long tickStart;
+
+    public EntityTrackerVisibilityIndex() {
+        this.playerChunks.defaultReturnValue(NOT_INDEXED);
+        this.entryChunks.defaultReturnValue(NOT_INDEXED);
+    }
+
+    public static int getRange(EntityTrackerEntry entry) {
+        final EntityTrackerEntryAccessor accessor = (EntityTrackerEntryAccessor) entry;
+        return Math.min(accessor.accessor$getRange(), accessor.accessor$getMaxRange());
+    }
+
+    private static long getChunkKey(Entity entity) {
+        return ChunkPos.asLong(MathHelper.floor(entity.posX) >> 4, MathHelper.floor(entity.posZ) >> 4);
+    }
+
+    private static long getChunkKey(EntityTrackerEntry entry) {
+        // The sent positions are in 1/4096 of a block
+        final EntityTrackerEntryAccessor accessor = (EntityTrackerEntryAccessor) entry;
+        return ChunkPos.asLong((int) (accessor.accessor$getEncodedPosX() >> 16), (int) (accessor.accessor$getEncodedPosZ() >> 16));
+    }
+
+    private static int getChunkRadius(int range) {
+        return (range >> 4) + 1;
+    }
+
+    private static <T> void move(Long2ObjectOpenHashMap<List<T>> byChunk, Reference2LongOpenHashMap<T> chunks, T value, long chunk) {
+        final long previous = chunks.put(value, chunk);
+        if (previous == chunk) {
+            return;
+        }
+        if (previous != NOT_INDEXED) {
+            removeFromChunk(byChunk, value, previous);
+        }
+        byChunk.computeIfAbsent(chunk, key -> new ArrayList<>()).add(value);
+    }
+
+    private static <T> void remove(Long2ObjectOpenHashMap<List<T>> byChunk, Reference2LongOpenHashMap<T> chunks, T value) {
+        final long previous = chunks.removeLong(value);
+        if (previous != NOT_INDEXED) {
+            removeFromChunk(byChunk, value, previous);
+        }
+    }
+
+    private static <T> void removeFromChunk(Long2ObjectOpenHashMap<List<T>> byChunk, T value, long chunk) {
+        final List<T> inChunk = byChunk.get(chunk);
+        if (inChunk != null && inChunk.remove(value) && inChunk.isEmpty()) {
+            byChunk.remove(chunk);
+        }
+    }
+
+    /**
+     * Moves the players that crossed into another chunk since the last tick
+     * and enables the index for the tick.
+     *
+     * @param players All the players in the world
+     */
+    public void startTick(List<EntityPlayer> players) {
+        for (EntityPlayer player : players) {
+            if (player instanceof EntityPlayerMP) {
+                move(this.playersByChunk, this.playerChunks, (EntityPlayerMP) player, getChunkKey(player));
+            }
+        }
+        this.maxRange = 0;
+        this.valid = true;
+        this.tickStart = System.nanoTime();
+    }
+
+    /**
+     * Moves the entry to the chunk of the position that was last sent for
+     * it, must be called for every entry once it was updated during the
+     * tick.
+     *
+     * @param entry The tracker entry
+     */
+    public void updateEntry(EntityTrackerEntry entry) {
+        move(this.entriesByChunk, this.entryChunks, entry, getChunkKey(entry));
+        this.maxRange = Math.max(this.maxRange, getRange(entry));
+    }
+
+    public void endTick() {
+        this.valid = false;
+        TICK_NANOS.add(System.nanoTime() - this.tickStart);
+        TICKS.increment();
+    }
+
+    /**
+     * Removes an entry that is no longer tracked, and its player if the
+     * tracked entity is a player.
+     *
+     * @param entry The tracker entry
+     */
+    public void remove(EntityTrackerEntry entry) {
+        remove(this.entriesByChunk, this.entryChunks, entry);
+        if (entry.getTrackedEntity() instanceof EntityPlayerMP) {
+            remove(this.playersByChunk, this.playerChunks, (EntityPlayerMP) entry.getTrackedEntity());
+        }
+    }
+
+    public boolean isValid() {
+        return this.valid;
+    }
+
+    /**
+     * Gets the players whose visibility of the entry has to be checked:
+     * the players near the tracked entity and the players that are tracking
+     * it right now, which may have to stop tracking it.
+     *
+     * <p>The returned set is reused by the next call.</p>
+     *
+     * @param entry The tracker entry
+     * @param players All the players in the world
+     * @return The players to check
+     */
+    public Set<EntityPlayerMP> getPlayersToCheck(EntityTrackerEntry entry, List<EntityPlayer> players) {
+        final Set<EntityPlayerMP> candidates = this.candidatePlayers;
+        candidates.clear();
+        final EntityTrackerEntryAccessor accessor = (EntityTrackerEntryAccessor) entry;
+        final int range = getRange(entry);
+        final int radius = getChunkRadius(range);
+        final int side = radius * 2 + 1;
+        if (side * side < this.playerChunks.size()) {
+            final int chunkX = (int) (accessor.accessor$getEncodedPosX() >> 16);
+            final int chunkZ = (int) (accessor.accessor$getEncodedPosZ() >> 16);
+            for (int x = chunkX - radius; x <= chunkX + radius; x++) {
+                for (int z = chunkZ - radius; z <= chunkZ + radius; z++) {
+                    final List<EntityPlayerMP> inChunk = this.playersByChunk.get(ChunkPos.asLong(x, z));
+                    if (inChunk != null) {
+                        candidates.addAll(inChunk);
+                    }
+                }
+            }
+        } else {
+            // Fewer players than chunks to look at, just filter them by distance
+            final double posX = accessor.accessor$getEncodedPosX() / 4096.0D;
+            final double posZ = accessor.accessor$getEncodedPosZ() / 4096.0D;
+            for (EntityPlayer player : players) {
+                if (player instanceof EntityPlayerMP && Math.abs(player.posX - posX) <= range && Math.abs(player.posZ - posZ) <= range) {
+                    candidates.add((EntityPlayerMP) player);
+                }
+            }
+        }
+        candidates.addAll(entry.trackingPlayers);
+        return candidates;
+    }
+
+    /**
+     * Adds the tracker entries of the entities near a player that may be
+     * visible to the player.
+     *
+     * @param player The player
+     * @param out The collection to add the entries to
+     */
+    public void collectNearbyEntries(EntityPlayerMP player, Collection<EntityTrackerEntry> out) {
+        final int radius = getChunkRadius(this.maxRange);
+        final int chunkX = MathHelper.floor(player.posX) >> 4;
+        final int chunkZ = MathHelper.floor(player.posZ) >> 4;
+        for (int x = chunkX - radius; x <= chunkX + radius; x++) {
+            for (int z = chunkZ - radius; z <= chunkZ + radius; z++) {
+                final List<EntityTrackerEntry> inChunk = this.entriesByChunk.get(ChunkPos.asLong(x, z));
+                if (inChunk != null) {
+                    out.addAll(inChunk);
+                }
+            }
+        }
+    }
+}
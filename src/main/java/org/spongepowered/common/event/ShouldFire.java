@@ -65,6 +65,8 @@ public class ShouldFire {
     public static boolean CHANGE_BLOCK_EVENT_POST = false;
     public static boolean CHANGE_BLOCK_EVENT_GROW = false;
 
+    public static boolean CHANGE_DATA_HOLDER_EVENT_VALUE_CHANGE = false;
+
     public static boolean CLICK_INVENTORY_EVENT = false;
     public static boolean CLICK_INVENTORY_EVENT_DOUBLE = false;
 
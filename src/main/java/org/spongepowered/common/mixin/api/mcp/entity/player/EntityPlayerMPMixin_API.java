@@ -39,7 +39,6 @@
 import net.minecraft.network.NetHandlerPlayServer;
 import net.minecraft.network.Packet;
 import net.minecraft.network.play.server.SPacketBlockChange;
-import net.minecraft.network.play.server.SPacketChat;
 import net.minecraft.network.play.server.SPacketCustomSound;
 import net.minecraft.network.play.server.SPacketResourcePackSend;
 import net.minecraft.network.play.server.SPacketSoundEffect;
@@ -128,6 +127,7 @@
 import org.spongepowered.common.bridge.text.TitleBridge;
 import org.spongepowered.common.item.inventory.util.ItemStackUtil;
 import org.spongepowered.common.text.SpongeTexts;
+import org.spongepowered.common.text.chat.ChatUtil;
 import org.spongepowered.common.util.BookFaker;
 import org.spongepowered.common.util.Constants;
 import org.spongepowered.common.util.LocaleCache;
@@ -215,12 +215,7 @@ public void sendMessage(final ChatType type, final Text message) {
         checkNotNull(type, "type");
         checkNotNull(message, "message");
 
-        ITextComponent component = SpongeTexts.toComponent(message);
-        if (type == ChatTypes.ACTION_BAR) {
-            component = SpongeTexts.fixActionBarFormatting(component);
-        }
-
-        this.connection.sendPacket(new SPacketChat(component, (net.minecraft.util.text.ChatType) (Object) type));
+        this.connection.sendPacket(ChatUtil.createChatPacket(message, type));
     }
 
     @Override
@@ -586,7 +581,7 @@ public MessageChannelEvent.Chat simulateChat(final Text message, final Cause cau
                 new MessageEvent.MessageFormatter(messages[0], messages[1]), message, false
         );
         if (!SpongeImpl.postEvent(event) && !event.isMessageCancelled()) {
-            event.getChannel().ifPresent(channel -> channel.send(this, event.getMessage(), ChatTypes.CHAT));
+            event.getChannel().ifPresent(channel -> ChatUtil.sendToChannel(channel, this, event.getMessage(), ChatTypes.CHAT));
         }
         return event;
     }
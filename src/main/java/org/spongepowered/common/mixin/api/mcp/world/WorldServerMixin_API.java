@@ -92,6 +92,7 @@
 import org.spongepowered.common.bridge.world.chunk.ChunkProviderServerBridge;
 import org.spongepowered.common.config.SpongeConfig;
 import org.spongepowered.common.config.type.WorldConfig;
+import org.spongepowered.common.effect.particle.ParticleBatch;
 import org.spongepowered.common.effect.particle.SpongeParticleEffect;
 import org.spongepowered.common.effect.particle.SpongeParticleHelper;
 import org.spongepowered.common.effect.record.SpongeRecordType;
@@ -517,6 +518,11 @@ public void spawnParticles(final ParticleEffect particleEffect, final Vector3d p
         checkNotNull(position, "The position cannot be null");
         checkArgument(radius > 0, "The radius has to be greater then zero!");
 
+        if (ParticleBatch.isBatching()) {
+            ParticleBatch.add((WorldServer) (Object) this, (SpongeParticleEffect) particleEffect, position, radius);
+            return;
+        }
+
         final List<Packet<?>> packets = SpongeParticleHelper.toPackets((SpongeParticleEffect) particleEffect, position);
 
         if (!packets.isEmpty()) {
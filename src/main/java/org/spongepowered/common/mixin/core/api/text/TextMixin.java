@@ -25,10 +25,14 @@
 package org.spongepowered.common.mixin.core.api.text;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraft.util.text.Style;
 import net.minecraft.util.text.TextComponentBase;
+import org.spongepowered.api.text.ScoreText;
 import org.spongepowered.api.text.Text;
+import org.spongepowered.api.text.TranslatableText;
 import org.spongepowered.api.text.action.ClickAction;
 import org.spongepowered.api.text.action.HoverAction;
 import org.spongepowered.api.text.action.ShiftClickAction;
@@ -45,6 +49,8 @@
 import org.spongepowered.common.text.action.SpongeHoverAction;
 import org.spongepowered.common.text.format.SpongeTextColor;
 
+import java.util.AbstractMap;
+import java.util.Map;
 import java.util.Optional;
 
 @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
@@ -57,8 +63,13 @@ public abstract class TextMixin implements TextBridge {
     @Shadow @Final Optional<HoverAction<?>> hoverAction;
     @Shadow @Final Optional<ShiftClickAction<?>> shiftClickAction;
 
+    private static final Interner<Text> JSON_INTERNER = Interners.newWeakInterner();
+
     private ITextComponent component;
     private String json;
+    private Boolean containsScore;
+    // The legacy string together with the formatting code it was created for
+    private Map.Entry<Character, String> legacy;
 
     protected TextComponentBase createComponent() {
         throw new UnsupportedOperationException();
@@ -66,40 +77,45 @@ protected TextComponentBase createComponent() {
 
     private ITextComponent initializeComponent() {
         if (this.component == null) {
-            this.component = createComponent();
-            Style style = this.component.getStyle();
-
-            if (this.format.getColor() != TextColors.NONE) {
-                style.setColor(((SpongeTextColor) this.format.getColor()).getHandle());
+            this.component = this.impl$createStyledComponent();
+            for (Text child : this.children) {
+                this.component.appendSibling(((TextBridge) child).bridge$toComponent());
             }
+        }
 
-            if (!this.format.getStyle().isEmpty()) {
-                style.setBold(this.format.getStyle().isBold().orElse(null));
-                style.setItalic(this.format.getStyle().isItalic().orElse(null));
-                style.setUnderlined(this.format.getStyle().hasUnderline().orElse(null));
-                style.setStrikethrough(this.format.getStyle().hasStrikethrough().orElse(null));
-                style.setObfuscated(this.format.getStyle().isObfuscated().orElse(null));
-            }
+        return this.component;
+    }
 
-            if (this.clickAction.isPresent()) {
-                style.setClickEvent(SpongeClickAction.getHandle(this.clickAction.get()));
-            }
+    private TextComponentBase impl$createStyledComponent() {
+        final TextComponentBase component = createComponent();
+        Style style = component.getStyle();
 
-            if (this.hoverAction.isPresent()) {
-                style.setHoverEvent(SpongeHoverAction.getHandle(this.hoverAction.get()));
-            }
+        if (this.format.getColor() != TextColors.NONE) {
+            style.setColor(((SpongeTextColor) this.format.getColor()).getHandle());
+        }
 
-            if (this.shiftClickAction.isPresent()) {
-                ShiftClickAction.InsertText insertion = (ShiftClickAction.InsertText) this.shiftClickAction.get();
-                style.setInsertion(insertion.getResult());
-            }
+        if (!this.format.getStyle().isEmpty()) {
+            style.setBold(this.format.getStyle().isBold().orElse(null));
+            style.setItalic(this.format.getStyle().isItalic().orElse(null));
+            style.setUnderlined(this.format.getStyle().hasUnderline().orElse(null));
+            style.setStrikethrough(this.format.getStyle().hasStrikethrough().orElse(null));
+            style.setObfuscated(this.format.getStyle().isObfuscated().orElse(null));
+        }
 
-            for (Text child : this.children) {
-                this.component.appendSibling(((TextBridge) child).bridge$toComponent());
-            }
+        if (this.clickAction.isPresent()) {
+            style.setClickEvent(SpongeClickAction.getHandle(this.clickAction.get()));
         }
 
-        return this.component;
+        if (this.hoverAction.isPresent()) {
+            style.setHoverEvent(SpongeHoverAction.getHandle(this.hoverAction.get()));
+        }
+
+        if (this.shiftClickAction.isPresent()) {
+            ShiftClickAction.InsertText insertion = (ShiftClickAction.InsertText) this.shiftClickAction.get();
+            style.setInsertion(insertion.getResult());
+        }
+
+        return component;
     }
 
     private ITextComponent getHandle() {
@@ -139,15 +155,112 @@ public final String toPlainSingle() {
 
     @Override
     public String bridge$toJson() {
+        if (this.impl$containsScore()) {
+            // Scores are resolved when serialized, so their json can't be kept or shared
+            return this.impl$serializeJson();
+        }
         if (this.json == null) {
-            this.json = ITextComponent.Serializer.componentToJson(getHandle());
+            // Texts are immutable, so equal texts (for example the same chat prefix
+            // built again for every message) can share their serialized form.
+            final Text canonical = JSON_INTERNER.intern((Text) (Object) this);
+            if (canonical != (Object) this) {
+                this.json = ((TextBridge) canonical).bridge$toJson();
+            } else {
+                this.json = this.impl$serializeJson();
+            }
         }
 
         return this.json;
     }
 
+    /**
+     * Serializes this text by splicing the (cached) json of the children
+     * into the json of this text without any children. This produces the
+     * same json as serializing the whole component tree at once, where the
+     * children are written after the style and before the content.
+     */
+    private String impl$serializeJson() {
+        if (this.children.isEmpty()) {
+            return ITextComponent.Serializer.componentToJson(this.impl$containsScore() ? this.impl$createStyledComponent() : getHandle());
+        }
+
+        final String self = ITextComponent.Serializer.componentToJson(this.impl$createStyledComponent());
+        // The content of this text without its style, for example "text":"foo"
+        final String content = impl$toJsonMembers(ITextComponent.Serializer.componentToJson(createComponent()));
+        final String style;
+        if (self.charAt(0) != '{') {
+            // Unstyled plain texts are serialized as a plain json string
+            style = "";
+        } else if (self.endsWith(content + '}')) {
+            style = self.substring(1, self.length() - content.length() - 1);
+        } else {
+            return ITextComponent.Serializer.componentToJson(getHandle());
+        }
+        final StringBuilder builder = new StringBuilder(self.length() + 16 + this.children.size() * 32).append('{');
+        if (!style.isEmpty()) {
+            builder.append(style).append(',');
+        }
+        builder.append("\"extra\":[");
+        for (int i = 0; i < this.children.size(); i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(((TextBridge) this.children.get(i)).bridge$toJson());
+        }
+        builder.append(']');
+        if (!content.isEmpty()) {
+            builder.append(',').append(content);
+        }
+        return builder.append('}').toString();
+    }
+
+    private static String impl$toJsonMembers(final String json) {
+        if (json.charAt(0) == '{') {
+            return json.substring(1, json.length() - 1);
+        }
+        // Unstyled plain texts are serialized as a plain json string
+        return "\"text\":" + json;
+    }
+
+    private boolean impl$containsScore() {
+        if (this.containsScore == null) {
+            this.containsScore = containsScore((Text) (Object) this);
+        }
+        return this.containsScore;
+    }
+
+    private static boolean containsScore(final Text text) {
+        if (text instanceof ScoreText) {
+            return true;
+        }
+        final Optional<HoverAction<?>> hoverAction = text.getHoverAction();
+        if (hoverAction.isPresent() && hoverAction.get() instanceof HoverAction.ShowText
+            && containsScore(((HoverAction.ShowText) hoverAction.get()).getResult())) {
+            return true;
+        }
+        if (text instanceof TranslatableText) {
+            for (final Object argument : ((TranslatableText) text).getArguments()) {
+                if (argument instanceof Text && containsScore((Text) argument)) {
+                    return true;
+                }
+            }
+        }
+        for (final Text child : text.getChildren()) {
+            if (containsScore(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public String bridge$toLegacy(char code) {
-        return ((ITextComponentBridge) getHandle()).bridge$toLegacy(code);
+        Map.Entry<Character, String> legacy = this.legacy;
+        if (legacy == null || legacy.getKey() != code) {
+            legacy = new AbstractMap.SimpleImmutableEntry<>(code, ((ITextComponentBridge) getHandle()).bridge$toLegacy(code));
+            this.legacy = legacy;
+        }
+
+        return legacy.getValue();
     }
 }
@@ -29,6 +29,7 @@
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import net.minecraft.entity.Entity;
+import net.minecraft.nbt.NBTTagList;
 import net.minecraft.tileentity.TileEntity;
 import org.spongepowered.api.data.DataTransactionResult;
 import org.spongepowered.api.data.DataView;
@@ -54,6 +55,8 @@ public abstract class CustomDataHolderMixin implements CustomDataHolderBridge {
 
     private List<DataManipulator<?, ?>> impl$manipulators = Lists.newArrayList();
     private List<DataView> impl$failedData = Lists.newArrayList();
+    // The serialized form of impl$manipulators, cleared whenever they change
+    @Nullable private NBTTagList impl$cachedCustomData;
 
     @SuppressWarnings({"rawtypes", "Duplicates"})
     @Override
@@ -72,6 +75,7 @@ public abstract class CustomDataHolderMixin implements CustomDataHolderBridge {
             this.impl$manipulators.remove(existingManipulator);
         }
         this.impl$manipulators.add(newManipulator);
+        this.impl$cachedCustomData = null;
         return builder.success(newManipulator.getValues())
             .result(DataTransactionResult.Type.SUCCESS)
             .build();
@@ -98,6 +102,7 @@ public abstract class CustomDataHolderMixin implements CustomDataHolderBridge {
         }
         if (manipulator != null) {
             this.impl$manipulators.remove(manipulator);
+            this.impl$cachedCustomData = null;
             this.bridge$removeCustomFromNbt(manipulator);
             return DataTransactionResult.builder().replace(manipulator.getValues()).result(DataTransactionResult.Type.SUCCESS).build();
         }
@@ -144,6 +149,7 @@ public abstract class CustomDataHolderMixin implements CustomDataHolderBridge {
                 final DataTransactionResult.Builder builder = DataTransactionResult.builder();
                 builder.replace(((Value) manipulator.getValue((Key) key).get()).asImmutable());
                 manipulator.set(key, value);
+                this.impl$cachedCustomData = null;
                 builder.success(((Value) manipulator.getValue((Key) key).get()).asImmutable());
                 return builder.result(DataTransactionResult.Type.SUCCESS).build();
             }
@@ -158,6 +164,7 @@ public abstract class CustomDataHolderMixin implements CustomDataHolderBridge {
             final DataManipulator<?, ?> manipulator = iterator.next();
             if (manipulator.getKeys().size() == 1 && manipulator.supports(key)) {
                 iterator.remove();
+                this.impl$cachedCustomData = null;
                 bridge$removeCustomFromNbt(manipulator);
                 return DataTransactionResult.builder()
                     .replace(manipulator.getValues())
@@ -168,6 +175,17 @@ public abstract class CustomDataHolderMixin implements CustomDataHolderBridge {
         return DataTransactionResult.failNoData();
     }
 
+    @Nullable
+    @Override
+    public NBTTagList bridge$getCachedCustomData() {
+        return this.impl$cachedCustomData;
+    }
+
+    @Override
+    public void bridge$setCachedCustomData(@Nullable final NBTTagList tagList) {
+        this.impl$cachedCustomData = tagList;
+    }
+
     @Override
     public void bridge$addFailedData(ImmutableList<DataView> failedData) {
         this.impl$failedData.addAll(failedData);
@@ -36,4 +36,12 @@ public interface EntityTrackerEntryAccessor {
 
     @Accessor("trackingPlayers") Set<EntityPlayerMP> accessor$getTrackingPlayers();
 
+    @Accessor("range") int accessor$getRange();
+
+    @Accessor("maxRange") int accessor$getMaxRange();
+
+    @Accessor("encodedPosX") long accessor$getEncodedPosX();
+
+    @Accessor("encodedPosZ") long accessor$getEncodedPosZ();
+
 }
@@ -132,6 +132,7 @@
 import org.spongepowered.common.event.tracking.phase.tick.TickPhase;
 import org.spongepowered.common.item.inventory.util.ItemStackUtil;
 import org.spongepowered.common.text.SpongeTexts;
+import org.spongepowered.common.text.chat.ChatUtil;
 import org.spongepowered.common.util.Constants;
 import org.spongepowered.common.util.VecHelper;
 
@@ -626,7 +627,7 @@ public void onDisconnectHandler(final PlayerList this$0, final ITextComponent co
         SpongeImpl.postEvent(event);
         Sponge.getCauseStackManager().popCause();
         if (!event.isMessageCancelled()) {
-            event.getChannel().ifPresent(channel -> channel.send(player, event.getMessage()));
+            event.getChannel().ifPresent(channel -> ChatUtil.sendToChannel(channel, player, event.getMessage()));
         }
         ((EntityPlayerMPBridge) this.player).bridge$getWorldBorderListener().onPlayerDisconnect();
     }
@@ -24,21 +24,33 @@
  */
 package org.spongepowered.common.mixin.core.network;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.local.LocalAddress;
+import net.minecraft.network.EnumConnectionState;
+import net.minecraft.network.NettyCompressionEncoder;
 import net.minecraft.network.NetworkManager;
 import org.spongepowered.api.MinecraftVersion;
+import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.common.SpongeMinecraftVersion;
 import org.spongepowered.common.bridge.network.NetworkManagerBridge;
+import org.spongepowered.common.network.FlushConsolidation;
+import org.spongepowered.common.network.PacketBroadcast;
 import org.spongepowered.common.util.Constants;
 
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Queue;
 
 import javax.annotation.Nullable;
 
@@ -47,8 +59,10 @@
 public abstract class NetworkManagerMixin extends SimpleChannelInboundHandler implements NetworkManagerBridge {
 
     @Shadow private Channel channel;
+    @Shadow @Final private Queue<?> outboundPacketsQueue;
 
     @Shadow public abstract SocketAddress getRemoteAddress();
+    @Shadow public abstract boolean isChannelOpen();
 
     @Nullable private InetSocketAddress impl$virtualHost;
     @Nullable private MinecraftVersion impl$version;
@@ -94,4 +108,62 @@ public abstract class NetworkManagerMixin extends SimpleChannelInboundHandler im
         this.impl$version = new SpongeMinecraftVersion(String.valueOf(version), version);
     }
 
+    @Override
+    public boolean bridge$sendEncodedPacket(final PacketBroadcast broadcast) {
+        // Queued packets have to go out first, and the encoded packet is only valid while playing
+        if (!this.isChannelOpen() || !this.outboundPacketsQueue.isEmpty()
+                || this.channel.attr(NetworkManager.PROTOCOL_ATTRIBUTE_KEY).get() != EnumConnectionState.PLAY) {
+            return false;
+        }
+        final ChannelPipeline pipeline = this.channel.pipeline();
+        ByteBuf buf = null;
+        ChannelHandlerContext context = null;
+        final ChannelHandler compressor = pipeline.get("compress");
+        if (compressor instanceof NettyCompressionEncoder) {
+            buf = broadcast.getCompressed(((NettyCompressionEncoderAccessor) compressor).accessor$getThreshold());
+            if (buf != null) {
+                context = pipeline.context(compressor);
+            }
+        }
+        if (buf == null) {
+            buf = broadcast.getEncoded();
+            context = pipeline.context("encoder");
+        }
+        if (context == null || !impl$hasOnlyVanillaHandlersAfter(pipeline, context.name())) {
+            return false;
+        }
+        // Writing through the context skips the handlers up to and including it
+        if (FlushConsolidation.shouldDefer()) {
+            context.write(buf.retainedDuplicate()).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+            FlushConsolidation.defer(this.channel);
+        } else {
+            context.writeAndFlush(buf.retainedDuplicate()).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+        }
+        return true;
+    }
+
+    /**
+     * Gets whether the only handlers between the given handler and the
+     * packet handler are the vanilla ones, which the encoded packet has
+     * already been through. Handlers added by mods or plugins there expect
+     * to see the packet itself.
+     */
+    private static boolean impl$hasOnlyVanillaHandlersAfter(final ChannelPipeline pipeline, final String name) {
+        final List<String> names = pipeline.names();
+        int index = names.indexOf(name);
+        if (index < 0) {
+            return false;
+        }
+        while (++index < names.size()) {
+            final String next = names.get(index);
+            if ("packet_handler".equals(next)) {
+                return true;
+            }
+            if (!"encoder".equals(next)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
 }
@@ -40,7 +40,9 @@
 import org.spongepowered.asm.mixin.Overwrite;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.common.data.datasync.DataParameterConverter;
+import org.spongepowered.common.data.util.BulkDataOffer;
 import org.spongepowered.common.bridge.packet.DataParameterBridge;
+import org.spongepowered.common.event.ShouldFire;
 
 import java.util.Map;
 import java.util.Optional;
@@ -81,7 +83,9 @@ public <T> void set(final DataParameter<T> key, T value) {
             // Client side can have an entity, because reasons.......
             // Really silly reasons......
             // I don't know, ask Grum....
-            if (this.entity != null && this.entity.world != null && !this.entity.world.isRemote) { // We only want to spam the server world ;)
+            // Building the transaction is skipped entirely when nobody is listening, or when a bulk offer already fired its event
+            if (ShouldFire.CHANGE_DATA_HOLDER_EVENT_VALUE_CHANGE && !BulkDataOffer.isOffering()
+                && this.entity != null && this.entity.world != null && !this.entity.world.isRemote) { // We only want to spam the server world ;)
                 final Optional<DataParameterConverter<T>> converter = ((DataParameterBridge) key).bridge$getDataConverter();
                 // At this point it is changing
                 if (converter.isPresent()) {
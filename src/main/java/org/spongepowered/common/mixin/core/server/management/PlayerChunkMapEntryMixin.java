@@ -54,24 +54,29 @@ public abstract class PlayerChunkMapEntryMixin implements PlayerChunkMapEntryBri
 
     @Shadow @Final private List<EntityPlayerMP> players;
     @Shadow @Nullable private Chunk chunk;
-    private boolean impl$updateBiomes;
+    private boolean impl$resendChunk;
 
     @Inject(method = "update", at = @At("HEAD"), cancellable = true)
-    private void impl$updateBiomes(final CallbackInfo ci) {
-        if (this.impl$updateBiomes) {
+    private void impl$resendWholeChunk(final CallbackInfo ci) {
+        if (this.impl$resendChunk) {
             final Chunk chunk = this.playerChunkMap.getWorldServer().getChunk(this.pos.x, this.pos.z);
             this.sendPacket(new SPacketChunkData(chunk, 65534));
             this.sendPacket(new SPacketChunkData(chunk, 1));
             this.changes = 0;
             this.changedSectionFilter = 0;
-            this.impl$updateBiomes = false;
+            this.impl$resendChunk = false;
             ci.cancel();
         }
     }
 
     @Override
     public void bridge$markBiomesForUpdate() {
-        this.impl$updateBiomes = true;
+        this.bridge$markChunkForResend();
+    }
+
+    @Override
+    public void bridge$markChunkForResend() {
+        this.impl$resendChunk = true;
         this.playerChunkMap.entryChanged((PlayerChunkMapEntry) (Object) this);
     }
 
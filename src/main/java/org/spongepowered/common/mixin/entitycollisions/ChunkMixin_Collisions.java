@@ -26,48 +26,65 @@
 
 import com.google.common.base.Predicate;
 import net.minecraft.entity.Entity;
-import net.minecraft.entity.EntityLivingBase;
-import net.minecraft.entity.item.EntityItem;
-import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.ClassInheritanceMultiMap;
 import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
-import org.spongepowered.api.block.BlockType;
-import org.spongepowered.api.world.LocatableBlock;
+import net.minecraft.world.WorldServer;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
-import org.spongepowered.common.bridge.world.WorldServerBridge;
-import org.spongepowered.common.event.tracking.PhaseContext;
-import org.spongepowered.common.event.tracking.PhaseTracker;
-import org.spongepowered.common.mixin.plugin.entitycollisions.interfaces.CollisionsCapability;
+import org.spongepowered.common.SpongeImplHooks;
+import org.spongepowered.common.mixin.core.util.ClassInheritanceMultiMapAccessor;
+import org.spongepowered.common.mixin.plugin.entitycollisions.CollisionLimiter;
 
 import java.util.List;
 
+import javax.annotation.Nullable;
+
 @Mixin(net.minecraft.world.chunk.Chunk.class)
 public class ChunkMixin_Collisions {
 
     @Shadow @Final private World world;
+    @Shadow @Final private ClassInheritanceMultiMap<Entity>[] entityLists;
+
+    // The max collisions of the source the current query is running for while this
+    // chunk is scanned. A negative value means no limit.
+    private int collisionsImpl$maxCollisions = -1;
 
     @SuppressWarnings("Guava")
-    @Inject(method = "getEntitiesWithinAABBForEntity",
-            at = @At(value = "INVOKE", target = "Ljava/util/List;add(Ljava/lang/Object;)Z", remap = false), cancellable = true)
-    private void collisionsImpl$checkForCollisionRules(final Entity entityIn, final AxisAlignedBB aabb, final List<Entity> listToFill,
+    @Inject(method = "getEntitiesWithinAABBForEntity", at = @At("HEAD"), cancellable = true)
+    private void collisionsImpl$resolveCollisionRules(final Entity entityIn, final AxisAlignedBB aabb, final List<Entity> listToFill,
         final Predicate<? super Entity> predicate, final CallbackInfo ci) {
-        // ignore players and entities with parts (ex. EnderDragon)
-        if (this.world.isRemote || entityIn == null || entityIn instanceof EntityPlayer || entityIn.getParts() != null) {
+        this.collisionsImpl$maxCollisions = -1;
+        @Nullable final Integer queryMaxCollisions = CollisionLimiter.getQueryMaxCollisions();
+        if (queryMaxCollisions == null && CollisionLimiter.isExempt(this.world, entityIn)) {
             return;
         }
-        // Run hook in EntityLivingBase to support maxEntityCramming
-        if (entityIn != null && entityIn instanceof EntityLivingBase && ((CollisionsCapability) entityIn).collision$isRunningCollideWithNearby()) {
+        this.collisionsImpl$startQuery(queryMaxCollisions, aabb, null, listToFill, ci);
+    }
+
+    @SuppressWarnings("Guava")
+    @Inject(method = "getEntitiesOfTypeWithinAABB", at = @At("HEAD"), cancellable = true)
+    private <T extends Entity> void collisionsImpl$resolveCollisionRules(final Class<? extends T> entityClass, final AxisAlignedBB aabb,
+        final List<T> listToFill, final Predicate<? super T> p_177430_4_, final CallbackInfo ci) {
+        this.collisionsImpl$maxCollisions = -1;
+        @Nullable final Integer queryMaxCollisions = CollisionLimiter.getQueryMaxCollisions();
+        if (queryMaxCollisions == null && CollisionLimiter.isExempt(this.world, entityClass)) {
             return;
         }
+        this.collisionsImpl$startQuery(queryMaxCollisions, aabb, entityClass, listToFill, ci);
+    }
 
-        if (!collisionsImpl$allowEntityCollision(listToFill)) {
-            ci.cancel();
-        }
+    @SuppressWarnings("Guava")
+    @Inject(method = "getEntitiesWithinAABBForEntity",
+            at = @At(value = "INVOKE", target = "Ljava/util/List;add(Ljava/lang/Object;)Z", remap = false), cancellable = true)
+    private void collisionsImpl$checkForCollisionRules(final Entity entityIn, final AxisAlignedBB aabb, final List<Entity> listToFill,
+        final Predicate<? super Entity> predicate, final CallbackInfo ci) {
+        this.collisionsImpl$checkLimit(listToFill, ci);
     }
 
     @SuppressWarnings("Guava")
@@ -75,53 +92,59 @@ public class ChunkMixin_Collisions {
             at = @At(value = "INVOKE", target = "Ljava/util/List;add(Ljava/lang/Object;)Z", remap = false), cancellable = true)
     private <T extends Entity> void collisionsImpl$checkForCollisionRules(final Class<? extends T> entityClass, final AxisAlignedBB aabb,
         final List<T> listToFill, final Predicate<? super T> p_177430_4_, final CallbackInfo ci) {
-        // ignore player checks
-        // ignore item check (ex. Hoppers)
-        if (this.world.isRemote || EntityPlayer.class.isAssignableFrom(entityClass) || EntityItem.class == entityClass) {
-            return;
-        }
+        this.collisionsImpl$checkLimit(listToFill, ci);
+    }
 
-        if (!collisionsImpl$allowEntityCollision(listToFill)) {
+    private void collisionsImpl$checkLimit(final List<?> listToFill, final CallbackInfo ci) {
+        if (this.collisionsImpl$maxCollisions >= 0 && listToFill.size() >= this.collisionsImpl$maxCollisions) {
+            CollisionLimiter.onCollisionsCutShort();
             ci.cancel();
         }
     }
 
-    private <T extends Entity> boolean collisionsImpl$allowEntityCollision(final List<T> listToFill) {
-        if (this.world instanceof WorldServerBridge) {
-            if (PhaseTracker.getInstance().getCurrentState().ignoresEntityCollisions()) {
-                // allow explosions
-                return true;
-            }
-
-            final PhaseContext<?> phaseContext = PhaseTracker.getInstance().getCurrentContext();
-            final Object source = phaseContext.getSource();
-            if (source == null) {
-                return true;
-            }
-
-            if (source instanceof LocatableBlock) {
-                final LocatableBlock locatable = (LocatableBlock) source;
-                final BlockType blockType =locatable.getLocation().getBlockType();
-                final CollisionsCapability spongeBlock = (CollisionsCapability) blockType;
-                if (spongeBlock.collision$requiresCollisionsCacheRefresh()) {
-                    spongeBlock.collision$initializeCollisionState(this.world);
-                    spongeBlock.collision$requiresCollisionsCacheRefresh(false);
-                }
-
-                return !((spongeBlock.collision$getMaxCollisions() >= 0) && (listToFill.size() >= spongeBlock.collision$getMaxCollisions()));
-            } else if (source instanceof CollisionsCapability) {
-                final CollisionsCapability spongeEntity = (CollisionsCapability) source;
-                if (spongeEntity.collision$requiresCollisionsCacheRefresh()) {
-                    spongeEntity.collision$initializeCollisionState(this.world);
-                    spongeEntity.collision$requiresCollisionsCacheRefresh(false);
-                }
+    private void collisionsImpl$startQuery(@Nullable final Integer queryMaxCollisions, final AxisAlignedBB aabb,
+        @Nullable final Class<?> entityClass, final List<?> listToFill, final CallbackInfo ci) {
+        if (queryMaxCollisions != null && queryMaxCollisions < 0) {
+            return;
+        }
+        final int entities = this.collisionsImpl$countEntitiesWithin(aabb, entityClass);
+        if (entities == 0) {
+            return;
+        }
+        // Queries through the world already resolved the limit, chunks queried directly
+        // resolve it now that there is something to limit
+        final int maxCollisions = queryMaxCollisions != null ? queryMaxCollisions : CollisionLimiter.resolveMaxCollisions(this.world);
+        // Nothing to check when this chunk can't fill the list up to the limit
+        if (maxCollisions < 0 || listToFill.size() + entities <= maxCollisions) {
+            return;
+        }
+        this.collisionsImpl$maxCollisions = maxCollisions;
+        // The list is shared between all the chunks of the query, skip the scan
+        // entirely when earlier chunks already filled it up to the limit.
+        this.collisionsImpl$checkLimit(listToFill, ci);
+    }
 
-                return !((spongeEntity.collision$getMaxCollisions() >= 0) && (listToFill.size() >= spongeEntity.collision$getMaxCollisions()));
+    /**
+     * Counts the entities of the given class in the sub chunks scanned for
+     * the bounding box, so the limit only has to be checked when this chunk
+     * can actually reach it.
+     */
+    @SuppressWarnings("unchecked")
+    private int collisionsImpl$countEntitiesWithin(final AxisAlignedBB aabb, @Nullable final Class<?> entityClass) {
+        final double maxEntityRadius = this.world instanceof WorldServer ? SpongeImplHooks.getWorldMaxEntityRadius((WorldServer) this.world) : 2.0D;
+        final int minY = MathHelper.clamp(MathHelper.floor((aabb.minY - maxEntityRadius) / 16.0D), 0, this.entityLists.length - 1);
+        final int maxY = MathHelper.clamp(MathHelper.floor((aabb.maxY + maxEntityRadius) / 16.0D), 0, this.entityLists.length - 1);
+        int count = 0;
+        for (int y = minY; y <= maxY; y++) {
+            final ClassInheritanceMultiMap<Entity> entities = this.entityLists[y];
+            if (entities.isEmpty()) {
+                continue;
             }
-
-            return true;
+            // Classes that weren't looked up before aren't indexed yet, count all the entities for those
+            final List<Entity> byClass = entityClass == null ? null
+                : ((ClassInheritanceMultiMapAccessor<Entity>) entities).accessor$getMap().get(entityClass);
+            count += byClass == null ? entities.size() : byClass.size();
         }
-
-        return true;
+        return count;
     }
 }
@@ -0,0 +1,106 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.mixin.entitycollisions;
+
+import com.google.common.base.Predicate;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import org.spongepowered.common.mixin.plugin.entitycollisions.CollisionLimiter;
+
+import java.util.List;
+
+/**
+ * Resolves the collision limit once for a query, instead of once for every
+ * chunk the query visits.
+ */
+@Mixin(World.class)
+public abstract class WorldMixin_Collisions {
+
+    @SuppressWarnings("Guava")
+    @Inject(method = "getEntitiesInAABBexcluding", at = @At("HEAD"))
+    private void collisionsImpl$startEntityQuery(final Entity entityIn, final AxisAlignedBB boundingBox,
+        final Predicate<? super Entity> predicate, final CallbackInfoReturnable<List<Entity>> cir) {
+        CollisionLimiter.startQuery((World) (Object) this, entityIn);
+    }
+
+    @SuppressWarnings("Guava")
+    @Redirect(method = "getEntitiesInAABBexcluding",
+        at = @At(value = "INVOKE", target = "Lnet/minecraft/world/chunk/Chunk;getEntitiesWithinAABBForEntity(Lnet/minecraft/entity/Entity;"
+            + "Lnet/minecraft/util/math/AxisAlignedBB;Ljava/util/List;Lcom/google/common/base/Predicate;)V"))
+    private void collisionsImpl$queryChunk(final Chunk chunk, final Entity entityIn, final AxisAlignedBB boundingBox,
+        final List<Entity> listToFill, final Predicate<? super Entity> predicate) {
+        try {
+            chunk.getEntitiesWithinAABBForEntity(entityIn, boundingBox, listToFill, predicate);
+        } catch (RuntimeException | Error e) {
+            // The query won't reach its return, where it would be ended otherwise
+            CollisionLimiter.endQuery();
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("Guava")
+    @Inject(method = "getEntitiesInAABBexcluding", at = @At("RETURN"))
+    private void collisionsImpl$endEntityQuery(final Entity entityIn, final AxisAlignedBB boundingBox,
+        final Predicate<? super Entity> predicate, final CallbackInfoReturnable<List<Entity>> cir) {
+        CollisionLimiter.endQuery();
+    }
+
+    @SuppressWarnings("Guava")
+    @Inject(method = "getEntitiesWithinAABB(Ljava/lang/Class;Lnet/minecraft/util/math/AxisAlignedBB;Lcom/google/common/base/Predicate;)Ljava/util/List;",
+        at = @At("HEAD"))
+    private <T extends Entity> void collisionsImpl$startClassQuery(final Class<? extends T> clazz, final AxisAlignedBB aabb,
+        final Predicate<? super T> filter, final CallbackInfoReturnable<List<T>> cir) {
+        CollisionLimiter.startQuery((World) (Object) this, clazz);
+    }
+
+    @SuppressWarnings("Guava")
+    @Redirect(method = "getEntitiesWithinAABB(Ljava/lang/Class;Lnet/minecraft/util/math/AxisAlignedBB;Lcom/google/common/base/Predicate;)Ljava/util/List;",
+        at = @At(value = "INVOKE", target = "Lnet/minecraft/world/chunk/Chunk;getEntitiesOfTypeWithinAABB(Ljava/lang/Class;"
+            + "Lnet/minecraft/util/math/AxisAlignedBB;Ljava/util/List;Lcom/google/common/base/Predicate;)V"))
+    private <T extends Entity> void collisionsImpl$queryChunk(final Chunk chunk, final Class<? extends T> clazz, final AxisAlignedBB aabb,
+        final List<T> listToFill, final Predicate<? super T> filter) {
+        try {
+            chunk.getEntitiesOfTypeWithinAABB(clazz, aabb, listToFill, filter);
+        } catch (RuntimeException | Error e) {
+            CollisionLimiter.endQuery();
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("Guava")
+    @Inject(method = "getEntitiesWithinAABB(Ljava/lang/Class;Lnet/minecraft/util/math/AxisAlignedBB;Lcom/google/common/base/Predicate;)Ljava/util/List;",
+        at = @At("RETURN"))
+    private <T extends Entity> void collisionsImpl$endClassQuery(final Class<? extends T> clazz, final AxisAlignedBB aabb,
+        final Predicate<? super T> filter, final CallbackInfoReturnable<List<T>> cir) {
+        CollisionLimiter.endQuery();
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.mixin.optimization.entity;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityTrackerEntry;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.world.WorldServer;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.common.bridge.optimization.IncrementalTrackerBridge;
+import org.spongepowered.common.entity.EntityTrackerVisibilityIndex;
+
+import java.util.List;
+
+@Mixin(EntityTrackerEntry.class)
+public abstract class EntityTrackerEntryMixin_IncrementalTracking {
+
+    @Shadow @Final private Entity trackedEntity;
+
+    @Shadow public abstract void updatePlayerEntities(List<EntityPlayer> players);
+    @Shadow public abstract void updatePlayerEntity(EntityPlayerMP playerMP);
+
+    /**
+     * The players list is still used for the map updates of item frames, so
+     * only the visibility checks are narrowed down to the nearby players.
+     */
+    @Redirect(method = "updatePlayerList",
+        at = @At(value = "INVOKE", target = "Lnet/minecraft/entity/EntityTrackerEntry;updatePlayerEntities(Ljava/util/List;)V"))
+    private void incrementalTracking$updateNearbyPlayers(final EntityTrackerEntry self, final List<EntityPlayer> players) {
+        if (!(this.trackedEntity.world instanceof WorldServer)) {
+            this.updatePlayerEntities(players);
+            return;
+        }
+        final EntityTrackerVisibilityIndex index =
+            ((IncrementalTrackerBridge) ((WorldServer) this.trackedEntity.world).getEntityTracker()).trackerBridge$getVisibilityIndex();
+        if (!index.isValid()) {
+            this.updatePlayerEntities(players);
+            return;
+        }
+        for (final EntityPlayerMP player : index.getPlayersToCheck(self, players)) {
+            this.updatePlayerEntity(player);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.mixin.optimization.entity;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityTracker;
+import net.minecraft.entity.EntityTrackerEntry;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.world.WorldServer;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.common.bridge.world.WorldServerBridge;
+import org.spongepowered.common.bridge.optimization.IncrementalTrackerBridge;
+import org.spongepowered.common.entity.EntityTrackerVisibilityIndex;
+import org.spongepowered.common.relocate.co.aikar.timings.WorldTimingsHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+@Mixin(EntityTracker.class)
+public abstract class EntityTrackerMixin_IncrementalTracking implements IncrementalTrackerBridge {
+
+    @Shadow @Final private WorldServer world;
+    @Shadow @Final private Set<EntityTrackerEntry> entries;
+
+    private final EntityTrackerVisibilityIndex incrementalTracking$index = new EntityTrackerVisibilityIndex();
+    private final List<EntityPlayerMP> incrementalTracking$movedPlayers = new ArrayList<>();
+    private final List<EntityTrackerEntry> incrementalTracking$nearbyEntries = new ArrayList<>();
+
+    @Override
+    public EntityTrackerVisibilityIndex trackerBridge$getVisibilityIndex() {
+        return this.incrementalTracking$index;
+    }
+
+    /**
+     * Same as vanilla, except that the players which moved far enough only
+     * get checked against the entities near them instead of against every
+     * tracked entity in the world.
+     */
+    @Inject(method = "tick", at = @At("HEAD"), cancellable = true)
+    private void incrementalTracking$tickNearbyEntries(final CallbackInfo ci) {
+        final WorldTimingsHandler timings = ((WorldServerBridge) this.world).bridge$getTimingsHandler();
+        timings.trackerIncremental.startTiming();
+        final EntityTrackerVisibilityIndex index = this.incrementalTracking$index;
+        final List<EntityPlayerMP> movedPlayers = this.incrementalTracking$movedPlayers;
+        try {
+            index.startTick(this.world.playerEntities);
+            for (final EntityTrackerEntry entry : this.entries) {
+                entry.updatePlayerList(this.world.playerEntities);
+                index.updateEntry(entry);
+                if (entry.playerEntitiesUpdated) {
+                    final Entity entity = entry.getTrackedEntity();
+                    if (entity instanceof EntityPlayerMP) {
+                        movedPlayers.add((EntityPlayerMP) entity);
+                    }
+                }
+            }
+
+            final List<EntityTrackerEntry> nearbyEntries = this.incrementalTracking$nearbyEntries;
+            for (final EntityPlayerMP player : movedPlayers) {
+                index.collectNearbyEntries(player, nearbyEntries);
+                for (final EntityTrackerEntry entry : nearbyEntries) {
+                    if (entry.getTrackedEntity() != player) {
+                        entry.updatePlayerEntity(player);
+                    }
+                }
+                nearbyEntries.clear();
+            }
+            if (!movedPlayers.isEmpty()) {
+                // Entities the players moved away from still have to stop being tracked
+                for (final EntityTrackerEntry entry : this.entries) {
+                    final Set<EntityPlayerMP> trackingPlayers = entry.trackingPlayers;
+                    if (trackingPlayers.isEmpty()) {
+                        continue;
+                    }
+                    for (final EntityPlayerMP player : movedPlayers) {
+                        if (trackingPlayers.contains(player) && entry.getTrackedEntity() != player) {
+                            entry.updatePlayerEntity(player);
+                        }
+                    }
+                }
+            }
+        } finally {
+            movedPlayers.clear();
+            this.incrementalTracking$nearbyEntries.clear();
+            index.endTick();
+            timings.trackerIncremental.stopTiming();
+        }
+        ci.cancel();
+    }
+
+    @Redirect(method = "untrack", at = @At(value = "INVOKE", target = "Ljava/util/Set;remove(Ljava/lang/Object;)Z"))
+    private boolean incrementalTracking$removeFromIndex(final Set<EntityTrackerEntry> entries, final Object entry) {
+        this.incrementalTracking$index.remove((EntityTrackerEntry) entry);
+        return entries.remove(entry);
+    }
+}
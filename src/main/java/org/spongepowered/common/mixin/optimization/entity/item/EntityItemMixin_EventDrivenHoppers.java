@@ -0,0 +1,74 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.mixin.optimization.entity.item;
+
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.common.block.EventDrivenHoppers;
+import org.spongepowered.common.mixin.core.entity.item.EntityItemMixin;
+
+@Mixin(EntityItem.class)
+public abstract class EntityItemMixin_EventDrivenHoppers extends EntityItemMixin {
+
+    private long eventDrivenHoppers$lastMinBlock = Long.MIN_VALUE;
+    private long eventDrivenHoppers$lastMaxBlock = Long.MIN_VALUE;
+
+    @Inject(method = "onUpdate", at = @At("RETURN"))
+    private void eventDrivenHoppers$wakeHoppersBelow(final CallbackInfo ci) {
+        if (this.world.isRemote || this.isDead) {
+            return;
+        }
+        // Items are a quarter block wide, so they can be within the collection area of up to
+        // four columns of hoppers, either right below them or at the same height.
+        final int minX = MathHelper.floor(this.posX - 0.125D);
+        final int maxX = MathHelper.floor(this.posX + 0.125D);
+        final int minZ = MathHelper.floor(this.posZ - 0.125D);
+        final int maxZ = MathHelper.floor(this.posZ + 0.125D);
+        final int y = MathHelper.floor(this.posY);
+        final long minBlock = eventDrivenHoppers$pack(minX, y, minZ);
+        final long maxBlock = eventDrivenHoppers$pack(maxX, y, maxZ);
+        if (minBlock == this.eventDrivenHoppers$lastMinBlock && maxBlock == this.eventDrivenHoppers$lastMaxBlock) {
+            return;
+        }
+        this.eventDrivenHoppers$lastMinBlock = minBlock;
+        this.eventDrivenHoppers$lastMaxBlock = maxBlock;
+        final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                EventDrivenHoppers.wake(this.world, pos.setPos(x, y - 1, z));
+                EventDrivenHoppers.wake(this.world, pos.setPos(x, y, z));
+            }
+        }
+    }
+
+    private static long eventDrivenHoppers$pack(final int x, final int y, final int z) {
+        return ((long) x & 0x3FFFFFFL) << 38 | ((long) y & 0xFFFL) << 26 | (long) z & 0x3FFFFFFL;
+    }
+}
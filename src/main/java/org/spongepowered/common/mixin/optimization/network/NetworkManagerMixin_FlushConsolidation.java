@@ -0,0 +1,61 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.mixin.optimization.network;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.GenericFutureListener;
+import net.minecraft.network.EnumConnectionState;
+import net.minecraft.network.NetworkManager;
+import net.minecraft.network.Packet;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.common.network.FlushConsolidation;
+
+import javax.annotation.Nullable;
+
+@Mixin(NetworkManager.class)
+public abstract class NetworkManagerMixin_FlushConsolidation {
+
+    @Shadow private Channel channel;
+
+    @Inject(method = "dispatchPacket", at = @At("HEAD"), cancellable = true)
+    private void flushConsolidation$writeWithoutFlush(final Packet<?> inPacket,
+        @Nullable final GenericFutureListener<? extends Future<? super Void>>[] futureListeners, final CallbackInfo ci) {
+        // Callers waiting for the packet to be sent (for example before closing
+        // the connection) and protocol changes take the regular path, which flushes.
+        if (futureListeners != null || !FlushConsolidation.shouldDefer()
+            || EnumConnectionState.getFromPacket(inPacket) != this.channel.attr(NetworkManager.PROTOCOL_ATTRIBUTE_KEY).get()) {
+            return;
+        }
+        this.channel.write(inPacket).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+        FlushConsolidation.defer(this.channel);
+        ci.cancel();
+    }
+}
@@ -35,6 +35,7 @@
 import org.spongepowered.common.bridge.optimization.OptimizedMapDataBridge;
 import org.spongepowered.common.mixin.core.world.storage.MapStorageAccessor;
 import org.spongepowered.common.world.WorldManager;
+import org.spongepowered.common.world.storage.MapColorSampler;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -46,6 +47,8 @@ public abstract class MinecraftServerMixin_MapOptimization {
     // need to tick it once per server tick
     @Inject(method = "tick", at = @At(value = "RETURN"))
     private void mapOptimization$onEndTickMapOptimization(CallbackInfo ci) {
+        // Colors sampled on worker threads have to be on the maps before the updates are sent
+        MapColorSampler.applyFinished();
 
         final List<WorldSavedData> data;
 
@@ -0,0 +1,92 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.mixin.optimization.server;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.network.Packet;
+import net.minecraft.server.management.PlayerList;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.common.network.PacketBroadcast;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+@Mixin(PlayerList.class)
+public abstract class PlayerListMixin_SharedBroadcasts {
+
+    @Shadow @Final private List<EntityPlayerMP> playerEntityList;
+
+    @Inject(method = "sendPacketToAllPlayers", at = @At("HEAD"), cancellable = true)
+    private void sharedBroadcasts$sendToAll(final Packet<?> packetIn, final CallbackInfo ci) {
+        PacketBroadcast.sendTo(this.playerEntityList, packetIn);
+        ci.cancel();
+    }
+
+    @Inject(method = "sendPacketToAllPlayersInDimension", at = @At("HEAD"), cancellable = true)
+    private void sharedBroadcasts$sendToAllInDimension(final Packet<?> packetIn, final int dimension, final CallbackInfo ci) {
+        final PacketBroadcast broadcast = new PacketBroadcast(packetIn);
+        try {
+            for (int i = 0; i < this.playerEntityList.size(); i++) {
+                final EntityPlayerMP player = this.playerEntityList.get(i);
+                if (player.dimension == dimension) {
+                    broadcast.sendTo(player);
+                }
+            }
+        } finally {
+            broadcast.release();
+        }
+        ci.cancel();
+    }
+
+    @Inject(method = "sendToAllNearExcept", at = @At("HEAD"), cancellable = true)
+    private void sharedBroadcasts$sendToAllNear(@Nullable final EntityPlayer except, final double x, final double y, final double z,
+        final double radius, final int dimension, final Packet<?> packetIn, final CallbackInfo ci) {
+        final double radiusSquared = radius * radius;
+        final PacketBroadcast broadcast = new PacketBroadcast(packetIn);
+        try {
+            for (int i = 0; i < this.playerEntityList.size(); i++) {
+                final EntityPlayerMP player = this.playerEntityList.get(i);
+                if (player != except && player.dimension == dimension) {
+                    final double dx = x - player.posX;
+                    final double dy = y - player.posY;
+                    final double dz = z - player.posZ;
+                    if (dx * dx + dy * dy + dz * dz < radiusSquared) {
+                        broadcast.sendTo(player);
+                    }
+                }
+            }
+        } finally {
+            broadcast.release();
+        }
+        ci.cancel();
+    }
+}
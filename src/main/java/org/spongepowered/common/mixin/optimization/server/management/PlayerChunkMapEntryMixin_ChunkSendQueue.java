@@ -0,0 +1,101 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.mixin.optimization.server.management;
+
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.server.management.PlayerChunkMap;
+import net.minecraft.server.management.PlayerChunkMapEntry;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.Chunk;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import org.spongepowered.common.SpongeImplHooks;
+import org.spongepowered.common.bridge.optimization.ChunkSendQueueBridge;
+import org.spongepowered.common.network.ChunkSendQueue;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * Queues chunks for the {@link ChunkSendQueue} of each player instead of
+ * sending them right away.
+ *
+ * <p>Sending a chunk is skipped entirely while it is queued, including the
+ * chunk watch event a platform fires from these methods. The queue sends
+ * the chunk, its leashed entities and the watch event through
+ * {@link SpongeImplHooks#onChunkWatched} once it is actually sent, so the
+ * event fires exactly once per player.</p>
+ */
+@Mixin(PlayerChunkMapEntry.class)
+public abstract class PlayerChunkMapEntryMixin_ChunkSendQueue {
+
+    @Shadow @Final private PlayerChunkMap playerChunkMap;
+    @Shadow @Final private ChunkPos pos;
+    @Shadow @Final private List<EntityPlayerMP> players;
+    @Shadow @Nullable private Chunk chunk;
+    @Shadow private int changes;
+    @Shadow private int changedSectionFilter;
+    @Shadow private boolean sentToPlayers;
+
+    /**
+     * Same as vanilla once the chunk is ready, except that the chunk is
+     * queued for the players instead of sent.
+     */
+    @Inject(method = "sendToPlayers", at = @At("HEAD"), cancellable = true)
+    private void chunkSendQueue$queueForPlayers(final CallbackInfoReturnable<Boolean> cir) {
+        if (this.sentToPlayers || this.chunk == null || !this.chunk.isPopulated()) {
+            return;
+        }
+        this.changes = 0;
+        this.changedSectionFilter = 0;
+        this.sentToPlayers = true;
+        for (final EntityPlayerMP player : this.players) {
+            ((ChunkSendQueueBridge) this.playerChunkMap).chunkSendBridge$getQueue(player).add((PlayerChunkMapEntry) (Object) this);
+        }
+        cir.setReturnValue(true);
+    }
+
+    @Inject(method = "sendToPlayer", at = @At("HEAD"), cancellable = true)
+    private void chunkSendQueue$queueForPlayer(final EntityPlayerMP player, final CallbackInfo ci) {
+        if (this.sentToPlayers) {
+            ((ChunkSendQueueBridge) this.playerChunkMap).chunkSendBridge$getQueue(player).add((PlayerChunkMapEntry) (Object) this);
+        }
+        ci.cancel();
+    }
+
+    @Inject(method = "removePlayer", at = @At("HEAD"))
+    private void chunkSendQueue$dequeueForPlayer(final EntityPlayerMP player, final CallbackInfo ci) {
+        final ChunkSendQueue queue = ((ChunkSendQueueBridge) this.playerChunkMap).chunkSendBridge$getExistingQueue(player);
+        if (queue != null) {
+            queue.remove(this.pos);
+        }
+    }
+}
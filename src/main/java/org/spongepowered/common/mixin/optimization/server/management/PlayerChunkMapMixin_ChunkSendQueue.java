@@ -0,0 +1,100 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.mixin.optimization.server.management;
+
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.server.management.PlayerChunkMap;
+import net.minecraft.world.WorldServer;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.bridge.optimization.ChunkSendQueueBridge;
+import org.spongepowered.common.config.category.ChunkSendQueueCategory;
+import org.spongepowered.common.network.ChunkSendQueue;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+@Mixin(PlayerChunkMap.class)
+public abstract class PlayerChunkMapMixin_ChunkSendQueue implements ChunkSendQueueBridge {
+
+    @Shadow @Final private WorldServer world;
+    @Shadow private int playerViewRadius;
+
+    private final Map<EntityPlayerMP, ChunkSendQueue> chunkSendQueue$queues = new IdentityHashMap<>();
+
+    @Override
+    public ChunkSendQueue chunkSendBridge$getQueue(final EntityPlayerMP player) {
+        return this.chunkSendQueue$queues.computeIfAbsent(player, key -> new ChunkSendQueue());
+    }
+
+    @Nullable
+    @Override
+    public ChunkSendQueue chunkSendBridge$getExistingQueue(final EntityPlayerMP player) {
+        return this.chunkSendQueue$queues.get(player);
+    }
+
+    @Inject(method = "tick", at = @At("RETURN"))
+    private void chunkSendQueue$sendQueuedChunks(final CallbackInfo ci) {
+        if (this.chunkSendQueue$queues.isEmpty()) {
+            return;
+        }
+        final ChunkSendQueueCategory category =
+            SpongeImpl.getGlobalConfigAdapter().getConfig().getOptimizations().getChunkSendQueueCategory();
+        final Iterator<Map.Entry<EntityPlayerMP, ChunkSendQueue>> it = this.chunkSendQueue$queues.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<EntityPlayerMP, ChunkSendQueue> entry = it.next();
+            entry.getValue().tick(entry.getKey(), this.world.getEntityTracker(), this.playerViewRadius, category);
+            if (entry.getValue().isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    @Inject(method = "removePlayer", at = @At("RETURN"))
+    private void chunkSendQueue$removeQueue(final EntityPlayerMP player, final CallbackInfo ci) {
+        this.chunkSendQueue$queues.remove(player);
+    }
+
+    // Entities in chunks the player didn't receive yet are only sent with the chunk
+    @Inject(method = "isPlayerWatchingChunk", at = @At("RETURN"), cancellable = true)
+    private void chunkSendQueue$isChunkQueued(final EntityPlayerMP player, final int chunkX, final int chunkZ,
+            final CallbackInfoReturnable<Boolean> cir) {
+        if (cir.getReturnValueZ()) {
+            final ChunkSendQueue queue = this.chunkSendQueue$queues.get(player);
+            if (queue != null && queue.contains(chunkX, chunkZ)) {
+                cir.setReturnValue(false);
+            }
+        }
+    }
+}
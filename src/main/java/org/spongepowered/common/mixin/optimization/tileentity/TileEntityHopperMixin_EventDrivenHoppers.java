@@ -0,0 +1,180 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.mixin.optimization.tileentity;
+
+import net.minecraft.block.BlockHopper;
+import net.minecraft.inventory.IInventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.tileentity.TileEntityHopper;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.NonNullList;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import org.spongepowered.common.block.EventDrivenHoppers;
+import org.spongepowered.common.bridge.optimization.EventDrivenHopperBridge;
+
+@Mixin(TileEntityHopper.class)
+public abstract class TileEntityHopperMixin_EventDrivenHoppers extends TileEntityMixin_EventDrivenHoppers implements EventDrivenHopperBridge {
+
+    @Shadow public abstract boolean isOnTransferCooldown();
+    @Shadow protected abstract NonNullList<ItemStack> getItems();
+
+    private boolean eventDrivenHoppers$sleeping;
+    private long eventDrivenHoppers$sleepingSince;
+    // Bit i is set when slot i holds an item, or a full stack respectively.
+    // Rebuilt lazily after the contents may have changed.
+    private int eventDrivenHoppers$occupiedSlots;
+    private int eventDrivenHoppers$fullSlots;
+    private boolean eventDrivenHoppers$slotMasksValid;
+
+    @Override
+    public void hopperBridge$wakeUp() {
+        this.eventDrivenHoppers$sleeping = false;
+    }
+
+    @Override
+    public boolean hopperBridge$isSleeping() {
+        return this.eventDrivenHoppers$sleeping;
+    }
+
+    @Override
+    public void hopperBridge$onContentsChanged() {
+        this.eventDrivenHoppers$slotMasksValid = false;
+        this.eventDrivenHoppers$sleeping = false;
+    }
+
+    @Override
+    protected void eventDrivenHoppers$onMarkDirty() {
+        this.hopperBridge$onContentsChanged();
+    }
+
+    @Inject(method = "setInventorySlotContents", at = @At("HEAD"))
+    private void eventDrivenHoppers$onSetSlot(final int index, final ItemStack stack, final CallbackInfo ci) {
+        this.hopperBridge$onContentsChanged();
+    }
+
+    @Inject(method = "decrStackSize", at = @At("HEAD"))
+    private void eventDrivenHoppers$onDecreaseSlot(final int index, final int count, final CallbackInfoReturnable<ItemStack> cir) {
+        this.hopperBridge$onContentsChanged();
+    }
+
+    @Inject(method = "readFromNBT", at = @At("RETURN"))
+    private void eventDrivenHoppers$onRead(final NBTTagCompound compound, final CallbackInfo ci) {
+        this.hopperBridge$onContentsChanged();
+    }
+
+    @Inject(method = "updateHopper", at = @At("HEAD"), cancellable = true)
+    private void eventDrivenHoppers$skipWhileSleeping(final CallbackInfoReturnable<Boolean> cir) {
+        if (this.eventDrivenHoppers$sleeping
+            && (this.world.getTotalWorldTime() - this.eventDrivenHoppers$sleepingSince) % EventDrivenHoppers.getIdleCheckInterval() != 0) {
+            cir.setReturnValue(false);
+        }
+    }
+
+    @Inject(method = "updateHopper", at = @At("RETURN"))
+    private void eventDrivenHoppers$sleepWhenIdle(final CallbackInfoReturnable<Boolean> cir) {
+        if (this.world == null || this.world.isRemote) {
+            return;
+        }
+        if (cir.getReturnValue()) {
+            this.eventDrivenHoppers$sleeping = false;
+            // The hoppers around the inventories items were moved from or into may
+            // be able to move items now. The hopper optimization cancels markDirty
+            // for the destination, so they aren't always notified through it.
+            final EnumFacing facing = BlockHopper.getFacing(this.getBlockMetadata());
+            EventDrivenHoppers.wakeAround(this.world, this.pos.offset(facing));
+            EventDrivenHoppers.wakeAround(this.world, this.pos.up());
+        } else if (!this.eventDrivenHoppers$sleeping && !this.isOnTransferCooldown()) {
+            this.eventDrivenHoppers$sleeping = true;
+            this.eventDrivenHoppers$sleepingSince = this.world.getTotalWorldTime();
+        }
+    }
+
+    @Override
+    public boolean hopperBridge$isEmpty() {
+        this.eventDrivenHoppers$updateSlotMasks();
+        return this.eventDrivenHoppers$occupiedSlots == 0;
+    }
+
+    @Override
+    public boolean hopperBridge$isFull() {
+        this.eventDrivenHoppers$updateSlotMasks();
+        return this.eventDrivenHoppers$fullSlots == (1 << this.getItems().size()) - 1;
+    }
+
+    @Inject(method = "isInventoryEmpty()Z", at = @At("HEAD"), cancellable = true)
+    private void eventDrivenHoppers$checkOccupiedSlots(final CallbackInfoReturnable<Boolean> cir) {
+        cir.setReturnValue(this.hopperBridge$isEmpty());
+    }
+
+    @Inject(method = "isFull()Z", at = @At("HEAD"), cancellable = true)
+    private void eventDrivenHoppers$checkFullSlots(final CallbackInfoReturnable<Boolean> cir) {
+        cir.setReturnValue(this.hopperBridge$isFull());
+    }
+
+    // Hoppers pulling from or pushing into another hopper scan its slots through these.
+    // Hoppers aren't sided, so the side doesn't change the answer. Other inventories
+    // don't keep slot masks and are still scanned.
+    @Inject(method = "isInventoryEmpty(Lnet/minecraft/inventory/IInventory;Lnet/minecraft/util/EnumFacing;)Z", at = @At("HEAD"), cancellable = true)
+    private static void eventDrivenHoppers$checkAdjacentOccupiedSlots(final IInventory inventory, final EnumFacing side,
+        final CallbackInfoReturnable<Boolean> cir) {
+        if (inventory instanceof EventDrivenHopperBridge) {
+            cir.setReturnValue(((EventDrivenHopperBridge) inventory).hopperBridge$isEmpty());
+        }
+    }
+
+    @Inject(method = "isInventoryFull(Lnet/minecraft/inventory/IInventory;Lnet/minecraft/util/EnumFacing;)Z", at = @At("HEAD"), cancellable = true)
+    private void eventDrivenHoppers$checkAdjacentFullSlots(final IInventory inventory, final EnumFacing side, final CallbackInfoReturnable<Boolean> cir) {
+        if (inventory instanceof EventDrivenHopperBridge) {
+            cir.setReturnValue(((EventDrivenHopperBridge) inventory).hopperBridge$isFull());
+        }
+    }
+
+    private void eventDrivenHoppers$updateSlotMasks() {
+        if (this.eventDrivenHoppers$slotMasksValid) {
+            return;
+        }
+        final NonNullList<ItemStack> items = this.getItems();
+        int occupied = 0;
+        int full = 0;
+        for (int i = 0; i < items.size(); i++) {
+            final ItemStack stack = items.get(i);
+            if (!stack.isEmpty()) {
+                occupied |= 1 << i;
+                if (stack.getCount() == stack.getMaxStackSize()) {
+                    full |= 1 << i;
+                }
+            }
+        }
+        this.eventDrivenHoppers$occupiedSlots = occupied;
+        this.eventDrivenHoppers$fullSlots = full;
+        this.eventDrivenHoppers$slotMasksValid = true;
+    }
+}
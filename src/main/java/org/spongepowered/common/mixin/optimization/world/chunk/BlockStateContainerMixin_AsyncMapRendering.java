@@ -0,0 +1,66 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.mixin.optimization.world.chunk;
+
+import net.minecraft.world.chunk.BlockStateContainer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.common.bridge.optimization.MapSectionSnapshotBridge;
+import org.spongepowered.common.mixin.core.world.chunk.BlockStateContainerAccessor;
+import org.spongepowered.common.world.storage.MapColorSampler;
+
+import javax.annotation.Nullable;
+
+@Mixin(BlockStateContainer.class)
+public abstract class BlockStateContainerMixin_AsyncMapRendering implements MapSectionSnapshotBridge {
+
+    private int asyncMapRendering$modificationCount;
+    private int asyncMapRendering$snapshotModificationCount;
+    @Nullable private MapColorSampler.SectionSnapshot asyncMapRendering$snapshot;
+
+    // Every change to the blocks, including loading them from disk, goes through set
+    @Inject(method = "set(ILnet/minecraft/block/state/IBlockState;)V", at = @At("HEAD"))
+    private void asyncMapRendering$onSet(final CallbackInfo ci) {
+        this.asyncMapRendering$modificationCount++;
+    }
+
+    @Inject(method = "setBits", at = @At("HEAD"))
+    private void asyncMapRendering$onSetBits(final CallbackInfo ci) {
+        this.asyncMapRendering$modificationCount++;
+    }
+
+    @Override
+    public MapColorSampler.SectionSnapshot asyncMapRenderingBridge$getSnapshot() {
+        if (this.asyncMapRendering$snapshot == null || this.asyncMapRendering$snapshotModificationCount != this.asyncMapRendering$modificationCount) {
+            final BlockStateContainerAccessor accessor = (BlockStateContainerAccessor) this;
+            this.asyncMapRendering$snapshot = new MapColorSampler.SectionSnapshot(accessor.accessor$getBits(), accessor.accessor$getPalette(),
+                accessor.accessor$getBitArray());
+            this.asyncMapRendering$snapshotModificationCount = this.asyncMapRendering$modificationCount;
+        }
+        return this.asyncMapRendering$snapshot;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.mixin.optimization.world.chunk;
+
+import net.minecraft.world.chunk.BlockStateContainer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.common.bridge.optimization.ChunkSectionCacheBridge;
+
+import java.lang.ref.SoftReference;
+
+import javax.annotation.Nullable;
+
+@Mixin(BlockStateContainer.class)
+public abstract class BlockStateContainerMixin_SectionCache implements ChunkSectionCacheBridge {
+
+    private int sectionCache$modificationCount;
+    private int sectionCache$encodedModificationCount = -1;
+    @Nullable private SoftReference<byte[]> sectionCache$encoded;
+
+    // Every change to the blocks, including loading them from disk, goes through set
+    @Inject(method = "set(ILnet/minecraft/block/state/IBlockState;)V", at = @At("HEAD"))
+    private void sectionCache$onSet(final CallbackInfo ci) {
+        this.sectionCache$modificationCount++;
+    }
+
+    @Inject(method = "setBits", at = @At("HEAD"))
+    private void sectionCache$onSetBits(final CallbackInfo ci) {
+        this.sectionCache$modificationCount++;
+    }
+
+    @Override
+    public int sectionCacheBridge$getModificationCount() {
+        return this.sectionCache$modificationCount;
+    }
+
+    @Nullable
+    @Override
+    public SoftReference<byte[]> sectionCacheBridge$getEncoded() {
+        return this.sectionCache$encoded;
+    }
+
+    @Override
+    public int sectionCacheBridge$getEncodedModificationCount() {
+        return this.sectionCache$encodedModificationCount;
+    }
+
+    @Override
+    public void sectionCacheBridge$setEncoded(final SoftReference<byte[]> encoded, final int modificationCount) {
+        this.sectionCache$encoded = encoded;
+        this.sectionCache$encodedModificationCount = modificationCount;
+    }
+}
@@ -24,6 +24,8 @@
  */
 package org.spongepowered.common.mixin.optimization.world.storage;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.entity.item.EntityItemFrame;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
@@ -53,11 +55,13 @@
 import org.spongepowered.common.SpongeImplHooks;
 import org.spongepowered.common.bridge.optimization.OptimizedMapDataBridge;
 import org.spongepowered.common.bridge.optimization.OptimizedMapInfoBridge;
+import org.spongepowered.common.network.PacketBroadcast;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -212,10 +216,13 @@ public void updateVisiblePlayers(final EntityPlayer player, final ItemStack mapS
     // need to send update packets once per player per unique MapData.
 
     // To further improve performance, we skip sending map update packets
-    // to players who already have the same map in their inventory
+    // to players who already have the same map in their inventory, and players
+    // with the same pending changes share the same packet
     private void mapOptimizationImpl$updatePlayersInWorld() {
         // Copied from EntityTrackerEntry#updatePlayerList
         if (Sponge.getServer().getRunningTimeTicks() % 10 == 0) {
+            final Long2ObjectMap<Packet<?>> sharedPackets = new Long2ObjectOpenHashMap<>();
+            final Map<Packet<?>, List<EntityPlayerMP>> recipients = new IdentityHashMap<>();
             for (final org.spongepowered.api.world.World world: Sponge.getServer().getWorlds()) {
                 if (!this.mapOptimizationImpl$activeWorlds.contains(world.getUniqueId())) {
                     continue;
@@ -236,11 +243,22 @@ public void updateVisiblePlayers(final EntityPlayer player, final ItemStack mapS
                     }
 
                     //mapdata.updateVisiblePlayers(entityplayermp, itemstack); - Sponge - this is handled above in bridge$tickMap
-                    final Packet<?> packet = Items.FILLED_MAP.createMapDataPacket(this.mapOptimizationImpl$dummyItemStack, (World) world, entityplayermp);
+                    // Sponge - Items.FILLED_MAP.createMapDataPacket builds a new packet for every player, reuse them instead
+                    final Packet<?> packet = mapInfo.mapOptimizationBridge$getSharedPacket((MapData) (Object) this,
+                            this.mapOptimizationImpl$dummyItemStack, sharedPackets);
 
                     if (packet != null)
                     {
-                        entityplayermp.connection.sendPacket(packet);
+                        recipients.computeIfAbsent(packet, key -> new ArrayList<>()).add(entityplayermp);
+                    }
+                }
+            }
+            for (final Map.Entry<Packet<?>, List<EntityPlayerMP>> entry : recipients.entrySet()) {
+                if (entry.getValue().size() > 1 && PacketBroadcast.isEnabled()) {
+                    PacketBroadcast.sendTo(entry.getValue(), entry.getKey());
+                } else {
+                    for (final EntityPlayerMP entityplayermp : entry.getValue()) {
+                        entityplayermp.connection.sendPacket(entry.getKey());
                     }
                 }
             }
@@ -308,4 +326,13 @@ private MapData.MapInfo constructMapInfo(final EntityPlayer player) {
         this.mapDecorations.remove("frame-" + frame.getEntityId());
     }
 
+    @Override
+    public int mapOptimizationBridge$getDimension() {
+        try {
+            return ((Number) mapOptimizationImpl$dimensionField.get(this)).intValue();
+        } catch (final IllegalAccessException e) {
+            throw new IllegalStateException("Failed to read the dimension of " + this.mapName, e);
+        }
+    }
+
 }
@@ -24,13 +24,30 @@
  */
 package org.spongepowered.common.mixin.optimization.world.storage;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import net.minecraft.item.ItemStack;
+import net.minecraft.network.Packet;
+import net.minecraft.network.play.server.SPacketMaps;
 import net.minecraft.world.storage.MapData;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.common.bridge.optimization.OptimizedMapInfoBridge;
 
+import javax.annotation.Nullable;
+
 @Mixin(MapData.MapInfo.class)
 public class MapInfoMixin_MapOptimization implements OptimizedMapInfoBridge {
 
+    // Used for the packets that only contain the decorations
+    private static final long DECORATIONS_ONLY_KEY = -1L;
+
+    @Shadow private boolean isDirty;
+    @Shadow private int minX;
+    @Shadow private int minY;
+    @Shadow private int maxX;
+    @Shadow private int maxY;
+    @Shadow private int tick;
+
     private boolean mapOptimization$valid;
 
     @Override
@@ -43,4 +60,33 @@ public class MapInfoMixin_MapOptimization implements OptimizedMapInfoBridge {
         return this.mapOptimization$valid;
     }
 
+    @Nullable
+    @Override
+    public Packet<?> mapOptimizationBridge$getSharedPacket(final MapData mapData, final ItemStack stack,
+            final Long2ObjectMap<Packet<?>> sharedPackets) {
+        // The packets only depend on the changed area and the state of the map,
+        // which is the same for every player during a single map tick.
+        final long key;
+        if (this.isDirty) {
+            this.isDirty = false;
+            key = (long) this.minX << 21 | (long) this.minY << 14 | (long) this.maxX << 7 | this.maxY;
+        } else if (this.tick++ % 5 == 0) {
+            key = DECORATIONS_ONLY_KEY;
+        } else {
+            return null;
+        }
+        Packet<?> packet = sharedPackets.get(key);
+        if (packet == null) {
+            if (key == DECORATIONS_ONLY_KEY) {
+                packet = new SPacketMaps(stack.getMetadata(), mapData.scale, mapData.trackingPosition, mapData.mapDecorations.values(),
+                        mapData.colors, 0, 0, 0, 0);
+            } else {
+                packet = new SPacketMaps(stack.getMetadata(), mapData.scale, mapData.trackingPosition, mapData.mapDecorations.values(),
+                        mapData.colors, this.minX, this.minY, this.maxX + 1 - this.minX, this.maxY + 1 - this.minY);
+            }
+            sharedPackets.put(key, packet);
+        }
+        return packet;
+    }
+
 }
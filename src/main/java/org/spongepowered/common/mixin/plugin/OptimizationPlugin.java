@@ -129,16 +129,52 @@ public void postApply(String targetClassName, ClassNode targetClass, String mixi
                     OptimizationCategory::useMapOptimization)
             .put("org.spongepowered.common.mixin.optimization.server.MinecraftServerMixin_MapOptimization",
                     OptimizationCategory::useMapOptimization)
+            .put("org.spongepowered.common.mixin.optimization.item.ItemMapMixin_AsyncMapRendering",
+                    OptimizationCategory::useAsyncMapRendering)
+            .put("org.spongepowered.common.mixin.optimization.world.chunk.BlockStateContainerMixin_AsyncMapRendering",
+                    OptimizationCategory::useAsyncMapRendering)
             .put("org.spongepowered.common.mixin.optimization.tileentity.TileEntityMixin_HopperOptimization",
                     OptimizationCategory::isOptimizeHoppers)
             .put("org.spongepowered.common.mixin.optimization.tileentity.TileEntityHopperMixin_HopperOptimization",
                     OptimizationCategory::isOptimizeHoppers)
+            .put("org.spongepowered.common.mixin.optimization.tileentity.TileEntityMixin_EventDrivenHoppers",
+                    OptimizationCategory::useEventDrivenHoppers)
+            .put("org.spongepowered.common.mixin.optimization.tileentity.TileEntityHopperMixin_EventDrivenHoppers",
+                    OptimizationCategory::useEventDrivenHoppers)
+            .put("org.spongepowered.common.mixin.optimization.block.BlockHopperMixin_EventDrivenHoppers",
+                    OptimizationCategory::useEventDrivenHoppers)
+            .put("org.spongepowered.common.mixin.optimization.entity.item.EntityItemMixin_EventDrivenHoppers",
+                    OptimizationCategory::useEventDrivenHoppers)
             .put("org.spongepowered.common.mixin.optimization.entity.EntityMixin_UseActiveChunkForCollisions",
                     OptimizationCategory::isUseActiveChunkForCollisions)
             .put("org.spongepowered.common.mixin.optimization.world.WorldMixin_UseActiveChunkForCollisions",
                     OptimizationCategory::isUseActiveChunkForCollisions)
             .put("org.spongepowered.common.mixin.optimization.world.WorldServerMixin_UseActiveChunkForCollisions",
                     OptimizationCategory::isUseActiveChunkForCollisions)
+            .put("org.spongepowered.common.mixin.optimization.server.PlayerListMixin_SharedBroadcasts",
+                    OptimizationCategory::useSharedPacketBroadcasts)
+            .put("org.spongepowered.common.mixin.optimization.server.management.PlayerChunkMapEntryMixin_SharedBroadcasts",
+                    OptimizationCategory::useSharedPacketBroadcasts)
+            .put("org.spongepowered.common.mixin.optimization.entity.EntityTrackerEntryMixin_SharedBroadcasts",
+                    OptimizationCategory::useSharedPacketBroadcasts)
+            .put("org.spongepowered.common.mixin.optimization.network.NetworkManagerMixin_FlushConsolidation",
+                    OptimizationCategory::useFlushConsolidation)
+            .put("org.spongepowered.common.mixin.optimization.server.MinecraftServerMixin_FlushConsolidation",
+                    OptimizationCategory::useFlushConsolidation)
+            .put("org.spongepowered.common.mixin.optimization.entity.EntityTrackerMixin_IncrementalTracking",
+                    OptimizationCategory::useIncrementalEntityTracking)
+            .put("org.spongepowered.common.mixin.optimization.entity.EntityTrackerEntryMixin_IncrementalTracking",
+                    OptimizationCategory::useIncrementalEntityTracking)
+            .put("org.spongepowered.common.mixin.optimization.world.chunk.BlockStateContainerMixin_SectionCache",
+                    OptimizationCategory::useChunkSectionCache)
+            .put("org.spongepowered.common.mixin.optimization.network.play.server.SPacketChunkDataMixin_SectionCache",
+                    OptimizationCategory::useChunkSectionCache)
+            .put("org.spongepowered.common.mixin.optimization.server.management.PlayerChunkMapMixin_ChunkSendQueue",
+                    OptimizationCategory::useChunkSendQueue)
+            .put("org.spongepowered.common.mixin.optimization.server.management.PlayerChunkMapEntryMixin_ChunkSendQueue",
+                    OptimizationCategory::useChunkSendQueue)
+            .put("org.spongepowered.common.mixin.optimization.server.MinecraftServerMixin_ParticleBatching",
+                    OptimizationCategory::useParticleBatching)
             .build();
 
 }
@@ -24,11 +24,11 @@
  */
 package org.spongepowered.common.mixin.plugin;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Map;
-import java.util.HashMap;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockRedstoneWire;
 import net.minecraft.block.state.IBlockState;
@@ -158,40 +158,38 @@ public static BlockPos[] computeAllNeighbors(final BlockPos pos) {
         final int y = pos.getY();
         final int z = pos.getZ();
         final BlockPos[] n = new BlockPos[24];
-
-        // Immediate neighbors, in the same order as 
-        // World.notifyNeighborsOfStateChange, etc.:
-        // west, east, down, up, north, south
-        n[ 0] = new BlockPos(x-1, y  , z  ); 
-        n[ 1] = new BlockPos(x+1, y  , z  ); 
-        n[ 2] = new BlockPos(x  , y-1, z  ); 
-        n[ 3] = new BlockPos(x  , y+1, z  ); 
-        n[ 4] = new BlockPos(x  , y  , z-1); 
-        n[ 5] = new BlockPos(x  , y  , z+1); 
-    
-        // Neighbors of neighbors, in the same order,
-        // except that duplicates are not included
-        n[ 6] = new BlockPos(x-2, y  , z  );  
-        n[ 7] = new BlockPos(x-1, y-1, z  );
-        n[ 8] = new BlockPos(x-1, y+1, z  );
-        n[ 9] = new BlockPos(x-1, y  , z-1);
-        n[10] = new BlockPos(x-1, y  , z+1);
-        n[11] = new BlockPos(x+2, y  , z  );
-        n[12] = new BlockPos(x+1, y-1, z  );
-        n[13] = new BlockPos(x+1, y+1, z  );
-        n[14] = new BlockPos(x+1, y  , z-1);
-        n[15] = new BlockPos(x+1, y  , z+1);
-        n[16] = new BlockPos(x  , y-2, z  );
-        n[17] = new BlockPos(x  , y-1, z-1);
-        n[18] = new BlockPos(x  , y-1, z+1);
-        n[19] = new BlockPos(x  , y+2, z  );
-        n[20] = new BlockPos(x  , y+1, z-1);
-        n[21] = new BlockPos(x  , y+1, z+1);
-        n[22] = new BlockPos(x  , y  , z-2);
-        n[23] = new BlockPos(x  , y  , z+2);
+        for (int i=0; i<24; i++) {
+            n[i] = new BlockPos(x + neighbor_dx[i], y + neighbor_dy[i], z + neighbor_dz[i]);
+        }
         return n;
     }
 
+    /*
+     * Offsets of the neighbors listed by computeAllNeighbors.
+     *
+     * Immediate neighbors, in the same order as
+     * World.notifyNeighborsOfStateChange, etc.:
+     * west, east, down, up, north, south
+     *
+     * Followed by neighbors of neighbors, in the same order,
+     * except that duplicates are not included
+     */
+    private static final int[] neighbor_dx = {-1, 1, 0, 0, 0, 0, -2, -1, -1, -1, -1, 2, 1, 1, 1, 1, 0, 0, 0, 0, 0, 0, 0, 0};
+    private static final int[] neighbor_dy = {0, 0, -1, 1, 0, 0, 0, -1, 1, 0, 0, 0, -1, 1, 0, 0, -2, -1, -1, 2, 1, 1, 0, 0};
+    private static final int[] neighbor_dz = {0, 0, 0, 0, -1, 1, 0, 0, 0, -1, 1, 0, 0, 0, -1, 1, 0, -1, 1, 0, -1, 1, -2, 2};
+
+    /*
+     * Packs a block position into the key used by the node cache.  This uses
+     * the same layout as BlockPos.toLong, without having to allocate a BlockPos.
+     */
+    private static long nodeKey(final int x, final int y, final int z) {
+        return ((long) x & 0x3FFFFFFL) << 38 | ((long) y & 0xFFFL) << 26 | (long) z & 0x3FFFFFFL;
+    }
+
+    private static long nodeKey(final BlockPos pos) {
+        return nodeKey(pos.getX(), pos.getY(), pos.getZ());
+    }
+
     /*
      * We only want redstone wires to update redstone wires that are
      * immediately adjacent.  Some more distant updates can result
@@ -296,21 +294,72 @@ public static enum Type {
         }
         
         IBlockState currentState;       // Keep track of redstone wire value
-        UpdateNode[] neighbor_nodes;    // References to neighbors (directed graph edges)
+        final UpdateNode[] neighbor_nodes = new UpdateNode[24]; // References to neighbors (directed graph edges)
+        boolean expanded;               // Whether neighbor_nodes has been filled in
         BlockPos self;                  // UpdateNode's own position
         BlockPos parent;                // Which block pos spawned/updated this node
         Type type = Type.UNKNOWN;       // unknown, redstone wire, other type of block
         int layer;                      // Highest layer this node is scheduled in
         boolean visited;                // To keep track of information flow direction, visited restone wire is marked
         int xbias, zbias;               // Remembers directionality of ancestor nodes; helps eliminate directional ambiguities.
+
+        void reset() {
+            this.currentState = null;
+            this.expanded = false;
+            this.self = null;
+            this.parent = null;
+            this.type = Type.UNKNOWN;
+            this.layer = 0;
+            this.visited = false;
+            this.xbias = 0;
+            this.zbias = 0;
+        }
     }
     
     
     /*
      * Keep track of all block positions discovered during search and their current states.
-     * We want to remember one entry for each position.
+     * We want to remember one entry for each position.  Positions are keyed by nodeKey.
+     */
+    private final Long2ObjectOpenHashMap<UpdateNode> nodeCache = new Long2ObjectOpenHashMap<>();
+
+    /*
+     * UpdateNode objects are reused across searches.  The first nodesInUse nodes of the
+     * pool belong to the current search, all of them are released once it is completed.
+     * Large searches would otherwise allocate thousands of nodes and neighbor arrays each time.
      */
-    private final Map<BlockPos, UpdateNode> nodeCache = new HashMap<>();
+    private static final int MAX_POOLED_NODES = 16384;
+    private final List<UpdateNode> nodePool = new ArrayList<>();
+    private int nodesInUse = 0;
+
+    /*
+     * Temporary neighbor arrays for findNeighbors.  Identifying a node can drop a wire and
+     * cause a reentrant update, so each nesting level uses its own array.
+     */
+    private UpdateNode[][] scratchNeighbors = new UpdateNode[2][];
+    private int scratchDepth = 0;
+
+    private UpdateNode obtainNode() {
+        final UpdateNode node;
+        if (this.nodesInUse < this.nodePool.size()) {
+            node = this.nodePool.get(this.nodesInUse);
+            node.reset();
+        } else {
+            node = new UpdateNode();
+            this.nodePool.add(node);
+        }
+        this.nodesInUse++;
+        return node;
+    }
+
+    private void releaseNodes() {
+        this.nodeCache.clear();
+        if (this.nodePool.size() > MAX_POOLED_NODES) {
+            this.nodePool.subList(MAX_POOLED_NODES, this.nodePool.size()).clear();
+            this.nodeCache.trim(MAX_POOLED_NODES);
+        }
+        this.nodesInUse = 0;
+    }
 
 
     /*
@@ -486,27 +535,46 @@ private void updateNode(final World worldIn, final UpdateNode upd1, final int la
      */
     private void findNeighbors(final World worldIn, final UpdateNode upd1) {
         final BlockPos pos = upd1.self;
-
-        // Get the list of neighbor coordinates
-        final BlockPos[] neighbors = computeAllNeighbors(pos);
+        final int x = pos.getX();
+        final int y = pos.getY();
+        final int z = pos.getZ();
 
         // Temporary array of neighbors in cardinal ordering
-        final UpdateNode[] neighbor_nodes = new UpdateNode[24];
+        if (this.scratchDepth == this.scratchNeighbors.length) {
+            this.scratchNeighbors = Arrays.copyOf(this.scratchNeighbors, this.scratchDepth * 2);
+        }
+        UpdateNode[] neighbor_nodes = this.scratchNeighbors[this.scratchDepth];
+        if (neighbor_nodes == null) {
+            neighbor_nodes = this.scratchNeighbors[this.scratchDepth] = new UpdateNode[24];
+        }
+        this.scratchDepth++;
+        try {
+            findNeighbors(worldIn, upd1, pos, x, y, z, neighbor_nodes);
+        } finally {
+            this.scratchDepth--;
+        }
+    }
 
+    private void findNeighbors(final World worldIn, final UpdateNode upd1, final BlockPos pos, final int x, final int y, final int z,
+            final UpdateNode[] neighbor_nodes) {
         // Target array of neighbors sorted left-to-right
-        upd1.neighbor_nodes = new UpdateNode[24];
+        Arrays.fill(upd1.neighbor_nodes, null);
+        upd1.expanded = true;
 
         for (int i=0; i<24; i++) {
             // Look up each neighbor in the node cache
-            final BlockPos pos2 = neighbors[i];
-            UpdateNode upd2 = this.nodeCache.get(pos2);
+            final int x2 = x + neighbor_dx[i];
+            final int y2 = y + neighbor_dy[i];
+            final int z2 = z + neighbor_dz[i];
+            final long key2 = nodeKey(x2, y2, z2);
+            UpdateNode upd2 = this.nodeCache.get(key2);
             if (upd2 == null) {
                 // If this is a previously unreached position, create
                 // a new update node, add it to the cache, and identify what it is.
-                upd2 = new UpdateNode();
-                upd2.self = pos2;
+                upd2 = obtainNode();
+                upd2.self = new BlockPos(x2, y2, z2);
                 upd2.parent = pos;
-                this.nodeCache.put(pos2, upd2);
+                this.nodeCache.put(key2, upd2);
                 identifyNode(worldIn, upd2);
             }
 
@@ -515,9 +583,7 @@ private void findNeighbors(final World worldIn, final UpdateNode upd1) {
             // may contain a redstone wire that does not directly connect to the
             // one being expanded.  To avoid redundant calculations and confusing
             // cross-talk, those neighboring positions are not included.
-            if (update_redstone[i] || upd2.type != UpdateNode.Type.REDSTONE) {
-                neighbor_nodes[i] = upd2;
-            }
+            neighbor_nodes[i] = update_redstone[i] || upd2.type != UpdateNode.Type.REDSTONE ? upd2 : null;
         }
 
         // Determine the directions from which the redstone signal may have come from.  This
@@ -576,7 +642,7 @@ private void findNeighbors(final World worldIn, final UpdateNode upd1) {
      * in layers N+1 and N+2;
      */
     private void propagateChanges(final World worldIn, final UpdateNode upd1, final int layer) {
-        if (upd1.neighbor_nodes == null) {
+        if (!upd1.expanded) {
             // If this node has not been expanded yet, find its neigbors
             findNeighbors(worldIn, upd1);
         }
@@ -728,33 +794,35 @@ private IBlockState scheduleReentrantNeighborChanged(final World worldIn, final
         if (source != null) {
             // If the cause of the redstone wire update is known, we can use that to help determine
             // direction of information flow.
-            UpdateNode src = this.nodeCache.get(source);
+            final long sourceKey = nodeKey(source);
+            UpdateNode src = this.nodeCache.get(sourceKey);
             if (src == null) {
-                src = new UpdateNode();
+                src = obtainNode();
                 src.self = source;
                 src.parent = source;
                 src.visited = true;
                 identifyNode(worldIn, src);
-                this.nodeCache.put(source, src);
+                this.nodeCache.put(sourceKey, src);
             }
         }
 
         // Find or generate a node for the redstone block position receiving the update
-        UpdateNode upd = this.nodeCache.get(pos);
+        final long key = nodeKey(pos);
+        UpdateNode upd = this.nodeCache.get(key);
         if (upd == null) {
-            upd = new UpdateNode();
+            upd = obtainNode();
             upd.self = pos;
             upd.parent = pos;
             upd.visited = true;
             identifyNode(worldIn, upd);
-            this.nodeCache.put(pos, upd);
+            this.nodeCache.put(key, upd);
         }
         upd.currentState = newState;
 
         // Receiving this block update may mean something in the world changed.
         // Therefore we clear the cached block info about all neighbors of
         // the position receiving the update and then re-identify what they are.
-        if (upd.neighbor_nodes != null) {
+        if (upd.expanded) {
             for (int i=0; i<24; i++) {
                 final UpdateNode upd2 = upd.neighbor_nodes[i];
                 if (upd2 == null) continue;
@@ -809,24 +877,24 @@ public IBlockState updateSurroundingRedstone(final World worldIn, final BlockPos
         // If the source of the block update to the redstone wire at 'pos' is known, we can use
         // that to help determine the direction of information flow.
         if (source != null) {
-            final UpdateNode src = new UpdateNode();
+            final UpdateNode src = obtainNode();
             src.self = source;
             src.parent = source;
             src.visited = true;
-            this.nodeCache.put(source, src);
+            this.nodeCache.put(nodeKey(source), src);
             identifyNode(worldIn, src);
         }
 
         // Create a node representing the block at 'pos', and then propagate updates
         // to its neighbors.  As stated above, the call to wire.calculateCurrentChanges
         // already performs the update to the block at 'pos', so it is not added to the schedule.
-        final UpdateNode upd = new UpdateNode();
+        final UpdateNode upd = obtainNode();
         upd.self = pos;
         upd.parent = source!=null ? source : pos;
         upd.currentState = newState;
         upd.type = UpdateNode.Type.REDSTONE;
         upd.visited = true;
-        this.nodeCache.put(pos, upd);
+        this.nodeCache.put(nodeKey(pos), upd);
         propagateChanges(worldIn, upd, 0);
     
         // Perform the walk over all directly reachable redstone wire blocks, propagating wire value 
@@ -836,8 +904,8 @@ public IBlockState updateSurroundingRedstone(final World worldIn, final BlockPos
         // With the whole search completed, clear the list of all known blocks.
         // We do not want to keep around state information that may be changed by other code.
         // In theory, we could cache the neighbor block positions, but that is a separate
-        // optimization.
-        this.nodeCache.clear();
+        // optimization.  The nodes themselves are kept for the next search.
+        releaseNodes();
 
         return newState;
     }
@@ -877,7 +945,7 @@ private IBlockState calculateCurrentChanges(final World worldIn, final UpdateNod
         // following loop can affect the power level of the wire.  Therefore, the loop is 
         // skipped if k is already 15. 
         if (k<15) {
-            if (upd.neighbor_nodes == null) {
+            if (!upd.expanded) {
                 // If this node's neighbors are not known, expand the node
                 findNeighbors(worldIn, upd);
             }
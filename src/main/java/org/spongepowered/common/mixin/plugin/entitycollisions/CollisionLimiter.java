@@ -0,0 +1,173 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.mixin.plugin.entitycollisions;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.world.World;
+import org.spongepowered.api.block.BlockType;
+import org.spongepowered.api.world.LocatableBlock;
+import org.spongepowered.common.SpongeImplHooks;
+import org.spongepowered.common.bridge.world.WorldServerBridge;
+import org.spongepowered.common.event.tracking.PhaseContext;
+import org.spongepowered.common.event.tracking.PhaseTracker;
+import org.spongepowered.common.mixin.plugin.entitycollisions.interfaces.CollisionsCapability;
+import org.spongepowered.common.util.OptimizationStats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+
+/**
+ * Resolves the max collisions of the block or entity an entity query is
+ * running for.
+ *
+ * <p>Queries through the world resolve the limit once and keep it here while
+ * they visit the chunks in the queried area, chunks queried directly resolve
+ * it themselves.</p>
+ */
+public final class CollisionLimiter {
+
+    // The limits of the world queries running on the main thread, innermost last
+    private static final IntArrayList queryLimits = new IntArrayList();
+    private static final LongAdder CUT_SHORT = OptimizationStats.counter("entity-collisions.cut-short");
+
+    /**
+     * Starts a world query for the entities colliding with the given entity.
+     *
+     * @param world The world
+     * @param entity The entity, if any
+     */
+    public static void startQuery(final World world, @Nullable final Entity entity) {
+        if (SpongeImplHooks.isMainThread()) {
+            queryLimits.add(isExempt(world, entity) ? -1 : resolveMaxCollisions(world));
+        }
+    }
+
+    /**
+     * Starts a world query for the entities of the given class.
+     *
+     * @param world The world
+     * @param entityClass The class of the entities
+     */
+    public static void startQuery(final World world, final Class<?> entityClass) {
+        if (SpongeImplHooks.isMainThread()) {
+            queryLimits.add(isExempt(world, entityClass) ? -1 : resolveMaxCollisions(world));
+        }
+    }
+
+    public static void endQuery() {
+        if (SpongeImplHooks.isMainThread() && !queryLimits.isEmpty()) {
+            queryLimits.removeInt(queryLimits.size() - 1);
+        }
+    }
+
+    /**
+     * Gets the max collisions of the world query that is running right now
+     * on this thread.
+     *
+     * @return The max collisions, negative if there is no limit, or null if
+     *     no world query is running
+     */
+    @Nullable
+    public static Integer getQueryMaxCollisions() {
+        if (queryLimits.isEmpty() || !SpongeImplHooks.isMainThread()) {
+            return null;
+        }
+        return queryLimits.getInt(queryLimits.size() - 1);
+    }
+
+    /**
+     * Counts a chunk query that stopped scanning because the collision
+     * limit was reached.
+     */
+    public static void onCollisionsCutShort() {
+        CUT_SHORT.increment();
+    }
+
+    public static boolean isExempt(final World world, @Nullable final Entity entity) {
+        // ignore players and entities with parts (ex. EnderDragon)
+        if (world.isRemote || entity == null || entity instanceof EntityPlayer || entity.getParts() != null) {
+            return true;
+        }
+        // Run hook in EntityLivingBase to support maxEntityCramming
+        return entity instanceof EntityLivingBase && ((CollisionsCapability) entity).collision$isRunningCollideWithNearby();
+    }
+
+    public static boolean isExempt(final World world, final Class<?> entityClass) {
+        // ignore player checks
+        // ignore item check (ex. Hoppers)
+        return world.isRemote || EntityPlayer.class.isAssignableFrom(entityClass) || EntityItem.class == entityClass;
+    }
+
+    /**
+     * Gets the max collisions of the source of the current phase.
+     *
+     * @param world The world that is queried
+     * @return The max collisions, or a negative value if there is no limit
+     */
+    public static int resolveMaxCollisions(final World world) {
+        if (world instanceof WorldServerBridge) {
+            if (PhaseTracker.getInstance().getCurrentState().ignoresEntityCollisions()) {
+                // allow explosions
+                return -1;
+            }
+
+            final PhaseContext<?> phaseContext = PhaseTracker.getInstance().getCurrentContext();
+            final Object source = phaseContext.getSource();
+            if (source == null) {
+                return -1;
+            }
+
+            if (source instanceof LocatableBlock) {
+                final LocatableBlock locatable = (LocatableBlock) source;
+                final BlockType blockType = locatable.getLocation().getBlockType();
+                final CollisionsCapability spongeBlock = (CollisionsCapability) blockType;
+                if (spongeBlock.collision$requiresCollisionsCacheRefresh()) {
+                    spongeBlock.collision$initializeCollisionState(world);
+                    spongeBlock.collision$requiresCollisionsCacheRefresh(false);
+                }
+
+                return spongeBlock.collision$getMaxCollisions();
+            } else if (source instanceof CollisionsCapability) {
+                final CollisionsCapability spongeEntity = (CollisionsCapability) source;
+                if (spongeEntity.collision$requiresCollisionsCacheRefresh()) {
+                    spongeEntity.collision$initializeCollisionState(world);
+                    spongeEntity.collision$requiresCollisionsCacheRefresh(false);
+                }
+
+                return spongeEntity.collision$getMaxCollisions();
+            }
+        }
+
+        return -1;
+    }
+
+    private CollisionLimiter() {
+    }
+}
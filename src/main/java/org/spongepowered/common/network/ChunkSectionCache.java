@@ -0,0 +1,83 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.world.chunk.BlockStateContainer;
+import org.spongepowered.common.SpongeImplHooks;
+import org.spongepowered.common.bridge.optimization.ChunkSectionCacheBridge;
+
+import java.lang.ref.SoftReference;
+
+/**
+ * Caches the serialized form of the blocks of chunk sections, so chunk
+ * packets only serialize the palette and block storage of sections that
+ * changed since they were last sent.
+ *
+ * <p>The cached bytes are held softly, sections that are sent once and
+ * never again don't pin the memory.</p>
+ */
+public final class ChunkSectionCache {
+
+    /**
+     * Gets the serialized form of the container, as written by
+     * {@link BlockStateContainer#write(PacketBuffer)}.
+     *
+     * @param container The block container of a chunk section
+     * @return The serialized bytes, must not be modified
+     */
+    public static byte[] getEncoded(BlockStateContainer container) {
+        if (!SpongeImplHooks.isMainThread()) {
+            // Blocks are only changed on the main thread, anything else could
+            // see a half updated cache
+            return encode(container);
+        }
+        final ChunkSectionCacheBridge bridge = (ChunkSectionCacheBridge) container;
+        final int modificationCount = bridge.sectionCacheBridge$getModificationCount();
+        final SoftReference<byte[]> reference = bridge.sectionCacheBridge$getEncoded();
+        if (reference != null && bridge.sectionCacheBridge$getEncodedModificationCount() == modificationCount) {
+            final byte[] encoded = reference.get();
+            if (encoded != null) {
+                return encoded;
+            }
+        }
+        final byte[] encoded = encode(container);
+        bridge.sectionCacheBridge$setEncoded(new SoftReference<>(encoded), modificationCount);
+        return encoded;
+    }
+
+    private static byte[] encode(BlockStateContainer container) {
+        final ByteBuf buf = Unpooled.buffer(container.getSerializedSize());
+        container.write(new PacketBuffer(buf));
+        final byte[] encoded = new byte[buf.readableBytes()];
+        buf.readBytes(encoded);
+        return encoded;
+    }
+
+    private ChunkSectionCache() {
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.network;
+
+import io.netty.channel.Channel;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import net.minecraft.entity.EntityTracker;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.network.play.server.SPacketChunkData;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.management.PlayerChunkMapEntry;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.chunk.Chunk;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.SpongeImplHooks;
+import org.spongepowered.common.config.category.ChunkSendQueueCategory;
+import org.spongepowered.common.mixin.core.network.NetworkManagerAccessor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The chunks that still have to be sent to a player.
+ *
+ * <p>Chunks are sent closest first. The amount of chunks sent per tick is
+ * raised by one every tick the player's connection keeps up, and halved
+ * whenever the connection stops being writable, which happens when more
+ * data is queued up for it than the client reads.</p>
+ *
+ * <p>While the server is overloaded the distance chunks are sent to is
+ * reduced, chunks further away stay queued until the server recovers.</p>
+ */
+public final class ChunkSendQueue {
+
+    private static final int MAX_VIEW_DISTANCE_REDUCTION = 32;
+
+    private static int viewDistanceReduction;
+    private static int lastLoadCheckTick = -1;
+
+    private final Long2ObjectLinkedOpenHashMap<PlayerChunkMapEntry> pending = new Long2ObjectLinkedOpenHashMap<>();
+    private int chunksPerTick = -1;
+
+    public void add(PlayerChunkMapEntry entry) {
+        this.pending.put(ChunkPos.asLong(entry.getPos().x, entry.getPos().z), entry);
+    }
+
+    public void remove(ChunkPos pos) {
+        this.pending.remove(ChunkPos.asLong(pos.x, pos.z));
+    }
+
+    public boolean contains(int chunkX, int chunkZ) {
+        return this.pending.containsKey(ChunkPos.asLong(chunkX, chunkZ));
+    }
+
+    public boolean isEmpty() {
+        return this.pending.isEmpty();
+    }
+
+    /**
+     * Sends as many of the queued chunks to the player as the connection
+     * and the load of the server allow.
+     *
+     * @param player The player
+     * @param tracker The entity tracker of the player's world
+     * @param viewRadius The view distance of the player's world
+     * @param category The configuration
+     */
+    public void tick(EntityPlayerMP player, EntityTracker tracker, int viewRadius, ChunkSendQueueCategory category) {
+        if (this.pending.isEmpty() || player.connection == null) {
+            return;
+        }
+        final int min = Math.max(1, category.getMinChunksPerTick());
+        final int max = Math.max(min, category.getMaxChunksPerTick());
+        if (this.chunksPerTick < 0) {
+            this.chunksPerTick = min;
+        }
+        final Channel channel = ((NetworkManagerAccessor) player.connection.netManager).accessor$getChannel();
+        if (!channel.isWritable()) {
+            this.chunksPerTick = Math.max(min, this.chunksPerTick / 2);
+            return;
+        }
+
+        final int radius = getEffectiveViewRadius(viewRadius, category);
+        final int playerX = MathHelper.floor(player.posX) >> 4;
+        final int playerZ = MathHelper.floor(player.posZ) >> 4;
+        final List<PlayerChunkMapEntry> candidates = new ArrayList<>();
+        for (PlayerChunkMapEntry entry : this.pending.values()) {
+            final ChunkPos pos = entry.getPos();
+            if (Math.max(Math.abs(pos.x - playerX), Math.abs(pos.z - playerZ)) <= radius) {
+                candidates.add(entry);
+            }
+        }
+        candidates.sort((a, b) -> Integer.compare(distanceSq(a.getPos(), playerX, playerZ), distanceSq(b.getPos(), playerX, playerZ)));
+
+        int sent = 0;
+        for (PlayerChunkMapEntry entry : candidates) {
+            if (sent >= this.chunksPerTick) {
+                break;
+            }
+            this.remove(entry.getPos());
+            final Chunk chunk = entry.getChunk();
+            if (chunk == null || !entry.isSentToPlayers() || !entry.containsPlayer(player)) {
+                continue;
+            }
+            // Same as PlayerChunkMapEntry#sendToPlayer, the chunk has to be removed from the
+            // queue first so the entity tracker sees the player is watching it
+            player.connection.sendPacket(new SPacketChunkData(chunk, 65535));
+            tracker.sendLeashedEntitiesInChunk(player, chunk);
+            SpongeImplHooks.onChunkWatched(player, chunk);
+            sent++;
+        }
+        if (sent >= this.chunksPerTick && channel.isWritable()) {
+            this.chunksPerTick = Math.min(max, this.chunksPerTick + 1);
+        }
+    }
+
+    private static int distanceSq(ChunkPos pos, int chunkX, int chunkZ) {
+        final int x = pos.x - chunkX;
+        final int z = pos.z - chunkZ;
+        return x * x + z * z;
+    }
+
+    private static int getEffectiveViewRadius(int viewRadius, ChunkSendQueueCategory category) {
+        final MinecraftServer server = SpongeImpl.getServer();
+        final int tick = server.getTickCounter();
+        if (tick != lastLoadCheckTick && tick % 20 == 0) {
+            lastLoadCheckTick = tick;
+            final double tickTime = MathHelper.average(server.tickTimeArray) / 1.0E6D;
+            final int overloaded = category.getOverloadedTickTime();
+            if (tickTime > overloaded) {
+                viewDistanceReduction = Math.min(MAX_VIEW_DISTANCE_REDUCTION, viewDistanceReduction + 1);
+            } else if (tickTime < overloaded * 0.8D && viewDistanceReduction > 0) {
+                viewDistanceReduction--;
+            }
+        }
+        return Math.max(Math.min(category.getMinViewDistance(), viewRadius), viewRadius - viewDistanceReduction);
+    }
+}
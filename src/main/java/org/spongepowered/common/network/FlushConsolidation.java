@@ -0,0 +1,113 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.network;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOutboundBuffer;
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.SpongeImplHooks;
+import org.spongepowered.common.util.OptimizationStats;
+
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Defers flushing player connections that packets were written to on the
+ * main thread until the end of the tick, so each connection is flushed
+ * once per tick instead of once per packet. Connections with many pending
+ * bytes are flushed early.
+ *
+ * <p>Deferring is only active while a tick is running, which is only the
+ * case when the flush consolidation optimization is enabled. The amount of
+ * deferred packets and flushes is counted in {@link OptimizationStats}, their
+ * ratio is the average amount of packets per flush.</p>
+ */
+public final class FlushConsolidation {
+
+    private static final Set<Channel> pendingChannels = new ReferenceLinkedOpenHashSet<>();
+    private static final LongAdder DEFERRED_PACKETS = OptimizationStats.counter("flush-consolidation.deferred-packets");
+    private static final LongAdder FLUSHES = OptimizationStats.counter("flush-consolidation.flushes");
+
+    private static boolean ticking;
+    private static int maxPendingBytes;
+
+    public static void onTickStart() {
+        ticking = true;
+        maxPendingBytes = SpongeImpl.getGlobalConfigAdapter().getConfig().getOptimizations().getFlushConsolidationCategory().getMaxPendingBytes();
+    }
+
+    public static void onTickEnd() {
+        ticking = false;
+        flushPending();
+    }
+
+    /**
+     * Gets whether packets written from the current thread should be
+     * written without flushing.
+     *
+     * @return Whether flushing should be deferred
+     */
+    public static boolean shouldDefer() {
+        return ticking && SpongeImplHooks.isMainThread();
+    }
+
+    /**
+     * Marks a channel that a packet was just written to as needing a
+     * flush. Only call this when {@link #shouldDefer()} is true.
+     *
+     * @param channel The channel
+     */
+    public static void defer(Channel channel) {
+        DEFERRED_PACKETS.increment();
+        // The pending bytes are only updated once the packet was encoded on
+        // the network thread, so this lags slightly behind.
+        final ChannelOutboundBuffer buffer = channel.unsafe().outboundBuffer();
+        if (buffer != null && buffer.totalPendingWriteBytes() >= maxPendingBytes) {
+            pendingChannels.remove(channel);
+            flush(channel);
+        } else {
+            pendingChannels.add(channel);
+        }
+    }
+
+    public static void flushPending() {
+        if (pendingChannels.isEmpty()) {
+            return;
+        }
+        for (Channel channel : pendingChannels) {
+            flush(channel);
+        }
+        pendingChannels.clear();
+    }
+
+    private static void flush(Channel channel) {
+        FLUSHES.increment();
+        channel.flush();
+    }
+
+    private FlushConsolidation() {
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.network.EnumConnectionState;
+import net.minecraft.network.EnumPacketDirection;
+import net.minecraft.network.Packet;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.network.play.server.SPacketChat;
+import net.minecraft.network.play.server.SPacketPlayerListItem;
+import net.minecraft.network.play.server.SPacketResourcePackSend;
+import net.minecraft.network.play.server.SPacketSetExperience;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.bridge.network.NetworkManagerBridge;
+import org.spongepowered.common.util.OptimizationStats;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+
+import javax.annotation.Nullable;
+
+/**
+ * Sends the same packet to many players while encoding (and compressing)
+ * it only once. The encoded bytes are written straight into the pipelines
+ * of the player connections, behind the packet encoder.
+ *
+ * <p>The first recipient always gets the packet through the regular path,
+ * so broadcasts that end up reaching a single player don't pay for the
+ * extra encoding. Packets that Sponge or vanilla handle per player when
+ * sending them are never shared, and neither are connections with handlers
+ * of mods or plugins behind the encoder.</p>
+ *
+ * <p>How many packets were encoded for sharing, the time spent encoding and
+ * compressing them and how many times they were written to a connection are
+ * counted in {@link OptimizationStats}.</p>
+ */
+public final class PacketBroadcast {
+
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(Deflater::new);
+    private static final ThreadLocal<byte[]> DEFLATE_BUFFER = ThreadLocal.withInitial(() -> new byte[8192]);
+    private static final LongAdder ENCODED_PACKETS = OptimizationStats.counter("shared-broadcasts.encoded-packets");
+    private static final LongAdder ENCODE_NANOS = OptimizationStats.counter("shared-broadcasts.encode-nanos");
+    private static final LongAdder SHARED_WRITES = OptimizationStats.counter("shared-broadcasts.shared-writes");
+
+    public static boolean isEnabled() {
+        return SpongeImpl.getGlobalConfigAdapter().getConfig().getOptimizations().useSharedPacketBroadcasts();
+    }
+
+    /**
+     * Sends the packet to all the given players.
+     *
+     * @param players The players
+     * @param packet The packet
+     */
+    public static void sendTo(Iterable<? extends EntityPlayerMP> players, Packet<?> packet) {
+        final PacketBroadcast broadcast = new PacketBroadcast(packet);
+        try {
+            for (EntityPlayerMP player : players) {
+                broadcast.sendTo(player);
+            }
+        } finally {
+            broadcast.release();
+        }
+    }
+
+    private final Packet<?> packet;
+    private final boolean shareable;
+    private int recipients;
+    private boolean failed;
+    @Nullable private ByteBuf encoded;
+    @Nullable private ByteBuf compressed;
+    private int compressionThreshold = -1;
+
+    public PacketBroadcast(Packet<?> packet) {
+        this.packet = packet;
+        // These are inspected by NetHandlerPlayServer#sendPacket
+        this.shareable = !(packet instanceof SPacketPlayerListItem
+            || packet instanceof SPacketResourcePackSend
+            || packet instanceof SPacketSetExperience);
+    }
+
+    public Packet<?> getPacket() {
+        return this.packet;
+    }
+
+    public void sendTo(EntityPlayerMP player) {
+        if (player.connection == null) {
+            return;
+        }
+        if (this.recipients++ == 0 || !this.canShareWith(player) || !this.encode()
+            || !((NetworkManagerBridge) player.connection.netManager).bridge$sendEncodedPacket(this)) {
+            player.connection.sendPacket(this.packet);
+            return;
+        }
+        SHARED_WRITES.increment();
+    }
+
+    private boolean canShareWith(EntityPlayerMP player) {
+        if (!this.shareable) {
+            return false;
+        }
+        // Chat visibility is checked when the packet is sent
+        return !(this.packet instanceof SPacketChat) || player.getChatVisibility() == EntityPlayer.EnumChatVisibility.FULL;
+    }
+
+    private boolean encode() {
+        if (this.encoded != null) {
+            return true;
+        }
+        if (this.failed) {
+            return false;
+        }
+        final long start = System.nanoTime();
+        final Integer id = EnumConnectionState.PLAY.getPacketId(EnumPacketDirection.CLIENTBOUND, this.packet);
+        if (id == null) {
+            this.failed = true;
+            return false;
+        }
+        final ByteBuf buf = PooledByteBufAllocator.DEFAULT.buffer();
+        try {
+            final PacketBuffer packetBuffer = new PacketBuffer(buf);
+            packetBuffer.writeVarInt(id);
+            this.packet.writePacketData(packetBuffer);
+        } catch (Exception e) {
+            // Let the regular pipeline deal with it, it reports the error to the player
+            SpongeImpl.getLogger().debug("Failed to encode broadcast packet {}", this.packet.getClass().getName(), e);
+            buf.release();
+            this.failed = true;
+            return false;
+        }
+        this.encoded = buf;
+        ENCODED_PACKETS.increment();
+        ENCODE_NANOS.add(System.nanoTime() - start);
+        return true;
+    }
+
+    /**
+     * Gets the encoded packet id and data, without the length prefix.
+     *
+     * @return The encoded packet
+     */
+    public ByteBuf getEncoded() {
+        if (this.encoded == null) {
+            throw new IllegalStateException("The packet wasn't encoded");
+        }
+        return this.encoded;
+    }
+
+    /**
+     * Gets the encoded packet in the format the compression encoder of a
+     * connection with the given threshold would produce. Only one threshold
+     * is cached, connections with a different one compress by themselves.
+     *
+     * @param threshold The compression threshold of the connection
+     * @return The compressed packet, or null if the connection has to compress it
+     */
+    @Nullable
+    public ByteBuf getCompressed(int threshold) {
+        if (this.compressed != null) {
+            return this.compressionThreshold == threshold ? this.compressed : null;
+        }
+        final ByteBuf encoded = this.getEncoded();
+        final long start = System.nanoTime();
+        final int length = encoded.readableBytes();
+        final ByteBuf buf = PooledByteBufAllocator.DEFAULT.buffer();
+        final PacketBuffer packetBuffer = new PacketBuffer(buf);
+        // Mirrors NettyCompressionEncoder
+        if (length < threshold) {
+            packetBuffer.writeVarInt(0);
+            packetBuffer.writeBytes(encoded, encoded.readerIndex(), length);
+        } else {
+            final byte[] bytes = new byte[length];
+            encoded.getBytes(encoded.readerIndex(), bytes);
+            packetBuffer.writeVarInt(length);
+            final Deflater deflater = DEFLATER.get();
+            final byte[] deflateBuffer = DEFLATE_BUFFER.get();
+            deflater.setInput(bytes, 0, length);
+            deflater.finish();
+            while (!deflater.finished()) {
+                final int count = deflater.deflate(deflateBuffer);
+                packetBuffer.writeBytes(deflateBuffer, 0, count);
+            }
+            deflater.reset();
+        }
+        this.compressed = buf;
+        this.compressionThreshold = threshold;
+        ENCODE_NANOS.add(System.nanoTime() - start);
+        return buf;
+    }
+
+    /**
+     * Releases the encoded buffers. Writes that are still pending hold
+     * their own references.
+     */
+    public void release() {
+        if (this.encoded != null) {
+            this.encoded.release();
+            this.encoded = null;
+        }
+        if (this.compressed != null) {
+            this.compressed.release();
+            this.compressed = null;
+        }
+    }
+}
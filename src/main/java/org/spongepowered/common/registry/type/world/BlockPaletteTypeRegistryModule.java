@@ -33,7 +33,7 @@
 import org.spongepowered.api.registry.util.RegisterCatalog;
 import org.spongepowered.api.world.schematic.PaletteTypes;
 import org.spongepowered.common.registry.SpongeAdditionalCatalogRegistryModule;
-import org.spongepowered.common.world.schematic.BimapPalette;
+import org.spongepowered.common.world.schematic.ArrayPalette;
 import org.spongepowered.common.world.schematic.BlockPaletteWrapper;
 import org.spongepowered.common.world.schematic.GlobalPalette;
 import org.spongepowered.common.world.schematic.SpongeBlockPaletteType;
@@ -77,7 +77,7 @@ public Collection<org.spongepowered.api.world.schematic.BlockPaletteType> getAll
     @Override
     public void registerDefaults() {
         registerAdditionalCatalog(new SpongeBlockPaletteType("global_blocks", () -> (org.spongepowered.api.world.schematic.BlockPalette) GlobalPalette.getBlockPalette()));
-        registerAdditionalCatalog(new SpongeBlockPaletteType("local_blocks", () -> new BlockPaletteWrapper(new BimapPalette<>(PaletteTypes.LOCAL_BLOCKS), org.spongepowered.api.world.schematic.BlockPaletteTypes.LOCAL)));
+        registerAdditionalCatalog(new SpongeBlockPaletteType("local_blocks", () -> new BlockPaletteWrapper(new ArrayPalette<>(PaletteTypes.LOCAL_BLOCKS), org.spongepowered.api.world.schematic.BlockPaletteTypes.LOCAL)));
     }
 
     @Override
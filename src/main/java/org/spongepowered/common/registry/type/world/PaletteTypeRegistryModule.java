@@ -34,7 +34,7 @@
 import org.spongepowered.api.world.schematic.PaletteType;
 import org.spongepowered.api.world.schematic.PaletteTypes;
 import org.spongepowered.common.registry.SpongeAdditionalCatalogRegistryModule;
-import org.spongepowered.common.world.schematic.BimapPalette;
+import org.spongepowered.common.world.schematic.ArrayPalette;
 import org.spongepowered.common.world.schematic.GlobalPalette;
 import org.spongepowered.common.world.schematic.SpongePaletteType;
 
@@ -72,7 +72,7 @@ public void registerDefaults() {
         registerAdditionalCatalog(org.spongepowered.api.world.schematic.BlockPaletteTypes.GLOBAL);
         registerAdditionalCatalog(org.spongepowered.api.world.schematic.BlockPaletteTypes.LOCAL);
         registerAdditionalCatalog(new SpongePaletteType<>("global_biomes", GlobalPalette::getBiomePalette));
-        registerAdditionalCatalog(new SpongePaletteType<>("local_biomes", () -> new BimapPalette<>(PaletteTypes.LOCAL_BIOMES)));
+        registerAdditionalCatalog(new SpongePaletteType<>("local_biomes", () -> new ArrayPalette<>(PaletteTypes.LOCAL_BIOMES)));
     }
 
     @Override
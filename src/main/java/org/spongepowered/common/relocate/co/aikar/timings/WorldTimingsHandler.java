@@ -55,6 +55,7 @@ public class WorldTimingsHandler {
     public final Timing tileEntityRemoval;
     public final Timing tracker1;
     public final Timing tracker2;
+    public final Timing trackerIncremental;
     public final Timing doTick;
     public final Timing tickEntities;
 
@@ -111,6 +112,7 @@ public WorldTimingsHandler(World world) {
 
         this.tracker1 = SpongeTimingsFactory.ofSafe(name + "tracker stage 1");
         this.tracker2 = SpongeTimingsFactory.ofSafe(name + "tracker stage 2");
+        this.trackerIncremental = SpongeTimingsFactory.ofSafe(name + "tracker - incremental");
         this.doTick = SpongeTimingsFactory.ofSafe(name + "doTick");
         this.tickEntities = SpongeTimingsFactory.ofSafe(name + "tickEntities");
 
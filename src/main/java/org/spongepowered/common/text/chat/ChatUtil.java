@@ -24,6 +24,8 @@
  */
 package org.spongepowered.common.text.chat;
 
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.network.play.server.SPacketChat;
 import net.minecraft.util.text.ITextComponent;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.command.CommandSource;
@@ -34,15 +36,46 @@
 import org.spongepowered.api.event.message.MessageEvent;
 import org.spongepowered.api.event.message.MessageEvent.MessageFormatter;
 import org.spongepowered.api.text.Text;
+import org.spongepowered.api.text.channel.ChatTypeMessageReceiver;
 import org.spongepowered.api.text.channel.MessageChannel;
+import org.spongepowered.api.text.channel.MessageReceiver;
+import org.spongepowered.api.text.chat.ChatType;
 import org.spongepowered.api.text.chat.ChatTypes;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.SpongeImplHooks;
+import org.spongepowered.common.bridge.api.text.TextBridge;
+import org.spongepowered.common.bridge.packet.SPacketChatBridge;
+import org.spongepowered.common.network.PacketBroadcast;
 import org.spongepowered.common.text.SpongeTexts;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import javax.annotation.Nullable;
+
 public final class ChatUtil {
 
+    // Whether a channel class uses the default implementation of MessageChannel#send, the
+    // overload without a chat type is checked too as callers may have used either of them
+    private static final ClassValue<Boolean> DEFAULT_SEND = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return isDeclaredByMessageChannel(type, "send", Object.class, Text.class, ChatType.class)
+                && isDeclaredByMessageChannel(type, "send", Object.class, Text.class);
+        }
+    };
+
+    // Whether a channel class sends the same message to every recipient
+    private static final ClassValue<Boolean> DEFAULT_TRANSFORM = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return isDeclaredByMessageChannel(type, "transformMessage", Object.class, MessageReceiver.class, Text.class, ChatType.class);
+        }
+    };
+
     private ChatUtil() {
     }
 
@@ -58,7 +91,114 @@ public static void sendMessage(ITextComponent component, MessageChannel channel,
             event = SpongeEventFactory.createMessageChannelEvent(cause, channel, Optional.of(channel), formatter, false);
         }
         if (!SpongeImpl.postEvent(event) && !event.isMessageCancelled() && event.getChannel().isPresent()) {
-            event.getChannel().get().send(source, event.getMessage(), isChat ? ChatTypes.CHAT : ChatTypes.SYSTEM);
+            sendToChannel(event.getChannel().get(), source, event.getMessage(), isChat ? ChatTypes.CHAT : ChatTypes.SYSTEM);
+        }
+    }
+
+    /**
+     * Sends a system message through a channel, like {@link MessageChannel#send(Object, Text)}.
+     *
+     * @param channel The channel
+     * @param sender The sender of the message
+     * @param message The message
+     * @see #sendToChannel(MessageChannel, Object, Text, ChatType)
+     */
+    public static void sendToChannel(MessageChannel channel, @Nullable Object sender, Text message) {
+        if (!DEFAULT_SEND.get(channel.getClass())) {
+            channel.send(sender, message);
+            return;
+        }
+        sendToChannel(channel, sender, message, ChatTypes.SYSTEM);
+    }
+
+    /**
+     * Sends a message through a channel, like {@link MessageChannel#send(Object, Text, ChatType)}.
+     *
+     * <p>Players that end up receiving the same text share a single chat
+     * packet, which is only serialized once. For channels that don't
+     * transform messages per recipient, the message isn't transformed at
+     * all. Channels with their own send implementation are left alone.</p>
+     *
+     * @param channel The channel
+     * @param sender The sender of the message
+     * @param message The message
+     * @param type The chat type
+     */
+    public static void sendToChannel(MessageChannel channel, @Nullable Object sender, Text message, ChatType type) {
+        if (!DEFAULT_SEND.get(channel.getClass())) {
+            channel.send(sender, message, type);
+            return;
+        }
+        final boolean sameForAll = DEFAULT_TRANSFORM.get(channel.getClass());
+        final List<MessageReceiver> receivers = new ArrayList<>();
+        final List<Text> messages = new ArrayList<>();
+        final Map<Text, Integer> playerCounts = new HashMap<>();
+        for (MessageReceiver member : channel.getMembers()) {
+            final Optional<Text> transformed = sameForAll ? Optional.of(message) : channel.transformMessage(sender, member, message, type);
+            if (!transformed.isPresent()) {
+                continue;
+            }
+            receivers.add(member);
+            messages.add(transformed.get());
+            if (isPacketRecipient(member)) {
+                playerCounts.merge(transformed.get(), 1, Integer::sum);
+            }
+        }
+        // The messages are still delivered in member order, only the packets are shared
+        final boolean broadcast = PacketBroadcast.isEnabled();
+        final Map<Text, PacketBroadcast> packets = new HashMap<>();
+        try {
+            for (int i = 0; i < receivers.size(); i++) {
+                final MessageReceiver receiver = receivers.get(i);
+                final Text text = messages.get(i);
+                if (isPacketRecipient(receiver) && playerCounts.get(text) > 1) {
+                    final EntityPlayerMP player = (EntityPlayerMP) receiver;
+                    final PacketBroadcast packet = packets.computeIfAbsent(text, key -> new PacketBroadcast(createChatPacket(key, type)));
+                    if (broadcast) {
+                        packet.sendTo(player);
+                    } else {
+                        player.connection.sendPacket(packet.getPacket());
+                    }
+                } else if (receiver instanceof ChatTypeMessageReceiver) {
+                    ((ChatTypeMessageReceiver) receiver).sendMessage(type, text);
+                } else {
+                    receiver.sendMessage(text);
+                }
+            }
+        } finally {
+            packets.values().forEach(PacketBroadcast::release);
+        }
+    }
+
+    private static boolean isPacketRecipient(MessageReceiver receiver) {
+        return receiver instanceof EntityPlayerMP && ((EntityPlayerMP) receiver).connection != null
+            && !SpongeImplHooks.isFakePlayer((EntityPlayerMP) receiver);
+    }
+
+    /**
+     * Creates the chat packet for a message. The packet carries the cached
+     * json of the message, so it doesn't have to be serialized again.
+     *
+     * @param message The message
+     * @param type The chat type
+     * @return The packet
+     */
+    public static SPacketChat createChatPacket(Text message, ChatType type) {
+        ITextComponent component = SpongeTexts.toComponent(message);
+        if (type == ChatTypes.ACTION_BAR) {
+            component = SpongeTexts.fixActionBarFormatting(component);
+            return new SPacketChat(component, (net.minecraft.util.text.ChatType) (Object) type);
+        }
+        final SPacketChat packet = new SPacketChat(component, (net.minecraft.util.text.ChatType) (Object) type);
+        ((SPacketChatBridge) packet).bridge$setChatJson(((TextBridge) message).bridge$toJson());
+        return packet;
+    }
+
+    private static boolean isDeclaredByMessageChannel(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes).getDeclaringClass() == MessageChannel.class;
+        } catch (NoSuchMethodException e) {
+            return false;
         }
     }
 
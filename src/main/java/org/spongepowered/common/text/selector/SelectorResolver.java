@@ -28,7 +28,15 @@
 
 import com.flowpowered.math.vector.Vector3d;
 import com.flowpowered.math.vector.Vector3i;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableSet;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.IChunkProvider;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.command.CommandSource;
 import org.spongepowered.api.data.manipulator.mutable.DisplayNameData;
@@ -58,6 +66,9 @@
 import org.spongepowered.api.world.Locatable;
 import org.spongepowered.api.world.extent.Extent;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.SpongeImplHooks;
+import org.spongepowered.common.entity.SpongeEntityType;
+import org.spongepowered.common.util.VecHelper;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -66,6 +77,7 @@
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -80,6 +92,14 @@ public class SelectorResolver {
     private static final Collection<SelectorType> INFINITE_TYPES = ImmutableSet.of(SelectorTypes.ALL_ENTITIES, SelectorTypes.ALL_PLAYERS);
     private static final Set<ArgumentType<?>> LOCATION_BASED_ARGUMENTS;
 
+    // Selectors are immutable and parsed selectors are cached by their string,
+    // so the parts of the filter that don't depend on the origin are only
+    // built once per selector.
+    private static final Cache<Selector, CompiledSelector> COMPILED_SELECTORS = CacheBuilder.newBuilder()
+            .weakKeys()
+            .maximumSize(256)
+            .build();
+
     static {
         ImmutableSet.Builder<ArgumentType<?>> builder = ImmutableSet.builder();
         builder.addAll(ArgumentTypes.POSITION.getTypes());
@@ -100,7 +120,10 @@ private static Vector3d positionFromSource(CommandSource origin) {
     private final Collection<Extent> extents;
     private final Vector3d position;
     private final Selector selector;
+    private final CompiledSelector compiled;
+    private final Vector3d filterPosition;
     private final Predicate<Entity> selectorFilter;
+    @Nullable private final AxisAlignedBB candidateBox;
 
     public SelectorResolver(Selector selector, Collection<? extends Extent> extents) {
         this(selector, extents, null, null);
@@ -120,22 +143,32 @@ private SelectorResolver(Selector selector, Collection<? extends Extent> extents
             this.entityOrigin = null;
         }
         this.position = position == null ? Vector3d.ZERO : position;
+        this.compiled = compile(this.selector);
+        this.filterPosition = getPositionOrDefault(this.position, ArgumentTypes.POSITION);
         this.selectorFilter = makeFilter();
+        this.candidateBox = makeCandidateBox();
+    }
+
+    private static CompiledSelector compile(Selector selector) {
+        try {
+            return COMPILED_SELECTORS.get(selector, () -> new CompiledSelector(selector));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to compile the selector " + selector.toPlain(), e.getCause());
+        }
     }
 
     private Predicate<Entity> makeFilter() {
-        Vector3d position = getPositionOrDefault(this.position, ArgumentTypes.POSITION);
         ArrayList<Predicate<Entity>> filters = new ArrayList<Predicate<Entity>>();
 
-        addTypeFilters(filters);
-        addLevelFilters(filters);
-        addGamemodeFilters(filters);
-        addTeamFilters(filters);
-        addScoreFilters(filters);
-        addNameFilters(filters);
-        addRadiusFilters(position, filters);
-        addDimensionFilters(position, filters);
-        addRotationFilters(filters);
+        // The cheap checks that rule out the most entities come first
+        if (this.compiled.typeFilter != null) {
+            filters.add(this.compiled.typeFilter);
+        }
+        addRadiusFilters(this.filterPosition, filters);
+        if (this.compiled.originIndependentFilter != null) {
+            filters.add(this.compiled.originIndependentFilter);
+        }
+        addDimensionFilters(this.filterPosition, filters);
 
         // Pack the list before returning it to improve space efficiency
         filters.trimToSize();
@@ -157,9 +190,9 @@ private void addDimensionFilters(final Vector3d position, List<Predicate<Entity>
         }
     }
 
-    private void addGamemodeFilters(List<Predicate<Entity>> filters) {
+    private static void addGamemodeFilters(Selector selector, List<Predicate<Entity>> filters) {
         // TODO: For bleeding, update API to make ArgumentTypes.GAME_MODE invertible
-        Optional<Invertible<GameMode>> gamemode = this.selector.getArgument((ArgumentType.Invertible<GameMode>) ArgumentTypes.GAME_MODE);
+        Optional<Invertible<GameMode>> gamemode = selector.getArgument((ArgumentType.Invertible<GameMode>) ArgumentTypes.GAME_MODE);
         if (gamemode.isPresent()) {
             final GameMode actualMode = gamemode.get().getValue();
             // If the gamemode is NOT_SET, that means accept any
@@ -173,9 +206,9 @@ private void addGamemodeFilters(List<Predicate<Entity>> filters) {
         }
     }
 
-    private void addLevelFilters(List<Predicate<Entity>> filters) {
-        Optional<Integer> levelMin = this.selector.get(ArgumentTypes.LEVEL.minimum());
-        Optional<Integer> levelMax = this.selector.get(ArgumentTypes.LEVEL.maximum());
+    private static void addLevelFilters(Selector selector, List<Predicate<Entity>> filters) {
+        Optional<Integer> levelMin = selector.get(ArgumentTypes.LEVEL.minimum());
+        Optional<Integer> levelMax = selector.get(ArgumentTypes.LEVEL.maximum());
         if (levelMin.isPresent()) {
             final int actualMin = levelMin.get();
             filters.add(input -> {
@@ -192,8 +225,8 @@ private void addLevelFilters(List<Predicate<Entity>> filters) {
         }
     }
 
-    private void addNameFilters(List<Predicate<Entity>> filters) {
-        Optional<Argument.Invertible<String>> nameOpt = this.selector.getArgument(ArgumentTypes.NAME);
+    private static void addNameFilters(Selector selector, List<Predicate<Entity>> filters) {
+        Optional<Argument.Invertible<String>> nameOpt = selector.getArgument(ArgumentTypes.NAME);
         if (nameOpt.isPresent()) {
             final String name = nameOpt.get().getValue();
             final boolean inverted = nameOpt.get().isInverted();
@@ -205,45 +238,41 @@ private void addNameFilters(List<Predicate<Entity>> filters) {
     }
 
     private void addRadiusFilters(final Vector3d position, List<Predicate<Entity>> filters) {
-        Optional<Integer> radiusMin = this.selector.get(ArgumentTypes.RADIUS.minimum());
-        Optional<Integer> radiusMax = this.selector.get(ArgumentTypes.RADIUS.maximum());
-        if (radiusMin.isPresent()) {
-            double radMin = Math.max(radiusMin.get(), 1.0E-4D);
-            final double radMinSquared = radMin * radMin;
+        final double radMinSquared = this.compiled.radiusMinSquared;
+        final double radMaxSquared = this.compiled.radiusMaxSquared;
+        if (radMinSquared >= 0) {
             filters.add(input -> input.getLocation().getPosition().distanceSquared(position) >= radMinSquared);
         }
-        if (radiusMax.isPresent()) {
-            double radMax = Math.max(radiusMax.get(), 1.0E-4D);
-            final double radMaxSquared = radMax * radMax;
+        if (radMaxSquared >= 0) {
             filters.add(input -> input.getLocation().getPosition().distanceSquared(position) <= radMaxSquared);
         }
     }
 
-    private void addRotationFilters(List<Predicate<Entity>> filters) {
-        Optional<Double> rotMinX = this.selector.get(ArgumentTypes.ROTATION.minimum().x());
+    private static void addRotationFilters(Selector selector, List<Predicate<Entity>> filters) {
+        Optional<Double> rotMinX = selector.get(ArgumentTypes.ROTATION.minimum().x());
         if (rotMinX.isPresent()) {
             final double rmx = rotMinX.get();
             filters.add(input -> input.getRotation().getX() >= rmx);
         }
-        Optional<Double> rotMinY = this.selector.get(ArgumentTypes.ROTATION.minimum().y());
+        Optional<Double> rotMinY = selector.get(ArgumentTypes.ROTATION.minimum().y());
         if (rotMinY.isPresent()) {
             final double rmy = rotMinY.get();
             filters.add(input -> input.getRotation().getY() >= rmy);
         }
-        Optional<Double> rotMaxX = this.selector.get(ArgumentTypes.ROTATION.maximum().x());
+        Optional<Double> rotMaxX = selector.get(ArgumentTypes.ROTATION.maximum().x());
         if (rotMaxX.isPresent()) {
             final double rx = rotMaxX.get();
             filters.add(input -> input.getRotation().getX() <= rx);
         }
-        Optional<Double> rotMaxY = this.selector.get(ArgumentTypes.ROTATION.maximum().y());
+        Optional<Double> rotMaxY = selector.get(ArgumentTypes.ROTATION.maximum().y());
         if (rotMaxY.isPresent()) {
             final double ry = rotMaxY.get();
             filters.add(input -> input.getRotation().getY() <= ry);
         }
     }
 
-    private void addScoreFilters(List<Predicate<Entity>> filters) {
-        for (Argument<?> arg : this.selector.getArguments()) {
+    private static void addScoreFilters(Selector selector, List<Predicate<Entity>> filters) {
+        for (Argument<?> arg : selector.getArguments()) {
             String key = arg.getType().getKey();
             if (!key.startsWith("score_")) continue;    
 
@@ -269,8 +298,8 @@ private void addScoreFilters(List<Predicate<Entity>> filters) {
         }
     }
 
-    private void addTeamFilters(List<Predicate<Entity>> filters) {
-        Optional<Invertible<String>> teamOpt = this.selector.getArgument(ArgumentTypes.TEAM);
+    private static void addTeamFilters(Selector selector, List<Predicate<Entity>> filters) {
+        Optional<Invertible<String>> teamOpt = selector.getArgument(ArgumentTypes.TEAM);
         if (teamOpt.isPresent()) {
             Invertible<String> teamArg = teamOpt.get();
             final boolean inverted = teamArg.isInverted();
@@ -290,9 +319,9 @@ private void addTeamFilters(List<Predicate<Entity>> filters) {
         }
     }
 
-    private void addTypeFilters(List<Predicate<Entity>> filters) {
-        SelectorType selectorType = this.selector.getType();
-        Optional<Argument.Invertible<EntityType>> typeOpt = this.selector.getArgument(ArgumentTypes.ENTITY_TYPE);
+    private static void addTypeFilters(Selector selector, List<Predicate<Entity>> filters) {
+        SelectorType selectorType = selector.getType();
+        Optional<Argument.Invertible<EntityType>> typeOpt = selector.getArgument(ArgumentTypes.ENTITY_TYPE);
         boolean untypedRandom = selectorType == SelectorTypes.RANDOM && !typeOpt.isPresent();
         if (selectorType == SelectorTypes.ALL_PLAYERS || selectorType == SelectorTypes.NEAREST_PLAYER || untypedRandom) {
             filters.add(input -> input instanceof Player);
@@ -333,7 +362,7 @@ public ImmutableSet<Entity> resolve() {
         maxToSelect = Math.abs(maxToSelect);
         Set<? extends Extent> extents = getExtentSet();
         Stream<Entity> entityStream = extents.stream()
-                .flatMap(ext -> ext.getEntities().stream())
+                .flatMap(this::getCandidates)
                 .filter(this.selectorFilter);
 
         if (maxToSelect == 0) {
@@ -354,8 +383,83 @@ public ImmutableSet<Entity> resolve() {
                 .collect(ImmutableSet.toImmutableSet());
     }
 
+    /**
+     * Gets the box around the entities that may match the selector, bounded
+     * by its maximum radius and its volume, if it has either of them.
+     */
+    @Nullable
+    private AxisAlignedBB makeCandidateBox() {
+        AxisAlignedBB box = null;
+        if (this.compiled.radiusMax >= 0) {
+            // Padded so entities with an empty bounding box exactly on the radius are included
+            final double range = this.compiled.radiusMax + 1.0D;
+            final Vector3d pos = this.filterPosition;
+            box = new AxisAlignedBB(pos.getX() - range, pos.getY() - range, pos.getZ() - range,
+                    pos.getX() + range, pos.getY() + range, pos.getZ() + range);
+        }
+        if (this.selector.has(ArgumentTypes.DIMENSION.x()) || this.selector.has(ArgumentTypes.DIMENSION.y())
+                || this.selector.has(ArgumentTypes.DIMENSION.z())) {
+            final AxisAlignedBB volume = VecHelper.toMinecraftAABB(getAABB(this.filterPosition.toInt(),
+                    this.selector.get(ArgumentTypes.DIMENSION.x()).orElse(0),
+                    this.selector.get(ArgumentTypes.DIMENSION.y()).orElse(0),
+                    this.selector.get(ArgumentTypes.DIMENSION.z()).orElse(0)));
+            box = box == null ? volume : box.intersect(volume);
+        }
+        return box;
+    }
+
+    /**
+     * Gets the entities of the extent that may match the selector. When the
+     * selector has a maximum radius or a volume, only the entities in the
+     * loaded chunks within them are looked at, instead of every entity in the
+     * world.
+     */
+    private Stream<Entity> getCandidates(Extent extent) {
+        if (this.candidateBox != null && extent instanceof WorldServer) {
+            final WorldServer world = (WorldServer) extent;
+            return getEntitiesWithin(world.getChunkProvider(), this.compiled.entityClass, this.candidateBox,
+                    SpongeImplHooks.getWorldMaxEntityRadius(world)).stream();
+        }
+        return extent.getEntities().stream();
+    }
+
+    /**
+     * Gets the entities of the given class whose bounding box intersects the
+     * box, like {@link net.minecraft.world.World#getEntitiesWithinAABB(Class,
+     * AxisAlignedBB, com.google.common.base.Predicate)}. The chunk entity
+     * lists are read directly, as the world and chunk queries are capped by
+     * the entity collision limits of the current phase.
+     */
+    static List<Entity> getEntitiesWithin(IChunkProvider chunkProvider, Class<? extends net.minecraft.entity.Entity> entityClass,
+            AxisAlignedBB box, double maxEntityRadius) {
+        final int minX = MathHelper.floor((box.minX - maxEntityRadius) / 16.0D);
+        final int maxX = MathHelper.floor((box.maxX + maxEntityRadius) / 16.0D);
+        final int minZ = MathHelper.floor((box.minZ - maxEntityRadius) / 16.0D);
+        final int maxZ = MathHelper.floor((box.maxZ + maxEntityRadius) / 16.0D);
+        final List<Entity> entities = new ArrayList<>();
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                final Chunk chunk = chunkProvider.getLoadedChunk(x, z);
+                if (chunk == null) {
+                    continue;
+                }
+                final ClassInheritanceMultiMap<net.minecraft.entity.Entity>[] entityLists = chunk.getEntityLists();
+                final int minY = MathHelper.clamp(MathHelper.floor((box.minY - maxEntityRadius) / 16.0D), 0, entityLists.length - 1);
+                final int maxY = MathHelper.clamp(MathHelper.floor((box.maxY + maxEntityRadius) / 16.0D), 0, entityLists.length - 1);
+                for (int y = minY; y <= maxY; y++) {
+                    for (net.minecraft.entity.Entity entity : entityLists[y].getByClass(entityClass)) {
+                        if (entity.getEntityBoundingBox().intersects(box)) {
+                            entities.add((Entity) entity);
+                        }
+                    }
+                }
+            }
+        }
+        return entities;
+    }
+
     private Comparator<? super Entity> distanceSort(boolean isReversed) {
-        Vector3d position = getPositionOrDefault(this.position, ArgumentTypes.POSITION);
+        Vector3d position = this.filterPosition;
         int multiplier = isReversed ? -1 : 1;
         return (a, b) -> {
             double distToPosA = a.getLocation().getPosition().distanceSquared(position);
@@ -391,4 +495,69 @@ private static AABB getAABB(Vector3i pos, int x, int y, int z) {
         return new AABB((double) xmin, (double) ymin, (double) zmin, (double) xmax, (double) ymax, (double) zmax);
     }
 
+    /**
+     * The parts of a selector that don't depend on where it is resolved from.
+     */
+    private static final class CompiledSelector {
+
+        @Nullable final Predicate<Entity> typeFilter;
+        @Nullable final Predicate<Entity> originIndependentFilter;
+        // The class of the entities the selector can match, used to look up candidates by type
+        final Class<? extends net.minecraft.entity.Entity> entityClass;
+        // Negative if not set
+        final double radiusMinSquared;
+        final double radiusMaxSquared;
+        final double radiusMax;
+
+        CompiledSelector(Selector selector) {
+            final List<Predicate<Entity>> typeFilters = new ArrayList<>(1);
+            addTypeFilters(selector, typeFilters);
+            this.typeFilter = typeFilters.isEmpty() ? null : typeFilters.get(0);
+            this.entityClass = getEntityClass(selector);
+
+            final ArrayList<Predicate<Entity>> filters = new ArrayList<>();
+            addLevelFilters(selector, filters);
+            addGamemodeFilters(selector, filters);
+            addTeamFilters(selector, filters);
+            addScoreFilters(selector, filters);
+            addNameFilters(selector, filters);
+            addRotationFilters(selector, filters);
+            filters.trimToSize();
+            this.originIndependentFilter = filters.isEmpty() ? null : Functional.predicateAnd(filters);
+
+            final Optional<Integer> radiusMin = selector.get(ArgumentTypes.RADIUS.minimum());
+            final Optional<Integer> radiusMax = selector.get(ArgumentTypes.RADIUS.maximum());
+            if (radiusMin.isPresent()) {
+                final double radMin = Math.max(radiusMin.get(), 1.0E-4D);
+                this.radiusMinSquared = radMin * radMin;
+            } else {
+                this.radiusMinSquared = -1;
+            }
+            if (radiusMax.isPresent()) {
+                this.radiusMax = Math.max(radiusMax.get(), 1.0E-4D);
+                this.radiusMaxSquared = this.radiusMax * this.radiusMax;
+            } else {
+                this.radiusMax = -1;
+                this.radiusMaxSquared = -1;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Class<? extends net.minecraft.entity.Entity> getEntityClass(Selector selector) {
+            final SelectorType selectorType = selector.getType();
+            final Optional<Argument.Invertible<EntityType>> typeOpt = selector.getArgument(ArgumentTypes.ENTITY_TYPE);
+            final boolean untypedRandom = selectorType == SelectorTypes.RANDOM && !typeOpt.isPresent();
+            if (selectorType == SelectorTypes.ALL_PLAYERS || selectorType == SelectorTypes.NEAREST_PLAYER || untypedRandom) {
+                return net.minecraft.entity.player.EntityPlayer.class;
+            }
+            if (typeOpt.isPresent() && !typeOpt.get().isInverted() && typeOpt.get().getValue() instanceof SpongeEntityType) {
+                final Class<?> entityClass = ((SpongeEntityType) typeOpt.get().getValue()).entityClass;
+                if (net.minecraft.entity.Entity.class.isAssignableFrom(entityClass)) {
+                    return (Class<? extends net.minecraft.entity.Entity>) entityClass;
+                }
+            }
+            return net.minecraft.entity.Entity.class;
+        }
+    }
+
 }
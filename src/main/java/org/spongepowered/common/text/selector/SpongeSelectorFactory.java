@@ -27,6 +27,8 @@
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
@@ -117,6 +119,10 @@ public static <K, V> Function<K, V> methodAsFunction(final Method m, boolean isS
             Maps.newLinkedHashMap();
     private final Map<String, ArgumentType<?>> argumentLookupMap = Maps
             .newLinkedHashMap();
+    // Selectors are immutable, command blocks tend to parse the same ones every tick
+    private final Cache<String, Selector> parseCache = CacheBuilder.newBuilder()
+            .maximumSize(256)
+            .build();
 
     @Override
     public Selector.Builder createBuilder() {
@@ -125,6 +131,15 @@ public Selector.Builder createBuilder() {
 
     @Override
     public Selector parseRawSelector(String selector) {
+        Selector parsed = this.parseCache.getIfPresent(selector);
+        if (parsed == null) {
+            parsed = parseUncached(selector);
+            this.parseCache.put(selector, parsed);
+        }
+        return parsed;
+    }
+
+    private Selector parseUncached(String selector) {
         checkArgument(selector.startsWith("@"), "Invalid selector %s",
                 selector);
         // If multi-character types are possible, this handles it
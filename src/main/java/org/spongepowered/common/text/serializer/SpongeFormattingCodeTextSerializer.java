@@ -24,16 +24,28 @@
  */
 package org.spongepowered.common.text.serializer;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.spongepowered.api.text.Text;
 import org.spongepowered.api.text.serializer.FormattingCodeTextSerializer;
 import org.spongepowered.common.bridge.api.text.TextBridge;
 
 public final class SpongeFormattingCodeTextSerializer implements FormattingCodeTextSerializer {
 
+    private static final int MAX_CACHED_INPUTS = 1024;
+    private static final int MAX_CACHED_INPUT_LENGTH = 256;
+
     private final String id;
     private final String name;
     private final char formattingChar;
 
+    // Texts are immutable, so the same parsed text can be handed out for every
+    // call with the same input. Plugins tend to deserialize the same format
+    // strings (for example chat prefixes) over and over again.
+    private final Cache<String, Text> parseCache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_INPUTS)
+            .build();
+
     public SpongeFormattingCodeTextSerializer(char formattingChar) {
         this("sponge:formatting_code_" + formattingChar, "Formatting Codes (" + formattingChar + ")", formattingChar);
     }
@@ -71,7 +83,15 @@ public String serializeSingle(Text text) {
 
     @Override
     public Text deserialize(String input) {
-        return LegacyTexts.parse(input, this.formattingChar);
+        if (input.length() > MAX_CACHED_INPUT_LENGTH) {
+            return LegacyTexts.parse(input, this.formattingChar);
+        }
+        Text text = this.parseCache.getIfPresent(input);
+        if (text == null) {
+            text = LegacyTexts.parse(input, this.formattingChar);
+            this.parseCache.put(input, text);
+        }
+        return text;
     }
 
     @Override
@@ -29,6 +29,7 @@
 import org.spongepowered.api.block.BlockState;
 import org.spongepowered.api.block.BlockTypes;
 import org.spongepowered.api.util.DiscreteTransform3;
+import org.spongepowered.api.world.extent.BlockVolume;
 import org.spongepowered.api.world.extent.ImmutableBlockVolume;
 import org.spongepowered.api.world.extent.MutableBlockVolume;
 import org.spongepowered.api.world.extent.StorageType;
@@ -40,10 +41,13 @@
 import org.spongepowered.common.world.extent.MutableBlockViewTransform;
 import org.spongepowered.common.world.extent.UnmodifiableBlockVolumeWrapper;
 import org.spongepowered.common.world.extent.worker.SpongeMutableBlockVolumeWorker;
-import org.spongepowered.common.world.schematic.BimapPalette;
+import org.spongepowered.common.world.schematic.ArrayPalette;
 import org.spongepowered.common.world.schematic.BlockPaletteWrapper;
 import org.spongepowered.common.world.schematic.GlobalPalette;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Objects;
 
@@ -62,19 +66,35 @@ public class ArrayMutableBlockBuffer extends AbstractBlockBuffer implements Muta
     private Palette<BlockState> palette;
     private BackingData data;
 
-    @SuppressWarnings("deprecation")
     public ArrayMutableBlockBuffer(Vector3i start, Vector3i size) {
+        this(start, size, BlockBufferStorage.HEAP);
+    }
+
+    @SuppressWarnings("deprecation")
+    public ArrayMutableBlockBuffer(Vector3i start, Vector3i size, BlockBufferStorage storage) {
         this(size.getX() * size.getY() * size.getZ() > SMALL_AREA_THRESHOLD ?
-             new BlockPaletteWrapper(new BimapPalette<>(PaletteTypes.LOCAL_BLOCKS), org.spongepowered.api.world.schematic.BlockPaletteTypes.LOCAL) : GlobalPalette.getBlockPalette(), start, size);
+             new BlockPaletteWrapper(new ArrayPalette<>(PaletteTypes.LOCAL_BLOCKS), org.spongepowered.api.world.schematic.BlockPaletteTypes.LOCAL) : GlobalPalette.getBlockPalette(), start, size, storage);
     }
 
     public ArrayMutableBlockBuffer(Palette<BlockState> palette, Vector3i start, Vector3i size) {
+        this(palette, start, size, BlockBufferStorage.HEAP);
+    }
+
+    public ArrayMutableBlockBuffer(Palette<BlockState> palette, Vector3i start, Vector3i size, BlockBufferStorage storage) {
         super(start, size);
         this.palette = palette;
         int airId = palette.getOrAssign(AIR);
 
         int dataSize = area();
-        this.data = new PackedBackingData(dataSize, palette.getHighestId());
+        switch (storage) {
+            case DIRECT:
+            case MEMORY_MAPPED:
+                this.data = OffHeapBackingData.allocate(dataSize, palette.getHighestId(), storage == BlockBufferStorage.MEMORY_MAPPED);
+                break;
+            case HEAP:
+            default:
+                this.data = new PackedBackingData(dataSize, palette.getHighestId());
+        }
 
         // all blocks default to air
         if (airId != 0) {
@@ -104,6 +124,126 @@ public ArrayMutableBlockBuffer(Palette<BlockState> palette, Vector3i start, Vect
         this.data = blocks;
     }
 
+    /**
+     * Creates a buffer holding a copy of the blocks of a volume between min
+     * and max. The blocks are visited in the order they are stored in (x,
+     * then z, then y innermost), so the ids are written to consecutive
+     * indices without the bounds check and index lookup of {@link #setBlock}.
+     *
+     * @param palette The palette to start out with
+     * @param volume The volume to copy
+     * @param min The minimum block position
+     * @param max The maximum block position
+     * @param storage Where to store the ids
+     * @return The new buffer
+     */
+    public static ArrayMutableBlockBuffer copyOf(Palette<BlockState> palette, BlockVolume volume, Vector3i min, Vector3i max,
+        BlockBufferStorage storage) {
+        final ArrayMutableBlockBuffer buffer = new ArrayMutableBlockBuffer(palette, min, max.sub(min).add(1, 1, 1), storage);
+        int index = 0;
+        for (int x = min.getX(); x <= max.getX(); x++) {
+            for (int z = min.getZ(); z <= max.getZ(); z++) {
+                for (int y = min.getY(); y <= max.getY(); y++) {
+                    buffer.setId(index++, volume.getBlock(x, y, z));
+                }
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Creates a buffer from palette ids encoded as var ints, ordered by y,
+     * then z, then x, like the block data of a Sponge schematic. The ids are
+     * decoded straight into the backing data without resolving them through
+     * the palette, so they have to be ids assigned by the given palette.
+     *
+     * @param palette The palette the ids belong to
+     * @param start The start block position
+     * @param size The block size
+     * @param input The input to read the ids from
+     * @param byteLength The number of bytes the encoded ids take up
+     * @return The new buffer
+     * @throws IOException If the data could not be read or is malformed
+     */
+    public static ArrayMutableBlockBuffer readVarIntIds(Palette<BlockState> palette, Vector3i start, Vector3i size, DataInput input,
+        int byteLength) throws IOException {
+        final int highestId = palette.getHighestId();
+        final ArrayMutableBlockBuffer buffer = new ArrayMutableBlockBuffer(palette,
+            new PackedBackingData(size.getX() * size.getY() * size.getZ(), highestId), start, size);
+        int read = 0;
+        for (int y = 0; y < size.getY(); y++) {
+            for (int z = 0; z < size.getZ(); z++) {
+                for (int x = 0; x < size.getX(); x++) {
+                    int value = 0;
+                    int varIntLength = 0;
+                    byte next;
+                    do {
+                        if (read++ == byteLength) {
+                            throw new IOException("Block data is shorter than the volume");
+                        }
+                        next = input.readByte();
+                        value |= (next & 127) << (varIntLength++ * 7);
+                        if (varIntLength > 5) {
+                            throw new IOException("VarInt too big (probably corrupted data)");
+                        }
+                    } while ((next & 128) == 128);
+                    if (value > highestId) {
+                        throw new IOException("Block data refers to unknown palette id " + value);
+                    }
+                    // The backing data starts out zeroed
+                    if (value != 0) {
+                        buffer.data.set(buffer.getIndex(start.getX() + x, start.getY() + y, start.getZ() + z), value);
+                    }
+                }
+            }
+        }
+        if (read < byteLength) {
+            input.skipBytes(byteLength - read);
+        }
+        return buffer;
+    }
+
+    /**
+     * Gets the number of bytes {@link #writeVarIntIds(DataOutput)} will
+     * write.
+     *
+     * @return The length of the encoded ids
+     */
+    public int getVarIntIdsLength() {
+        int length = 0;
+        for (int i = 0, size = area(); i < size; i++) {
+            int id = this.data.get(i);
+            length++;
+            while ((id & -128) != 0) {
+                length++;
+                id >>>= 7;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Writes the palette ids of this buffer as var ints, in the same order
+     * {@link #readVarIntIds} reads them.
+     *
+     * @param output The output to write the ids to
+     * @throws IOException If the ids could not be written
+     */
+    public void writeVarIntIds(DataOutput output) throws IOException {
+        for (int y = this.start.getY(); y <= this.end.getY(); y++) {
+            for (int z = this.start.getZ(); z <= this.end.getZ(); z++) {
+                for (int x = this.start.getX(); x <= this.end.getX(); x++) {
+                    int id = this.data.get(getIndex(x, y, z));
+                    while ((id & -128) != 0) {
+                        output.writeByte(id & 127 | 128);
+                        id >>>= 7;
+                    }
+                    output.writeByte(id);
+                }
+            }
+        }
+    }
+
     @Override
     public Palette<BlockState> getPalette() {
         return this.palette;
@@ -112,6 +252,11 @@ public Palette<BlockState> getPalette() {
     @Override
     public boolean setBlock(int x, int y, int z, BlockState block) {
         checkRange(x, y, z);
+        setId(getIndex(x, y, z), block);
+        return true;
+    }
+
+    private void setId(int index, BlockState block) {
         int id = this.palette.getOrAssign(block);
         if (id > this.data.getMax()) {
 
@@ -124,22 +269,21 @@ public boolean setBlock(int x, int y, int z, BlockState block) {
                 id = newpalette.getOrAssign(block);
                 highId = newpalette.getHighestId();
 
-                newdata = new PackedBackingData(dataSize, highId);
+                newdata = this.data.create(dataSize, highId);
                 for (int i = 0; i < dataSize; i++) {
                     newdata.set(i, newpalette.getOrAssign(this.palette.get(this.data.get(i)).orElse(AIR)));
                 }
                 this.palette = newpalette;
             } else {
 
-                newdata = new PackedBackingData(dataSize, highId);
+                newdata = this.data.create(dataSize, highId);
                 for (int i = 0; i < dataSize; i++) {
                     newdata.set(i, this.data.get(i));
                 }
             }
             this.data = newdata;
         }
-        this.data.set(getIndex(x, y, z), id);
-        return true;
+        this.data.set(index, id);
     }
 
     @Override
@@ -231,6 +375,12 @@ interface BackingData {
          */
         BackingData copyOf();
 
+        /**
+         * Creates an empty BackingData stored the same way as this one, that
+         * supports ids up to the given highest value
+         */
+        BackingData create(int size, int highestValue);
+
         /**
          * Gets the maximum id supported by this BackingData
          */
@@ -260,6 +410,11 @@ public BackingData copyOf() {
             return new CharBackingData(this.data.clone());
         }
 
+        @Override
+        public BackingData create(int size, int highestValue) {
+            return new PackedBackingData(size, highestValue);
+        }
+
         @Override
         public int getMax() {
             return Character.MAX_VALUE;
@@ -357,6 +512,11 @@ public PackedBackingData copyOf() {
             return new PackedBackingData(this.arraySize, this.bits, this.longArray.clone());
         }
 
+        @Override
+        public BackingData create(int size, int highestValue) {
+            return new PackedBackingData(size, highestValue);
+        }
+
         @Override
         public int getMax() {
             return (int) this.maxValue;
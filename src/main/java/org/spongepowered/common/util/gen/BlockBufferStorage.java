@@ -0,0 +1,71 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import com.flowpowered.math.vector.Vector3i;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.config.category.OptimizationCategory;
+import org.spongepowered.common.config.type.GlobalConfig;
+
+/**
+ * Where the block ids of an {@link ArrayMutableBlockBuffer} are stored.
+ */
+public enum BlockBufferStorage {
+
+    /**
+     * A long array on the java heap.
+     */
+    HEAP,
+    /**
+     * Direct memory outside of the java heap, limited by
+     * {@code -XX:MaxDirectMemorySize}.
+     */
+    DIRECT,
+    /**
+     * A memory mapped temporary file, which the operating system can page
+     * out when memory gets low.
+     */
+    MEMORY_MAPPED;
+
+    /**
+     * Gets the storage configured for a buffer of the given size.
+     *
+     * @param size The size of the buffer
+     * @return The storage to use
+     */
+    public static BlockBufferStorage forSize(Vector3i size) {
+        final GlobalConfig config = SpongeImpl.getGlobalConfigAdapter().getConfig();
+        if (!config.getModules().useOptimizations()) {
+            return HEAP;
+        }
+        final OptimizationCategory optimizations = config.getOptimizations();
+        final int threshold = optimizations.getOffHeapBlockBufferThreshold();
+        if (threshold <= 0 || (long) size.getX() * size.getY() * size.getZ() < threshold) {
+            return HEAP;
+        }
+        return optimizations.useMemoryMappedBlockBuffers() ? MEMORY_MAPPED : DIRECT;
+    }
+
+}
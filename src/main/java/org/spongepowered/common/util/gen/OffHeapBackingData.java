@@ -0,0 +1,221 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.util.gen.ArrayMutableBlockBuffer.BackingData;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link BackingData} using the same packed layout as
+ * {@link ArrayMutableBlockBuffer.PackedBackingData}, but stored outside of
+ * the java heap. The longs are split into segments of at most 1 GiB, so
+ * the size isn't limited by the maximum length of a buffer.
+ *
+ * <p>There is no way to release the memory explicitly: direct memory is only
+ * freed, and a mapping only unmapped, once the segments are garbage
+ * collected. As they are small objects on the heap, that can take a while
+ * after the buffer is no longer used, so the off heap usage can temporarily
+ * exceed the size of the live buffers. Running out of direct memory triggers
+ * a full collection before an {@link OutOfMemoryError} is thrown; mapped
+ * segments don't count against that limit. The temporary file of mapped
+ * data is deleted right away, but its disk space is only reclaimed once the
+ * mapping is gone.</p>
+ *
+ * <p>Only absolute gets and puts are used, so the positions of the segments
+ * always stay at zero.</p>
+ */
+final class OffHeapBackingData implements BackingData {
+
+    private static final int SEGMENT_SHIFT = 27;
+    private static final int SEGMENT_LENGTH = 1 << SEGMENT_SHIFT;
+    private static final long SEGMENT_MASK = SEGMENT_LENGTH - 1;
+
+    private final LongBuffer[] segments;
+    private final boolean mapped;
+    /** Number of bits a single entry takes up */
+    private final int bits;
+    /** The maximum value for a single entry, also the bitmask for a single entry */
+    private final long maxValue;
+    /** Number of entries in this array */
+    private final int arraySize;
+
+    /**
+     * Allocates new zeroed backing data with enough bits to store values of
+     * {@code highestValue}.
+     *
+     * @param size The number of elements
+     * @param highestValue The highest value to prepare for
+     * @param mapped Whether to map a temporary file instead of allocating direct memory
+     * @return The backing data
+     */
+    static OffHeapBackingData allocate(int size, int highestValue, boolean mapped) {
+        int bits;
+        for (bits = 0; 1 << bits <= highestValue; bits++);
+        return new OffHeapBackingData(size, bits, mapped);
+    }
+
+    private OffHeapBackingData(int size, int bits, boolean mapped) {
+        this.arraySize = size;
+        this.bits = bits;
+        this.maxValue = (1L << bits) - 1;
+
+        final long longs = ((long) size * bits + Long.SIZE - 1) / Long.SIZE;
+        final LongBuffer[] segments = new LongBuffer[(int) ((longs + SEGMENT_LENGTH - 1) >>> SEGMENT_SHIFT)];
+        boolean isMapped = false;
+        if (mapped && segments.length > 0) {
+            try {
+                mapSegments(segments, longs);
+                isMapped = true;
+            } catch (IOException e) {
+                SpongeImpl.getLogger().warn("Could not map a temporary file for a block buffer, falling back to direct memory", e);
+            }
+        }
+        if (!isMapped) {
+            for (int i = 0; i < segments.length; i++) {
+                final long length = Math.min(SEGMENT_LENGTH, longs - ((long) i << SEGMENT_SHIFT));
+                // Direct buffers are zeroed when they are allocated
+                segments[i] = ByteBuffer.allocateDirect((int) length * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+            }
+        }
+        this.segments = segments;
+        this.mapped = isMapped;
+    }
+
+    private static void mapSegments(LongBuffer[] segments, long longs) throws IOException {
+        final Path file = Files.createTempFile("sponge-block-buffer", ".bin");
+        // The mappings stay valid after the channel is closed, the file itself is removed on close
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+            StandardOpenOption.DELETE_ON_CLOSE)) {
+            for (int i = 0; i < segments.length; i++) {
+                final long position = (long) i << SEGMENT_SHIFT;
+                final long length = Math.min(SEGMENT_LENGTH, longs - position);
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, position * Long.BYTES, length * Long.BYTES)
+                    .order(ByteOrder.nativeOrder()).asLongBuffer();
+            }
+        }
+    }
+
+    private long getLong(long index) {
+        return this.segments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & SEGMENT_MASK));
+    }
+
+    private void putLong(long index, long value) {
+        this.segments[(int) (index >>> SEGMENT_SHIFT)].put((int) (index & SEGMENT_MASK), value);
+    }
+
+    @Override
+    public int get(int index) {
+        if (this.bits == 0) {
+            return 0;
+        }
+        final long bitIndex = (long) index * this.bits;
+        final long longIndex = bitIndex / Long.SIZE;
+        final int bitOffset = (int) (bitIndex % Long.SIZE);
+
+        if (bitOffset + this.bits > Long.SIZE) {
+            // The entry is split between two longs
+            final int bitsInLeft = Long.SIZE - bitOffset;
+            return (int) ((getLong(longIndex) >>> bitOffset | getLong(longIndex + 1) << bitsInLeft) & this.maxValue);
+        }
+        return (int) (getLong(longIndex) >>> bitOffset & this.maxValue);
+    }
+
+    @Override
+    public void set(int index, int value) {
+        if (this.bits == 0) {
+            return;
+        }
+        final long bitIndex = (long) index * this.bits;
+        long longIndex = bitIndex / Long.SIZE;
+        final int bitOffset = (int) (bitIndex % Long.SIZE);
+
+        putLong(longIndex, getLong(longIndex) & ~(this.maxValue << bitOffset) | (long) value << bitOffset);
+
+        if (bitOffset + this.bits > Long.SIZE) {
+            // The entry is split between two longs
+            final int bitsInLeft = Long.SIZE - bitOffset;
+            final int bitsInRight = this.bits - bitsInLeft;
+            longIndex++;
+            putLong(longIndex, getLong(longIndex) >>> bitsInRight << bitsInRight | (long) value >> bitsInLeft);
+        }
+    }
+
+    @Override
+    public BackingData copyOf() {
+        final OffHeapBackingData copy = new OffHeapBackingData(this.arraySize, this.bits, this.mapped);
+        for (int i = 0; i < this.segments.length; i++) {
+            copy.segments[i].duplicate().put(this.segments[i].duplicate());
+        }
+        return copy;
+    }
+
+    @Override
+    public BackingData create(int size, int highestValue) {
+        return allocate(size, highestValue, this.mapped);
+    }
+
+    @Override
+    public int getMax() {
+        return (int) this.maxValue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final OffHeapBackingData that = (OffHeapBackingData) o;
+        if (this.bits != that.bits || this.arraySize != that.arraySize) {
+            return false;
+        }
+        for (int i = 0; i < this.segments.length; i++) {
+            if (!this.segments[i].equals(that.segments[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 31 * this.bits + this.arraySize;
+        for (LongBuffer segment : this.segments) {
+            result = 31 * result + segment.hashCode();
+        }
+        return result;
+    }
+}
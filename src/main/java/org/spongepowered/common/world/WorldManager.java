@@ -80,6 +80,7 @@
 import org.spongepowered.common.config.type.GeneralConfigBase;
 import org.spongepowered.common.config.type.GlobalConfig;
 import org.spongepowered.common.data.util.DataUtil;
+import org.spongepowered.common.effect.particle.ParticleBatch;
 import org.spongepowered.common.event.tracking.PhaseContext;
 import org.spongepowered.common.event.tracking.phase.general.GeneralPhase;
 import org.spongepowered.common.mixin.core.server.MinecraftServerAccessor;
@@ -565,6 +566,7 @@ public static boolean unloadWorld(final WorldServer worldServer, final boolean c
             } finally {
                 worldByDimensionId.remove(dimensionId);
                 weakWorldByWorld.remove(worldServer);
+                ParticleBatch.onWorldUnload(worldServer);
                 ((MinecraftServerBridge) server).bridge$removeWorldTickTimes(dimensionId);
                 reorderWorldsVanillaFirst();
             }
@@ -32,8 +32,6 @@
 import org.spongepowered.api.world.extent.MutableBlockVolume;
 import org.spongepowered.api.world.extent.StorageType;
 import org.spongepowered.common.util.VecHelper;
-import org.spongepowered.common.util.gen.ArrayMutableBlockBuffer;
-import org.spongepowered.common.world.schematic.GlobalPalette;
 
 public abstract class AbstractBlockViewDownsize<V extends BlockVolume> implements BlockVolume {
 
@@ -91,8 +89,7 @@ public MutableBlockVolume getBlockCopy(StorageType type) {
         switch (type) {
             case STANDARD:
                 // TODO: Optimize and use a local palette
-                char[] data = ExtentBufferUtil.copyToArray(this, this.min, this.max, this.size);
-                return new ArrayMutableBlockBuffer(GlobalPalette.getBlockPalette(), this.min, this.size, data);
+                return ExtentBufferUtil.copyToBuffer(this, this.min, this.max, this.size);
             case THREAD_SAFE:
             default:
                 throw new UnsupportedOperationException(type.name());
@@ -55,6 +55,7 @@
 import org.spongepowered.common.util.Constants;
 import org.spongepowered.common.util.gen.ArrayImmutableBlockBuffer;
 import org.spongepowered.common.util.gen.ArrayMutableBlockBuffer;
+import org.spongepowered.common.util.gen.BlockBufferStorage;
 import org.spongepowered.common.util.gen.ByteArrayImmutableBiomeBuffer;
 import org.spongepowered.common.util.gen.ByteArrayMutableBiomeBuffer;
 import org.spongepowered.common.world.extent.worker.SpongeMutableBiomeVolumeWorker;
@@ -139,8 +140,7 @@ default MutableBlockVolume getBlockCopy(final StorageType type) {
         switch (type) {
             case STANDARD:
                 // TODO: Optimize and use a local palette
-                return new ArrayMutableBlockBuffer(GlobalPalette.getBlockPalette(), getBlockMin(), getBlockSize(),
-                        ExtentBufferUtil.copyToArray((BlockVolume) this, getBlockMin(), getBlockMax(), getBlockSize()));
+                return ExtentBufferUtil.copyToBuffer((BlockVolume) this, getBlockMin(), getBlockMax(), getBlockSize());
             case THREAD_SAFE:
             default:
                 throw new UnsupportedOperationException(type.name());
@@ -173,7 +173,8 @@ default ArchetypeVolume createArchetypeVolume(Vector3i min, Vector3i max, final
         final int ox = origin.getX();
         final int oy = origin.getY();
         final int oz = origin.getZ();
-        final MutableBlockVolume backing = new ArrayMutableBlockBuffer(min.sub(origin), max.sub(min).add(1, 1, 1));
+        final Vector3i size = max.sub(min).add(1, 1, 1);
+        final MutableBlockVolume backing = new ArrayMutableBlockBuffer(min.sub(origin), size, BlockBufferStorage.forSize(size));
         final Map<Vector3i, TileEntityArchetype> tiles = Maps.newHashMap();
         volume.getBlockWorker().iterate((extent, x, y, z) -> {
             final BlockState state = extent.getBlock(x, y, z);
@@ -32,6 +32,10 @@
 import org.spongepowered.api.world.biome.VirtualBiomeType;
 import org.spongepowered.api.world.extent.BiomeVolume;
 import org.spongepowered.api.world.extent.BlockVolume;
+import org.spongepowered.api.world.extent.MutableBlockVolume;
+import org.spongepowered.common.util.gen.ArrayMutableBlockBuffer;
+import org.spongepowered.common.util.gen.BlockBufferStorage;
+import org.spongepowered.common.world.schematic.GlobalPalette;
 
 public class ExtentBufferUtil {
 
@@ -75,4 +79,16 @@ public static char[] copyToArray(BlockVolume volume, Vector3i min, Vector3i max,
         return copy;
     }
 
+    /**
+     * Copies the blocks into a buffer using the storage configured for the
+     * size, without going through an intermediate array.
+     */
+    public static MutableBlockVolume copyToBuffer(BlockVolume volume, Vector3i min, Vector3i max, Vector3i size) {
+        final BlockBufferStorage storage = BlockBufferStorage.forSize(size);
+        if (storage == BlockBufferStorage.HEAP) {
+            return new ArrayMutableBlockBuffer(GlobalPalette.getBlockPalette(), min, size, copyToArray(volume, min, max, size));
+        }
+        return ArrayMutableBlockBuffer.copyOf(GlobalPalette.getBlockPalette(), volume, min, max, storage);
+    }
+
 }
@@ -72,29 +72,95 @@
 public class SoftBufferExtentViewDownsize implements DefaultedExtent {
 
     private final Extent extent;
-    private final Vector3i blockMin;
-    private final Vector3i blockMax;
     private final Vector3i blockSize;
-    private final Vector3i biomeMin;
-    private final Vector3i biomeMax;
     private final Vector3i biomeSize;
-    private final Vector3i hardBlockMin;
-    private final Vector3i hardBlockMax;
-    private final Vector3i hardBiomeMin;
-    private final Vector3i hardBiomeMax;
+    private final int hardSizeX;
+    private final int hardSizeY;
+    private final int hardSizeZ;
+    // The bounds are kept as primitives so that reusing the view doesn't allocate,
+    // the vectors are only created when they are asked for
+    private int blockMinX;
+    private int blockMinY;
+    private int blockMinZ;
+    private int blockMaxX;
+    private int blockMaxY;
+    private int blockMaxZ;
+    private int hardMinX;
+    private int hardMinY;
+    private int hardMinZ;
+    private int hardMaxX;
+    private int hardMaxY;
+    private int hardMaxZ;
+    @Nullable private Vector3i blockMin;
+    @Nullable private Vector3i blockMax;
+    @Nullable private Vector3i biomeMin;
+    @Nullable private Vector3i biomeMax;
 
     public SoftBufferExtentViewDownsize(Extent extent, Vector3i blockMin, Vector3i blockMax, Vector3i hardMin, Vector3i hardMax) {
         this.extent = extent;
-        this.blockMin = blockMin;
-        this.blockMax = blockMax;
-        this.blockSize = this.blockMax.sub(this.blockMin).add(Vector3i.ONE);
-        this.biomeMin = new Vector3i(blockMin.getX(), 0, blockMin.getZ());
-        this.biomeMax = new Vector3i(blockMax.getX(), 0, blockMax.getZ());
-        this.biomeSize = this.biomeMax.sub(this.biomeMin).add(Vector3i.ONE);
-        this.hardBlockMin = hardMin;
-        this.hardBlockMax = hardMax;
-        this.hardBiomeMin = new Vector3i(hardMin.getX(), 0, hardMin.getZ());
-        this.hardBiomeMax = new Vector3i(hardMax.getX(), 0, hardMax.getZ());
+        this.blockSize = blockMax.sub(blockMin).add(Vector3i.ONE);
+        this.biomeSize = new Vector3i(this.blockSize.getX(), 1, this.blockSize.getZ());
+        this.hardSizeX = hardMax.getX() - hardMin.getX();
+        this.hardSizeY = hardMax.getY() - hardMin.getY();
+        this.hardSizeZ = hardMax.getZ() - hardMin.getZ();
+        this.reuse(blockMin.getX(), blockMin.getY(), blockMin.getZ(), hardMin.getX(), hardMin.getY(), hardMin.getZ());
+    }
+
+    /**
+     * Moves this view to another area of the same extent, so that it can be
+     * reused. Both the soft and the hard bounds keep their size.
+     *
+     * @param blockMinX The new minimum soft block x coordinate
+     * @param blockMinY The new minimum soft block y coordinate
+     * @param blockMinZ The new minimum soft block z coordinate
+     * @param hardMinX The new minimum hard block x coordinate
+     * @param hardMinY The new minimum hard block y coordinate
+     * @param hardMinZ The new minimum hard block z coordinate
+     */
+    public void reuse(int blockMinX, int blockMinY, int blockMinZ, int hardMinX, int hardMinY, int hardMinZ) {
+        this.blockMinX = blockMinX;
+        this.blockMinY = blockMinY;
+        this.blockMinZ = blockMinZ;
+        this.blockMaxX = blockMinX + this.blockSize.getX() - 1;
+        this.blockMaxY = blockMinY + this.blockSize.getY() - 1;
+        this.blockMaxZ = blockMinZ + this.blockSize.getZ() - 1;
+        this.hardMinX = hardMinX;
+        this.hardMinY = hardMinY;
+        this.hardMinZ = hardMinZ;
+        this.hardMaxX = hardMinX + this.hardSizeX;
+        this.hardMaxY = hardMinY + this.hardSizeY;
+        this.hardMaxZ = hardMinZ + this.hardSizeZ;
+        this.blockMin = null;
+        this.blockMax = null;
+        this.biomeMin = null;
+        this.biomeMax = null;
+    }
+
+    private boolean inSoftBounds(double x, double y, double z) {
+        return x >= this.blockMinX && x <= this.blockMaxX && y >= this.blockMinY && y <= this.blockMaxY
+            && z >= this.blockMinZ && z <= this.blockMaxZ;
+    }
+
+    private boolean inHardBounds(double x, double y, double z) {
+        return x >= this.hardMinX && x <= this.hardMaxX && y >= this.hardMinY && y <= this.hardMaxY
+            && z >= this.hardMinZ && z <= this.hardMaxZ;
+    }
+
+    private Vector3i getHardBlockMin() {
+        return new Vector3i(this.hardMinX, this.hardMinY, this.hardMinZ);
+    }
+
+    private Vector3i getHardBlockMax() {
+        return new Vector3i(this.hardMaxX, this.hardMaxY, this.hardMaxZ);
+    }
+
+    /**
+     * Gets the extent this view is backed by.
+     *
+     * @return The extent
+     */
+    public Extent getBackingExtent() {
+        return this.extent;
     }
 
     @Override
@@ -109,11 +175,17 @@ public boolean isLoaded() {
 
     @Override
     public Vector3i getBiomeMin() {
+        if (this.biomeMin == null) {
+            this.biomeMin = new Vector3i(this.blockMinX, 0, this.blockMinZ);
+        }
         return this.biomeMin;
     }
 
     @Override
     public Vector3i getBiomeMax() {
+        if (this.biomeMax == null) {
+            this.biomeMax = new Vector3i(this.blockMaxX, 0, this.blockMaxZ);
+        }
         return this.biomeMax;
     }
 
@@ -124,12 +196,13 @@ public Vector3i getBiomeSize() {
 
     @Override
     public boolean containsBiome(int x, int y, int z) {
-        return VecHelper.inBounds(x, y, z, this.biomeMin, this.biomeMax);
+        return y == 0 && this.inSoftBounds(x, this.blockMinY, z);
     }
 
     private void checkBiomeRange(int x, int y, int z) {
-        if (!VecHelper.inBounds(x, y, z, this.hardBiomeMin, this.hardBiomeMax)) {
-            throw new PositionOutOfBoundsException(new Vector3i(x, y, z), this.hardBiomeMin, this.hardBiomeMax);
+        if (y != 0 || !this.inHardBounds(x, this.hardMinY, z)) {
+            throw new PositionOutOfBoundsException(new Vector3i(x, y, z), new Vector3i(this.hardMinX, 0, this.hardMinZ),
+                new Vector3i(this.hardMaxX, 0, this.hardMaxZ));
         }
     }
 
@@ -147,11 +220,17 @@ public void setBiome(int x, int y, int z, BiomeType biome) {
 
     @Override
     public Vector3i getBlockMax() {
+        if (this.blockMax == null) {
+            this.blockMax = new Vector3i(this.blockMaxX, this.blockMaxY, this.blockMaxZ);
+        }
         return this.blockMax;
     }
 
     @Override
     public Vector3i getBlockMin() {
+        if (this.blockMin == null) {
+            this.blockMin = new Vector3i(this.blockMinX, this.blockMinY, this.blockMinZ);
+        }
         return this.blockMin;
     }
 
@@ -162,18 +241,18 @@ public Vector3i getBlockSize() {
 
     @Override
     public boolean containsBlock(int x, int y, int z) {
-        return VecHelper.inBounds(x, y, z, this.blockMin, this.blockMax);
+        return this.inSoftBounds(x, y, z);
     }
 
     private void checkBlockRange(double x, double y, double z) {
-        if (!VecHelper.inBounds(x, y, z, this.hardBlockMin, this.hardBlockMax)) {
-            throw new PositionOutOfBoundsException(new Vector3d(x, y, z), this.hardBlockMin.toDouble(), this.hardBlockMax.toDouble());
+        if (!this.inHardBounds(x, y, z)) {
+            throw new PositionOutOfBoundsException(new Vector3d(x, y, z), this.getHardBlockMin().toDouble(), this.getHardBlockMax().toDouble());
         }
     }
 
     private void checkBlockRange(int x, int y, int z) {
-        if (!VecHelper.inBounds(x, y, z, this.hardBlockMin, this.hardBlockMax)) {
-            throw new PositionOutOfBoundsException(new Vector3i(x, y, z), this.hardBlockMin, this.hardBlockMax);
+        if (!this.inHardBounds(x, y, z)) {
+            throw new PositionOutOfBoundsException(new Vector3i(x, y, z), this.getHardBlockMin(), this.getHardBlockMax());
         }
     }
 
@@ -392,7 +471,7 @@ public Collection<TileEntity> getTileEntities() {
         for (Iterator<TileEntity> iterator = tileEntities.iterator(); iterator.hasNext(); ) {
             final TileEntity tileEntity = iterator.next();
             final Location<World> block = tileEntity.getLocation();
-            if (!VecHelper.inBounds(block.getX(), block.getY(), block.getZ(), this.blockMin, this.blockMax)) {
+            if (!this.inSoftBounds(block.getX(), block.getY(), block.getZ())) {
                 iterator.remove();
             }
         }
@@ -404,7 +483,7 @@ public Collection<TileEntity> getTileEntities(Predicate<TileEntity> filter) {
         // Order matters! Bounds filter before the argument filter so it doesn't see out of bounds entities
         return this.extent.getTileEntities(Functional.predicateAnd(input -> {
             final Location<World> block = input.getLocation();
-            return VecHelper.inBounds(block.getX(), block.getY(), block.getZ(), this.blockMin, this.blockMax);
+            return this.inSoftBounds(block.getX(), block.getY(), block.getZ());
         }, filter));
     }
 
@@ -437,18 +516,20 @@ public Set<Entity> getIntersectingEntities(AABB box, Predicate<Entity> filter) {
     @Override
     public Set<EntityHit> getIntersectingEntities(Vector3d start, Vector3d end, Predicate<EntityHit> filter) {
         // Order matters! Bounds filter before the argument filter so it doesn't see out of bounds entities
-        final Vector3i max = this.blockMax.add(Vector3i.ONE);
+        final Vector3i max = this.getBlockMax().add(Vector3i.ONE);
+        final Vector3i min = this.getBlockMin();
         return this.extent.getIntersectingEntities(start, end,
-                Functional.predicateAnd(hit -> VecHelper.inBounds(hit.getEntity().getLocation().getPosition(), this.blockMin, max), filter));
+                Functional.predicateAnd(hit -> VecHelper.inBounds(hit.getEntity().getLocation().getPosition(), min, max), filter));
     }
 
     @Override
     public Set<EntityHit> getIntersectingEntities(Vector3d start, Vector3d direction, double distance,
             Predicate<EntityHit> filter) {
         // Order matters! Bounds filter before the argument filter so it doesn't see out of bounds entities
-        final Vector3i max = this.blockMax.add(Vector3i.ONE);
+        final Vector3i max = this.getBlockMax().add(Vector3i.ONE);
+        final Vector3i min = this.getBlockMin();
         return this.extent.getIntersectingEntities(start, direction, distance,
-                Functional.predicateAnd(hit -> VecHelper.inBounds(hit.getEntity().getLocation().getPosition(), this.blockMin, max), filter));
+                Functional.predicateAnd(hit -> VecHelper.inBounds(hit.getEntity().getLocation().getPosition(), min, max), filter));
     }
 
     @Override
@@ -463,7 +544,7 @@ public Collection<Entity> getEntities() {
         for (Iterator<Entity> iterator = entities.iterator(); iterator.hasNext(); ) {
             final Entity tileEntity = iterator.next();
             final Location<World> block = tileEntity.getLocation();
-            if (!VecHelper.inBounds(block.getX(), block.getY(), block.getZ(), this.blockMin, this.blockMax)) {
+            if (!this.inSoftBounds(block.getX(), block.getY(), block.getZ())) {
                 iterator.remove();
             }
         }
@@ -475,7 +556,7 @@ public Collection<Entity> getEntities(Predicate<Entity> filter) {
         // Order matters! Bounds filter before the argument filter so it doesn't see out of bounds entities
         return this.extent.getEntities(Functional.predicateAnd(input -> {
             final Location<World> block = input.getLocation();
-            return VecHelper.inBounds(block.getX(), block.getY(), block.getZ(), this.blockMin, this.blockMax);
+            return this.inSoftBounds(block.getX(), block.getY(), block.getZ());
         }, filter));
     }
 
@@ -511,8 +592,8 @@ public Optional<Entity> restoreSnapshot(EntitySnapshot snapshot, Vector3d positi
     }
 
     private void checkSoftRange(int x, int y, int z) {
-        if (!VecHelper.inBounds(x, y, z, this.blockMin, this.blockMax)) {
-            throw new PositionOutOfBoundsException(new Vector3i(x, y, z), this.blockMin, this.blockMax);
+        if (!this.inSoftBounds(x, y, z)) {
+            throw new PositionOutOfBoundsException(new Vector3i(x, y, z), this.getBlockMin(), this.getBlockMax());
         }
     }
 
@@ -520,8 +601,8 @@ private void checkSoftRange(int x, int y, int z) {
     public Extent getExtentView(Vector3i newMin, Vector3i newMax) {
         checkSoftRange(newMin.getX(), newMin.getY(), newMin.getZ());
         checkSoftRange(newMax.getX(), newMax.getY(), newMax.getZ());
-        return new SoftBufferExtentViewDownsize(this.extent, newMin, newMax, newMin.add(this.hardBlockMin.sub(this.blockMin)),
-                newMax.add(this.hardBlockMax.sub(this.blockMax)));
+        return new SoftBufferExtentViewDownsize(this.extent, newMin, newMax, newMin.add(this.getHardBlockMin().sub(this.getBlockMin())),
+                newMax.add(this.getHardBlockMax().sub(this.getBlockMax())));
     }
 
     @Override public Optional<UUID> getCreator(int x, int y, int z) {
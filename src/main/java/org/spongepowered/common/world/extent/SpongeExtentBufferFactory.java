@@ -31,6 +31,7 @@
 import org.spongepowered.api.world.extent.MutableBiomeVolume;
 import org.spongepowered.api.world.extent.MutableBlockVolume;
 import org.spongepowered.common.util.gen.ArrayMutableBlockBuffer;
+import org.spongepowered.common.util.gen.BlockBufferStorage;
 import org.spongepowered.common.util.gen.ByteArrayMutableBiomeBuffer;
 import org.spongepowered.common.world.schematic.GlobalPalette;
 import org.spongepowered.common.world.schematic.SpongeArchetypeVolume;
@@ -56,7 +57,20 @@ public MutableBiomeVolume createThreadSafeBiomeBuffer(Vector3i min, Vector3i siz
 
     @Override
     public MutableBlockVolume createBlockBuffer(Vector3i min, Vector3i size) {
-        return new ArrayMutableBlockBuffer(min, size);
+        return new ArrayMutableBlockBuffer(min, size, BlockBufferStorage.forSize(size));
+    }
+
+    /**
+     * Creates a block buffer that stores its blocks in the given way,
+     * regardless of the configured threshold.
+     *
+     * @param min The minimum point of the buffer
+     * @param size The size of the buffer
+     * @param storage Where the blocks are stored
+     * @return The new buffer
+     */
+    public MutableBlockVolume createBlockBuffer(Vector3i min, Vector3i size, BlockBufferStorage storage) {
+        return new ArrayMutableBlockBuffer(min, size, storage);
     }
 
     @Override
@@ -66,7 +80,7 @@ public MutableBlockVolume createThreadSafeBlockBuffer(Vector3i min, Vector3i siz
 
     @Override
     public ArchetypeVolume createArchetypeVolume(Vector3i size, Vector3i origin) {
-        MutableBlockVolume backing = new ArrayMutableBlockBuffer(origin.mul(-1), size);
+        MutableBlockVolume backing = new ArrayMutableBlockBuffer(origin.mul(-1), size, BlockBufferStorage.forSize(size));
         return new SpongeArchetypeVolume(backing, ImmutableMap.of(), Collections.emptyList());
     }
 
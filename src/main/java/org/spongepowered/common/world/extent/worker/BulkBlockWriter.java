@@ -0,0 +1,285 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.extent.worker;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.google.common.collect.ImmutableList;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.server.management.PlayerChunkMapEntry;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.block.BlockSnapshot;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.data.Transaction;
+import org.spongepowered.api.event.CauseStackManager;
+import org.spongepowered.api.event.SpongeEventFactory;
+import org.spongepowered.api.event.block.ChangeBlockEvent;
+import org.spongepowered.api.world.World;
+import org.spongepowered.api.world.extent.MutableBlockVolume;
+import org.spongepowered.api.world.storage.WorldProperties;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.SpongeImplHooks;
+import org.spongepowered.common.block.SpongeBlockSnapshotBuilder;
+import org.spongepowered.common.bridge.server.management.PlayerChunkMapEntryBridge;
+import org.spongepowered.common.config.SpongeConfig;
+import org.spongepowered.common.config.type.GlobalConfig;
+import org.spongepowered.common.event.ShouldFire;
+import org.spongepowered.common.world.BlockChange;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Writes the blocks produced by a block worker straight into the sections of
+ * the chunks backing a live world volume, rather than going through
+ * {@link MutableBlockVolume#setBlock(int, int, int, BlockState)} for every
+ * position.
+ *
+ * <p>Blocks are visited chunk by chunk and section by section. Lighting and
+ * height maps are recalculated once per touched chunk, and each touched chunk
+ * is resent to its watching players once. If there are block change listeners,
+ * the changes are collected and thrown as a single batch of events once all
+ * blocks are written, reverting whatever the listeners invalidate.</p>
+ *
+ * <p>Blocks that have, or had, a tile entity still go through the regular
+ * {@code setBlock} path so their tile entities are created and removed as
+ * usual.</p>
+ */
+public final class BulkBlockWriter {
+
+    @FunctionalInterface
+    public interface BlockProducer {
+
+        BlockState produce(int x, int y, int z);
+    }
+
+    /**
+     * Gets a bulk writer for the given volume, if the volume is backed by
+     * loaded chunks of a server world, bulk block workers are enabled and
+     * this is called from the server thread.
+     *
+     * @param volume The destination volume
+     * @return The bulk writer, or null if blocks need to be set individually
+     */
+    @Nullable
+    public static BulkBlockWriter of(final MutableBlockVolume volume) {
+        final SpongeConfig<GlobalConfig> config = SpongeImpl.getGlobalConfigAdapter();
+        if (!config.getConfig().getModules().useOptimizations() || !config.getConfig().getOptimizations().useBulkBlockWorkers()) {
+            return null;
+        }
+        final net.minecraft.world.World world;
+        if (volume instanceof net.minecraft.world.World) {
+            world = (net.minecraft.world.World) volume;
+        } else if (volume instanceof Chunk) {
+            world = ((Chunk) volume).getWorld();
+        } else {
+            return null;
+        }
+        if (!(world instanceof WorldServer) || !SpongeImpl.getServer().isCallingFromMinecraftThread()) {
+            return null;
+        }
+        return new BulkBlockWriter((WorldServer) world, volume);
+    }
+
+    private final WorldServer world;
+    private final MutableBlockVolume volume;
+    private final List<Chunk> touchedChunks = new ArrayList<>();
+    @Nullable private Map<BlockChange, List<Transaction<BlockSnapshot>>> transactions;
+
+    private BulkBlockWriter(final WorldServer world, final MutableBlockVolume volume) {
+        this.world = world;
+        this.volume = volume;
+    }
+
+    /**
+     * Writes the blocks produced for every position between the given
+     * world coordinates, inclusive.
+     *
+     * @param xMin The minimum x coordinate
+     * @param yMin The minimum y coordinate
+     * @param zMin The minimum z coordinate
+     * @param xMax The maximum x coordinate
+     * @param yMax The maximum y coordinate
+     * @param zMax The maximum z coordinate
+     * @param producer The producer of the block for each position
+     * @param source The source of the change for thrown events
+     */
+    public void write(final int xMin, final int yMin, final int zMin, final int xMax, final int yMax, final int zMax,
+        final BlockProducer producer, final Object source) {
+        if (ShouldFire.CHANGE_BLOCK_EVENT_BREAK || ShouldFire.CHANGE_BLOCK_EVENT_MODIFY || ShouldFire.CHANGE_BLOCK_EVENT_PLACE
+            || ShouldFire.CHANGE_BLOCK_EVENT_POST) {
+            this.transactions = new EnumMap<>(BlockChange.class);
+        }
+        final WorldProperties properties = ((World) this.world).getProperties();
+        for (int chunkX = xMin >> 4; chunkX <= xMax >> 4; chunkX++) {
+            final int sectionXMin = Math.max(xMin, chunkX << 4);
+            final int sectionXMax = Math.min(xMax, (chunkX << 4) + 15);
+            for (int chunkZ = zMin >> 4; chunkZ <= zMax >> 4; chunkZ++) {
+                final int sectionZMin = Math.max(zMin, chunkZ << 4);
+                final int sectionZMax = Math.min(zMax, (chunkZ << 4) + 15);
+                final Chunk chunk = this.world.getChunk(chunkX, chunkZ);
+                boolean changed = false;
+                for (int sectionY = yMin >> 4; sectionY <= yMax >> 4; sectionY++) {
+                    final int sectionYMin = Math.max(yMin, sectionY << 4);
+                    final int sectionYMax = Math.min(yMax, (sectionY << 4) + 15);
+                    @Nullable ExtendedBlockStorage storage = chunk.getBlockStorageArray()[sectionY];
+                    for (int y = sectionYMin; y <= sectionYMax; y++) {
+                        for (int z = sectionZMin; z <= sectionZMax; z++) {
+                            for (int x = sectionXMin; x <= sectionXMax; x++) {
+                                final IBlockState newState = (IBlockState) producer.produce(x, y, z);
+                                if (storage == Chunk.NULL_BLOCK_STORAGE) {
+                                    if (newState.getBlock() == Blocks.AIR) {
+                                        continue;
+                                    }
+                                    storage = this.getOrCreateSection(chunk, sectionY);
+                                }
+                                final IBlockState oldState = storage.get(x & 15, y & 15, z & 15);
+                                if (oldState == newState) {
+                                    continue;
+                                }
+                                if (hasTileEntity(oldState) || hasTileEntity(newState)) {
+                                    this.volume.setBlock(x, y, z, (BlockState) newState);
+                                    continue;
+                                }
+                                storage.set(x & 15, y & 15, z & 15, newState);
+                                changed = true;
+                                if (this.transactions != null) {
+                                    this.capture(properties, new Vector3i(x, y, z), oldState, newState);
+                                }
+                            }
+                        }
+                    }
+                }
+                if (changed) {
+                    this.touchedChunks.add(chunk);
+                }
+            }
+        }
+        if (this.transactions != null && !this.transactions.isEmpty()) {
+            this.throwEvents(source);
+        }
+        for (final Chunk chunk : this.touchedChunks) {
+            this.finish(chunk);
+        }
+        this.touchedChunks.clear();
+        this.transactions = null;
+    }
+
+    private void capture(final WorldProperties properties, final Vector3i position, final IBlockState oldState, final IBlockState newState) {
+        final BlockChange change;
+        if (oldState.getBlock() == Blocks.AIR) {
+            change = BlockChange.PLACE;
+        } else if (newState.getBlock() == Blocks.AIR) {
+            change = BlockChange.BREAK;
+        } else {
+            change = BlockChange.MODIFY;
+        }
+        final Transaction<BlockSnapshot> transaction = new Transaction<>(
+            SpongeBlockSnapshotBuilder.pooled().world(properties).position(position).blockState(oldState).build(),
+            SpongeBlockSnapshotBuilder.pooled().world(properties).position(position).blockState(newState).build());
+        this.transactions.computeIfAbsent(change, key -> new ArrayList<>()).add(transaction);
+    }
+
+    private void throwEvents(final Object source) {
+        try (final CauseStackManager.StackFrame frame = Sponge.getCauseStackManager().pushCauseFrame()) {
+            frame.pushCause(source);
+            final ImmutableList.Builder<Transaction<BlockSnapshot>> remaining = ImmutableList.builder();
+            for (final Map.Entry<BlockChange, List<Transaction<BlockSnapshot>>> entry : this.transactions.entrySet()) {
+                final ChangeBlockEvent event = entry.getKey().createEvent(frame.getCurrentCause(), ImmutableList.copyOf(entry.getValue()));
+                SpongeImpl.postEvent(event);
+                for (final Transaction<BlockSnapshot> transaction : event.getTransactions()) {
+                    if (event.isCancelled() || !transaction.isValid()) {
+                        this.restore(transaction.getOriginal());
+                    } else {
+                        remaining.add(transaction);
+                    }
+                }
+            }
+            final ImmutableList<Transaction<BlockSnapshot>> transactions = remaining.build();
+            if (transactions.isEmpty()) {
+                return;
+            }
+            final ChangeBlockEvent.Post post = SpongeEventFactory.createChangeBlockEventPost(frame.getCurrentCause(), transactions);
+            SpongeImpl.postEvent(post);
+            for (final Transaction<BlockSnapshot> transaction : post.getTransactions()) {
+                if (post.isCancelled() || !transaction.isValid()) {
+                    this.restore(transaction.getOriginal());
+                } else if (transaction.getCustom().isPresent()) {
+                    this.restore(transaction.getFinal());
+                }
+            }
+        }
+    }
+
+    private void restore(final BlockSnapshot snapshot) {
+        final Vector3i position = snapshot.getPosition();
+        final IBlockState state = (IBlockState) snapshot.getState();
+        final Chunk chunk = this.world.getChunk(position.getX() >> 4, position.getZ() >> 4);
+        final IBlockState current = chunk.getBlockState(position.getX(), position.getY(), position.getZ());
+        if (current == state) {
+            return;
+        }
+        if (hasTileEntity(current) || hasTileEntity(state)) {
+            this.volume.setBlock(position.getX(), position.getY(), position.getZ(), (BlockState) state);
+            return;
+        }
+        this.getOrCreateSection(chunk, position.getY() >> 4).set(position.getX() & 15, position.getY() & 15, position.getZ() & 15, state);
+    }
+
+    private ExtendedBlockStorage getOrCreateSection(final Chunk chunk, final int sectionY) {
+        final ExtendedBlockStorage[] sections = chunk.getBlockStorageArray();
+        ExtendedBlockStorage storage = sections[sectionY];
+        if (storage == Chunk.NULL_BLOCK_STORAGE) {
+            storage = new ExtendedBlockStorage(sectionY << 4, this.world.provider.hasSkyLight());
+            sections[sectionY] = storage;
+        }
+        return storage;
+    }
+
+    private void finish(final Chunk chunk) {
+        // The height map and sky light are rebuilt once for the whole column, block
+        // light and sky light spilling into the neighbors is re-checked over the
+        // following ticks like for freshly loaded chunks.
+        chunk.generateSkylightMap();
+        chunk.resetRelightChecks();
+        chunk.markDirty();
+        final PlayerChunkMapEntry entry = this.world.getPlayerChunkMap().getEntry(chunk.x, chunk.z);
+        if (entry != null) {
+            ((PlayerChunkMapEntryBridge) entry).bridge$markChunkForResend();
+        }
+    }
+
+    private static boolean hasTileEntity(final IBlockState state) {
+        return SpongeImplHooks.hasBlockTileEntity(state.getBlock(), state);
+    }
+
+}
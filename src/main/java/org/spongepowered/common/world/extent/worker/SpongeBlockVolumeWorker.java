@@ -77,6 +77,12 @@ public void map(BlockVolumeMapper mapper, MutableBlockVolume destination) {
         try (BasicPluginContext phaseState = PluginPhase.State.BLOCK_WORKER.createPhaseContext()
             .source(this)) {
             phaseState.buildAndSwitch();
+            final BulkBlockWriter writer = BulkBlockWriter.of(destination);
+            if (writer != null) {
+                writer.write(xMin + xOffset, yMin + yOffset, zMin + zOffset, xMax + xOffset, yMax + yOffset, zMax + zOffset,
+                    (x, y, z) -> mapper.map(unmodifiableVolume, x - xOffset, y - yOffset, z - zOffset), this);
+                return;
+            }
             for (int z = zMin; z <= zMax; z++) {
                 for (int y = yMin; y <= yMax; y++) {
                     for (int x = xMin; x <= xMax; x++) {
@@ -110,6 +116,18 @@ public void merge(BlockVolume second, BlockVolumeMerger merger, MutableBlockVolu
         try (BasicPluginContext context = PluginPhase.State.BLOCK_WORKER.createPhaseContext()
             .source(this)) {
             context.buildAndSwitch();
+            final BulkBlockWriter writer = BulkBlockWriter.of(destination);
+            if (writer != null) {
+                writer.write(xMin + xOffsetDestination, yMin + yOffsetDestination, zMin + zOffsetDestination,
+                    xMax + xOffsetDestination, yMax + yOffsetDestination, zMax + zOffsetDestination, (x, y, z) -> {
+                        final int xFirst = x - xOffsetDestination;
+                        final int yFirst = y - yOffsetDestination;
+                        final int zFirst = z - zOffsetDestination;
+                        return merger.merge(firstUnmodifiableVolume, xFirst, yFirst, zFirst,
+                            secondUnmodifiableVolume, xFirst + xOffsetSecond, yFirst + yOffsetSecond, zFirst + zOffsetSecond);
+                    }, this);
+                return;
+            }
             for (int z = zMin; z <= zMax; z++) {
                 for (int y = yMin; y <= yMax; y++) {
                     for (int x = xMin; x <= xMax; x++) {
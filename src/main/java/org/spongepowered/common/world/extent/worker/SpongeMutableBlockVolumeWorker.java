@@ -46,6 +46,11 @@ public void fill(BlockVolumeFiller filler) {
         final int xMax = this.volume.getBlockMax().getX();
         final int yMax = this.volume.getBlockMax().getY();
         final int zMax = this.volume.getBlockMax().getZ();
+        final BulkBlockWriter writer = BulkBlockWriter.of(this.volume);
+        if (writer != null) {
+            writer.write(xMin, yMin, zMin, xMax, yMax, zMax, filler::produce, this);
+            return;
+        }
         for (int z = zMin; z <= zMax; z++) {
             for (int y = yMin; y <= yMax; y++) {
                 for (int x = xMin; x <= xMax; x++) {
@@ -0,0 +1,350 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.gen;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkPrimer;
+import org.spongepowered.api.world.biome.BiomeGenerationSettings;
+import org.spongepowered.api.world.biome.BiomeType;
+import org.spongepowered.api.world.biome.GroundCoverLayer;
+import org.spongepowered.api.world.extent.ImmutableBiomeVolume;
+import org.spongepowered.api.world.extent.MutableBlockVolume;
+import org.spongepowered.api.world.gen.BiomeGenerator;
+import org.spongepowered.api.world.gen.GenerationPopulator;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.bridge.world.chunk.ChunkProviderServerBridge;
+import org.spongepowered.common.config.category.ConcurrentChunkGenerationCategory;
+import org.spongepowered.common.util.OptimizationStats;
+import org.spongepowered.common.util.gen.ChunkPrimerBuffer;
+import org.spongepowered.common.util.gen.ObjectArrayMutableBiomeBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+
+/**
+ * Generates the terrain of chunks next to newly generated chunks on worker
+ * threads, before they are requested. This only covers the work done by
+ * {@link SpongeChunkGenerator#generateChunk(int, int)}, the chunks are still
+ * constructed and populated on the main thread.
+ *
+ * <p>The workers only see a snapshot of the generators, which is taken on
+ * the main thread and discarded together with everything generated from it
+ * as soon as any of the generators change. Ground cover layers are only
+ * run ahead of time if their block state functions and depths are built
+ * into Sponge or listed as thread safe, otherwise the whole terrain stays
+ * on the main thread. All methods of this class have to be called on the
+ * main thread.</p>
+ */
+public final class ChunkGenerationPrefetcher {
+
+    private static final Vector3i CHUNK_AREA = new Vector3i(16, 1, 16);
+    private static final String SPONGE_PACKAGE = "org.spongepowered.";
+    private static final LongAdder SCHEDULED = OptimizationStats.counter("chunk-prefetch.scheduled");
+    private static final LongAdder HITS = OptimizationStats.counter("chunk-prefetch.hits");
+    private static final LongAdder WAITS = OptimizationStats.counter("chunk-prefetch.waits");
+    private static final LongAdder MISSES = OptimizationStats.counter("chunk-prefetch.misses");
+    private static final LongAdder DISCARDED = OptimizationStats.counter("chunk-prefetch.discarded");
+
+    @Nullable private static ExecutorService executor;
+
+    private static synchronized ExecutorService getExecutor(int threads) {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(Math.max(1, threads),
+                new ThreadFactoryBuilder().setNameFormat("Sponge - Chunk Generation Thread #%d").setDaemon(true).build());
+        }
+        return executor;
+    }
+
+    private final SpongeChunkGenerator generator;
+    private final WorldServer world;
+    private final ExecutorService workers;
+    private final Set<String> threadSafeGenerators;
+    private final int maxPendingChunks;
+    private final int radius;
+    private final Long2ObjectLinkedOpenHashMap<Future<PrefetchedChunk>> pending = new Long2ObjectLinkedOpenHashMap<>();
+    @Nullable private Snapshot snapshot;
+
+    ChunkGenerationPrefetcher(SpongeChunkGenerator generator, WorldServer world, ConcurrentChunkGenerationCategory config) {
+        this.generator = generator;
+        this.world = world;
+        this.workers = getExecutor(config.getNumThreads());
+        this.threadSafeGenerators = ImmutableSet.copyOf(config.getThreadSafeGenerators());
+        this.maxPendingChunks = Math.max(1, config.getMaxPendingChunks());
+        this.radius = Math.max(0, config.getPrefetchRadius());
+    }
+
+    /**
+     * Takes the chunk if it was generated ahead of time.
+     *
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @return The chunk, or null if it has to be generated normally
+     */
+    @Nullable
+    Chunk take(int chunkX, int chunkZ) {
+        final Future<PrefetchedChunk> future = this.pending.remove(ChunkPos.asLong(chunkX, chunkZ));
+        if (future == null) {
+            MISSES.increment();
+            return null;
+        }
+        if (!future.isDone()) {
+            WAITS.increment();
+        }
+        final PrefetchedChunk prefetched;
+        try {
+            prefetched = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            MISSES.increment();
+            return null;
+        } catch (ExecutionException e) {
+            SpongeImpl.getLogger().error("Failed to generate chunk ({}, {}) ahead of time in world {}", chunkX, chunkZ,
+                this.world.getWorldInfo().getWorldName(), e.getCause());
+            DISCARDED.increment();
+            return null;
+        }
+        if (prefetched == null || prefetched.snapshot != this.getSnapshot()) {
+            DISCARDED.increment();
+            return null;
+        }
+        HITS.increment();
+        final Chunk chunk = new Chunk(this.world, prefetched.primer, chunkX, chunkZ);
+        System.arraycopy(prefetched.biomes, 0, chunk.getBiomeArray(), 0, prefetched.biomes.length);
+        chunk.generateSkylightMap();
+        return chunk;
+    }
+
+    /**
+     * Starts generating the missing chunks around a chunk that was just
+     * generated, if all the generators are thread safe.
+     *
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     */
+    void scheduleAround(int chunkX, int chunkZ) {
+        final Snapshot snapshot = this.getSnapshot();
+        if (snapshot == null) {
+            return;
+        }
+        final ChunkProviderServerBridge chunkProvider = (ChunkProviderServerBridge) this.world.getChunkProvider();
+        for (int x = chunkX - this.radius; x <= chunkX + this.radius; x++) {
+            for (int z = chunkZ - this.radius; z <= chunkZ + this.radius; z++) {
+                final long key = ChunkPos.asLong(x, z);
+                // Whether the chunk was saved before is checked by the worker, it reads the region file
+                if (x == chunkX && z == chunkZ || this.pending.containsKey(key) || chunkProvider.bridge$getLoadedChunkWithoutMarkingActive(x, z) != null) {
+                    continue;
+                }
+                if (this.pending.size() >= this.maxPendingChunks) {
+                    // The oldest chunks are the least likely to still be requested
+                    this.pending.removeFirst().cancel(false);
+                    DISCARDED.increment();
+                }
+                final int targetX = x;
+                final int targetZ = z;
+                this.pending.putAndMoveToLast(key, this.workers.submit(() -> this.generate(snapshot, targetX, targetZ)));
+                SCHEDULED.increment();
+            }
+        }
+    }
+
+    @Nullable
+    private PrefetchedChunk generate(Snapshot snapshot, int chunkX, int chunkZ) {
+        if (((ChunkProviderServerBridge) this.world.getChunkProvider()).bridge$doesChunkExistSync(new Vector3i(chunkX, 0, chunkZ)).join()) {
+            return null;
+        }
+        final Random rand = new Random(chunkX * 341873128712L + chunkZ * 132897987541L);
+        final ObjectArrayMutableBiomeBuffer biomes = new ObjectArrayMutableBiomeBuffer(new Vector3i(chunkX * 16, 0, chunkZ * 16), CHUNK_AREA);
+        snapshot.biomeGenerator.generateBiomes(biomes);
+
+        // Get unique biomes to determine what generator populators to run
+        final List<BiomeType> uniqueBiomes = new ArrayList<>();
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                final BiomeType biome = biomes.getBiome(chunkX * 16 + x, 0, chunkZ * 16 + z);
+                if (!uniqueBiomes.contains(biome)) {
+                    if (!snapshot.biomePopulators.containsKey(biome)) {
+                        // The settings of new biomes are created on the main thread
+                        return null;
+                    }
+                    uniqueBiomes.add(biome);
+                }
+            }
+        }
+        final ImmutableBiomeVolume biomeBuffer = biomes.getImmutableBiomeCopy();
+
+        final ChunkPrimer primer = new ChunkPrimer();
+        final MutableBlockVolume blockBuffer = new ChunkPrimerBuffer(primer, chunkX, chunkZ);
+        final org.spongepowered.api.world.World world = (org.spongepowered.api.world.World) this.world;
+        snapshot.baseGenerator.populate(world, blockBuffer, biomeBuffer);
+        this.generator.replaceBiomeBlocks(this.world, rand, chunkX, chunkZ, primer, biomeBuffer, null, snapshot.groundCover::get);
+        for (GenerationPopulator populator : snapshot.populators) {
+            populator.populate(world, blockBuffer, biomeBuffer);
+        }
+        for (BiomeType type : uniqueBiomes) {
+            for (GenerationPopulator populator : snapshot.biomePopulators.get(type)) {
+                populator.populate(world, blockBuffer, biomeBuffer);
+            }
+        }
+
+        final byte[] biomeIds = new byte[256];
+        biomes.fill(biomeIds);
+        return new PrefetchedChunk(snapshot, primer, biomeIds);
+    }
+
+    /**
+     * Gets the snapshot of the current generators, taking a new one if they
+     * changed since the last one was taken.
+     *
+     * @return The snapshot, or null if not all generators are thread safe
+     */
+    @Nullable
+    private Snapshot getSnapshot() {
+        if (this.snapshot == null || !this.snapshot.matches(this.generator)) {
+            this.snapshot = new Snapshot(this.generator);
+            this.snapshot.threadSafe = this.isThreadSafe(this.snapshot);
+            if (!this.pending.isEmpty()) {
+                DISCARDED.add(this.pending.size());
+                this.pending.values().forEach(future -> future.cancel(false));
+                this.pending.clear();
+            }
+        }
+        return this.snapshot.threadSafe ? this.snapshot : null;
+    }
+
+    private boolean isThreadSafe(Snapshot snapshot) {
+        if (snapshot.baseGenerator instanceof SpongeGenerationPopulator
+            || !this.isThreadSafe(snapshot.baseGenerator) || !this.isThreadSafe(snapshot.biomeGenerator)) {
+            return false;
+        }
+        for (GenerationPopulator populator : snapshot.populators) {
+            if (!this.isThreadSafe(populator)) {
+                return false;
+            }
+        }
+        for (List<GenerationPopulator> populators : snapshot.biomePopulators.values()) {
+            for (GenerationPopulator populator : populators) {
+                if (!this.isThreadSafe(populator)) {
+                    return false;
+                }
+            }
+        }
+        for (List<GroundCoverLayer> layers : snapshot.groundCover.values()) {
+            for (GroundCoverLayer layer : layers) {
+                if (!this.isThreadSafe(layer)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isThreadSafe(GroundCoverLayer layer) {
+        // The layers built into Sponge only read their arguments, plugins may subclass them or pass in their own functions
+        return (layer.getClass() == GroundCoverLayer.class || layer.getClass() == SandstoneGroundCoverLayer.class)
+            && this.isBuiltInOrThreadSafe(layer.getBlockState()) && this.isBuiltInOrThreadSafe(layer.getDepth());
+    }
+
+    private boolean isBuiltInOrThreadSafe(Object function) {
+        return function.getClass().getName().startsWith(SPONGE_PACKAGE) || this.isThreadSafe(function);
+    }
+
+    private boolean isThreadSafe(Object generator) {
+        return this.threadSafeGenerators.contains(generator.getClass().getName());
+    }
+
+    private static final class Snapshot {
+
+        final GenerationPopulator baseGenerator;
+        final BiomeGenerator biomeGenerator;
+        final List<GenerationPopulator> populators;
+        final Map<BiomeType, List<GenerationPopulator>> biomePopulators;
+        final Map<BiomeType, List<GroundCoverLayer>> groundCover;
+        boolean threadSafe;
+
+        Snapshot(SpongeChunkGenerator generator) {
+            this.baseGenerator = generator.getBaseGenerationPopulator();
+            this.biomeGenerator = generator.getBiomeGenerator();
+            this.populators = ImmutableList.copyOf(generator.getGenerationPopulators());
+            final ImmutableMap.Builder<BiomeType, List<GenerationPopulator>> biomePopulators = ImmutableMap.builder();
+            final ImmutableMap.Builder<BiomeType, List<GroundCoverLayer>> groundCover = ImmutableMap.builder();
+            for (Map.Entry<BiomeType, BiomeGenerationSettings> entry : generator.getBiomeOverrides().entrySet()) {
+                biomePopulators.put(entry.getKey(), ImmutableList.copyOf(entry.getValue().getGenerationPopulators()));
+                groundCover.put(entry.getKey(), ImmutableList.copyOf(entry.getValue().getGroundCoverLayers()));
+            }
+            this.biomePopulators = biomePopulators.build();
+            this.groundCover = groundCover.build();
+        }
+
+        boolean matches(SpongeChunkGenerator generator) {
+            if (this.baseGenerator != generator.getBaseGenerationPopulator() || this.biomeGenerator != generator.getBiomeGenerator()
+                || !this.populators.equals(generator.getGenerationPopulators())) {
+                return false;
+            }
+            final Map<BiomeType, BiomeGenerationSettings> settings = generator.getBiomeOverrides();
+            if (settings.size() != this.biomePopulators.size()) {
+                return false;
+            }
+            for (Map.Entry<BiomeType, BiomeGenerationSettings> entry : settings.entrySet()) {
+                final List<GenerationPopulator> populators = this.biomePopulators.get(entry.getKey());
+                if (populators == null || !populators.equals(entry.getValue().getGenerationPopulators())
+                    || !this.groundCover.get(entry.getKey()).equals(entry.getValue().getGroundCoverLayers())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class PrefetchedChunk {
+
+        final Snapshot snapshot;
+        final ChunkPrimer primer;
+        final byte[] biomes;
+
+        PrefetchedChunk(Snapshot snapshot, ChunkPrimer primer, byte[] biomes) {
+            this.snapshot = snapshot;
+            this.primer = primer;
+            this.biomes = biomes;
+        }
+    }
+}
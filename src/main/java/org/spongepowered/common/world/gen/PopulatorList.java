@@ -0,0 +1,98 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.gen;
+
+import org.spongepowered.api.world.gen.Populator;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The populator list of a {@link SpongeChunkGenerator}. Plugins get the list
+ * itself, so it counts every change made to it, which lets the generator
+ * tell cheaply whether the snapshot it populates chunks with is still
+ * current.
+ *
+ * <p>All changes go through {@link #set(int, Populator)},
+ * {@link #add(int, Populator)} and {@link #remove(int)}, including the ones
+ * made through iterators and sub lists.</p>
+ */
+final class PopulatorList extends AbstractList<Populator> implements RandomAccess {
+
+    private final List<Populator> populators;
+    private int version;
+
+    PopulatorList() {
+        this.populators = new ArrayList<>();
+    }
+
+    PopulatorList(Collection<? extends Populator> populators) {
+        this.populators = new ArrayList<>(populators);
+    }
+
+    /**
+     * Gets a number that changes whenever this list is changed.
+     *
+     * @return The version of the list
+     */
+    int getVersion() {
+        return this.version;
+    }
+
+    @Override
+    public Populator get(int index) {
+        return this.populators.get(index);
+    }
+
+    @Override
+    public int size() {
+        return this.populators.size();
+    }
+
+    @Override
+    public Populator set(int index, Populator element) {
+        final Populator previous = this.populators.set(index, element);
+        this.version++;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Populator element) {
+        this.populators.add(index, element);
+        this.modCount++;
+        this.version++;
+    }
+
+    @Override
+    public Populator remove(int index) {
+        final Populator previous = this.populators.remove(index);
+        this.modCount++;
+        this.version++;
+        return previous;
+    }
+}
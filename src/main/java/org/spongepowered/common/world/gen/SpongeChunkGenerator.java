@@ -73,11 +73,13 @@
 import org.spongepowered.api.world.gen.PopulatorType;
 import org.spongepowered.api.world.gen.WorldGenerator;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.SpongeImplHooks;
 import org.spongepowered.common.bridge.TimingBridge;
 import org.spongepowered.common.bridge.world.WorldServerBridge;
 import org.spongepowered.common.bridge.world.chunk.ChunkBridge;
 import org.spongepowered.common.bridge.world.gen.ChunkGeneratorOverworldBridge;
 import org.spongepowered.common.bridge.world.gen.FlaggedPopulatorBridge;
+import org.spongepowered.common.config.type.GlobalConfig;
 import org.spongepowered.common.event.tracking.IPhaseState;
 import org.spongepowered.common.event.tracking.PhaseContext;
 import org.spongepowered.common.event.tracking.PhaseTracker;
@@ -92,11 +94,15 @@
 import org.spongepowered.common.world.extent.SoftBufferExtentViewDownsize;
 import org.spongepowered.common.world.gen.populators.SnowPopulator;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
@@ -124,6 +130,18 @@ public class SpongeChunkGenerator implements WorldGenerator, IChunkGenerator {
     protected Map<String, Timing> populatorTimings = Maps.newHashMap();
     protected Timing chunkGeneratorTiming;
 
+    /** Contexts of finished populate calls, populate may be reentered for neighboring chunks */
+    private final Deque<PopulationContext> populationContexts = new ArrayDeque<>();
+    /** The populators without the snow populator, which always runs last */
+    private List<Populator> populatorSnapshot = ImmutableList.of();
+    @Nullable private Populator snowPopulator;
+    /** The populator list the snapshot was taken from and its version at that time */
+    @Nullable private List<Populator> populatorSnapshotSource;
+    private int populatorSnapshotVersion;
+    /** The timings of the populator types, resolved once per type */
+    private final Map<PopulatorType, Timing> populatorTypeTimings = new IdentityHashMap<>();
+    @Nullable private final ChunkGenerationPrefetcher prefetcher;
+
     public SpongeChunkGenerator(World world, GenerationPopulator base, BiomeGenerator biomegen) {
         this.world = checkNotNull(world, "world");
         this.baseGenerator = checkNotNull(base, "baseGenerator");
@@ -133,7 +151,7 @@ public SpongeChunkGenerator(World world, GenerationPopulator base, BiomeGenerato
         this.cachedBiomes = new ObjectArrayMutableBiomeBuffer(Vector3i.ZERO, CHUNK_AREA);
 
         this.genpop = Lists.newArrayList();
-        this.pop = Lists.newArrayList();
+        this.pop = new PopulatorList();
         this.biomeSettings = Maps.newHashMap();
         this.rand = new Random(world.getSeed());
         this.noise4 = new NoiseGeneratorPerlin(this.rand, 4);
@@ -155,6 +173,23 @@ public SpongeChunkGenerator(World world, GenerationPopulator base, BiomeGenerato
                     SpongeTimingsFactory.ofSafe(chunkGeneratorName, ((WorldServerBridge) world).bridge$getTimingsHandler().chunkPopulate);
         }
 
+        final GlobalConfig config = SpongeImpl.getGlobalConfigAdapter().getConfig();
+        if (config.getModules().useOptimizations() && config.getOptimizations().useConcurrentChunkGeneration()) {
+            this.prefetcher = new ChunkGenerationPrefetcher(this, (WorldServer) world, config.getOptimizations().getConcurrentChunkGenerationCategory());
+        } else {
+            this.prefetcher = null;
+        }
+    }
+
+    /**
+     * Gets the prefetcher generating chunks ahead of time for this generator,
+     * if enabled.
+     *
+     * @return The prefetcher, or null
+     */
+    @Nullable
+    public ChunkGenerationPrefetcher getPrefetcher() {
+        return this.prefetcher;
     }
 
     @Override
@@ -185,7 +220,7 @@ public List<Populator> getPopulators() {
     }
 
     public void setPopulators(List<Populator> populators) {
-        this.pop = Lists.newArrayList(populators);
+        this.pop = new PopulatorList(populators);
     }
 
     public Map<BiomeType, BiomeGenerationSettings> getBiomeOverrides() {
@@ -239,6 +274,13 @@ public List<Populator> getPopulators(Class<? extends Populator> type) {
 
     @Override
     public Chunk generateChunk(int chunkX, int chunkZ) {
+        if (this.prefetcher != null && SpongeImplHooks.isMainThread()) {
+            final Chunk chunk = this.prefetcher.take(chunkX, chunkZ);
+            this.prefetcher.scheduleAround(chunkX, chunkZ);
+            if (chunk != null) {
+                return chunk;
+            }
+        }
         this.rand.setSeed(chunkX * 341873128712L + chunkZ * 132897987541L);
         this.cachedBiomes.reuse(new Vector3i(chunkX * 16, 0, chunkZ * 16));
         this.biomeGenerator.generateBiomes(this.cachedBiomes);
@@ -309,37 +351,30 @@ public void populate(int chunkX, int chunkZ) {
         this.biomeGenerator.generateBiomes(this.cachedBiomes);
         ImmutableBiomeVolume biomeBuffer = this.cachedBiomes.getImmutableBiomeCopy();
 
-        BlockPos blockpos = new BlockPos(chunkX * 16, 0, chunkZ * 16);
-        BiomeType biome = (BiomeType) this.world.getBiome(blockpos.add(16, 0, 16));
+        final PopulationContext populationContext = this.populationContexts.isEmpty() ? new PopulationContext() : this.populationContexts.pop();
+        BiomeType biome = (BiomeType) this.world.getBiome(populationContext.biomePos.setPos(chunkX * 16 + 16, 0, chunkZ * 16 + 16));
 
         org.spongepowered.api.world.Chunk chunk = (org.spongepowered.api.world.Chunk) this.world.getChunk(chunkX, chunkZ);
 
         BiomeGenerationSettings settings = getBiomeSettings(biome);
 
-        List<Populator> populators = new ArrayList<>(this.pop);
-
-        Populator snowPopulator = null;
-        Iterator<Populator> itr = populators.iterator();
-        while (itr.hasNext()) {
-            Populator populator = itr.next();
-            if (populator instanceof SnowPopulator) {
-                itr.remove();
-                snowPopulator = populator;
-                break;
-            }
-        }
-
-        populators.addAll(settings.getPopulators());
-        if (snowPopulator != null) {
-            populators.add(snowPopulator);
+        this.updatePopulatorSnapshot();
+        final List<Populator> biomePopulators = settings.getPopulators();
+        // Plugins may change the list during the pre event, so it is refilled for every chunk
+        final List<Populator> populators = populationContext.populators;
+        populators.clear();
+        populators.addAll(this.populatorSnapshot);
+        populators.addAll(biomePopulators);
+        if (this.snowPopulator != null) {
+            populators.add(this.snowPopulator);
         }
 
         Sponge.getGame().getEventManager().post(SpongeEventFactory.createPopulateChunkEventPre(Sponge.getCauseStackManager().getCurrentCause(), populators, chunk));
-        List<String> flags = Lists.newArrayList();
+        List<String> flags = populationContext.flags;
         final IPhaseState<?> currentState = phaseTracker.getCurrentState();
         final Vector3i min = currentState.getChunkPopulatorOffset(chunk, chunkX, chunkZ);
         org.spongepowered.api.world.World spongeWorld = (org.spongepowered.api.world.World) this.world;
-        Extent volume = new SoftBufferExtentViewDownsize(chunk.getWorld(), min, min.add(15, 255, 15), min.sub(8, 0, 8), min.add(23, 255, 23));
+        Extent volume = populationContext.target(chunk.getWorld(), min);
         for (Populator populator : populators) {
             final PopulatorType type = populator.getType();
             if (Sponge.getGame().getEventManager().post(SpongeEventFactory.createPopulateChunkEventPopulate(Sponge.getCauseStackManager().getCurrentCause(), populator, chunk))) {
@@ -349,11 +384,10 @@ public void populate(int chunkX, int chunkZ) {
                 Timing timing = null;
                 ignored.pushCause(populator);
                 if (Timings.isTimingsEnabled()) {
-                    timing = this.populatorTimings.get(populator.getType().getId());
+                    timing = this.populatorTypeTimings.get(type);
                     if (timing == null) {
-                        timing = SpongeTimingsFactory.ofSafe("populate - " + populator.getType().getId());// ,
-                                                                                                          // this.chunkGeneratorTiming);
-                        this.populatorTimings.put(populator.getType().getId(), timing);
+                        timing = this.populatorTimings.computeIfAbsent(type.getId(), id -> SpongeTimingsFactory.ofSafe("populate - " + id));
+                        this.populatorTypeTimings.put(type, timing);
                     }
                     timing.startTimingIfSync();
                 }
@@ -392,11 +426,39 @@ public void populate(int chunkX, int chunkZ) {
         PopulateChunkEvent.Post event = SpongeEventFactory.createPopulateChunkEventPost(Sponge.getCauseStackManager().getCurrentCause(), ImmutableList.copyOf(populators), chunk);
         SpongeImpl.postEvent(event);
 
+        populationContext.flags.clear();
+        this.populationContexts.push(populationContext);
+
         BlockFalling.fallInstantly = false;
         this.chunkGeneratorTiming.stopTimingIfSync();
         world.bridge$getTimingsHandler().chunkPopulate.stopTimingIfSync();
     }
 
+    private void updatePopulatorSnapshot() {
+        // The list is handed out by getPopulators, so plugins can change it in any way.
+        // Lists that don't count their changes can only be snapshotted every time.
+        final List<Populator> source = this.pop;
+        if (source == this.populatorSnapshotSource && source instanceof PopulatorList
+            && ((PopulatorList) source).getVersion() == this.populatorSnapshotVersion) {
+            return;
+        }
+        final List<Populator> populators = new ArrayList<>(this.pop);
+        Populator snowPopulator = null;
+        Iterator<Populator> itr = populators.iterator();
+        while (itr.hasNext()) {
+            Populator populator = itr.next();
+            if (populator instanceof SnowPopulator) {
+                itr.remove();
+                snowPopulator = populator;
+                break;
+            }
+        }
+        this.populatorSnapshot = populators;
+        this.snowPopulator = snowPopulator;
+        this.populatorSnapshotSource = source;
+        this.populatorSnapshotVersion = source instanceof PopulatorList ? ((PopulatorList) source).getVersion() : 0;
+    }
+
     @Override
     @SuppressWarnings("try")
     public boolean generateStructures(Chunk chunk, int chunkX, int chunkZ) {
@@ -542,16 +604,31 @@ public void recreateStructures(Chunk chunkIn, int x, int z) {
     }
 
     public void replaceBiomeBlocks(World world, Random rand, int x, int z, ChunkPrimer chunk, ImmutableBiomeVolume biomes) {
+        this.stoneNoise = this.replaceBiomeBlocks(world, rand, x, z, chunk, biomes, this.stoneNoise,
+                type -> this.getBiomeSettings(type).getGroundCoverLayers());
+    }
+
+    /**
+     * Replaces the stone of the chunk with the ground cover of its biomes.
+     * This only reads the shared state of this generator, so it may be
+     * called from other threads as long as each of them passes its own
+     * noise array.
+     *
+     * @return The noise array that was used
+     */
+    double[] replaceBiomeBlocks(World world, Random rand, int x, int z, ChunkPrimer chunk, ImmutableBiomeVolume biomes,
+            @Nullable double[] stoneNoise, Function<BiomeType, List<GroundCoverLayer>> groundCover) {
         double d0 = 0.03125D;
-        this.stoneNoise = this.noise4.getRegion(this.stoneNoise, x * 16, z * 16, 16, 16, d0 * 2.0D, d0 * 2.0D, 1.0D);
+        stoneNoise = this.noise4.getRegion(stoneNoise, x * 16, z * 16, 16, 16, d0 * 2.0D, d0 * 2.0D, 1.0D);
         Vector3i min = biomes.getBiomeMin();
         for (int x0 = 0; x0 < 16; ++x0) {
             for (int z0 = 0; z0 < 16; ++z0) {
                 BiomeType biomegenbase = biomes.getBiome(min.getX() + x0, 0, min.getZ() + z0);
-                this.generateBiomeTerrain(world, rand, chunk, x * 16 + x0, z * 16 + z0, this.stoneNoise[x0 + z0 * 16],
-                        this.getBiomeSettings(biomegenbase).getGroundCoverLayers());
+                this.generateBiomeTerrain(world, rand, chunk, x * 16 + x0, z * 16 + z0, stoneNoise[x0 + z0 * 16],
+                        groundCover.apply(biomegenbase));
             }
         }
+        return stoneNoise;
     }
 
     public void generateBiomeTerrain(World worldIn, Random rand, ChunkPrimer chunk, int x, int z, double stoneNoise,
@@ -620,4 +697,24 @@ public void generateBiomeTerrain(World worldIn, Random rand, ChunkPrimer chunk,
         }
     }
 
+    /**
+     * The objects of a populate call that can be reused by the next one.
+     */
+    private static final class PopulationContext {
+
+        final BlockPos.MutableBlockPos biomePos = new BlockPos.MutableBlockPos();
+        final List<String> flags = new ArrayList<>();
+        final List<Populator> populators = new ArrayList<>();
+        @Nullable private SoftBufferExtentViewDownsize volume;
+
+        Extent target(Extent extent, Vector3i min) {
+            if (this.volume == null || this.volume.getBackingExtent() != extent) {
+                this.volume = new SoftBufferExtentViewDownsize(extent, min, min.add(15, 255, 15), min.sub(8, 0, 8), min.add(23, 255, 23));
+            } else {
+                this.volume.reuse(min.getX(), min.getY(), min.getZ(), min.getX() - 8, min.getY(), min.getZ() - 8);
+            }
+            return this.volume;
+        }
+    }
+
 }
@@ -0,0 +1,285 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.schematic;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.spongepowered.api.CatalogType;
+import org.spongepowered.api.world.schematic.Palette;
+import org.spongepowered.api.world.schematic.PaletteType;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+/**
+ * A local palette that maps ids to entries through a plain array and entries
+ * to ids through an identity keyed, open addressing hash table, so neither
+ * direction needs to box the ids.
+ *
+ * <p>Entries are compared by identity, which holds for block states and
+ * biomes as both are only ever created once.</p>
+ */
+public class ArrayPalette<T extends CatalogType> implements Palette<T> {
+
+    private static final int DEFAULT_ALLOCATION_SIZE = 64;
+    private static final int NO_ID = -1;
+
+    private final PaletteType<T> paletteType;
+    private final BitSet allocation;
+    private Object[] entries;
+    private int maxId = 0;
+
+    // The table mapping entries to ids, using linear probing. Kept at most half full.
+    private Object[] keys;
+    private int[] values;
+    private int size;
+
+    public ArrayPalette(PaletteType<T> paletteType) {
+        this(paletteType, DEFAULT_ALLOCATION_SIZE);
+    }
+
+    public ArrayPalette(PaletteType<T> paletteType, int expectedSize) {
+        this.paletteType = checkNotNull(paletteType, "paletteType");
+        final int capacity = Math.max(DEFAULT_ALLOCATION_SIZE, expectedSize);
+        this.allocation = new BitSet(capacity);
+        this.entries = new Object[capacity];
+        this.keys = new Object[tableSize(capacity)];
+        this.values = new int[this.keys.length];
+    }
+
+    @Override
+    public PaletteType<T> getType() {
+        return this.paletteType;
+    }
+
+    @Override
+    public int getHighestId() {
+        return this.maxId;
+    }
+
+    @Override
+    public Optional<Integer> get(T state) {
+        final int id = getId(state);
+        return id == NO_ID ? Optional.empty() : Optional.of(id);
+    }
+
+    @Override
+    public int getOrAssign(T state) {
+        final int id = getId(state);
+        if (id != NO_ID) {
+            return id;
+        }
+        final int next = this.allocation.nextClearBit(0);
+        assign(state, next);
+        return next;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Optional<T> get(int id) {
+        return Optional.ofNullable(id >= 0 && id < this.entries.length ? (T) this.entries[id] : null);
+    }
+
+    /**
+     * Gets the id of the given entry.
+     *
+     * @param state The entry
+     * @return The id, or -1 if the entry has no id in this palette
+     */
+    public int getId(T state) {
+        final Object[] keys = this.keys;
+        final int mask = keys.length - 1;
+        for (int index = hash(state) & mask; ; index = index + 1 & mask) {
+            final Object key = keys[index];
+            if (key == state) {
+                return this.values[index];
+            }
+            if (key == null) {
+                return NO_ID;
+            }
+        }
+    }
+
+    /**
+     * Assigns the given id to the given entry, replacing any entry that
+     * previously had the id.
+     *
+     * @param state The entry
+     * @param id The id
+     * @throws IllegalArgumentException If the entry already has another id
+     */
+    public void assign(T state, int id) {
+        checkNotNull(state, "state");
+        checkArgument(id >= 0, "id must not be negative");
+        final int oldId = getId(state);
+        if (oldId == id) {
+            return;
+        }
+        checkArgument(oldId == NO_ID, "value already present: %s", state);
+        if (id >= this.entries.length) {
+            final Object[] entries = new Object[Math.max(id + 1, this.entries.length * 2)];
+            System.arraycopy(this.entries, 0, entries, 0, this.entries.length);
+            this.entries = entries;
+        }
+        @Nullable final Object previous = this.entries[id];
+        if (previous != null) {
+            removeKey(previous);
+        }
+        this.entries[id] = state;
+        this.allocation.set(id);
+        if (this.maxId < id) {
+            this.maxId = id;
+        }
+        putKey(state, id);
+    }
+
+    @Override
+    public boolean remove(T state) {
+        final int id = getId(state);
+        if (id == NO_ID) {
+            return false;
+        }
+        removeKey(state);
+        this.entries[id] = null;
+        this.allocation.clear(id);
+        if (id == this.maxId) {
+            this.maxId = Math.max(0, this.allocation.previousSetBit(this.maxId));
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Collection<T> getEntries() {
+        final List<T> entries = new ArrayList<>(this.size);
+        for (int id = this.allocation.nextSetBit(0); id >= 0; id = this.allocation.nextSetBit(id + 1)) {
+            entries.add((T) this.entries[id]);
+        }
+        return Collections.unmodifiableList(entries);
+    }
+
+    private void putKey(Object key, int id) {
+        if ((this.size + 1) * 2 > this.keys.length) {
+            rehash(this.keys.length * 2);
+        }
+        final int mask = this.keys.length - 1;
+        int index = hash(key) & mask;
+        while (this.keys[index] != null) {
+            index = index + 1 & mask;
+        }
+        this.keys[index] = key;
+        this.values[index] = id;
+        this.size++;
+    }
+
+    private void removeKey(Object key) {
+        final Object[] keys = this.keys;
+        final int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (keys[index] != key) {
+            if (keys[index] == null) {
+                return;
+            }
+            index = index + 1 & mask;
+        }
+        // Shift the following entries of the probe sequence back, so lookups don't stop early
+        int hole = index;
+        for (int next = hole + 1 & mask; keys[next] != null; next = next + 1 & mask) {
+            final int ideal = hash(keys[next]) & mask;
+            if ((next - ideal & mask) >= (next - hole & mask)) {
+                keys[hole] = keys[next];
+                this.values[hole] = this.values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = null;
+        this.size--;
+    }
+
+    private void rehash(int newLength) {
+        final Object[] oldKeys = this.keys;
+        final int[] oldValues = this.values;
+        this.keys = new Object[newLength];
+        this.values = new int[newLength];
+        final int mask = newLength - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            final Object key = oldKeys[i];
+            if (key != null) {
+                int index = hash(key) & mask;
+                while (this.keys[index] != null) {
+                    index = index + 1 & mask;
+                }
+                this.keys[index] = key;
+                this.values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private static int tableSize(int expectedSize) {
+        return Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+    }
+
+    private static int hash(Object key) {
+        final int hash = System.identityHashCode(key) * 0x9E3779B9;
+        return hash ^ hash >>> 16;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final ArrayPalette<?> that = (ArrayPalette<?>) o;
+        if (this.maxId != that.maxId || !this.allocation.equals(that.allocation) || !this.paletteType.equals(that.paletteType)) {
+            return false;
+        }
+        for (int id = this.allocation.nextSetBit(0); id >= 0; id = this.allocation.nextSetBit(id + 1)) {
+            if (!this.entries[id].equals(that.entries[id])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(this.allocation, this.paletteType, this.maxId);
+        for (int id = this.allocation.nextSetBit(0); id >= 0; id = this.allocation.nextSetBit(id + 1)) {
+            result = 31 * result + this.entries[id].hashCode();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,356 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.schematic;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.flowpowered.math.vector.Vector3d;
+import com.flowpowered.math.vector.Vector3i;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.minecraft.util.math.ChunkPos;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.tileentity.TileEntityArchetype;
+import org.spongepowered.api.entity.EntityArchetype;
+import org.spongepowered.api.event.CauseStackManager;
+import org.spongepowered.api.event.cause.EventContextKeys;
+import org.spongepowered.api.event.cause.entity.spawn.SpawnTypes;
+import org.spongepowered.api.scheduler.Task;
+import org.spongepowered.api.world.BlockChangeFlag;
+import org.spongepowered.api.world.Location;
+import org.spongepowered.api.world.World;
+import org.spongepowered.api.world.extent.MutableBlockVolume;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.entity.SpongeEntityArchetype;
+import org.spongepowered.common.event.tracking.phase.plugin.BasicPluginContext;
+import org.spongepowered.common.event.tracking.phase.plugin.PluginPhase;
+import org.spongepowered.common.world.extent.worker.BulkBlockWriter;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+/**
+ * Pastes a {@link SpongeArchetypeVolume} into a world one destination chunk
+ * at a time.
+ *
+ * <p>The blocks for each destination chunk are read from the archetype on
+ * worker threads, a bounded number of chunks ahead of the chunk being
+ * committed. Committing the blocks, tile entities and entities into the world
+ * always happens on the main thread, either all at once through
+ * {@link #complete()} or spread over several ticks with a time budget per
+ * tick through {@link #start(Object, float)}. When bulk block workers are
+ * enabled and the change flag neither updates neighbors nor performs
+ * physics, each chunk is committed through a {@link BulkBlockWriter}.</p>
+ */
+public final class SpongeArchetypePaste implements Consumer<Task> {
+
+    private static final int PREPARE_AHEAD = 64;
+    private static final ExecutorService PREPARE_EXECUTOR = Executors.newFixedThreadPool(
+        Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+        new ThreadFactoryBuilder().setNameFormat("Sponge - Schematic Paste Thread #%d").setDaemon(true).build());
+
+    private final SpongeArchetypeVolume volume;
+    private final Location<World> location;
+    private final BlockChangeFlag changeFlag;
+    private final Vector3i min;
+    private final Vector3i max;
+    private final int chunkXMin;
+    private final int chunkZMin;
+    private final int chunksZ;
+    private final int totalChunks;
+    private final ListMultimap<Long, Map.Entry<Vector3i, TileEntityArchetype>> tilesByChunk = ArrayListMultimap.create();
+    private final CompletableFuture<BlockState[]>[] prepared;
+    private final CompletableFuture<SpongeArchetypePaste> completion = new CompletableFuture<>();
+
+    private int nextToPrepare;
+    private int nextToCommit;
+    private long tickTimeLimit;
+    private volatile boolean cancelled;
+    @Nullable private Task task;
+
+    @SuppressWarnings("unchecked")
+    SpongeArchetypePaste(final SpongeArchetypeVolume volume, final Location<World> location, final BlockChangeFlag changeFlag) {
+        this.volume = volume;
+        this.location = location;
+        this.changeFlag = changeFlag;
+        final MutableBlockVolume backing = volume.getBacking();
+        this.min = backing.getBlockMin().add(location.getBlockPosition());
+        this.max = backing.getBlockMax().add(location.getBlockPosition());
+        this.chunkXMin = this.min.getX() >> 4;
+        this.chunkZMin = this.min.getZ() >> 4;
+        this.chunksZ = (this.max.getZ() >> 4) - this.chunkZMin + 1;
+        this.totalChunks = ((this.max.getX() >> 4) - this.chunkXMin + 1) * this.chunksZ;
+        this.prepared = new CompletableFuture[this.totalChunks];
+        for (final Map.Entry<Vector3i, TileEntityArchetype> entry : volume.getTileEntityArchetypes().entrySet()) {
+            final Vector3i target = location.getBlockPosition().add(entry.getKey());
+            this.tilesByChunk.put(ChunkPos.asLong(target.getX() >> 4, target.getZ() >> 4), entry);
+        }
+    }
+
+    /**
+     * Commits the whole paste immediately. Must be called from the main
+     * thread.
+     */
+    public void complete() {
+        checkState(this.task == null, "The paste is already running over several ticks");
+        try {
+            try (BasicPluginContext context = PluginPhase.State.BLOCK_WORKER.createPhaseContext()
+                .source(this)) {
+                context.buildAndSwitch();
+                while (!this.cancelled && this.nextToCommit < this.totalChunks) {
+                    this.commitNext();
+                }
+            }
+            this.finish();
+        } catch (final RuntimeException e) {
+            this.fail(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Starts committing the paste over the following ticks, spending at most
+     * the given fraction of a tick on it per tick.
+     *
+     * @param plugin The plugin owning the paste task
+     * @param tickPercent The fraction of a tick to spend per tick
+     * @return This paste, for chaining
+     */
+    public SpongeArchetypePaste start(final Object plugin, final float tickPercent) {
+        checkArgument(tickPercent > 0 && tickPercent <= 1, "tickPercent must be in the range (0, 1]");
+        checkState(this.task == null, "The paste was already started");
+        // At least a millisecond, otherwise small fractions would never commit anything
+        this.tickTimeLimit = Math.max(1, Math.round(Sponge.getScheduler().getPreferredTickInterval() * tickPercent));
+        this.task = Sponge.getScheduler().createTaskBuilder()
+            .name("Sponge - Schematic Paste")
+            .intervalTicks(1)
+            .execute(this)
+            .submit(plugin);
+        return this;
+    }
+
+    @Override
+    public void accept(final Task task) {
+        if (this.cancelled) {
+            task.cancel();
+            return;
+        }
+        final long start = System.currentTimeMillis();
+        try {
+            // All blocks committed during this tick are captured as a single batch
+            try (BasicPluginContext context = PluginPhase.State.BLOCK_WORKER.createPhaseContext()
+                .source(this)) {
+                context.buildAndSwitch();
+                while (!this.cancelled && this.nextToCommit < this.totalChunks && System.currentTimeMillis() - start < this.tickTimeLimit) {
+                    this.prepareAhead();
+                    // Rather wait for the worker threads on the next tick than stall this one
+                    if (!this.prepared[this.nextToCommit].isDone()) {
+                        break;
+                    }
+                    this.commitNext();
+                }
+            }
+            if (this.cancelled || this.nextToCommit == this.totalChunks) {
+                task.cancel();
+                this.finish();
+            }
+        } catch (final RuntimeException e) {
+            task.cancel();
+            SpongeImpl.getLogger().error("Failed to paste a schematic into world {}", this.location.getExtent().getName(), e);
+            this.fail(e);
+        }
+    }
+
+    /**
+     * Cancels the paste. Chunks that were already committed are left as they
+     * are.
+     */
+    public void cancel() {
+        if (this.cancelled || this.completion.isDone()) {
+            return;
+        }
+        this.cancelled = true;
+        if (this.task != null) {
+            this.task.cancel();
+        }
+        // The futures are only cancelled, not cleared, as this may be called
+        // while the main thread is committing
+        for (int i = this.nextToCommit; i < this.nextToPrepare; i++) {
+            final CompletableFuture<BlockState[]> future = this.prepared[i];
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+        this.completion.cancel(false);
+    }
+
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    public boolean isDone() {
+        return this.completion.isDone();
+    }
+
+    /**
+     * Gets a future completed once all blocks, tile entities and entities
+     * were pasted, or cancelled if the paste is cancelled.
+     *
+     * @return The completion future
+     */
+    public CompletableFuture<SpongeArchetypePaste> getCompletion() {
+        return this.completion;
+    }
+
+    public int getCommittedChunks() {
+        return this.nextToCommit;
+    }
+
+    public int getTotalChunks() {
+        return this.totalChunks;
+    }
+
+    /**
+     * Gets the fraction of destination chunks that have been committed.
+     *
+     * @return The progress between 0 and 1
+     */
+    public double getProgress() {
+        return this.totalChunks == 0 ? 1 : (double) this.nextToCommit / this.totalChunks;
+    }
+
+    private void prepareAhead() {
+        while (!this.cancelled && this.nextToPrepare < this.totalChunks && this.nextToPrepare - this.nextToCommit < PREPARE_AHEAD) {
+            final int index = this.nextToPrepare++;
+            this.prepared[index] = CompletableFuture.supplyAsync(() -> this.read(index), PREPARE_EXECUTOR);
+        }
+    }
+
+    private void commitNext() {
+        this.prepareAhead();
+        final int index = this.nextToCommit;
+        final BlockState[] blocks;
+        try {
+            blocks = this.prepared[index].join();
+        } catch (final CancellationException e) {
+            if (this.cancelled) {
+                return;
+            }
+            throw e;
+        } catch (final CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        this.prepared[index] = null;
+        final int chunkX = this.chunkXMin + index / this.chunksZ;
+        final int chunkZ = this.chunkZMin + index % this.chunksZ;
+        final int xMin = Math.max(this.min.getX(), chunkX << 4);
+        final int xMax = Math.min(this.max.getX(), (chunkX << 4) + 15);
+        final int zMin = Math.max(this.min.getZ(), chunkZ << 4);
+        final int zMax = Math.min(this.max.getZ(), (chunkZ << 4) + 15);
+        final World world = this.location.getExtent();
+        // The bulk writer doesn't notify neighbors or run block physics
+        final BulkBlockWriter writer = this.changeFlag.updateNeighbors() || this.changeFlag.performBlockPhysics()
+            || this.changeFlag.notifyObservers() ? null : BulkBlockWriter.of(world);
+        if (writer != null) {
+            final int yMin = this.min.getY();
+            final int sizeX = xMax - xMin + 1;
+            final int sizeZ = zMax - zMin + 1;
+            writer.write(xMin, yMin, zMin, xMax, this.max.getY(), zMax,
+                (x, y, z) -> blocks[((y - yMin) * sizeZ + z - zMin) * sizeX + x - xMin], this);
+        } else {
+            int i = 0;
+            for (int y = this.min.getY(); y <= this.max.getY(); y++) {
+                for (int z = zMin; z <= zMax; z++) {
+                    for (int x = xMin; x <= xMax; x++) {
+                        world.setBlock(x, y, z, blocks[i++], this.changeFlag);
+                    }
+                }
+            }
+        }
+        for (final Map.Entry<Vector3i, TileEntityArchetype> entry : this.tilesByChunk.get(ChunkPos.asLong(chunkX, chunkZ))) {
+            entry.getValue().apply(this.location.add(entry.getKey()));
+        }
+        this.nextToCommit++;
+    }
+
+    private BlockState[] read(final int index) {
+        final int chunkX = this.chunkXMin + index / this.chunksZ;
+        final int chunkZ = this.chunkZMin + index % this.chunksZ;
+        final int xMin = Math.max(this.min.getX(), chunkX << 4);
+        final int xMax = Math.min(this.max.getX(), (chunkX << 4) + 15);
+        final int zMin = Math.max(this.min.getZ(), chunkZ << 4);
+        final int zMax = Math.min(this.max.getZ(), (chunkZ << 4) + 15);
+        final BlockState[] blocks = new BlockState[(xMax - xMin + 1) * (this.max.getY() - this.min.getY() + 1) * (zMax - zMin + 1)];
+        final MutableBlockVolume backing = this.volume.getBacking();
+        final Vector3i offset = this.location.getBlockPosition();
+        int i = 0;
+        // Same order the blocks are committed in, so sections are filled one after the other
+        for (int y = this.min.getY(); y <= this.max.getY(); y++) {
+            for (int z = zMin; z <= zMax; z++) {
+                for (int x = xMin; x <= xMax; x++) {
+                    blocks[i++] = backing.getBlock(x - offset.getX(), y - offset.getY(), z - offset.getZ());
+                }
+            }
+        }
+        return blocks;
+    }
+
+    private void finish() {
+        if (this.cancelled) {
+            return;
+        }
+        if (!this.volume.getEntityArchetypes().isEmpty()) {
+            try (final CauseStackManager.StackFrame frame = Sponge.getCauseStackManager().pushCauseFrame()) {
+                frame.addContext(EventContextKeys.SPAWN_TYPE, SpawnTypes.PLUGIN);
+                for (final EntityArchetype entity : this.volume.getEntityArchetypes()) {
+                    final Vector3d position = ((SpongeEntityArchetype) entity).getPosition().get();
+                    entity.apply(this.location.add(position));
+                }
+            }
+        }
+        this.completion.complete(this);
+    }
+
+    private void fail(final Throwable throwable) {
+        this.cancelled = true;
+        for (int i = this.nextToCommit; i < this.nextToPrepare; i++) {
+            if (this.prepared[i] != null) {
+                this.prepared[i].cancel(false);
+            }
+        }
+        this.completion.completeExceptionally(throwable);
+    }
+
+}
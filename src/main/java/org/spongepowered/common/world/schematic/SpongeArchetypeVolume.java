@@ -30,13 +30,9 @@
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Maps;
-import org.spongepowered.api.Sponge;
 import org.spongepowered.api.block.BlockState;
 import org.spongepowered.api.block.tileentity.TileEntityArchetype;
 import org.spongepowered.api.entity.EntityArchetype;
-import org.spongepowered.api.event.CauseStackManager;
-import org.spongepowered.api.event.cause.EventContextKeys;
-import org.spongepowered.api.event.cause.entity.spawn.SpawnTypes;
 import org.spongepowered.api.util.DiscreteTransform3;
 import org.spongepowered.api.world.BlockChangeFlag;
 import org.spongepowered.api.world.Location;
@@ -127,23 +123,22 @@ public MutableBlockVolumeWorker<? extends ArchetypeVolume> getBlockWorker() {
 
     @Override
     public void apply(Location<World> location, BlockChangeFlag changeFlag) {
-        this.backing.getBlockWorker().iterate((v, x, y, z) -> {
-            location.getExtent().setBlock(x + location.getBlockX(), y + location.getBlockY(), z + location.getBlockZ(), v.getBlock(x, y, z), changeFlag);
-        });
-        for (Vector3i pos : this.tiles.keySet()) {
-            TileEntityArchetype archetype = this.tiles.get(pos);
-            archetype.apply(location.add(pos));
-        }
-        if (!this.entities.isEmpty()) {
-            try (CauseStackManager.StackFrame frame = Sponge.getCauseStackManager().pushCauseFrame()) {
-                frame.addContext(EventContextKeys.SPAWN_TYPE, SpawnTypes.PLUGIN);
-                for (EntityArchetype entity : this.entities) {
-                    final Vector3d vector3d = ((SpongeEntityArchetype) entity).getPosition().get();
-                    final Location<World> target = location.add(vector3d);
-                    entity.apply(target);
-                }
-            }
-        }
+        new SpongeArchetypePaste(this, location, changeFlag).complete();
+    }
+
+    /**
+     * Applies this archetype volume over several ticks, committing one
+     * destination chunk after the other while spending at most the given
+     * fraction of each tick on it.
+     *
+     * @param location The location to apply the volume at
+     * @param changeFlag The block change flag to set the blocks with
+     * @param plugin The plugin owning the paste task
+     * @param tickPercent The fraction of a tick to spend per tick
+     * @return The running paste, to follow its progress or cancel it
+     */
+    public SpongeArchetypePaste applyGradually(Location<World> location, BlockChangeFlag changeFlag, Object plugin, float tickPercent) {
+        return new SpongeArchetypePaste(this, location, changeFlag).start(plugin, tickPercent);
     }
 
     @Override
@@ -0,0 +1,443 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.storage;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Multisets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.BlockDirt;
+import net.minecraft.block.BlockStone;
+import net.minecraft.block.material.MapColor;
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.init.Blocks;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.BitArray;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.IBlockAccess;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.BlockStatePaletteRegistry;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.IBlockStatePalette;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import net.minecraft.world.storage.MapData;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.bridge.optimization.MapSectionSnapshotBridge;
+import org.spongepowered.common.bridge.optimization.OptimizedMapDataBridge;
+import org.spongepowered.common.bridge.world.chunk.ChunkProviderServerBridge;
+import org.spongepowered.common.util.OptimizationStats;
+
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+
+/**
+ * Samples the colors of maps held by players on worker threads, replacing
+ * {@code ItemMap#updateMapData}.
+ *
+ * <p>The main thread picks the same columns of the map as vanilla and takes
+ * snapshots of the loaded chunks under them. The blocks of a chunk section
+ * are only copied again after they changed. The workers compute the colors
+ * from the snapshots, and the colors that differ from the map are written
+ * back on the main thread at the end of the tick, which also marks them as
+ * dirty for the viewers of the map. Vanilla samples the next column right
+ * away when a column changed, here it is sampled by the next pass instead.
+ * Chunks that are not loaded are skipped instead of being loaded.</p>
+ *
+ * <p>Except for the sampling itself, all methods of this class have to be
+ * called on the main thread.</p>
+ */
+public final class MapColorSampler {
+
+    private static final IBlockState AIR = Blocks.AIR.getDefaultState();
+    private static final int MAX_PENDING_REQUESTS = 256;
+    private static final LongAdder SCHEDULED = OptimizationStats.counter("async-map-rendering.scheduled");
+    private static final LongAdder DROPPED = OptimizationStats.counter("async-map-rendering.dropped");
+    private static final LongAdder CHANGED_PIXELS = OptimizationStats.counter("async-map-rendering.changed-pixels");
+
+    private static final Queue<Result> FINISHED = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger PENDING = new AtomicInteger();
+    // The columns next to the ones that changed in the last pass, sampled by the next pass
+    private static final Map<MapData, BitSet> FOLLOW_UPS = new WeakHashMap<>();
+    // Shared by all maps sampled during the current tick
+    private static final Map<WorldServer, Long2ObjectMap<ChunkSnapshot>> TICK_SNAPSHOTS = new IdentityHashMap<>();
+
+    @Nullable private static ExecutorService executor;
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            final int threads = SpongeImpl.getGlobalConfigAdapter().getConfig().getOptimizations().getAsyncMapRenderingCategory().getNumThreads();
+            executor = Executors.newFixedThreadPool(Math.max(1, threads),
+                new ThreadFactoryBuilder().setNameFormat("Sponge - Map Rendering Thread #%d").setDaemon(true).build());
+        }
+        return executor;
+    }
+
+    /**
+     * Starts sampling the colors of the map around the player holding it.
+     *
+     * @param world The world of the player
+     * @param viewer The player holding the map
+     * @param data The map
+     */
+    public static void schedule(final WorldServer world, final Entity viewer, final MapData data) {
+        if (!(viewer instanceof EntityPlayer) || world.provider.getDimension() != ((OptimizedMapDataBridge) data).mapOptimizationBridge$getDimension()) {
+            return;
+        }
+        final int scale = 1 << data.scale;
+        final int viewerX = MathHelper.floor(viewer.posX - (double) data.xCenter) / scale + 64;
+        final int viewerZ = MathHelper.floor(viewer.posZ - (double) data.zCenter) / scale + 64;
+        final boolean nether = world.provider.isNether();
+        final int radius = nether ? 128 / scale / 2 : 128 / scale;
+        final MapData.MapInfo info = data.getMapInfo((EntityPlayer) viewer);
+        ++info.step;
+        if (PENDING.get() >= MAX_PENDING_REQUESTS) {
+            DROPPED.increment();
+            return;
+        }
+
+        final BitSet followUps = FOLLOW_UPS.get(data);
+        final IntArrayList columns = new IntArrayList();
+        for (int x = Math.max(viewerX - radius + 1, 0); x < Math.min(viewerX + radius, 128); x++) {
+            if ((x & 15) == (info.step & 15) || followUps != null && followUps.get(x)) {
+                columns.add(x);
+            }
+        }
+        if (followUps != null) {
+            followUps.clear();
+        }
+        final int minZ = Math.max(viewerZ - radius - 1, -1);
+        final int maxZ = Math.min(viewerZ + radius, 128);
+        if (columns.isEmpty() || minZ >= maxZ) {
+            return;
+        }
+
+        final Long2ObjectMap<ChunkSnapshot> snapshots = TICK_SNAPSHOTS.computeIfAbsent(world, key -> new Long2ObjectOpenHashMap<>());
+        final ChunkProviderServerBridge chunkProvider = (ChunkProviderServerBridge) world.getChunkProvider();
+        final Long2ObjectMap<ChunkSnapshot> chunks = new Long2ObjectOpenHashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            final int chunkX = (data.xCenter / scale + columns.getInt(i) - 64) * scale >> 4;
+            for (int z = minZ; z < maxZ; z++) {
+                final int chunkZ = (data.zCenter / scale + z - 64) * scale >> 4;
+                final long key = ChunkPos.asLong(chunkX, chunkZ);
+                ChunkSnapshot snapshot = snapshots.get(key);
+                if (snapshot == null && !snapshots.containsKey(key)) {
+                    final Chunk chunk = chunkProvider.bridge$getLoadedChunkWithoutMarkingActive(chunkX, chunkZ);
+                    snapshot = chunk == null ? null : new ChunkSnapshot(chunk);
+                    snapshots.put(key, snapshot);
+                }
+                if (snapshot != null) {
+                    chunks.put(key, snapshot);
+                }
+            }
+        }
+
+        final Request request = new Request(data, columns.toIntArray(), minZ, maxZ, viewerX, viewerZ, radius, scale, nether, chunks);
+        PENDING.incrementAndGet();
+        SCHEDULED.increment();
+        getExecutor().execute(() -> {
+            try {
+                FINISHED.add(request.sample());
+            } catch (final Exception e) {
+                SpongeImpl.getLogger().error("Failed to sample the colors of {}", data.mapName, e);
+            } finally {
+                PENDING.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Writes the colors sampled since the last call into their maps.
+     */
+    public static void applyFinished() {
+        TICK_SNAPSHOTS.clear();
+        Result result;
+        while ((result = FINISHED.poll()) != null) {
+            final MapData data = result.data;
+            for (int i = 0; i < result.size; i++) {
+                final int index = result.indices[i];
+                if (data.colors[index] != result.colors[i]) {
+                    data.colors[index] = result.colors[i];
+                    data.updateMapData(index & 127, index >> 7);
+                    FOLLOW_UPS.computeIfAbsent(data, key -> new BitSet(128)).set((index & 127) + 1);
+                    CHANGED_PIXELS.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * An immutable copy of the blocks of a chunk section.
+     */
+    public static final class SectionSnapshot {
+
+        private final BitArray storage;
+        @Nullable private final IBlockState[] states;
+        @Nullable private final IBlockStatePalette globalPalette;
+
+        public SectionSnapshot(final int bits, final IBlockStatePalette palette, final BitArray storage) {
+            final long[] data = storage.getBackingLongArray();
+            this.storage = new BitArray(bits, 4096);
+            System.arraycopy(data, 0, this.storage.getBackingLongArray(), 0, data.length);
+            if (palette instanceof BlockStatePaletteRegistry) {
+                // Backed by the global block state ids, which don't change after startup
+                this.states = null;
+                this.globalPalette = palette;
+            } else {
+                this.states = new IBlockState[1 << bits];
+                for (int id = 0; id < this.states.length; id++) {
+                    this.states[id] = palette.getBlockState(id);
+                }
+                this.globalPalette = null;
+            }
+        }
+
+        IBlockState get(final int x, final int y, final int z) {
+            final int id = this.storage.getAt(y << 8 | z << 4 | x);
+            final IBlockState state = this.states == null ? this.globalPalette.getBlockState(id) : this.states[id];
+            return state == null ? AIR : state;
+        }
+    }
+
+    private static final class ChunkSnapshot {
+
+        final int x;
+        final int z;
+        private final int[] heightMap;
+        private final SectionSnapshot[] sections;
+
+        ChunkSnapshot(final Chunk chunk) {
+            this.x = chunk.x;
+            this.z = chunk.z;
+            this.heightMap = chunk.getHeightMap().clone();
+            final ExtendedBlockStorage[] storage = chunk.getBlockStorageArray();
+            this.sections = new SectionSnapshot[storage.length];
+            for (int i = 0; i < storage.length; i++) {
+                if (storage[i] != Chunk.NULL_BLOCK_STORAGE && !storage[i].isEmpty()) {
+                    this.sections[i] = ((MapSectionSnapshotBridge) storage[i].getData()).asyncMapRenderingBridge$getSnapshot();
+                }
+            }
+        }
+
+        int getHeightValue(final int x, final int z) {
+            return this.heightMap[z << 4 | x];
+        }
+
+        IBlockState getBlockState(final int x, final int y, final int z) {
+            if (y < 0 || y >> 4 >= this.sections.length) {
+                return AIR;
+            }
+            final SectionSnapshot section = this.sections[y >> 4];
+            return section == null ? AIR : section.get(x, y & 15, z);
+        }
+    }
+
+    private static final class Request implements IBlockAccess {
+
+        final MapData data;
+        private final int[] columns;
+        private final int minZ;
+        private final int maxZ;
+        private final int viewerX;
+        private final int viewerZ;
+        private final int radius;
+        private final int scale;
+        private final int centerX;
+        private final int centerZ;
+        private final boolean nether;
+        private final Long2ObjectMap<ChunkSnapshot> chunks;
+
+        Request(final MapData data, final int[] columns, final int minZ, final int maxZ, final int viewerX, final int viewerZ, final int radius,
+            final int scale, final boolean nether, final Long2ObjectMap<ChunkSnapshot> chunks) {
+            this.data = data;
+            this.columns = columns;
+            this.minZ = minZ;
+            this.maxZ = maxZ;
+            this.viewerX = viewerX;
+            this.viewerZ = viewerZ;
+            this.radius = radius;
+            this.scale = scale;
+            this.centerX = data.xCenter;
+            this.centerZ = data.zCenter;
+            this.nether = nether;
+            this.chunks = chunks;
+        }
+
+        // Same as the sampling in ItemMap#updateMapData, but reading from the snapshots
+        Result sample() {
+            final Result result = new Result(this.data, this.columns.length * (this.maxZ - this.minZ));
+            final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+            final int area = this.scale * this.scale;
+            for (final int x : this.columns) {
+                double previousHeight = 0.0D;
+                for (int z = this.minZ; z < this.maxZ; z++) {
+                    final int offsetX = x - this.viewerX;
+                    final int offsetZ = z - this.viewerZ;
+                    final boolean edge = offsetX * offsetX + offsetZ * offsetZ > (this.radius - 2) * (this.radius - 2);
+                    final int blockX = (this.centerX / this.scale + x - 64) * this.scale;
+                    final int blockZ = (this.centerZ / this.scale + z - 64) * this.scale;
+                    final ChunkSnapshot chunk = this.chunks.get(ChunkPos.asLong(blockX >> 4, blockZ >> 4));
+                    if (chunk == null) {
+                        continue;
+                    }
+                    final Multiset<MapColor> colors = HashMultiset.create();
+                    int liquidDepth = 0;
+                    double height = 0.0D;
+                    if (this.nether) {
+                        int noise = blockX + blockZ * 231871;
+                        noise = noise * noise * 31287121 + noise * 11;
+                        if ((noise >> 20 & 1) == 0) {
+                            colors.add(Blocks.DIRT.getDefaultState().withProperty(BlockDirt.VARIANT, BlockDirt.DirtType.DIRT)
+                                .getMapColor(this, BlockPos.ORIGIN), 10);
+                        } else {
+                            colors.add(Blocks.STONE.getDefaultState().withProperty(BlockStone.VARIANT, BlockStone.EnumType.STONE)
+                                .getMapColor(this, BlockPos.ORIGIN), 100);
+                        }
+                        height = 100.0D;
+                    } else {
+                        for (int dx = 0; dx < this.scale; dx++) {
+                            for (int dz = 0; dz < this.scale; dz++) {
+                                final int localX = dx + (blockX & 15);
+                                final int localZ = dz + (blockZ & 15);
+                                int y = chunk.getHeightValue(localX, localZ) + 1;
+                                IBlockState state = AIR;
+                                if (y > 1) {
+                                    do {
+                                        --y;
+                                        state = chunk.getBlockState(localX, y, localZ);
+                                        pos.setPos((chunk.x << 4) + localX, y, (chunk.z << 4) + localZ);
+                                    } while (state.getMapColor(this, pos) == MapColor.AIR && y > 0);
+                                    if (y > 0 && state.getMaterial().isLiquid()) {
+                                        int belowY = y - 1;
+                                        IBlockState below;
+                                        do {
+                                            below = chunk.getBlockState(localX, belowY--, localZ);
+                                            ++liquidDepth;
+                                        } while (belowY > 0 && below.getMaterial().isLiquid());
+                                    }
+                                } else {
+                                    state = Blocks.BEDROCK.getDefaultState();
+                                }
+                                height += (double) y / (double) area;
+                                colors.add(state.getMapColor(this, pos));
+                            }
+                        }
+                    }
+
+                    liquidDepth = liquidDepth / area;
+                    double shade = (height - previousHeight) * 4.0D / (double) (this.scale + 4) + ((double) (x + z & 1) - 0.5D) * 0.4D;
+                    int brightness = 1;
+                    if (shade > 0.6D) {
+                        brightness = 2;
+                    }
+                    if (shade < -0.6D) {
+                        brightness = 0;
+                    }
+                    final MapColor color = Iterables.getFirst(Multisets.copyHighestCountFirst(colors), MapColor.AIR);
+                    if (color == MapColor.WATER) {
+                        shade = (double) liquidDepth * 0.1D + (double) (x + z & 1) * 0.2D;
+                        brightness = 1;
+                        if (shade < 0.5D) {
+                            brightness = 2;
+                        }
+                        if (shade > 0.9D) {
+                            brightness = 0;
+                        }
+                    }
+                    previousHeight = height;
+                    if (z >= 0 && offsetX * offsetX + offsetZ * offsetZ < this.radius * this.radius && (!edge || (x + z & 1) != 0)) {
+                        result.add(x + z * 128, (byte) (color.colorIndex * 4 + brightness));
+                    }
+                }
+            }
+            return result;
+        }
+
+        // Block access for map colors that depend on the surrounding blocks
+
+        @Nullable
+        @Override
+        public TileEntity getTileEntity(final BlockPos pos) {
+            return null;
+        }
+
+        @Override
+        public IBlockState getBlockState(final BlockPos pos) {
+            final ChunkSnapshot chunk = this.chunks.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+            return chunk == null ? AIR : chunk.getBlockState(pos.getX() & 15, pos.getY(), pos.getZ() & 15);
+        }
+
+        @Override
+        public boolean isAirBlock(final BlockPos pos) {
+            return this.getBlockState(pos).getMaterial() == Material.AIR;
+        }
+
+        @Override
+        public int getStrongPower(final BlockPos pos, final EnumFacing direction) {
+            return 0;
+        }
+    }
+
+    private static final class Result {
+
+        final MapData data;
+        final int[] indices;
+        final byte[] colors;
+        int size;
+
+        Result(final MapData data, final int capacity) {
+            this.data = data;
+            this.indices = new int[capacity];
+            this.colors = new byte[capacity];
+        }
+
+        void add(final int index, final byte color) {
+            this.indices[this.size] = index;
+            this.colors[this.size++] = color;
+        }
+    }
+
+    private MapColorSampler() {
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.spongepowered.api.data.DataContainer;
+import org.spongepowered.api.data.DataQuery;
+import org.spongepowered.api.data.DataView;
+
+public class MemoryDataViewTest {
+
+    private static final DataQuery FOO = DataQuery.of("foo");
+    private static final DataQuery NESTED_BAR = DataQuery.of("nested", "bar");
+    private static final DataQuery NESTED_ARRAY = DataQuery.of("nested", "array");
+
+    private static DataContainer createContainer(DataView.SafetyMode safety) {
+        return new MemoryDataContainer(safety)
+                .set(FOO, "foo")
+                .set(NESTED_BAR, 1)
+                .set(NESTED_ARRAY, new int[] {1, 2, 3});
+    }
+
+    @Test
+    public void testCopyIsEqual() {
+        final DataContainer container = createContainer(DataView.SafetyMode.ALL_DATA_CLONED);
+        final DataContainer copy = container.copy();
+        assertEquals(container, copy);
+        assertEquals(container.getValues(true).keySet(), copy.getValues(true).keySet());
+    }
+
+    @Test
+    public void testCopyIsolatedFromOriginal() {
+        final DataContainer container = createContainer(DataView.SafetyMode.ALL_DATA_CLONED);
+        final DataView nested = container.getView(DataQuery.of("nested")).get();
+        final DataContainer copy = container.copy();
+
+        container.set(FOO, "changed");
+        nested.set(DataQuery.of("bar"), 2);
+        nested.remove(DataQuery.of("array"));
+
+        assertEquals("foo", copy.getString(FOO).get());
+        assertEquals(1, (int) copy.getInt(NESTED_BAR).get());
+        assertTrue(copy.contains(NESTED_ARRAY));
+
+        // Views obtained before the copy still write to the original
+        assertEquals(2, (int) container.getInt(NESTED_BAR).get());
+        assertFalse(container.contains(NESTED_ARRAY));
+    }
+
+    @Test
+    public void testOriginalIsolatedFromCopy() {
+        final DataContainer container = createContainer(DataView.SafetyMode.ALL_DATA_CLONED);
+        final DataContainer copy = container.copy();
+
+        copy.set(NESTED_BAR, 5);
+        copy.createView(DataQuery.of("other"));
+
+        assertEquals(1, (int) container.getInt(NESTED_BAR).get());
+        assertFalse(container.contains(DataQuery.of("other")));
+    }
+
+    @Test
+    public void testSharedArraysAreCloned() {
+        final DataContainer container = createContainer(DataView.SafetyMode.CLONED_ON_SET);
+        final DataContainer copy = container.copy();
+
+        ((int[]) copy.get(NESTED_ARRAY).get())[0] = 42;
+        assertArrayEquals(new int[] {1, 2, 3}, (int[]) container.get(NESTED_ARRAY).get());
+    }
+
+    @Test
+    public void testInsertedViewIsIsolated() {
+        final DataContainer container = createContainer(DataView.SafetyMode.ALL_DATA_CLONED);
+        final DataContainer other = new MemoryDataContainer();
+        other.set(DataQuery.of("inserted"), container);
+
+        container.set(FOO, "changed");
+        assertEquals("foo", other.getString(DataQuery.of("inserted", "foo")).get());
+        assertEquals(DataQuery.of("inserted", "nested"), other.getView(DataQuery.of("inserted", "nested")).get().getCurrentPath());
+    }
+
+    @Test
+    public void testValuesInvalidatedOnChange() {
+        final DataContainer container = new MemoryDataContainer().set(NESTED_BAR, 1);
+        assertEquals(1, container.getValues(true).get(NESTED_BAR));
+
+        container.getView(DataQuery.of("nested")).get().set(DataQuery.of("bar"), 2);
+        assertEquals(2, container.getValues(true).get(NESTED_BAR));
+    }
+
+    @Test
+    public void testReplacedViewDoesNotOverwriteContainer() {
+        final DataContainer container = createContainer(DataView.SafetyMode.ALL_DATA_CLONED);
+        final DataView nested = container.getView(DataQuery.of("nested")).get();
+        container.set(DataQuery.of("nested"), "replaced");
+
+        nested.set(DataQuery.of("bar"), 2);
+        assertEquals(2, (int) nested.getInt(DataQuery.of("bar")).get());
+        assertTrue(nested.contains(DataQuery.of("array")));
+        assertEquals("replaced", container.getString(DataQuery.of("nested")).get());
+    }
+
+    @Test
+    public void testRemovedViewKeepsItsData() {
+        final DataContainer container = createContainer(DataView.SafetyMode.ALL_DATA_CLONED);
+        final DataView nested = container.getView(DataQuery.of("nested")).get();
+        container.remove(DataQuery.of("nested"));
+
+        assertEquals(1, (int) nested.getInt(DataQuery.of("bar")).get());
+        nested.set(DataQuery.of("bar"), 2);
+        nested.createView(DataQuery.of("child")).set(FOO, "foo");
+        assertEquals(2, (int) nested.getInt(DataQuery.of("bar")).get());
+        assertEquals("foo", nested.getString(DataQuery.of("child", "foo")).get());
+        assertFalse(container.contains(DataQuery.of("nested")));
+    }
+
+    @Test
+    public void testRemovedViewIsCopiedOnWrite() {
+        final DataContainer container = createContainer(DataView.SafetyMode.ALL_DATA_CLONED);
+        final DataView nested = container.getView(DataQuery.of("nested")).get();
+        final DataContainer copy = container.copy();
+        container.remove(DataQuery.of("nested"));
+
+        nested.set(DataQuery.of("bar"), 2);
+        assertEquals(1, (int) copy.getInt(NESTED_BAR).get());
+    }
+
+    @Test
+    public void testSetReplacesValueOnPath() {
+        final DataContainer container = createContainer(DataView.SafetyMode.ALL_DATA_CLONED);
+        container.set(DataQuery.of("foo", "bar"), 1);
+        container.createView(DataQuery.of("nested", "bar", "baz"));
+
+        assertEquals(1, (int) container.getInt(DataQuery.of("foo", "bar")).get());
+        assertTrue(container.getView(DataQuery.of("nested", "bar", "baz")).isPresent());
+    }
+
+}
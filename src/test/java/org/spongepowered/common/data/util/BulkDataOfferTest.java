@@ -0,0 +1,124 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spongepowered.api.data.DataHolder;
+import org.spongepowered.api.data.DataTransactionResult;
+import org.spongepowered.api.data.key.Key;
+import org.spongepowered.api.data.value.mutable.Value;
+import org.spongepowered.common.data.ValueProcessor;
+import org.spongepowered.common.data.processor.common.AbstractSpongeValueProcessor;
+import org.spongepowered.lwts.runner.LaunchWrapperTestRunner;
+
+import java.util.List;
+
+@RunWith(LaunchWrapperTestRunner.class)
+public class BulkDataOfferTest {
+
+    @SuppressWarnings("unchecked")
+    private static ValueProcessor<Integer, Value<Integer>> createProcessor(DataHolder supported, DataTransactionResult result) {
+        final ValueProcessor<Integer, Value<Integer>> processor = mock(ValueProcessor.class);
+        when(processor.supports(supported)).thenReturn(true);
+        when(processor.offerToStore(supported, 5)).thenReturn(result);
+        return processor;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testCountsWithoutMergingResults() {
+        final Key<Value<Integer>> key = mock(Key.class);
+        final DataHolder accepted = mock(DataHolder.class);
+        final DataHolder rejected = mock(DataHolder.class);
+        final ValueProcessor<Integer, Value<Integer>> processor = createProcessor(accepted, DataTransactionResult.successNoData());
+
+        final BulkDataOffer.Result result = BulkDataOffer.offerValue(ImmutableList.of(accepted, rejected), key, 5, false, processor);
+        assertEquals(1, result.getSuccessful());
+        assertEquals(1, result.getFailed());
+        assertFalse(result.getMergedResult().isPresent());
+        verify(processor, never()).offerToStore(rejected, 5);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testDelegateProcessorsAreTriedInOrder() {
+        final Key<Value<Integer>> key = mock(Key.class);
+        final DataHolder holder = mock(DataHolder.class);
+        final ValueProcessor<Integer, Value<Integer>> failing = createProcessor(holder, DataTransactionResult.failNoData());
+        final ValueProcessor<Integer, Value<Integer>> succeeding = createProcessor(holder, DataTransactionResult.successNoData());
+        final ValueProcessor<Integer, Value<Integer>> unused = createProcessor(holder, DataTransactionResult.successNoData());
+        final ValueProcessorDelegate<Integer, Value<Integer>> delegate = new ValueProcessorDelegate<>(key, ImmutableList.of(failing, succeeding, unused));
+
+        final BulkDataOffer.Result result = BulkDataOffer.offerValue(ImmutableList.of(holder), key, 5, true, delegate);
+        assertEquals(1, result.getSuccessful());
+        assertTrue(result.getMergedResult().get().isSuccessful());
+        verify(failing).offerToStore(holder, 5);
+        verify(succeeding).offerToStore(holder, 5);
+        verify(unused, never()).offerToStore(any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testMergedFailureDoesNotRetryProcessors() {
+        final Key<Value<Integer>> key = mock(Key.class);
+        final DataHolder accepted = mock(DataHolder.class);
+        final DataHolder rejected = mock(DataHolder.class);
+        final ValueProcessor<Integer, Value<Integer>> processor = createProcessor(accepted, DataTransactionResult.successNoData());
+
+        final BulkDataOffer.Result result = BulkDataOffer.offerValue(ImmutableList.of(accepted, rejected), key, 5, true, processor);
+        assertEquals(1, result.getSuccessful());
+        assertEquals(1, result.getFailed());
+        final DataTransactionResult merged = result.getMergedResult().get();
+        assertEquals(1, merged.getRejectedData().size());
+        verify(processor).supports(rejected);
+        verify(processor, never()).offerToStore(rejected, 5);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testCandidatesAreFilteredByHolderClass() {
+        final AbstractSpongeValueProcessor<DataHolder, Integer, Value<Integer>> matching = mock(AbstractSpongeValueProcessor.class);
+        when(matching.supportsClass(DataHolder.class)).thenReturn(true);
+        final AbstractSpongeValueProcessor<DataHolder, Integer, Value<Integer>> other = mock(AbstractSpongeValueProcessor.class);
+        when(other.supportsClass(DataHolder.class)).thenReturn(false);
+        final ValueProcessor<Integer, Value<Integer>> unknown = mock(ValueProcessor.class);
+
+        final List<ValueProcessor<Integer, Value<Integer>>> candidates =
+            BulkDataOffer.getCandidates(ImmutableList.of(other, unknown, matching), DataHolder.class);
+        assertEquals(ImmutableList.of(unknown, matching), candidates);
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.text;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import net.minecraft.util.text.ITextComponent;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spongepowered.api.text.Text;
+import org.spongepowered.api.text.action.TextActions;
+import org.spongepowered.api.text.format.TextColors;
+import org.spongepowered.api.text.format.TextStyles;
+import org.spongepowered.api.text.translation.FixedTranslation;
+import org.spongepowered.common.bridge.api.text.TextBridge;
+import org.spongepowered.lwts.runner.LaunchWrapperTestRunner;
+
+@RunWith(LaunchWrapperTestRunner.class)
+public class JsonSerializerTest {
+
+    private static void assertSplicedJson(Text text) {
+        assertThat(((TextBridge) text).bridge$toJson(), is(ITextComponent.Serializer.componentToJson(SpongeTexts.toComponent(text))));
+    }
+
+    @Test
+    public void testPlainText() {
+        assertSplicedJson(Text.of("test"));
+    }
+
+    @Test
+    public void testEmptyText() {
+        assertSplicedJson(Text.EMPTY);
+    }
+
+    @Test
+    public void testTextWithChildren() {
+        assertSplicedJson(Text.of("first", "second", "third"));
+    }
+
+    @Test
+    public void testEmptyTextWithChildren() {
+        assertSplicedJson(Text.builder().append(Text.of("first"), Text.of("second")).build());
+    }
+
+    @Test
+    public void testNestedText() {
+        final Text inner = Text.builder("second").append(Text.of("third"), Text.EMPTY).build();
+        assertSplicedJson(Text.builder("first").append(inner, Text.of("fourth")).build());
+    }
+
+    @Test
+    public void testStyledTextWithChildren() {
+        assertSplicedJson(Text.builder("first").color(TextColors.RED).style(TextStyles.BOLD)
+                .onHover(TextActions.showText(Text.of("hover"))).append(Text.of("second")).build());
+    }
+
+    @Test
+    public void testTranslatableTextWithChildren() {
+        assertSplicedJson(Text.builder(new FixedTranslation("first %s"), Text.of("argument")).append(Text.of("second")).build());
+        assertSplicedJson(Text.builder(new FixedTranslation("first %s"), Text.of("argument")).color(TextColors.GOLD)
+                .append(Text.of("second")).build());
+    }
+
+    @Test
+    public void testSharedChildren() {
+        final Text prefix = Text.of("[", "prefix", "] ");
+        assertSplicedJson(Text.of(prefix, "first"));
+        assertSplicedJson(Text.of(Text.of("[", "prefix", "] "), "second"));
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.text.selector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.monster.EntityZombie;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.IChunkProvider;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spongepowered.lwts.runner.LaunchWrapperTestRunner;
+
+import java.util.List;
+
+@RunWith(LaunchWrapperTestRunner.class)
+public class SelectorResolverTest {
+
+    private static Entity createZombie(double x, double y, double z) {
+        final EntityZombie zombie = mock(EntityZombie.class);
+        when(zombie.getEntityBoundingBox()).thenReturn(new AxisAlignedBB(x - 0.3D, y, z - 0.3D, x + 0.3D, y + 1.95D, z + 0.3D));
+        return zombie;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testRadiusSelectsMoreThanCollisionLimit() {
+        final ClassInheritanceMultiMap<Entity>[] entityLists = new ClassInheritanceMultiMap[16];
+        for (int i = 0; i < entityLists.length; i++) {
+            entityLists[i] = new ClassInheritanceMultiMap<>(Entity.class);
+        }
+        // More than the default max entity collisions of 8
+        for (int i = 0; i < 12; i++) {
+            entityLists[4].add(createZombie(i + 0.5D, 64.0D, 8.5D));
+        }
+        final Entity outside = createZombie(15.5D, 64.0D, 15.5D);
+        entityLists[4].add(outside);
+
+        final Chunk chunk = mock(Chunk.class);
+        when(chunk.getEntityLists()).thenReturn(entityLists);
+        final IChunkProvider chunkProvider = mock(IChunkProvider.class);
+        when(chunkProvider.getLoadedChunk(0, 0)).thenReturn(chunk);
+
+        final AxisAlignedBB box = new AxisAlignedBB(0.0D, 60.0D, 0.0D, 12.0D, 70.0D, 12.0D);
+        final List<org.spongepowered.api.entity.Entity> entities = SelectorResolver.getEntitiesWithin(chunkProvider, EntityZombie.class, box, 2.0D);
+        assertEquals(12, entities.size());
+        assertFalse(entities.contains(outside));
+    }
+
+}
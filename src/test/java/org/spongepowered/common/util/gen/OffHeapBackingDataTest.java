@@ -0,0 +1,85 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+import org.spongepowered.common.util.gen.ArrayMutableBlockBuffer.BackingData;
+import org.spongepowered.common.util.gen.ArrayMutableBlockBuffer.PackedBackingData;
+
+import java.util.Random;
+
+public class OffHeapBackingDataTest {
+
+    private static final int SIZE = 4099;
+
+    private static void assertMatchesPacked(boolean mapped, int highestValue) {
+        final Random random = new Random(highestValue);
+        final PackedBackingData packed = new PackedBackingData(SIZE, highestValue);
+        final OffHeapBackingData offHeap = OffHeapBackingData.allocate(SIZE, highestValue, mapped);
+        assertEquals(packed.getMax(), offHeap.getMax());
+        for (int i = 0; i < SIZE * 2; i++) {
+            final int index = random.nextInt(SIZE);
+            final int value = random.nextInt(highestValue + 1);
+            packed.set(index, value);
+            offHeap.set(index, value);
+        }
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(packed.get(i), offHeap.get(i));
+        }
+    }
+
+    @Test
+    public void testDirectMatchesPacked() {
+        for (int highestValue : new int[] {1, 5, 31, 200, 4095, 65535}) {
+            assertMatchesPacked(false, highestValue);
+        }
+    }
+
+    @Test
+    public void testMappedMatchesPacked() {
+        for (int highestValue : new int[] {1, 7, 1000, 65535}) {
+            assertMatchesPacked(true, highestValue);
+        }
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        final OffHeapBackingData data = OffHeapBackingData.allocate(SIZE, 300, false);
+        for (int i = 0; i < SIZE; i++) {
+            data.set(i, i % 301);
+        }
+        final BackingData copy = data.copyOf();
+        assertEquals(data, copy);
+        assertEquals(data.hashCode(), copy.hashCode());
+        copy.set(17, 3);
+        assertEquals(17, data.get(17));
+        assertEquals(3, copy.get(17));
+        assertNotEquals(data, copy);
+    }
+
+}
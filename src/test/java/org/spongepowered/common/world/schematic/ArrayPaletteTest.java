@@ -0,0 +1,112 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.schematic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Test;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.world.schematic.PaletteType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class ArrayPaletteTest {
+
+    @SuppressWarnings("unchecked")
+    private static ArrayPalette<BlockState> createPalette() {
+        return new ArrayPalette<>(mock(PaletteType.class), 4);
+    }
+
+    private static List<BlockState> createStates(int count) {
+        final List<BlockState> states = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            states.add(mock(BlockState.class));
+        }
+        return states;
+    }
+
+    @Test
+    public void testAssignsSequentialIds() {
+        final ArrayPalette<BlockState> palette = createPalette();
+        final List<BlockState> states = createStates(500);
+        for (int i = 0; i < states.size(); i++) {
+            assertEquals(i, palette.getOrAssign(states.get(i)));
+        }
+        for (int i = 0; i < states.size(); i++) {
+            assertEquals(i, palette.getOrAssign(states.get(i)));
+            assertEquals(Optional.of(states.get(i)), palette.get(i));
+        }
+        assertEquals(states.size() - 1, palette.getHighestId());
+        assertEquals(states, new ArrayList<>(palette.getEntries()));
+    }
+
+    @Test
+    public void testRemoveKeepsOtherEntries() {
+        final ArrayPalette<BlockState> palette = createPalette();
+        final List<BlockState> states = createStates(200);
+        states.forEach(palette::getOrAssign);
+        for (int i = 0; i < states.size(); i += 3) {
+            assertTrue(palette.remove(states.get(i)));
+            assertFalse(palette.remove(states.get(i)));
+        }
+        for (int i = 0; i < states.size(); i++) {
+            if (i % 3 == 0) {
+                assertEquals(-1, palette.getId(states.get(i)));
+                assertFalse(palette.get(i).isPresent());
+            } else {
+                assertEquals(i, palette.getId(states.get(i)));
+            }
+        }
+        // Freed ids are reused first
+        assertEquals(0, palette.getOrAssign(mock(BlockState.class)));
+    }
+
+    @Test
+    public void testAssignReplacesEntry() {
+        final ArrayPalette<BlockState> palette = createPalette();
+        final List<BlockState> states = createStates(3);
+        palette.assign(states.get(0), 0);
+        palette.assign(states.get(1), 10);
+        palette.assign(states.get(1), 10);
+        assertEquals(10, palette.getId(states.get(1)));
+        assertEquals(10, palette.getHighestId());
+        palette.assign(states.get(2), 10);
+        assertEquals(-1, palette.getId(states.get(1)));
+        assertEquals(Optional.of(states.get(2)), palette.get(10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAssignRejectsDuplicateEntry() {
+        final ArrayPalette<BlockState> palette = createPalette();
+        final BlockState state = mock(BlockState.class);
+        palette.assign(state, 0);
+        palette.assign(state, 5);
+    }
+}